@@ -0,0 +1,140 @@
+package com.gestioncommande.benchmark;
+
+import com.gestioncommande.dao.ArticleDAO;
+import com.gestioncommande.dao.CompteursStock;
+import com.gestioncommande.dao.DatabaseConnection;
+import com.gestioncommande.entities.Article;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compare, sur un article « chaud » décrémenté par de nombreux threads à la fois, les deux
+ * manières de décompter le stock d'une validation :
+ * <ul>
+ *   <li>une requête UPDATE conditionnelle par commande (ArticleDAO.decrementerStock), qui attend
+ *       le verrou de la ligne de l'article ;</li>
+ *   <li>le décompte en mémoire (CompteursStock.decrementer puis confirmer), suivi de l'écriture
+ *       groupée des mouvements, mesurée à part.</li>
+ * </ul>
+ * Seul le décompte du stock est mesuré : ni la commande ni stock_en_attente ne sont modifiées
+ * (voir ValidationDebitBenchmark pour la validation complète).
+ *
+ * Usage : DecompteStockBenchmark [threads] [decomptes] [stock]
+ *   threads   : nombre de threads (16 par défaut)
+ *   decomptes : nombre de décomptes d'une unité par méthode (2000 par défaut)
+ *   stock     : stock initial de chaque article (égal au nombre de décomptes par défaut)
+ *
+ * Le benchmark crée ses propres articles : il doit être lancé sur une base de test.
+ */
+public class DecompteStockBenchmark {
+
+    /** Décompte d'une unité : true si le stock a été décrémenté */
+    private interface Decompte {
+        boolean decompter(int index) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int nombreDecomptes = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int stockInitial = args.length > 2 ? Integer.parseInt(args[2]) : nombreDecomptes;
+
+        ArticleDAO articleDAO = new ArticleDAO();
+        CompteursStock compteurs = new CompteursStock();
+
+        Article articleRequetes = creerArticle(articleDAO, "Article benchmark décompte (UPDATE)", stockInitial);
+        Article articleMemoire = creerArticle(articleDAO, "Article benchmark décompte (mémoire)", stockInitial);
+        System.out.printf("Préparation : articles %d et %d (stock %d), %d décomptes, %d threads%n",
+                articleRequetes.getId(), articleMemoire.getId(), stockInitial, nombreDecomptes, threads);
+
+        // 1. Une requête UPDATE conditionnelle par commande
+        long decomptesRequetes = executer("UPDATE par commande", threads, nombreDecomptes,
+                index -> articleDAO.decrementerStock(articleRequetes.getId(), 1));
+        verifier(articleDAO, articleRequetes, stockInitial - decomptesRequetes);
+
+        // 2. Décompte en mémoire, puis écriture groupée des mouvements
+        int articleId = articleMemoire.getId();
+        compteurs.preparer(articleId);
+        long decomptesMemoire = executer("compteurs en mémoire", threads, nombreDecomptes, index -> {
+            if (compteurs.decrementer(articleId, 1, 0) != CompteursStock.ResultatDecompte.DECOMPTE) {
+                return false;
+            }
+            // Pas de commande réelle : aucun mouvement de stock_en_attente à supprimer
+            compteurs.confirmer(articleId, -1 - index, 1, 0);
+            return true;
+        });
+        long debut = System.nanoTime();
+        int ecrits = compteurs.ecrire();
+        System.out.printf("  écriture groupée : %d mouvement(s) restant(s) écrit(s) en %.2f ms%n",
+                ecrits, (System.nanoTime() - debut) / 1e6);
+        verifier(articleDAO, articleMemoire, stockInitial - decomptesMemoire);
+
+        DatabaseConnection.closeConnection();
+    }
+
+    private static Article creerArticle(ArticleDAO articleDAO, String designation, int stock) {
+        Article article = new Article(designation, "Benchmark", new BigDecimal("9.99"), stock, 0,
+                "Article créé par DecompteStockBenchmark");
+        if (!articleDAO.ajouter(article)) {
+            throw new IllegalStateException("Impossible de créer l'article de benchmark");
+        }
+        return article;
+    }
+
+    /**
+     * Exécute les décomptes sur tous les threads et affiche débit et durée moyenne d'un décompte
+     * @return long le nombre de décomptes acceptés
+     */
+    private static long executer(String nom, int threads, int nombreDecomptes, Decompte decompte)
+            throws InterruptedException {
+        AtomicInteger suivant = new AtomicInteger();
+        AtomicLong acceptes = new AtomicLong();
+        AtomicLong refuses = new AtomicLong();
+        AtomicLong erreurs = new AtomicLong();
+        AtomicLong nanosCumules = new AtomicLong();
+        CountDownLatch depart = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    depart.await();
+                    int index;
+                    while ((index = suivant.getAndIncrement()) < nombreDecomptes) {
+                        long debut = System.nanoTime();
+                        try {
+                            (decompte.decompter(index) ? acceptes : refuses).incrementAndGet();
+                        } catch (Exception e) {
+                            erreurs.incrementAndGet();
+                        }
+                        nanosCumules.addAndGet(System.nanoTime() - debut);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fin.countDown();
+                }
+            }, "decompte-" + t).start();
+        }
+
+        long debut = System.nanoTime();
+        depart.countDown();
+        fin.await();
+        double secondes = (System.nanoTime() - debut) / 1e9;
+
+        System.out.printf("%s : %.3f s, débit : %.0f décomptes/s, durée moyenne : %.0f ns%n",
+                nom, secondes, nombreDecomptes / secondes, (double) nanosCumules.get() / nombreDecomptes);
+        System.out.printf("  acceptés %d, refusés %d, erreurs %d%n", acceptes.get(), refuses.get(), erreurs.get());
+        return acceptes.get();
+    }
+
+    /**
+     * Contrôle de cohérence : le stock en base doit refléter exactement les décomptes acceptés
+     */
+    private static void verifier(ArticleDAO articleDAO, Article article, long stockAttendu) {
+        int stockFinal = articleDAO.trouverParIdSansCache(article.getId()).getStock();
+        System.out.printf("  stock final : %d (attendu %d) %s%n", stockFinal, stockAttendu,
+                stockFinal == stockAttendu ? "OK" : "INCOHÉRENT");
+    }
+}
@@ -0,0 +1,71 @@
+package com.gestioncommande.benchmark;
+
+import com.gestioncommande.dao.ArticleDAO;
+import com.gestioncommande.dao.ClientDAO;
+import com.gestioncommande.dao.CommandeDAO;
+import com.gestioncommande.dao.DatabaseConnection;
+import com.gestioncommande.entities.Article;
+import com.gestioncommande.entities.Client;
+import com.gestioncommande.entities.Commande;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compare le débit d'insertion de commandes ligne à ligne (CommandeDAO.ajouter)
+ * et en lot (CommandeDAO.ajouterLot).
+ *
+ * Usage : InsertionLotBenchmark [commandes] [tailleLot]
+ *   commandes : nombre de commandes insérées par chaque méthode (10000 par défaut)
+ *   tailleLot : taille des paquets envoyés par executeBatch (500 par défaut)
+ *
+ * Les commandes insérées portent l'observation « benchmark » :
+ * le benchmark doit être lancé sur une base de test.
+ */
+public class InsertionLotBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int nombreCommandes = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int tailleLot = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        CommandeDAO commandeDAO = new CommandeDAO();
+        Client client = new ClientDAO().listerActifs().stream().findFirst()
+                .orElseThrow(() -> new IllegalStateException("Aucun client actif dans la base"));
+        Article article = new ArticleDAO().listerActifs().stream().findFirst()
+                .orElseThrow(() -> new IllegalStateException("Aucun article actif dans la base"));
+
+        // Insertion ligne à ligne : une requête et une lecture de clé par commande
+        List<Commande> unitaires = genererCommandes(nombreCommandes, client, article);
+        long debut = System.nanoTime();
+        for (Commande commande : unitaires) {
+            commandeDAO.ajouter(commande);
+        }
+        afficher("ajouter (ligne à ligne)", nombreCommandes, System.nanoTime() - debut);
+
+        // Insertion en lot
+        List<Commande> lot = genererCommandes(nombreCommandes, client, article);
+        debut = System.nanoTime();
+        int inserees = commandeDAO.ajouterLot(lot, tailleLot);
+        afficher("ajouterLot (paquets de " + tailleLot + ")", inserees, System.nanoTime() - debut);
+
+        long sansId = lot.stream().filter(commande -> commande.getId() == 0).count();
+        System.out.println("Commandes du lot sans identifiant généré : " + sansId);
+
+        DatabaseConnection.closeConnection();
+    }
+
+    private static List<Commande> genererCommandes(int nombre, Client client, Article article) {
+        List<Commande> commandes = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            Commande commande = new Commande(client.getId(), article.getId(), 1 + i % 5, article.getPrix());
+            commande.setObservations("benchmark");
+            commandes.add(commande);
+        }
+        return commandes;
+    }
+
+    private static void afficher(String methode, int lignes, long dureeNanos) {
+        double secondes = dureeNanos / 1e9;
+        System.out.printf("%-32s %8d lignes en %6.2f s : %10.0f lignes/s%n", methode, lignes, secondes, lignes / secondes);
+    }
+}
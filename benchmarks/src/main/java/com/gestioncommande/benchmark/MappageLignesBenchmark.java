@@ -0,0 +1,163 @@
+package com.gestioncommande.benchmark;
+
+import com.gestioncommande.dao.CommandeDAO;
+import com.gestioncommande.dao.DatabaseConnection;
+import com.gestioncommande.dao.MappeurLignes;
+import com.gestioncommande.entities.Commande;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+/**
+ * Mesure le coût de conversion d'une ligne de commande en objet : lecture par nom de colonne
+ * (resultSet.getXxx("colonne"), ancienne méthode creerCommandeDepuisResultSet) comparée à la
+ * lecture par position de CommandeDAO.MAPPEUR.
+ *
+ * Usage : MappageLignesBenchmark [lignes] [base]
+ *   lignes : nombre de lignes converties à chaque itération (100000 par défaut)
+ *   base   : si présent, lit les lignes dans la table commandes de la base configurée
+ *            (ResultSet du driver) au lieu d'un ResultSet en mémoire (CachedRowSet)
+ */
+public class MappageLignesBenchmark {
+
+    private static final String[] COLONNES = {
+        "id", "client_id", "article_id", "quantite", "prix_unitaire", "montant_total",
+        "date_commande", "type_commande", "statut", "observations", "date_validation"
+    };
+
+    private static final int[] TYPES = {
+        Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.DECIMAL, Types.DECIMAL,
+        Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP
+    };
+
+    private static final int ITERATIONS_CHAUFFE = 5;
+    private static final int ITERATIONS = 10;
+
+    /** Empêche le compilateur JIT d'éliminer les conversions dont le résultat n'est pas utilisé */
+    private static long puits;
+
+    public static void main(String[] args) throws Exception {
+        int nombreLignes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        boolean base = args.length > 1 && "base".equals(args[1]);
+
+        if (base) {
+            new CommandeDAO();
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(
+                         "SELECT " + CommandeDAO.MAPPEUR.colonnes() + " FROM commandes LIMIT ?",
+                         ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setInt(1, nombreLignes);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    mesurer("driver MySQL", resultSet);
+                }
+            }
+            DatabaseConnection.closeConnection();
+        } else {
+            mesurer("CachedRowSet", genererLignes(nombreLignes));
+        }
+    }
+
+    private static void mesurer(String source, ResultSet resultSet) throws SQLException {
+        for (int i = 0; i < ITERATIONS_CHAUFFE; i++) {
+            lireParNom(resultSet);
+            lireParPosition(resultSet);
+        }
+        long dureeParNom = 0;
+        long dureeParPosition = 0;
+        int lignes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long debut = System.nanoTime();
+            lignes = lireParNom(resultSet);
+            dureeParNom += System.nanoTime() - debut;
+
+            debut = System.nanoTime();
+            lireParPosition(resultSet);
+            dureeParPosition += System.nanoTime() - debut;
+        }
+        System.out.printf("Source : %s, %d lignes par itération%n", source, lignes);
+        System.out.printf("%-22s %10.1f ns/ligne%n", "par nom de colonne", dureeParNom / (double) ITERATIONS / lignes);
+        System.out.printf("%-22s %10.1f ns/ligne%n", "par position", dureeParPosition / (double) ITERATIONS / lignes);
+        System.out.println("(" + puits + ")");
+    }
+
+    /**
+     * Conversion par nom de colonne, telle que la faisait creerCommandeDepuisResultSet
+     */
+    private static int lireParNom(ResultSet resultSet) throws SQLException {
+        int lignes = 0;
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            Commande commande = new Commande();
+            commande.setId(resultSet.getInt("id"));
+            commande.setClientId(resultSet.getInt("client_id"));
+            commande.setArticleId(resultSet.getInt("article_id"));
+            commande.setQuantite(resultSet.getInt("quantite"));
+            commande.setPrixUnitaire(resultSet.getBigDecimal("prix_unitaire"));
+            commande.setMontantTotal(resultSet.getBigDecimal("montant_total"));
+            commande.setDateCommande(resultSet.getTimestamp("date_commande"));
+            commande.setTypeCommande(resultSet.getString("type_commande"));
+            commande.setStatut(resultSet.getString("statut"));
+            commande.setObservations(resultSet.getString("observations"));
+            commande.setDateValidation(resultSet.getTimestamp("date_validation"));
+            puits += commande.getId();
+            lignes++;
+        }
+        return lignes;
+    }
+
+    /**
+     * Conversion par position, colonnes résolues à la première lecture puis réutilisées
+     */
+    private static int lireParPosition(ResultSet resultSet) throws SQLException {
+        int lignes = 0;
+        resultSet.beforeFirst();
+        MappeurLignes.Lignes<Commande> conversion = CommandeDAO.MAPPEUR.preparer("commandes", resultSet);
+        while (resultSet.next()) {
+            puits += conversion.lire(resultSet).getId();
+            lignes++;
+        }
+        return lignes;
+    }
+
+    /**
+     * ResultSet en mémoire reproduisant les colonnes de la table commandes
+     */
+    private static CachedRowSet genererLignes(int nombre) throws SQLException {
+        RowSetMetaDataImpl metaDonnees = new RowSetMetaDataImpl();
+        metaDonnees.setColumnCount(COLONNES.length);
+        for (int i = 0; i < COLONNES.length; i++) {
+            metaDonnees.setColumnName(i + 1, COLONNES[i]);
+            metaDonnees.setColumnLabel(i + 1, COLONNES[i]);
+            metaDonnees.setColumnType(i + 1, TYPES[i]);
+        }
+
+        CachedRowSet lignes = RowSetProvider.newFactory().createCachedRowSet();
+        lignes.setMetaData(metaDonnees);
+        Timestamp maintenant = new Timestamp(System.currentTimeMillis());
+        for (int i = 1; i <= nombre; i++) {
+            lignes.moveToInsertRow();
+            lignes.updateInt(1, i);
+            lignes.updateInt(2, 1 + i % 100);
+            lignes.updateInt(3, 1 + i % 500);
+            lignes.updateInt(4, 1 + i % 5);
+            lignes.updateBigDecimal(5, BigDecimal.valueOf(1999, 2));
+            lignes.updateBigDecimal(6, BigDecimal.valueOf(1999L * (1 + i % 5), 2));
+            lignes.updateTimestamp(7, maintenant);
+            lignes.updateString(8, "en_cours");
+            lignes.updateString(9, "en_attente");
+            lignes.updateString(10, "benchmark");
+            lignes.updateNull(11);
+            lignes.insertRow();
+        }
+        lignes.moveToCurrentRow();
+        return lignes;
+    }
+}
@@ -0,0 +1,150 @@
+package com.gestioncommande.benchmark;
+
+import com.gestioncommande.dao.ArticleDAO;
+import com.gestioncommande.dao.DatabaseConnection;
+import com.gestioncommande.entities.Article;
+import com.gestioncommande.recherche.IndexTrigrammes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compare la recherche d'articles par l'index de trigrammes et par un parcours complet
+ * (ce que fait MySQL pour designation LIKE '%x%' OR categorie LIKE '%x%').
+ *
+ * Usage : RechercheIndexBenchmark [articles] [base]
+ *   articles : nombre d'articles générés en mémoire (1000000 par défaut)
+ *   base     : si présent, compare aussi ArticleDAO.rechercher (index) et
+ *              ArticleDAO.rechercherEnBase (LIKE) sur les articles de la base configurée
+ */
+public class RechercheIndexBenchmark {
+
+    private static final String[] MOTS = {
+        "clavier", "souris", "écran", "câble", "chargeur", "casque", "imprimante", "routeur",
+        "disque", "mémoire", "processeur", "carte", "batterie", "adaptateur", "support", "station"
+    };
+
+    private static final String[] QUALIFICATIFS = {
+        "sans fil", "gamer", "pro", "compact", "usb-c", "hdmi", "bluetooth", "ergonomique",
+        "rétroéclairé", "portable", "externe", "rapide", "silencieux", "premium"
+    };
+
+    private static final String[] CATEGORIES = {
+        "Informatique", "Téléphonie", "Accessoires", "Réseau", "Stockage", "Audio", "Bureautique"
+    };
+
+    /**
+     * Critères peu sélectifs (mots du vocabulaire, des dizaines de milliers de résultats),
+     * puis sélectifs (fragment de référence, comme une recherche précise d'article).
+     */
+    private static final String[] CRITERES = {"clavier", "usb", "ergonomique", "réseau", "cas", "2n9c", "xyz"};
+
+    private static final int REPETITIONS = 20;
+
+    /** Nombre de résultats demandés pour la recherche limitée (une page d'affichage) */
+    private static final int LIMITE = 50;
+
+    public static void main(String[] args) throws Exception {
+        int nombreArticles = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        boolean base = args.length > 1 && "base".equals(args[1]);
+
+        List<Article> articles = genererArticles(nombreArticles);
+        IndexTrigrammes<Article> index = new IndexTrigrammes<>("benchmark",
+                article -> new String[] {article.getDesignation(), article.getCategorie()},
+                Article::getId, Article::new, Comparator.comparing(Article::getDesignation));
+
+        long debut = System.nanoTime();
+        index.chargerSiNecessaire(() -> articles);
+        System.out.printf("Construction de l'index : %d articles en %.2f s%n%n",
+                nombreArticles, (System.nanoTime() - debut) / 1e9);
+
+        System.out.printf("%-12s %10s %14s %14s %14s%n", "critère", "résultats",
+                "index (ms)", "top " + LIMITE + " (ms)", "parcours (ms)");
+        for (String critere : CRITERES) {
+            int trouves = 0;
+            long dureeIndex = 0;
+            long dureeLimitee = 0;
+            long dureeParcours = 0;
+            for (int i = 0; i < REPETITIONS; i++) {
+                debut = System.nanoTime();
+                trouves = index.rechercher(critere, ids -> new ArrayList<>()).size();
+                dureeIndex += System.nanoTime() - debut;
+
+                debut = System.nanoTime();
+                index.rechercher(critere, LIMITE, ids -> new ArrayList<>());
+                dureeLimitee += System.nanoTime() - debut;
+
+                debut = System.nanoTime();
+                parcourir(articles, critere);
+                dureeParcours += System.nanoTime() - debut;
+            }
+            System.out.printf("%-12s %10d %14.3f %14.3f %14.3f%n", critere, trouves,
+                    dureeIndex / 1e6 / REPETITIONS, dureeLimitee / 1e6 / REPETITIONS,
+                    dureeParcours / 1e6 / REPETITIONS);
+        }
+
+        if (base) {
+            comparerAvecLaBase();
+        }
+    }
+
+    /**
+     * Compare les deux chemins d'ArticleDAO sur les articles réellement présents en base.
+     */
+    private static void comparerAvecLaBase() throws Exception {
+        ArticleDAO articleDAO = new ArticleDAO();
+        articleDAO.chargerIndexRecherche();
+
+        System.out.printf("%n%-12s %10s %14s %14s%n", "critère", "résultats", "index (ms)", "LIKE (ms)");
+        for (String critere : CRITERES) {
+            int trouves = 0;
+            long dureeIndex = 0;
+            long dureeLike = 0;
+            for (int i = 0; i < REPETITIONS; i++) {
+                long debut = System.nanoTime();
+                trouves = articleDAO.rechercher(critere).size();
+                dureeIndex += System.nanoTime() - debut;
+
+                debut = System.nanoTime();
+                articleDAO.rechercherEnBase(critere);
+                dureeLike += System.nanoTime() - debut;
+            }
+            System.out.printf("%-12s %10d %14.3f %14.3f%n", critere, trouves,
+                    dureeIndex / 1e6 / REPETITIONS, dureeLike / 1e6 / REPETITIONS);
+        }
+        DatabaseConnection.closeConnection();
+    }
+
+    /**
+     * Parcours complet, équivalent en mémoire d'un LIKE '%x%' sans index utilisable.
+     */
+    private static List<Article> parcourir(List<Article> articles, String critere) {
+        String recherche = critere.toLowerCase(Locale.ROOT);
+        List<Article> resultat = new ArrayList<>();
+        for (Article article : articles) {
+            if (article.getDesignation().toLowerCase(Locale.ROOT).contains(recherche)
+                    || article.getCategorie().toLowerCase(Locale.ROOT).contains(recherche)) {
+                resultat.add(article);
+            }
+        }
+        return resultat;
+    }
+
+    private static List<Article> genererArticles(int nombre) {
+        Random random = new Random(42);
+        List<Article> articles = new ArrayList<>(nombre);
+        for (int i = 1; i <= nombre; i++) {
+            String designation = MOTS[random.nextInt(MOTS.length)] + " "
+                    + QUALIFICATIFS[random.nextInt(QUALIFICATIFS.length)] + " " + Integer.toString(i, 36);
+            Article article = new Article(designation, CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    BigDecimal.valueOf(1 + random.nextInt(1000)), random.nextInt(100), 5, null);
+            article.setId(i);
+            articles.add(article);
+        }
+        return articles;
+    }
+}
@@ -0,0 +1,108 @@
+package com.gestioncommande.benchmark;
+
+import com.gestioncommande.dao.ArticleDAO;
+import com.gestioncommande.dao.ClientDAO;
+import com.gestioncommande.dao.CommandeDAO;
+import com.gestioncommande.dao.DatabaseConnection;
+import com.gestioncommande.entities.Article;
+import com.gestioncommande.entities.Client;
+import com.gestioncommande.entities.Commande;
+import com.gestioncommande.service.CommandeService;
+import com.gestioncommande.service.CommandeService.ResultatValidation;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mesure le débit de validation de commandes lorsque de nombreux threads
+ * valident en parallèle des commandes portant toutes sur le même article.
+ *
+ * Usage : ValidationDebitBenchmark [threads] [commandes] [stock]
+ *   threads   : nombre de threads de validation (16 par défaut)
+ *   commandes : nombre de commandes à valider (2000 par défaut)
+ *   stock     : stock initial de l'article (égal au nombre de commandes par défaut)
+ *
+ * Le benchmark crée son propre article et ses commandes (observations « benchmark ») :
+ * il doit être lancé sur une base de test.
+ */
+public class ValidationDebitBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int nombreCommandes = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int stockInitial = args.length > 2 ? Integer.parseInt(args[2]) : nombreCommandes;
+
+        ArticleDAO articleDAO = new ArticleDAO();
+        ClientDAO clientDAO = new ClientDAO();
+        CommandeDAO commandeDAO = new CommandeDAO();
+        CommandeService commandeService = new CommandeService();
+
+        // Préparation : un article « chaud » et des commandes d'une unité chacune
+        Article article = new Article("Article benchmark validation", "Benchmark",
+                new BigDecimal("9.99"), stockInitial, 0, "Article créé par ValidationDebitBenchmark");
+        if (!articleDAO.ajouter(article)) {
+            throw new IllegalStateException("Impossible de créer l'article de benchmark");
+        }
+        Client client = clientDAO.listerActifs().stream().findFirst()
+                .orElseThrow(() -> new IllegalStateException("Aucun client actif dans la base"));
+
+        int[] ids = new int[nombreCommandes];
+        for (int i = 0; i < nombreCommandes; i++) {
+            Commande commande = new Commande(client.getId(), article.getId(), 1, article.getPrix());
+            commande.setObservations("benchmark");
+            if (!commandeDAO.ajouter(commande)) {
+                throw new IllegalStateException("Impossible de créer la commande de benchmark n°" + i);
+            }
+            ids[i] = commande.getId();
+        }
+        System.out.printf("Préparation : article %d (stock %d), %d commandes, %d threads%n",
+                article.getId(), stockInitial, nombreCommandes, threads);
+
+        // Exécution : chaque thread prend la commande suivante jusqu'à épuisement
+        AtomicInteger suivante = new AtomicInteger();
+        Map<ResultatValidation, AtomicLong> resultats = new EnumMap<>(ResultatValidation.class);
+        for (ResultatValidation resultat : ResultatValidation.values()) {
+            resultats.put(resultat, new AtomicLong());
+        }
+        CountDownLatch depart = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    depart.await();
+                    int index;
+                    while ((index = suivante.getAndIncrement()) < ids.length) {
+                        resultats.get(commandeService.validerCommande(ids[index])).incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    fin.countDown();
+                }
+            }, "validation-" + t).start();
+        }
+
+        long debut = System.nanoTime();
+        depart.countDown();
+        fin.await();
+        double secondes = (System.nanoTime() - debut) / 1e9;
+
+        // Résultats et contrôle de cohérence du stock
+        long validees = resultats.get(ResultatValidation.VALIDEE).get();
+        int stockFinal = articleDAO.trouverParId(article.getId()).getStock();
+        System.out.printf("Durée : %.2f s, débit : %.0f validations/s%n", secondes, nombreCommandes / secondes);
+        resultats.forEach((resultat, nombre) -> {
+            if (nombre.get() > 0) {
+                System.out.printf("  %-18s %d%n", resultat, nombre.get());
+            }
+        });
+        System.out.printf("Stock final : %d (attendu %d) %s%n", stockFinal, stockInitial - validees,
+                stockFinal == stockInitial - validees ? "OK" : "INCOHÉRENT");
+
+        DatabaseConnection.closeConnection();
+    }
+}
@@ -0,0 +1,58 @@
+package com.gestioncommande.benchmark.jmh;
+
+import com.gestioncommande.entities.Commande;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction d'une commande et calcul de son montant total (quantité × prix unitaire,
+ * en BigDecimal), chemin suivi à chaque saisie et à chaque modification de commande.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandeBenchmark {
+
+    private BigDecimal prix;
+    private Commande commande;
+    private int quantite;
+
+    @Setup
+    public void preparer() {
+        prix = new BigDecimal("19.99");
+        commande = new Commande(1, 1, 1, prix);
+    }
+
+    @Benchmark
+    public Commande construire() {
+        return new Commande(1, 2, 3, prix);
+    }
+
+    @Benchmark
+    public BigDecimal modifierQuantite() {
+        // Quantité différente à chaque appel : le montant est réellement recalculé
+        quantite = (quantite + 1) % 100;
+        commande.setQuantite(1 + quantite);
+        return commande.getMontantTotal();
+    }
+
+    @Benchmark
+    public BigDecimal modifierPrixUnitaire() {
+        commande.setPrixUnitaire(prix);
+        return commande.getMontantTotal();
+    }
+}
@@ -0,0 +1,175 @@
+package com.gestioncommande.benchmark.jmh;
+
+import com.gestioncommande.entities.Article;
+import com.gestioncommande.entities.Client;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Données générées pour les benchmarks JMH : ResultSet en mémoire (CachedRowSet) reproduisant
+ * les colonnes des tables, et listes d'entités. Aucune base de données n'est nécessaire.
+ * Les générations utilisent une graine fixe : deux exécutions mesurent les mêmes données.
+ */
+final class DonneesEnMemoire {
+
+    private static final String[] MOTS = {
+        "clavier", "souris", "écran", "câble", "chargeur", "casque", "imprimante", "routeur",
+        "disque", "mémoire", "processeur", "carte", "batterie", "adaptateur", "support", "station"
+    };
+
+    private static final String[] QUALIFICATIFS = {
+        "sans fil", "gamer", "pro", "compact", "usb-c", "hdmi", "bluetooth", "ergonomique",
+        "rétroéclairé", "portable", "externe", "rapide", "silencieux", "premium"
+    };
+
+    private static final String[] CATEGORIES = {
+        "Informatique", "Téléphonie", "Accessoires", "Réseau", "Stockage", "Audio", "Bureautique"
+    };
+
+    private static final String[] NOMS = {"Dupont", "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit"};
+
+    private static final String[] PRENOMS = {"Jean", "Marie", "Pierre", "Sophie", "Luc", "Anne", "Paul", "Julie"};
+
+    /** Remplissage d'une ligne (curseur positionné sur la ligne d'insertion) */
+    @FunctionalInterface
+    private interface Remplissage {
+        void remplir(CachedRowSet ligne, int numero) throws SQLException;
+    }
+
+    private DonneesEnMemoire() {}
+
+    // ========== RESULTSET EN MÉMOIRE ==========
+
+    static CachedRowSet commandes(int nombre, boolean avecJointure) throws SQLException {
+        List<String> colonnes = new ArrayList<>(List.of("id", "client_id", "article_id", "quantite",
+                "prix_unitaire", "montant_total", "date_commande", "type_commande", "statut",
+                "observations", "date_validation"));
+        List<Integer> types = new ArrayList<>(List.of(Types.INTEGER, Types.INTEGER, Types.INTEGER,
+                Types.INTEGER, Types.DECIMAL, Types.DECIMAL, Types.TIMESTAMP, Types.VARCHAR,
+                Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP));
+        if (avecJointure) {
+            colonnes.addAll(List.of("client_nom", "client_prenom", "article_designation"));
+            types.addAll(List.of(Types.VARCHAR, Types.VARCHAR, Types.VARCHAR));
+        }
+        Timestamp maintenant = new Timestamp(System.currentTimeMillis());
+        return creer(colonnes, types, nombre, (ligne, i) -> {
+            ligne.updateInt(1, i);
+            ligne.updateInt(2, 1 + i % 100);
+            ligne.updateInt(3, 1 + i % 500);
+            ligne.updateInt(4, 1 + i % 5);
+            ligne.updateBigDecimal(5, BigDecimal.valueOf(1999, 2));
+            ligne.updateBigDecimal(6, BigDecimal.valueOf(1999L * (1 + i % 5), 2));
+            ligne.updateTimestamp(7, maintenant);
+            ligne.updateString(8, "en_cours");
+            ligne.updateString(9, "en_attente");
+            ligne.updateString(10, "benchmark");
+            ligne.updateNull(11);
+            if (avecJointure) {
+                ligne.updateString(12, NOMS[i % NOMS.length]);
+                ligne.updateString(13, PRENOMS[i % PRENOMS.length]);
+                ligne.updateString(14, MOTS[i % MOTS.length] + " " + QUALIFICATIFS[i % QUALIFICATIFS.length]);
+            }
+        });
+    }
+
+    static CachedRowSet articles(int nombre) throws SQLException {
+        Timestamp maintenant = new Timestamp(System.currentTimeMillis());
+        return creer(List.of("id", "designation", "categorie", "prix", "stock", "stock_minimum",
+                        "description", "date_creation", "date_modification", "etat"),
+                List.of(Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.DECIMAL, Types.INTEGER,
+                        Types.INTEGER, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.INTEGER),
+                nombre, (ligne, i) -> {
+                    ligne.updateInt(1, i);
+                    ligne.updateString(2, MOTS[i % MOTS.length] + " " + QUALIFICATIFS[i % QUALIFICATIFS.length]);
+                    ligne.updateString(3, CATEGORIES[i % CATEGORIES.length]);
+                    ligne.updateBigDecimal(4, BigDecimal.valueOf(1999, 2));
+                    ligne.updateInt(5, i % 100);
+                    ligne.updateInt(6, 5);
+                    ligne.updateString(7, "Article généré pour les benchmarks");
+                    ligne.updateTimestamp(8, maintenant);
+                    ligne.updateTimestamp(9, maintenant);
+                    ligne.updateInt(10, 1);
+                });
+    }
+
+    static CachedRowSet clients(int nombre) throws SQLException {
+        Timestamp maintenant = new Timestamp(System.currentTimeMillis());
+        return creer(List.of("id", "nom", "prenom", "sexe", "type", "contact", "email", "adresse",
+                        "date_creation", "etat"),
+                List.of(Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                        Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.INTEGER),
+                nombre, (ligne, i) -> {
+                    ligne.updateInt(1, i);
+                    ligne.updateString(2, NOMS[i % NOMS.length]);
+                    ligne.updateString(3, PRENOMS[i % PRENOMS.length]);
+                    ligne.updateString(4, i % 2 == 0 ? "M" : "F");
+                    ligne.updateString(5, "Particulier");
+                    ligne.updateString(6, "0123456789");
+                    ligne.updateString(7, "client" + i + "@email.com");
+                    ligne.updateString(8, i + " rue de la Paix, Paris");
+                    ligne.updateTimestamp(9, maintenant);
+                    ligne.updateInt(10, 1);
+                });
+    }
+
+    private static CachedRowSet creer(List<String> colonnes, List<Integer> types, int nombre,
+                                      Remplissage remplissage) throws SQLException {
+        RowSetMetaDataImpl metaDonnees = new RowSetMetaDataImpl();
+        metaDonnees.setColumnCount(colonnes.size());
+        for (int i = 0; i < colonnes.size(); i++) {
+            metaDonnees.setColumnName(i + 1, colonnes.get(i));
+            metaDonnees.setColumnLabel(i + 1, colonnes.get(i));
+            metaDonnees.setColumnType(i + 1, types.get(i));
+        }
+        CachedRowSet lignes = RowSetProvider.newFactory().createCachedRowSet();
+        lignes.setMetaData(metaDonnees);
+        for (int i = 1; i <= nombre; i++) {
+            lignes.moveToInsertRow();
+            remplissage.remplir(lignes, i);
+            lignes.insertRow();
+        }
+        lignes.moveToCurrentRow();
+        return lignes;
+    }
+
+    // ========== ENTITÉS ==========
+
+    /**
+     * Articles avec une désignation « mot qualificatif référence », la référence étant
+     * l'identifiant en base 36 (critère de recherche très sélectif).
+     */
+    static List<Article> articlesGeneres(int nombre) {
+        Random random = new Random(42);
+        List<Article> articles = new ArrayList<>(nombre);
+        for (int i = 1; i <= nombre; i++) {
+            String designation = MOTS[random.nextInt(MOTS.length)] + " "
+                    + QUALIFICATIFS[random.nextInt(QUALIFICATIFS.length)] + " " + Integer.toString(i, 36);
+            Article article = new Article(designation, CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    BigDecimal.valueOf(1 + random.nextInt(1000)), random.nextInt(100), 5, null);
+            article.setId(i);
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    static List<Client> clientsGeneres(int nombre) {
+        Random random = new Random(42);
+        List<Client> clients = new ArrayList<>(nombre);
+        for (int i = 1; i <= nombre; i++) {
+            Client client = new Client(NOMS[random.nextInt(NOMS.length)] + Integer.toString(i, 36),
+                    PRENOMS[random.nextInt(PRENOMS.length)], "M", "Particulier", "0123456789", null, null);
+            client.setId(i);
+            clients.add(client);
+        }
+        return clients;
+    }
+}
@@ -0,0 +1,117 @@
+package com.gestioncommande.benchmark.jmh;
+
+import com.gestioncommande.dao.ArticleDAO;
+import com.gestioncommande.dao.ClientDAO;
+import com.gestioncommande.dao.CommandeDAO;
+import com.gestioncommande.dao.MappeurLignes;
+import com.gestioncommande.entities.Commande;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de conversion d'une ligne de ResultSet en entité par les mappeurs des DAO
+ * (ArticleDAO.MAPPEUR, ClientDAO.MAPPEUR, CommandeDAO.MAPPEUR et MAPPEUR_DETAILLE).
+ * La conversion par nom de colonne de l'ancienne méthode creerCommandeDepuisResultSet
+ * sert de référence. Résultats en nanosecondes par ligne.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappageBenchmark {
+
+    private static final int LIGNES = 1000;
+
+    private CachedRowSet commandes;
+    private CachedRowSet commandesDetaillees;
+    private CachedRowSet articles;
+    private CachedRowSet clients;
+
+    @Setup
+    public void preparer() throws SQLException {
+        commandes = DonneesEnMemoire.commandes(LIGNES, false);
+        commandesDetaillees = DonneesEnMemoire.commandes(LIGNES, true);
+        articles = DonneesEnMemoire.articles(LIGNES);
+        clients = DonneesEnMemoire.clients(LIGNES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void commandeParNom(Blackhole trou) throws SQLException {
+        commandes.beforeFirst();
+        while (commandes.next()) {
+            trou.consume(lireCommandeParNom(commandes));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void commandeParPosition(Blackhole trou) throws SQLException {
+        lire("commandes", commandes, CommandeDAO.MAPPEUR, trou);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void commandeDetailleeParPosition(Blackhole trou) throws SQLException {
+        lire("commandesDetaillees", commandesDetaillees, CommandeDAO.MAPPEUR_DETAILLE, trou);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void articleParPosition(Blackhole trou) throws SQLException {
+        lire("articles", articles, ArticleDAO.MAPPEUR, trou);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIGNES)
+    public void clientParPosition(Blackhole trou) throws SQLException {
+        lire("clients", clients, ClientDAO.MAPPEUR, trou);
+    }
+
+    /**
+     * Lecture de toutes les lignes comme dans les DAO : colonnes résolues une fois par requête
+     */
+    private static <T> void lire(String requete, ResultSet resultSet, MappeurLignes<T> mappeur, Blackhole trou) throws SQLException {
+        resultSet.beforeFirst();
+        MappeurLignes.Lignes<T> lignes = mappeur.preparer(requete, resultSet);
+        while (resultSet.next()) {
+            trou.consume(lignes.lire(resultSet));
+        }
+    }
+
+    /**
+     * Conversion par nom de colonne, telle que la faisait creerCommandeDepuisResultSet
+     */
+    private static Commande lireCommandeParNom(ResultSet resultSet) throws SQLException {
+        Commande commande = new Commande();
+        commande.setId(resultSet.getInt("id"));
+        commande.setClientId(resultSet.getInt("client_id"));
+        commande.setArticleId(resultSet.getInt("article_id"));
+        commande.setQuantite(resultSet.getInt("quantite"));
+        commande.setPrixUnitaire(resultSet.getBigDecimal("prix_unitaire"));
+        commande.setMontantTotal(resultSet.getBigDecimal("montant_total"));
+        commande.setDateCommande(resultSet.getTimestamp("date_commande"));
+        commande.setTypeCommande(resultSet.getString("type_commande"));
+        commande.setStatut(resultSet.getString("statut"));
+        commande.setObservations(resultSet.getString("observations"));
+        commande.setDateValidation(resultSet.getTimestamp("date_validation"));
+        return commande;
+    }
+}
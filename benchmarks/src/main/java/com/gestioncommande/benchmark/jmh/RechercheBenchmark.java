@@ -0,0 +1,132 @@
+package com.gestioncommande.benchmark.jmh;
+
+import com.gestioncommande.cache.CacheLecture;
+import com.gestioncommande.cache.CatalogueTrie;
+import com.gestioncommande.entities.Article;
+import com.gestioncommande.recherche.IndexTrigrammes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemins de lecture des services articles, sans base de données : recherche dans l'index de
+ * trigrammes, listage du catalogue trié et lecture par identifiant dans le cache.
+ * Les structures sont configurées comme dans ArticleDAO ; le chargement et le rechargement
+ * lisent une table en mémoire au lieu de la base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RechercheBenchmark {
+
+    /** Nombre maximal de résultats d'une recherche bornée (saisie interactive) */
+    private static final int LIMITE = 50;
+
+    @Param({"100000"})
+    public int articles;
+
+    private Map<Integer, Article> table;
+    private IndexTrigrammes<Article> index;
+    private CatalogueTrie<Article> catalogue;
+    private CacheLecture<Integer, Article> cache;
+    private int prochainId;
+
+    @Setup
+    public void preparer() {
+        List<Article> generes = DonneesEnMemoire.articlesGeneres(articles);
+        table = new HashMap<>();
+        for (Article article : generes) {
+            table.put(article.getId(), article);
+        }
+
+        Comparator<Article> ordre = Comparator.comparing(Article::getDesignation, ordreAlphabetique());
+        index = new IndexTrigrammes<>("articles",
+                article -> new String[] {article.getDesignation(), article.getCategorie()},
+                Article::getId, Article::new, ordre);
+        index.chargerSiNecessaire(() -> generes);
+        catalogue = new CatalogueTrie<>("articles actifs", ordre, Article::getId, Article::isActif, Article::new);
+        catalogue.lister(() -> generes, this::relire);
+        cache = new CacheLecture<>("articles", 1000, 30000L, Article::new);
+    }
+
+    // ========== RECHERCHE ==========
+
+    /** Critère très sélectif (référence d'un article) */
+    @Benchmark
+    public List<Article> rechercheSelective() {
+        return index.rechercher("15wx", this::relire);
+    }
+
+    /** Critère large (un mot sur seize), limité aux premiers résultats */
+    @Benchmark
+    public List<Article> rechercheLargeLimitee() {
+        return index.rechercher("clavier", LIMITE, this::relire);
+    }
+
+    /** Critère sans résultat : l'intersection s'arrête sur une liste vide */
+    @Benchmark
+    public List<Article> rechercheSansResultat() {
+        return index.rechercher("xyz", this::relire);
+    }
+
+    // ========== CATALOGUE ET CACHE ==========
+
+    /** Listage sans modification depuis le précédent : instantané partagé */
+    @Benchmark
+    public List<Article> listerCatalogue() {
+        return catalogue.lister(List::of, this::relire);
+    }
+
+    /** Listage après la modification d'un article : relecture d'une ligne et nouvel instantané */
+    @Benchmark
+    public List<Article> listerCatalogueApresModification() {
+        catalogue.marquerPerime(1 + prochainId++ % articles);
+        return catalogue.lister(List::of, this::relire);
+    }
+
+    /** Lecture par identifiant parmi les articles les plus consultés */
+    @Benchmark
+    public Article lireDepuisCache() {
+        return cache.obtenir(1 + prochainId++ % 500, table::get);
+    }
+
+    // ========== OUTILS ==========
+
+    private List<Article> relire(Collection<Integer> ids) {
+        List<Article> relus = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Article article = table.get(id);
+            if (article != null) {
+                relus.add(new Article(article));
+            }
+        }
+        return relus;
+    }
+
+    private static Comparator<String> ordreAlphabetique() {
+        Collator collator = Collator.getInstance(Locale.FRENCH);
+        collator.setStrength(Collator.PRIMARY);
+        return collator::compare;
+    }
+}
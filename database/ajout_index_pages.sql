@@ -0,0 +1,18 @@
+-- Script de mise à niveau d'une base gestion_commande existante
+-- Remplace les index de statut et de client des commandes par des index composites qui servent à
+-- la fois le filtre et le tri des pages de commandes (CommandeDAO.listerPageParStatut et
+-- listerPageParClient : WHERE ... ORDER BY date_commande DESC, id DESC).
+-- Inutile pour une base créée par create_database.sql ou reset_database.sql, qui les contiennent déjà.
+
+USE gestion_commande;
+
+ALTER TABLE commandes
+    ADD INDEX idx_client_date (client_id, date_commande, id),
+    ADD INDEX idx_statut_date (statut, date_commande, id);
+
+-- idx_client_date sert aussi la clé étrangère client_id
+ALTER TABLE commandes
+    DROP INDEX idx_client,
+    DROP INDEX idx_statut;
+
+SELECT 'Index des pages de commandes ajoutés avec succès !' as message;
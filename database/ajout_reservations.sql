@@ -0,0 +1,15 @@
+-- Script de mise à niveau d'une base gestion_commande existante
+-- Ajoute les colonnes des réservations de stock (voir ReservationsStock).
+-- Inutile pour une base créée par create_database.sql ou reset_database.sql, qui les contiennent déjà.
+-- Les commandes en cours existantes restent sans réservation : leur validation dépend du stock disponible.
+
+USE gestion_commande;
+
+ALTER TABLE articles
+    ADD COLUMN stock_reserve INT NOT NULL DEFAULT 0 COMMENT 'quantité réservée par les commandes en cours' AFTER stock_minimum;
+
+ALTER TABLE commandes
+    ADD COLUMN quantite_reservee INT NOT NULL DEFAULT 0 COMMENT 'stock réservé tant que la commande est en cours' AFTER version,
+    ADD INDEX idx_reservation (quantite_reservee, date_commande);
+
+SELECT 'Colonnes de réservation de stock ajoutées avec succès !' as message;
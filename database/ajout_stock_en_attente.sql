@@ -0,0 +1,17 @@
+-- Script de mise à niveau d'une base gestion_commande existante
+-- Ajoute la table des mouvements de stock en attente d'écriture (voir CompteursStock).
+-- Inutile pour une base créée par create_database.sql ou reset_database.sql, qui la contiennent déjà.
+-- La table n'est utilisée que si stock.memoire.actif=true.
+
+USE gestion_commande;
+
+CREATE TABLE IF NOT EXISTS stock_en_attente (
+    commande_id INT PRIMARY KEY,
+    article_id INT NOT NULL,
+    quantite INT NOT NULL COMMENT 'à retirer de articles.stock',
+    quantite_reservee INT NOT NULL DEFAULT 0 COMMENT 'à retirer de articles.stock_reserve',
+    INDEX idx_article (article_id),
+    FOREIGN KEY (commande_id) REFERENCES commandes(id) ON DELETE RESTRICT
+);
+
+SELECT 'Table stock_en_attente ajoutée avec succès !' as message;
@@ -0,0 +1,13 @@
+-- Script de mise à niveau d'une base gestion_commande existante
+-- Ajoute la colonne version (contrôle des modifications concurrentes) aux articles et aux commandes.
+-- Inutile pour une base créée par create_database.sql ou reset_database.sql, qui la contiennent déjà.
+
+USE gestion_commande;
+
+ALTER TABLE articles
+    ADD COLUMN version INT NOT NULL DEFAULT 0 COMMENT 'incrémentée à chaque mise à jour' AFTER etat;
+
+ALTER TABLE commandes
+    ADD COLUMN version INT NOT NULL DEFAULT 0 COMMENT 'incrémentée à chaque mise à jour' AFTER date_validation;
+
+SELECT 'Colonnes version ajoutées avec succès !' as message;
@@ -36,10 +36,12 @@ CREATE TABLE IF NOT EXISTS articles (
     prix DECIMAL(10,2) NOT NULL,
     stock INT NOT NULL DEFAULT 0,
     stock_minimum INT NOT NULL DEFAULT 5,
+    stock_reserve INT NOT NULL DEFAULT 0 COMMENT 'quantité réservée par les commandes en cours',
     description TEXT,
     date_creation TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     date_modification TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     etat TINYINT(1) DEFAULT 1 COMMENT '1=actif, 0=inactif',
+    version INT NOT NULL DEFAULT 0 COMMENT 'incrémentée à chaque mise à jour',
     INDEX idx_designation (designation),
     INDEX idx_categorie (categorie),
     INDEX idx_stock (stock),
@@ -60,15 +62,29 @@ CREATE TABLE IF NOT EXISTS commandes (
     statut ENUM('en_attente', 'traitee', 'livree', 'annulee') DEFAULT 'en_attente',
     observations TEXT,
     date_validation TIMESTAMP NULL,
-    INDEX idx_client (client_id),
+    version INT NOT NULL DEFAULT 0 COMMENT 'incrémentée à chaque mise à jour',
+    quantite_reservee INT NOT NULL DEFAULT 0 COMMENT 'stock réservé tant que la commande est en cours',
+    INDEX idx_client_date (client_id, date_commande, id),
     INDEX idx_article (article_id),
     INDEX idx_date_commande (date_commande),
     INDEX idx_type_commande (type_commande),
-    INDEX idx_statut (statut),
+    INDEX idx_statut_date (statut, date_commande, id),
+    INDEX idx_reservation (quantite_reservee, date_commande),
     FOREIGN KEY (client_id) REFERENCES clients(id) ON DELETE RESTRICT,
     FOREIGN KEY (article_id) REFERENCES articles(id) ON DELETE RESTRICT
 );
 
+-- Mouvements de stock des commandes validées en attente d'écriture dans articles
+-- (décompte en mémoire, voir CompteursStock)
+CREATE TABLE IF NOT EXISTS stock_en_attente (
+    commande_id INT PRIMARY KEY,
+    article_id INT NOT NULL,
+    quantite INT NOT NULL COMMENT 'à retirer de articles.stock',
+    quantite_reservee INT NOT NULL DEFAULT 0 COMMENT 'à retirer de articles.stock_reserve',
+    INDEX idx_article (article_id),
+    FOREIGN KEY (commande_id) REFERENCES commandes(id) ON DELETE RESTRICT
+);
+
 -- Insertion de données d'exemple
 -- Clients d'exemple
 INSERT INTO clients (nom, prenom, sexe, type, contact, email, adresse) VALUES
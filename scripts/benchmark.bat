@@ -0,0 +1,34 @@
+@echo off
+echo ========================================
+echo   EXECUTION D'UN BENCHMARK
+echo ========================================
+
+REM Vérifier si un benchmark a été demandé
+if "%~1"=="" (
+    echo Usage : scripts\benchmark.bat NomDuBenchmark [arguments...]
+    echo Benchmarks disponibles :
+    dir /b benchmarks\src\main\java\com\gestioncommande\benchmark
+    exit /b 1
+)
+
+REM Vérifier si les classes de l'application sont compilées
+if not exist "build\classes\com\gestioncommande\Main.class" (
+    echo ERREUR: Classes non compilées
+    echo Veuillez d'abord exécuter scripts\compile.bat
+    exit /b 1
+)
+
+REM Compiler les benchmarks
+if not exist "build\benchmarks" mkdir "build\benchmarks"
+javac -cp "build\classes;lib\*" -d build\benchmarks benchmarks\src\main\java\com\gestioncommande\benchmark\*.java
+
+if %errorlevel% neq 0 (
+    echo ERREUR DE COMPILATION DES BENCHMARKS !
+    exit /b 1
+)
+
+set BENCHMARK=%1
+shift
+
+REM Exécuter le benchmark
+java -cp "build\benchmarks;build\classes;lib\*" com.gestioncommande.benchmark.%BENCHMARK% %1 %2 %3 %4 %5 %6 %7 %8 %9
@@ -0,0 +1,35 @@
+#!/bin/bash
+
+echo "========================================"
+echo "   EXECUTION D'UN BENCHMARK"
+echo "========================================"
+
+# Vérifier si un benchmark a été demandé
+if [ -z "$1" ]; then
+    echo "Usage : ./scripts/benchmark.sh <NomDuBenchmark> [arguments...]"
+    echo "Benchmarks disponibles :"
+    ls benchmarks/src/main/java/com/gestioncommande/benchmark/ | sed 's/\.java$//; s/^/  - /'
+    exit 1
+fi
+
+# Vérifier si les classes de l'application sont compilées
+if [ ! -f "build/classes/com/gestioncommande/Main.class" ]; then
+    echo "ERREUR: Classes non compilées"
+    echo "Veuillez d'abord exécuter ./scripts/compile.sh"
+    exit 1
+fi
+
+# Compiler les benchmarks
+mkdir -p build/benchmarks
+javac -cp "build/classes:lib/*" -d build/benchmarks benchmarks/src/main/java/com/gestioncommande/benchmark/*.java
+
+if [ $? -ne 0 ]; then
+    echo "ERREUR DE COMPILATION DES BENCHMARKS !"
+    exit 1
+fi
+
+BENCHMARK=$1
+shift
+
+# Exécuter le benchmark
+java -cp "build/benchmarks:build/classes:lib/*" com.gestioncommande.benchmark.$BENCHMARK "$@"
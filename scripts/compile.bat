@@ -25,7 +25,7 @@ if not exist "lib\mysql-connector-java-8.0.33.jar" (
 echo Compilation en cours...
 
 REM Compiler les classes
-javac -cp "lib\mysql-connector-java-8.0.33.jar" -d build\classes src\main\java\com\gestioncommande\*.java src\main\java\com\gestioncommande\entities\*.java src\main\java\com\gestioncommande\dao\*.java src\main\java\com\gestioncommande\service\*.java
+javac -cp "lib\mysql-connector-java-8.0.33.jar" -d build\classes src\main\java\com\gestioncommande\*.java src\main\java\com\gestioncommande\entities\*.java src\main\java\com\gestioncommande\dao\*.java src\main\java\com\gestioncommande\service\*.java src\main\java\com\gestioncommande\cache\*.java src\main\java\com\gestioncommande\recherche\*.java src\main\java\com\gestioncommande\outils\*.java src\main\java\com\gestioncommande\mesures\*.java src\main\java\com\gestioncommande\api\*.java
 
 if %errorlevel% equ 0 (
     echo.
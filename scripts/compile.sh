@@ -23,7 +23,7 @@ fi
 echo "Compilation en cours..."
 
 # Compiler les classes
-javac -cp "lib/mysql-connector-java-8.0.33.jar" -d build/classes src/main/java/com/gestioncommande/*.java src/main/java/com/gestioncommande/entities/*.java src/main/java/com/gestioncommande/dao/*.java src/main/java/com/gestioncommande/service/*.java
+javac -cp "lib/mysql-connector-java-8.0.33.jar" -d build/classes src/main/java/com/gestioncommande/*.java src/main/java/com/gestioncommande/entities/*.java src/main/java/com/gestioncommande/dao/*.java src/main/java/com/gestioncommande/service/*.java src/main/java/com/gestioncommande/cache/*.java src/main/java/com/gestioncommande/recherche/*.java src/main/java/com/gestioncommande/outils/*.java src/main/java/com/gestioncommande/mesures/*.java src/main/java/com/gestioncommande/api/*.java
 
 if [ $? -eq 0 ]; then
     echo ""
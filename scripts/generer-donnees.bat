@@ -0,0 +1,14 @@
+@echo off
+echo ========================================
+echo   GENERATION D'UN JEU DE DONNEES
+echo ========================================
+
+REM Vérifier si les classes de l'application sont compilées
+if not exist "build\classes\com\gestioncommande\outils\GenerateurDonnees.class" (
+    echo ERREUR: Classes non compilées
+    echo Veuillez d'abord exécuter scripts\compile.bat
+    exit /b 1
+)
+
+REM Arguments : [clients] [articles] [commandes] [jours] [threads] [graine]
+java -cp "build\classes;lib\*" com.gestioncommande.outils.GenerateurDonnees %1 %2 %3 %4 %5 %6
@@ -0,0 +1,15 @@
+#!/bin/bash
+
+echo "========================================"
+echo "   GENERATION D'UN JEU DE DONNEES"
+echo "========================================"
+
+# Vérifier si les classes de l'application sont compilées
+if [ ! -f "build/classes/com/gestioncommande/outils/GenerateurDonnees.class" ]; then
+    echo "ERREUR: Classes non compilées"
+    echo "Veuillez d'abord exécuter ./scripts/compile.sh"
+    exit 1
+fi
+
+# Arguments : [clients] [articles] [commandes] [jours] [threads] [graine]
+java -cp "build/classes:lib/*" com.gestioncommande.outils.GenerateurDonnees "$@"
@@ -28,7 +28,7 @@ echo "Lancement de l'application..."
 echo ""
 
 # Exécuter l'application
-java -cp "build/classes:lib/mysql-connector-java-8.0.33.jar" com.gestioncommande.Main
+java -cp "build/classes:lib/*" com.gestioncommande.Main "$@"
 
 echo ""
 echo "========================================"
@@ -0,0 +1,69 @@
+@echo off
+setlocal enabledelayedexpansion
+echo ========================================
+echo   EXECUTION DES TESTS
+echo ========================================
+
+REM Vérifier si les classes de l'application sont compilées
+if not exist "build\classes\com\gestioncommande\Main.class" (
+    echo ERREUR: Classes non compilées
+    echo Veuillez d'abord exécuter scripts\compile.bat
+    exit /b 1
+)
+
+REM Compiler les tests
+if exist "build\tests" rmdir /s /q "build\tests"
+mkdir "build\tests"
+dir /s /b src\test\java\*.java > build\tests\sources.txt
+javac -encoding UTF-8 -cp "build\classes;lib\*" -d build\tests @build\tests\sources.txt
+
+if %errorlevel% neq 0 (
+    echo ERREUR DE COMPILATION DES TESTS !
+    exit /b 1
+)
+
+set ECHECS=0
+set CP=build\tests;build\classes;lib\*
+
+REM Tests unitaires (sans base de données)
+for /r src\test\java %%F in (*Test.java) do (
+    set CLASSE=%%F
+    set CLASSE=!CLASSE:%CD%\src\test\java\=!
+    set CLASSE=!CLASSE:.java=!
+    set CLASSE=!CLASSE:\=.!
+    echo !CLASSE! | findstr /e "IntegrationTest " >nul
+    if errorlevel 1 (
+        java -cp "%CP%" !CLASSE!
+        if errorlevel 1 set /a ECHECS+=1
+    )
+)
+
+REM Tests d'intégration : base embarquée en mémoire, avec et sans décompte en mémoire et regroupement.
+REM Pool d'une seule connexion : un traitement qui emprunte une seconde connexion pendant une
+REM transaction échoue au lieu de passer inaperçu.
+set BASE=-Ddb.mode=embarque -Ddb.pool.maxActive=1 -Ddb.pool.initialSize=1 -Ddb.pool.minIdle=1 -Ddb.pool.maxIdle=1 -Ddb.connectionTimeout=5000
+if exist "lib\h2-*.jar" (
+    for /r src\test\java %%F in (*IntegrationTest.java) do (
+        set CLASSE=%%F
+        set CLASSE=!CLASSE:%CD%\src\test\java\=!
+        set CLASSE=!CLASSE:.java=!
+        set CLASSE=!CLASSE:\=.!
+        for %%S in ("-Dstock.memoire.actif=false -Dstock.regroupement.actif=false" "-Dstock.memoire.actif=true -Dstock.regroupement.actif=false" "-Dstock.memoire.actif=false -Dstock.regroupement.actif=true" "-Dstock.memoire.actif=true -Dstock.regroupement.actif=true") do (
+            echo !CLASSE! ^(%%~S^)
+            java %BASE% %%~S -cp "%CP%" !CLASSE!
+            if errorlevel 1 set /a ECHECS+=1
+        )
+    )
+) else (
+    echo Tests d'intégration ignorés : placer h2-2.2.224.jar dans lib\ ^(voir INSTALLATION.md^)
+)
+
+echo.
+echo ========================================
+if %ECHECS% equ 0 (
+    echo   TESTS REUSSIS !
+) else (
+    echo   %ECHECS% CLASSE^(S^) DE TEST EN ECHEC !
+)
+echo ========================================
+exit /b %ECHECS%
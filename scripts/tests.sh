@@ -0,0 +1,59 @@
+#!/bin/bash
+
+echo "========================================"
+echo "   EXECUTION DES TESTS"
+echo "========================================"
+
+# Vérifier si les classes de l'application sont compilées
+if [ ! -f "build/classes/com/gestioncommande/Main.class" ]; then
+    echo "ERREUR: Classes non compilées"
+    echo "Veuillez d'abord exécuter ./scripts/compile.sh"
+    exit 1
+fi
+
+# Compiler les tests
+rm -rf build/tests
+mkdir -p build/tests
+javac -encoding UTF-8 -cp "build/classes:lib/*" -d build/tests $(find src/test/java -name '*.java')
+
+if [ $? -ne 0 ]; then
+    echo "ERREUR DE COMPILATION DES TESTS !"
+    exit 1
+fi
+
+ECHECS=0
+
+# Tests unitaires (sans base de données)
+for TEST in $(find src/test/java -name '*Test.java' ! -name '*IntegrationTest.java' | sort); do
+    CLASSE=$(echo "$TEST" | sed 's|^src/test/java/||; s|\.java$||; s|/|.|g')
+    java -cp "build/tests:build/classes:lib/*" "$CLASSE" || ECHECS=$((ECHECS + 1))
+done
+
+# Tests d'intégration : base embarquée en mémoire, avec et sans décompte en mémoire et regroupement.
+# Pool d'une seule connexion : un traitement qui emprunte une seconde connexion pendant une
+# transaction échoue au lieu de passer inaperçu.
+BASE="-Ddb.mode=embarque -Ddb.pool.maxActive=1 -Ddb.pool.initialSize=1 -Ddb.pool.minIdle=1 -Ddb.pool.maxIdle=1 -Ddb.connectionTimeout=5000"
+if ls lib/h2-*.jar &> /dev/null; then
+    for TEST in $(find src/test/java -name '*IntegrationTest.java' | sort); do
+        CLASSE=$(echo "$TEST" | sed 's|^src/test/java/||; s|\.java$||; s|/|.|g')
+        for STOCK in "-Dstock.memoire.actif=false -Dstock.regroupement.actif=false" \
+                     "-Dstock.memoire.actif=true -Dstock.regroupement.actif=false" \
+                     "-Dstock.memoire.actif=false -Dstock.regroupement.actif=true" \
+                     "-Dstock.memoire.actif=true -Dstock.regroupement.actif=true"; do
+            echo "$CLASSE ($STOCK)"
+            java $BASE $STOCK -cp "build/tests:build/classes:lib/*" "$CLASSE" || ECHECS=$((ECHECS + 1))
+        done
+    done
+else
+    echo "Tests d'intégration ignorés : placer h2-2.2.224.jar dans lib/ (voir INSTALLATION.md)"
+fi
+
+echo ""
+echo "========================================"
+if [ $ECHECS -eq 0 ]; then
+    echo "   TESTS REUSSIS !"
+else
+    echo "   $ECHECS CLASSE(S) DE TEST EN ECHEC !"
+fi
+echo "========================================"
+exit $ECHECS
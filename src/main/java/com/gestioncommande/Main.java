@@ -1,10 +1,21 @@
 package com.gestioncommande;
 
+import com.gestioncommande.api.ServeurApi;
+import com.gestioncommande.dao.ArticleDAO;
+import com.gestioncommande.dao.ClientDAO;
+import com.gestioncommande.dao.ConfigurationBD;
 import com.gestioncommande.dao.DatabaseConnection;
+import com.gestioncommande.dao.MesuresRequetes;
 import com.gestioncommande.service.ClientService;
 import com.gestioncommande.service.ArticleService;
 import com.gestioncommande.service.CommandeService;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.util.Scanner;
 
@@ -35,10 +46,25 @@ public class Main {
     /**
      * Point d'entrée principal de l'application.
      * Initialise les services, teste la connexion à la base de données et lance le menu principal.
+     * Avec --batch [fichier], exécute les opérations du fichier (ou de l'entrée standard) sans
+     * interaction : voir TraitementLot. Avec --serveur [port], expose les services par l'API
+     * HTTP/JSON : voir ServeurApi.
      * 
-     * @param args Arguments de la ligne de commande (non utilisés)
+     * @param args Arguments de la ligne de commande (--batch [fichier] pour le mode lot,
+     *             --serveur [port] pour l'API HTTP)
      */
     public static void main(String[] args) {
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            System.exit(executerLot(args.length > 1 ? args[1] : "-"));
+        }
+        if (args.length > 0 && "--serveur".equals(args[0])) {
+            int code = demarrerServeur(args.length > 1 ? args[1] : null);
+            if (code != 0) {
+                System.exit(code);
+            }
+            return;
+        }
+
         System.out.println("=== APPLICATION DE GESTION DE COMMANDES ===");
         System.out.println("Initialisation en cours...");
         
@@ -55,6 +81,10 @@ public class Main {
             articleService = new ArticleService();
             commandeService = new CommandeService();
             scanner = new Scanner(System.in);
+
+            // Construction des index de recherche (les recherches interrogent la base en cas d'échec)
+            new ArticleDAO().chargerIndexRecherche();
+            new ClientDAO().chargerIndexRecherche();
             
             System.out.println("Application initialisée avec succès !");
             
@@ -74,6 +104,78 @@ public class Main {
         }
     }
 
+    /**
+     * Mode lot : exécute les opérations d'un fichier par les services, sans menu, puis affiche
+     * le résumé du traitement.
+     *
+     * @param fichier Le fichier d'opérations, ou - pour l'entrée standard
+     * @return Le code de sortie : 0 si toutes les lignes ont été traitées (les opérations refusées
+     *         comptent comme traitées), 1 si des lignes sont mal formées, 2 si la base ou le fichier
+     *         est inaccessible
+     */
+    private static int executerLot(String fichier) {
+        if (!DatabaseConnection.testConnection()) {
+            System.err.println("Erreur : Impossible de se connecter à la base de données !");
+            return 2;
+        }
+        try (BufferedReader lecteur = "-".equals(fichier)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(fichier), StandardCharsets.UTF_8)) {
+            TraitementLot lot = new TraitementLot(new CommandeService(), new ArticleService());
+            lot.executer(lecteur);
+            lot.afficherResume();
+            return lot.getLignesIgnorees() > 0 ? 1 : 0;
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la lecture des opérations : " + e.getMessage());
+            return 2;
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de l'initialisation de l'application : " + e.getMessage());
+            return 2;
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+
+    /**
+     * Mode serveur : démarre l'API HTTP/JSON, qui fonctionne jusqu'à l'arrêt du processus
+     * (Ctrl+C) ; le serveur et le pool de connexions sont alors fermés proprement.
+     *
+     * @param port Le port d'écoute, ou null pour api.port (8080 par défaut)
+     * @return 0 si le serveur est démarré, 2 si la base est inaccessible ou le port indisponible
+     */
+    private static int demarrerServeur(String port) {
+        if (!DatabaseConnection.testConnection()) {
+            System.err.println("Erreur : Impossible de se connecter à la base de données !");
+            return 2;
+        }
+        try {
+            ServeurApi serveur = new ServeurApi(new ClientService(), new ArticleService(), new CommandeService(),
+                    port != null ? Integer.parseInt(port) : ConfigurationBD.getInt("api.port", 8080),
+                    ConfigurationBD.getInt("api.backlog", 1024), ConfigurationBD.getInt("api.threads", 64));
+            new ArticleDAO().chargerIndexRecherche();
+            new ClientDAO().chargerIndexRecherche();
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                System.out.println("Arrêt du serveur...");
+                serveur.arreter(5);
+                DatabaseConnection.closeConnection();
+            }, "arret-serveur"));
+            serveur.demarrer();
+            System.out.println("API HTTP démarrée sur le port " + serveur.getPort()
+                    + (serveur.isThreadsVirtuels() ? " (threads virtuels)" : " (threads virtuels indisponibles : pool de threads)")
+                    + ". Ctrl+C pour arrêter.");
+            return 0;
+        } catch (NumberFormatException e) {
+            System.err.println("Port invalide : " + port);
+        } catch (IOException e) {
+            System.err.println("Erreur lors du démarrage du serveur : " + e.getMessage());
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de l'initialisation de l'application : " + e.getMessage());
+        }
+        DatabaseConnection.closeConnection();
+        return 2;
+    }
+
     // ========== MÉTHODES D'INTERFACE UTILISATEUR ==========
     
     /**
@@ -91,7 +193,8 @@ public class Main {
             System.out.println("2. Gestion des Articles");
             System.out.println("3. Gestion des Commandes");
             System.out.println("4. Test de connexion à la base de données");
-            System.out.println("5. Quitter l'application");
+            System.out.println("5. Mesures des requêtes SQL");
+            System.out.println("6. Quitter l'application");
             System.out.println("=".repeat(50));
             System.out.print("Choisissez une option : ");
             
@@ -113,11 +216,14 @@ public class Main {
                         testerConnexion();
                         break;
                     case 5:
+                        afficherMenuMesures();
+                        break;
+                    case 6:
                         continuer = false;
                         System.out.println("Merci d'avoir utilisé l'application de gestion de commandes !");
                         break;
                     default:
-                        System.out.println("Option invalide ! Veuillez choisir entre 1 et 5.");
+                        System.out.println("Option invalide ! Veuillez choisir entre 1 et 6.");
                 }
             } catch (Exception e) {
                 System.err.println("Erreur de saisie : " + e.getMessage());
@@ -136,6 +242,9 @@ public class Main {
             System.out.println("✓ Connexion à la base de données réussie !");
             System.out.println("Base de données : gestion_commande");
             System.out.println("Serveur : localhost:3306");
+            System.out.println(DatabaseConnection.getEtatPool());
+            System.out.println(ArticleDAO.getStatistiquesCache());
+            System.out.println(ClientDAO.getStatistiquesCache());
         } else {
             System.out.println("✗ Échec de la connexion à la base de données !");
             System.out.println("Vérifiez que :");
@@ -145,6 +254,57 @@ public class Main {
         }
     }
 
+    /**
+     * Affiche et gère le menu des mesures de requêtes SQL (latences par opération de DAO,
+     * requêtes lentes), avec export du rapport dans un fichier.
+     */
+    private static void afficherMenuMesures() {
+        boolean continuer = true;
+
+        while (continuer) {
+            System.out.println("\n--- MESURES DES REQUÊTES SQL ---");
+            System.out.println("1. Afficher les mesures");
+            System.out.println("2. Exporter les mesures dans un fichier");
+            System.out.println("3. Remettre les mesures à zéro");
+            System.out.println("4. Retour au menu principal");
+            System.out.print("Choisissez une option : ");
+
+            try {
+                int choix = scanner.nextInt();
+                scanner.nextLine(); // Consommer la ligne vide
+
+                switch (choix) {
+                    case 1:
+                        System.out.println();
+                        System.out.print(MesuresRequetes.getRapport());
+                        break;
+                    case 2:
+                        System.out.print("Fichier (Entrée pour mesures-requetes.txt) : ");
+                        String fichier = scanner.nextLine().trim();
+                        if (fichier.isEmpty()) {
+                            fichier = "mesures-requetes.txt";
+                        }
+                        if (MesuresRequetes.exporter(fichier)) {
+                            System.out.println("✓ Mesures exportées dans " + fichier);
+                        }
+                        break;
+                    case 3:
+                        MesuresRequetes.reinitialiser();
+                        System.out.println("✓ Mesures remises à zéro");
+                        break;
+                    case 4:
+                        continuer = false;
+                        break;
+                    default:
+                        System.out.println("Option invalide ! Veuillez choisir entre 1 et 4.");
+                }
+            } catch (Exception e) {
+                System.err.println("Erreur de saisie : " + e.getMessage());
+                scanner.nextLine(); // Nettoyer le buffer
+            }
+        }
+    }
+
     /**
      * Affiche les informations de l'application
      */
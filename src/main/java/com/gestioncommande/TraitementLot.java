@@ -0,0 +1,261 @@
+package com.gestioncommande;
+
+import com.gestioncommande.entities.Commande;
+import com.gestioncommande.mesures.HistogrammeLatence;
+import com.gestioncommande.service.ArticleService;
+import com.gestioncommande.service.CommandeService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mode lot : exécute sans interaction une suite d'opérations par les services de l'application,
+ * puis affiche le débit et les latences par type d'opération.
+ * Lancé par Main --batch [fichier] (entrée standard si le fichier est absent ou vaut -).
+ *
+ * Une opération par ligne ; les lignes vides et celles commençant par # sont ignorées :
+ * <pre>
+ * commande &lt;client&gt; &lt;article&gt; &lt;quantité&gt; [observations]
+ * valider &lt;commande&gt;
+ * annuler &lt;commande&gt;
+ * reapprovisionner &lt;article&gt; &lt;quantité&gt;
+ * </pre>
+ * &lt;commande&gt; est l'identifiant d'une commande existante, ou @n pour la commande créée par la
+ * n-ième ligne « commande » du lot (un même fichier peut ainsi être rejoué sur n'importe quelle base).
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class TraitementLot {
+
+    // ========== CONSTANTES ==========
+
+    private static final String COMMANDE = "commande";
+    private static final String VALIDER = "valider";
+    private static final String ANNULER = "annuler";
+    private static final String REAPPROVISIONNER = "reapprovisionner";
+
+    /** Fréquence (en opérations) des messages de progression */
+    private static final int PROGRESSION = 10000;
+
+    // ========== ATTRIBUTS ==========
+
+    private final CommandeService commandeService;
+    private final ArticleService articleService;
+
+    /** Identifiant de la commande créée par chaque ligne « commande » du lot (null si la création a échoué) */
+    private final List<Integer> commandesCreees = new ArrayList<>();
+
+    /** Statistiques par type d'opération, dans l'ordre du format */
+    private final Map<String, Statistique> statistiques = new LinkedHashMap<>();
+
+    private int operations = 0;
+    private int lignesIgnorees = 0;
+    private long duree = 0;
+
+    // ========== CONSTRUCTEUR ==========
+
+    public TraitementLot(CommandeService commandeService, ArticleService articleService) {
+        this.commandeService = commandeService;
+        this.articleService = articleService;
+        for (String type : new String[] {COMMANDE, VALIDER, ANNULER, REAPPROVISIONNER}) {
+            statistiques.put(type, new Statistique());
+        }
+    }
+
+    // ========== EXÉCUTION ==========
+
+    /**
+     * Exécute toutes les opérations lues, dans l'ordre. Une ligne mal formée est signalée sur la
+     * sortie d'erreur et ignorée ; une opération refusée (stock insuffisant...) est comptée en échec.
+     *
+     * @param lecteur Les lignes d'opérations
+     * @throws IOException Si la lecture échoue
+     */
+    public void executer(BufferedReader lecteur) throws IOException {
+        long debut = System.nanoTime();
+        String ligne;
+        int numero = 0;
+        while ((ligne = lecteur.readLine()) != null) {
+            numero++;
+            String texte = ligne.trim();
+            if (texte.isEmpty() || texte.startsWith("#")) {
+                continue;
+            }
+            try {
+                executerLigne(texte);
+                operations++;
+                if (operations % PROGRESSION == 0) {
+                    System.out.println("Opérations traitées : " + operations);
+                }
+            } catch (IllegalArgumentException e) {
+                lignesIgnorees++;
+                System.err.println("Ligne " + numero + " ignorée (" + e.getMessage() + ") : " + texte);
+            }
+        }
+        duree += System.nanoTime() - debut;
+    }
+
+    /**
+     * Analyse et exécute une opération.
+     * @throws IllegalArgumentException Si la ligne est mal formée
+     */
+    private void executerLigne(String texte) {
+        String[] champs = texte.split("\\s+", 5);
+        String type = champs[0].toLowerCase();
+        switch (type) {
+            case COMMANDE: {
+                verifierNombreChamps(champs, 4, 5);
+                Commande commande = new Commande();
+                commande.setClientId(entier(champs[1]));
+                commande.setArticleId(entier(champs[2]));
+                commande.setQuantite(entier(champs[3]));
+                commande.setObservations(champs.length > 4 ? champs[4] : "");
+                long debut = System.nanoTime();
+                CommandeService.ResultatCreation resultat = commandeService.effectuerCommande(commande);
+                enregistrer(COMMANDE, debut, resultat == CommandeService.ResultatCreation.CREEE, resultat.name());
+                commandesCreees.add(resultat == CommandeService.ResultatCreation.CREEE ? commande.getId() : null);
+                break;
+            }
+            case VALIDER: {
+                verifierNombreChamps(champs, 2, 2);
+                Integer id = commande(champs[1]);
+                if (id == null) {
+                    statistiques.get(VALIDER).echec("COMMANDE_NON_CREEE");
+                    break;
+                }
+                long debut = System.nanoTime();
+                CommandeService.ResultatValidation resultat = commandeService.validerCommande(id);
+                enregistrer(VALIDER, debut, resultat == CommandeService.ResultatValidation.VALIDEE, resultat.name());
+                break;
+            }
+            case ANNULER: {
+                verifierNombreChamps(champs, 2, 2);
+                Integer id = commande(champs[1]);
+                if (id == null) {
+                    statistiques.get(ANNULER).echec("COMMANDE_NON_CREEE");
+                    break;
+                }
+                long debut = System.nanoTime();
+                CommandeService.ResultatAnnulation resultat = commandeService.annulerCommande(id);
+                enregistrer(ANNULER, debut, resultat == CommandeService.ResultatAnnulation.ANNULEE, resultat.name());
+                break;
+            }
+            case REAPPROVISIONNER: {
+                verifierNombreChamps(champs, 3, 3);
+                int articleId = entier(champs[1]);
+                int quantite = entier(champs[2]);
+                long debut = System.nanoTime();
+                boolean reapprovisionne = articleService.reapprovisionner(articleId, quantite);
+                enregistrer(REAPPROVISIONNER, debut, reapprovisionne, "ARTICLE_INTROUVABLE_OU_QUANTITE_INVALIDE");
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("opération inconnue « " + champs[0] + " »");
+        }
+    }
+
+    private void enregistrer(String type, long debut, boolean reussie, String resultat) {
+        Statistique statistique = statistiques.get(type);
+        statistique.latences.enregistrer(System.nanoTime() - debut);
+        if (reussie) {
+            statistique.nombre++;
+            statistique.reussies++;
+        } else {
+            statistique.echec(resultat);
+        }
+    }
+
+    /**
+     * Identifiant d'une commande : un entier, ou @n pour la n-ième commande créée par le lot.
+     * @return L'identifiant, ou null si la commande référencée n'a pas pu être créée
+     */
+    private Integer commande(String reference) {
+        if (!reference.startsWith("@")) {
+            return entier(reference);
+        }
+        int rang = entier(reference.substring(1));
+        if (rang < 1 || rang > commandesCreees.size()) {
+            throw new IllegalArgumentException("la ligne « commande » n°" + rang + " n'a pas encore été lue");
+        }
+        return commandesCreees.get(rang - 1);
+    }
+
+    private static int entier(String texte) {
+        try {
+            return Integer.parseInt(texte);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("nombre attendu au lieu de « " + texte + " »");
+        }
+    }
+
+    private static void verifierNombreChamps(String[] champs, int minimum, int maximum) {
+        if (champs.length < minimum || champs.length > maximum) {
+            throw new IllegalArgumentException(minimum == maximum
+                    ? (minimum - 1) + " argument(s) attendu(s)"
+                    : "de " + (minimum - 1) + " à " + (maximum - 1) + " arguments attendus");
+        }
+    }
+
+    // ========== RÉSUMÉ ==========
+
+    /**
+     * Affiche le débit global, puis par type d'opération le nombre d'opérations, de réussites et
+     * d'échecs (par motif) et les latences p50, p95, p99 et maximale.
+     */
+    public void afficherResume() {
+        double secondes = duree / 1_000_000_000.0;
+        System.out.println("\n" + "=".repeat(86));
+        System.out.println("           RÉSUMÉ DU TRAITEMENT PAR LOT");
+        System.out.println("=".repeat(86));
+        System.out.printf("%d opérations en %.2f s : %.1f opérations/s%s%n", operations, secondes,
+                secondes > 0 ? operations / secondes : 0.0,
+                lignesIgnorees > 0 ? " (" + lignesIgnorees + " lignes ignorées)" : "");
+        System.out.printf("%n%-18s %8s %9s %8s %9s %9s %9s %9s%n",
+                "OPÉRATION", "NOMBRE", "RÉUSSIES", "ÉCHECS", "P50 MS", "P95 MS", "P99 MS", "MAX MS");
+        System.out.println("-".repeat(86));
+        for (Map.Entry<String, Statistique> entree : statistiques.entrySet()) {
+            Statistique statistique = entree.getValue();
+            if (statistique.nombre == 0) {
+                continue;
+            }
+            HistogrammeLatence latences = statistique.latences;
+            System.out.printf("%-18s %8d %9d %8d %9.3f %9.3f %9.3f %9.3f%n", entree.getKey(),
+                    statistique.nombre, statistique.reussies, statistique.nombre - statistique.reussies,
+                    latences.getPercentile(50) / 1000.0, latences.getPercentile(95) / 1000.0,
+                    latences.getPercentile(99) / 1000.0, latences.getMax() / 1000.0);
+        }
+        for (Map.Entry<String, Statistique> entree : statistiques.entrySet()) {
+            if (!entree.getValue().echecs.isEmpty()) {
+                System.out.println("Échecs " + entree.getKey() + " : " + entree.getValue().echecs);
+            }
+        }
+        System.out.println("=".repeat(86));
+    }
+
+    /** @return Le nombre de lignes mal formées ignorées */
+    public int getLignesIgnorees() {
+        return lignesIgnorees;
+    }
+
+    /**
+     * Compteurs d'un type d'opération.
+     */
+    private static final class Statistique {
+        private int nombre = 0;
+        private int reussies = 0;
+        private final Map<String, Integer> echecs = new TreeMap<>();
+        private final HistogrammeLatence latences = new HistogrammeLatence();
+
+        private void echec(String motif) {
+            nombre++;
+            echecs.merge(motif, 1, Integer::sum);
+        }
+    }
+}
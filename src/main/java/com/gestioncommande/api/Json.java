@@ -0,0 +1,265 @@
+package com.gestioncommande.api;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lecture et écriture JSON minimales pour l'API HTTP, sans bibliothèque externe.
+ * L'écriture prend en charge les Map (objets), les Collection (tableaux), les textes, nombres,
+ * booléens, dates (format ISO local, 2024-03-15T14:30:00) et null. La lecture se limite aux
+ * objets plats (valeurs texte, nombre, booléen ou null), seule forme des corps de requête.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+final class Json {
+
+    private static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private Json() {}
+
+    // ========== ÉCRITURE ==========
+
+    /**
+     * @param valeur Map, Collection, texte, nombre, booléen, date ou null
+     * @return Le texte JSON de la valeur
+     */
+    static String ecrire(Object valeur) {
+        StringBuilder texte = new StringBuilder();
+        ecrire(texte, valeur);
+        return texte.toString();
+    }
+
+    private static void ecrire(StringBuilder texte, Object valeur) {
+        if (valeur == null) {
+            texte.append("null");
+        } else if (valeur instanceof Map) {
+            texte.append('{');
+            boolean premier = true;
+            for (Map.Entry<?, ?> entree : ((Map<?, ?>) valeur).entrySet()) {
+                if (!premier) {
+                    texte.append(',');
+                }
+                premier = false;
+                ecrireTexte(texte, String.valueOf(entree.getKey()));
+                texte.append(':');
+                ecrire(texte, entree.getValue());
+            }
+            texte.append('}');
+        } else if (valeur instanceof Collection) {
+            texte.append('[');
+            boolean premier = true;
+            for (Object element : (Collection<?>) valeur) {
+                if (!premier) {
+                    texte.append(',');
+                }
+                premier = false;
+                ecrire(texte, element);
+            }
+            texte.append(']');
+        } else if (valeur instanceof BigDecimal) {
+            texte.append(((BigDecimal) valeur).toPlainString());
+        } else if (valeur instanceof Number || valeur instanceof Boolean) {
+            texte.append(valeur);
+        } else if (valeur instanceof Date) {
+            // getTime() plutôt que toInstant() : java.sql.Date ne prend pas en charge toInstant()
+            LocalDateTime date = LocalDateTime.ofInstant(Instant.ofEpochMilli(((Date) valeur).getTime()), ZoneId.systemDefault());
+            ecrireTexte(texte, date.format(FORMAT_DATE));
+        } else {
+            ecrireTexte(texte, valeur.toString());
+        }
+    }
+
+    private static void ecrireTexte(StringBuilder texte, String valeur) {
+        texte.append('"');
+        for (int i = 0; i < valeur.length(); i++) {
+            char c = valeur.charAt(i);
+            switch (c) {
+                case '"':
+                    texte.append("\\\"");
+                    break;
+                case '\\':
+                    texte.append("\\\\");
+                    break;
+                case '\n':
+                    texte.append("\\n");
+                    break;
+                case '\r':
+                    texte.append("\\r");
+                    break;
+                case '\t':
+                    texte.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        texte.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        texte.append(c);
+                    }
+            }
+        }
+        texte.append('"');
+    }
+
+    // ========== LECTURE ==========
+
+    /**
+     * Lit un objet JSON plat.
+     * @param json Le texte JSON
+     * @return Les champs de l'objet, dans l'ordre : String, BigDecimal, Boolean ou null
+     * @throws IllegalArgumentException Si le texte n'est pas un objet JSON plat valide
+     */
+    static Map<String, Object> lireObjet(String json) {
+        Lecteur lecteur = new Lecteur(json);
+        Map<String, Object> objet = new LinkedHashMap<>();
+        lecteur.attendre('{');
+        if (!lecteur.suivant('}')) {
+            do {
+                String cle = lecteur.lireTexte();
+                lecteur.attendre(':');
+                objet.put(cle, lecteur.lireValeur());
+            } while (lecteur.suivant(','));
+            lecteur.attendre('}');
+        }
+        lecteur.verifierFin();
+        return objet;
+    }
+
+    /**
+     * Analyseur d'un texte JSON, caractère par caractère.
+     */
+    private static final class Lecteur {
+        private final String texte;
+        private int position = 0;
+
+        private Lecteur(String texte) {
+            this.texte = texte;
+        }
+
+        private void ignorerEspaces() {
+            while (position < texte.length() && Character.isWhitespace(texte.charAt(position))) {
+                position++;
+            }
+        }
+
+        /** Consomme le caractère s'il est le prochain (hors espaces) */
+        private boolean suivant(char attendu) {
+            ignorerEspaces();
+            if (position < texte.length() && texte.charAt(position) == attendu) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void attendre(char attendu) {
+            if (!suivant(attendu)) {
+                throw erreur("« " + attendu + " » attendu");
+            }
+        }
+
+        private void verifierFin() {
+            ignorerEspaces();
+            if (position < texte.length()) {
+                throw erreur("fin du texte attendue");
+            }
+        }
+
+        private Object lireValeur() {
+            ignorerEspaces();
+            if (position >= texte.length()) {
+                throw erreur("valeur attendue");
+            }
+            char c = texte.charAt(position);
+            if (c == '"') {
+                return lireTexte();
+            }
+            if (texte.startsWith("true", position)) {
+                position += 4;
+                return Boolean.TRUE;
+            }
+            if (texte.startsWith("false", position)) {
+                position += 5;
+                return Boolean.FALSE;
+            }
+            if (texte.startsWith("null", position)) {
+                position += 4;
+                return null;
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                int debut = position;
+                while (position < texte.length() && "+-0123456789.eE".indexOf(texte.charAt(position)) >= 0) {
+                    position++;
+                }
+                try {
+                    return new BigDecimal(texte.substring(debut, position));
+                } catch (NumberFormatException e) {
+                    throw erreur("nombre invalide");
+                }
+            }
+            throw erreur("seules les valeurs texte, nombre, booléen et null sont acceptées");
+        }
+
+        private String lireTexte() {
+            attendre('"');
+            StringBuilder valeur = new StringBuilder();
+            while (position < texte.length()) {
+                char c = texte.charAt(position++);
+                if (c == '"') {
+                    return valeur.toString();
+                }
+                if (c != '\\') {
+                    valeur.append(c);
+                    continue;
+                }
+                if (position >= texte.length()) {
+                    break;
+                }
+                char echappe = texte.charAt(position++);
+                switch (echappe) {
+                    case 'b':
+                        valeur.append('\b');
+                        break;
+                    case 'f':
+                        valeur.append('\f');
+                        break;
+                    case 'n':
+                        valeur.append('\n');
+                        break;
+                    case 'r':
+                        valeur.append('\r');
+                        break;
+                    case 't':
+                        valeur.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > texte.length()) {
+                            throw erreur("séquence \\u incomplète");
+                        }
+                        try {
+                            valeur.append((char) Integer.parseInt(texte.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw erreur("séquence \\u invalide");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        valeur.append(echappe);
+                }
+            }
+            throw erreur("texte non terminé");
+        }
+
+        private IllegalArgumentException erreur(String message) {
+            return new IllegalArgumentException("JSON invalide (position " + position + ") : " + message);
+        }
+    }
+}
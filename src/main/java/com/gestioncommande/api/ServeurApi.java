@@ -0,0 +1,590 @@
+package com.gestioncommande.api;
+
+import com.gestioncommande.dao.DAOAsynchrone;
+import com.gestioncommande.dao.DatabaseConnection;
+import com.gestioncommande.entities.Article;
+import com.gestioncommande.entities.Client;
+import com.gestioncommande.entities.Commande;
+import com.gestioncommande.entities.CommandeDetaillee;
+import com.gestioncommande.service.ArticleService;
+import com.gestioncommande.service.ClientService;
+import com.gestioncommande.service.CommandeService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * API HTTP/JSON embarquée (com.sun.net.httpserver) exposant les opérations des services :
+ * <pre>
+ * GET  /api/sante                               état du serveur et du pool de connexions
+ * GET  /api/clients[?q=texte&amp;limite=n]          clients actifs, ou recherche
+ * GET  /api/clients/{id}                       client et ses dernières commandes
+ * GET  /api/articles[?q=texte&amp;limite=n]         articles actifs, ou recherche
+ * GET  /api/articles/{id}
+ * POST /api/articles/{id}/reapprovisionnement   {"quantite": 50}
+ * GET  /api/commandes[?client=id|statut=s][&amp;apres=id][&amp;taille=n]   page de commandes
+ * GET  /api/commandes/{id}                     commande, avec son client et son article
+ * POST /api/commandes                           {"clientId": 1, "articleId": 2, "quantite": 3, "observations": "..."}
+ * POST /api/commandes/{id}/validation
+ * POST /api/commandes/{id}/annulation
+ * </pre>
+ * Les refus métier (stock insuffisant, commande déjà validée...) sont renvoyés avec le code 409
+ * ou 422 et un corps {"resultat": "..."}. Un réapprovisionnement mis en attente
+ * (stock.regroupement.actif) est renvoyé avec le code 202 : l'article n'en tient pas encore compte.
+ *
+ * Chaque requête est traitée par un thread virtuel (Java 21+) ; le nombre de requêtes qui
+ * interrogent la base en même temps reste borné par le pool de connexions. Sur une JVM plus
+ * ancienne, les requêtes sont traitées par un pool de api.threads threads.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class ServeurApi {
+
+    // ========== CONSTANTES ==========
+
+    private static final String TYPE_JSON = "application/json; charset=utf-8";
+
+    /** Nombre maximum de résultats d'une recherche ou d'une page de commandes */
+    private static final int LIMITE_MAX = 500;
+
+    /** Nombre de résultats par défaut d'une recherche ou d'une page de commandes */
+    private static final int LIMITE_PAR_DEFAUT = 50;
+
+    /** Nombre de commandes renvoyées avec le détail d'un client */
+    private static final int COMMANDES_CLIENT = 10;
+
+    // ========== ATTRIBUTS ==========
+
+    private final ClientService clientService;
+    private final ArticleService articleService;
+    private final CommandeService commandeService;
+
+    /** Lectures lancées en parallèle pour composer les réponses détaillées */
+    private final DAOAsynchrone dao;
+
+    private final HttpServer serveur;
+    private final ExecutorService executeur;
+    private final boolean threadsVirtuels;
+
+    // ========== CONSTRUCTEUR ==========
+
+    /**
+     * Crée le serveur sans le démarrer.
+     *
+     * @param port Port d'écoute
+     * @param fileAttente Nombre de connexions entrantes en attente d'acceptation
+     * @param threads Nombre de threads de traitement si les threads virtuels ne sont pas disponibles
+     * @throws IOException Si le port ne peut pas être ouvert
+     * @throws SQLException Si le pool de connexions ne peut pas être initialisé
+     */
+    public ServeurApi(ClientService clientService, ArticleService articleService, CommandeService commandeService,
+                      int port, int fileAttente, int threads) throws IOException, SQLException {
+        this.clientService = clientService;
+        this.articleService = articleService;
+        this.commandeService = commandeService;
+        this.dao = new DAOAsynchrone();
+
+        ExecutorService virtuels = creerExecuteurVirtuel();
+        this.threadsVirtuels = virtuels != null;
+        this.executeur = virtuels != null ? virtuels : creerExecuteurPlateforme(threads);
+
+        this.serveur = HttpServer.create(new InetSocketAddress(port), fileAttente);
+        serveur.setExecutor(executeur);
+        serveur.createContext("/api/sante", echange -> traiter(echange, this::sante));
+        serveur.createContext("/api/clients", echange -> traiter(echange, this::clients));
+        serveur.createContext("/api/articles", echange -> traiter(echange, this::articles));
+        serveur.createContext("/api/commandes", echange -> traiter(echange, this::commandes));
+    }
+
+    /**
+     * Exécuteur à un thread virtuel par tâche, obtenu par réflexion pour que l'application
+     * reste compilable et exécutable avant Java 21.
+     * @return L'exécuteur, ou null si la JVM ne propose pas les threads virtuels
+     */
+    private static ExecutorService creerExecuteurVirtuel() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService creerExecuteurPlateforme(int threads) {
+        AtomicInteger numero = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), tache -> {
+            Thread thread = new Thread(tache, "api-http-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ========== CYCLE DE VIE ==========
+
+    /** Démarre l'écoute des requêtes */
+    public void demarrer() {
+        serveur.start();
+    }
+
+    /**
+     * Arrête le serveur : les requêtes en cours disposent d'au plus delai secondes pour se terminer.
+     * @param delai Délai d'arrêt en secondes
+     */
+    public void arreter(int delai) {
+        serveur.stop(delai);
+        executeur.shutdown();
+        try {
+            executeur.awaitTermination(delai, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** @return Le port d'écoute */
+    public int getPort() {
+        return serveur.getAddress().getPort();
+    }
+
+    /** @return true si les requêtes sont traitées par des threads virtuels */
+    public boolean isThreadsVirtuels() {
+        return threadsVirtuels;
+    }
+
+    // ========== TRAITEMENT DES REQUÊTES ==========
+
+    /**
+     * Traitement d'une requête, à partir de sa méthode, des segments de son chemin après le
+     * contexte et de ses paramètres.
+     */
+    @FunctionalInterface
+    private interface Gestionnaire {
+        Reponse traiter(Requete requete) throws IOException;
+    }
+
+    /**
+     * Exécute le gestionnaire et envoie sa réponse en JSON. Une ErreurHttp devient une réponse
+     * {"erreur": "..."} avec son code ; toute autre exception une erreur 500.
+     */
+    private void traiter(HttpExchange echange, Gestionnaire gestionnaire) {
+        Reponse reponse;
+        try {
+            reponse = gestionnaire.traiter(new Requete(echange));
+        } catch (ErreurHttp e) {
+            reponse = new Reponse(e.code, erreur(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            reponse = new Reponse(400, erreur(e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("Erreur lors du traitement de " + echange.getRequestMethod() + " "
+                    + echange.getRequestURI() + " : " + e);
+            reponse = new Reponse(500, erreur("Erreur interne"));
+        }
+
+        try (OutputStream sortie = echange.getResponseBody()) {
+            byte[] corps = Json.ecrire(reponse.corps).getBytes(StandardCharsets.UTF_8);
+            echange.getResponseHeaders().set("Content-Type", TYPE_JSON);
+            echange.sendResponseHeaders(reponse.code, corps.length);
+            sortie.write(corps);
+        } catch (IOException e) {
+            // Client déconnecté avant la fin de la réponse
+        } finally {
+            echange.close();
+        }
+    }
+
+    private Reponse sante(Requete requete) {
+        requete.verifierMethode("GET");
+        requete.verifierSegments(0, 0);
+        Map<String, Object> corps = new LinkedHashMap<>();
+        corps.put("statut", DatabaseConnection.testConnection() ? "ok" : "base inaccessible");
+        corps.put("threadsVirtuels", threadsVirtuels);
+        corps.put("pool", DatabaseConnection.getEtatPool());
+        return new Reponse(corps.get("statut").equals("ok") ? 200 : 503, corps);
+    }
+
+    // ---------- Clients ----------
+
+    private Reponse clients(Requete requete) {
+        requete.verifierMethode("GET");
+        requete.verifierSegments(0, 1);
+        if (requete.segments.size() == 1) {
+            // Le client et son historique sont lus en parallèle
+            int id = requete.entierSegment(0);
+            CompletableFuture<Client> client = dao.trouverClient(id);
+            CompletableFuture<List<CommandeDetaillee>> commandes = dao.listerCommandesClient(id, COMMANDES_CLIENT);
+            if (client.join() == null) {
+                throw new ErreurHttp(404, "Client introuvable");
+            }
+            Map<String, Object> corps = json(client.join());
+            List<Object> historique = new ArrayList<>();
+            for (CommandeDetaillee commande : commandes.join()) {
+                historique.add(json(commande));
+            }
+            corps.put("commandes", historique);
+            return new Reponse(200, corps);
+        }
+        String critere = requete.parametre("q");
+        List<Client> clients = critere != null
+                ? clientService.rechercherClients(critere, requete.limite("limite"))
+                : clientService.obtenirClientsActifs();
+        List<Object> corps = new ArrayList<>(clients.size());
+        for (Client client : clients) {
+            corps.add(json(client));
+        }
+        return new Reponse(200, corps);
+    }
+
+    // ---------- Articles ----------
+
+    private Reponse articles(Requete requete) throws IOException {
+        requete.verifierSegments(0, 2);
+        if (requete.segments.size() == 2) {
+            requete.verifierMethode("POST");
+            if (!requete.segments.get(1).equals("reapprovisionnement")) {
+                throw new ErreurHttp(404, "Ressource inconnue");
+            }
+            int id = requete.entierSegment(0);
+            int quantite = entier(requete.corps(), "quantite");
+            if (quantite <= 0) {
+                throw new ErreurHttp(422, "La quantité doit être positive");
+            }
+            if (!articleService.reapprovisionner(id, quantite)) {
+                throw new ErreurHttp(404, "Article introuvable");
+            }
+            // Ajout mis en attente (stock.regroupement.actif) : accepté, mais pas encore dans le stock renvoyé
+            int code = articleService.isReapprovisionnementDiffere() ? 202 : 200;
+            return new Reponse(code, json(articleService.trouverArticleParId(id)));
+        }
+
+        requete.verifierMethode("GET");
+        if (requete.segments.size() == 1) {
+            Article article = articleService.trouverArticleParId(requete.entierSegment(0));
+            if (article == null) {
+                throw new ErreurHttp(404, "Article introuvable");
+            }
+            return new Reponse(200, json(article));
+        }
+        String critere = requete.parametre("q");
+        List<Article> articles = critere != null
+                ? articleService.rechercherArticles(critere, requete.limite("limite"))
+                : articleService.obtenirArticlesActifs();
+        List<Object> corps = new ArrayList<>(articles.size());
+        for (Article article : articles) {
+            corps.add(json(article));
+        }
+        return new Reponse(200, corps);
+    }
+
+    // ---------- Commandes ----------
+
+    private Reponse commandes(Requete requete) throws IOException {
+        requete.verifierSegments(0, 2);
+        switch (requete.segments.size()) {
+            case 0:
+                return requete.methode.equals("POST") ? creerCommande(requete) : listerCommandes(requete);
+            case 1: {
+                requete.verifierMethode("GET");
+                Commande commande = commandeService.trouverCommandeParId(requete.entierSegment(0));
+                if (commande == null) {
+                    throw new ErreurHttp(404, "Commande introuvable");
+                }
+                // Le client et l'article sont lus en parallèle
+                CompletableFuture<Client> client = dao.trouverClient(commande.getClientId());
+                CompletableFuture<Article> article = dao.trouverArticle(commande.getArticleId());
+                Map<String, Object> corps = json(commande);
+                corps.put("client", client.join() != null ? json(client.join()) : null);
+                corps.put("article", article.join() != null ? json(article.join()) : null);
+                return new Reponse(200, corps);
+            }
+            default:
+                requete.verifierMethode("POST");
+                int id = requete.entierSegment(0);
+                switch (requete.segments.get(1)) {
+                    case "validation":
+                        return transition(id, commandeService.validerCommande(id).name());
+                    case "annulation":
+                        return transition(id, commandeService.annulerCommande(id).name());
+                    default:
+                        throw new ErreurHttp(404, "Ressource inconnue");
+                }
+        }
+    }
+
+    private Reponse listerCommandes(Requete requete) {
+        requete.verifierMethode("GET");
+        String client = requete.parametre("client");
+        String apres = requete.parametre("apres");
+        Commande curseur = null;
+        if (apres != null) {
+            curseur = commandeService.trouverCommandeParId(entier(apres, "apres"));
+            if (curseur == null) {
+                throw new ErreurHttp(404, "Commande « apres » introuvable");
+            }
+        }
+        List<CommandeDetaillee> commandes = commandeService.listerCommandes(
+                client != null ? entier(client, "client") : 0, requete.parametre("statut"),
+                curseur, requete.limite("taille"));
+        List<Object> corps = new ArrayList<>(commandes.size());
+        for (CommandeDetaillee commande : commandes) {
+            corps.add(json(commande));
+        }
+        return new Reponse(200, corps);
+    }
+
+    private Reponse creerCommande(Requete requete) throws IOException {
+        Map<String, Object> corps = requete.corps();
+        Commande commande = new Commande();
+        commande.setClientId(entier(corps, "clientId"));
+        commande.setArticleId(entier(corps, "articleId"));
+        commande.setQuantite(entier(corps, "quantite"));
+        Object observations = corps.get("observations");
+        commande.setObservations(observations != null ? observations.toString() : "");
+
+        CommandeService.ResultatCreation resultat = commandeService.effectuerCommande(commande);
+        if (resultat == CommandeService.ResultatCreation.CREEE) {
+            Map<String, Object> reponse = json(commande);
+            reponse.put("resultat", resultat.name());
+            return new Reponse(201, reponse);
+        }
+        Map<String, Object> refus = new LinkedHashMap<>();
+        refus.put("resultat", resultat.name());
+        return new Reponse(codeRefus(resultat.name()), refus);
+    }
+
+    /**
+     * Réponse d'une validation ou d'une annulation : 200 si elle a eu lieu, sinon le code du refus.
+     */
+    private static Reponse transition(int id, String resultat) {
+        Map<String, Object> corps = new LinkedHashMap<>();
+        corps.put("id", id);
+        corps.put("resultat", resultat);
+        boolean effectuee = resultat.equals("VALIDEE") || resultat.equals("ANNULEE");
+        return new Reponse(effectuee ? 200 : codeRefus(resultat), corps);
+    }
+
+    /** Code HTTP d'un résultat métier négatif */
+    private static int codeRefus(String resultat) {
+        switch (resultat) {
+            case "INTROUVABLE":
+                return 404;
+            case "CLIENT_INVALIDE":
+            case "ARTICLE_INVALIDE":
+            case "QUANTITE_INVALIDE":
+                return 422;
+            case "ERREUR":
+                return 500;
+            default:
+                // STOCK_INSUFFISANT, DEJA_VALIDEE, ANNULEE (pour une validation), DEJA_ANNULEE
+                return 409;
+        }
+    }
+
+    // ========== CONVERSION EN JSON ==========
+
+    private static Map<String, Object> json(Client client) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", client.getId());
+        json.put("nom", client.getNom());
+        json.put("prenom", client.getPrenom());
+        json.put("sexe", client.getSexe());
+        json.put("type", client.getType());
+        json.put("contact", client.getContact());
+        json.put("email", client.getEmail());
+        json.put("adresse", client.getAdresse());
+        json.put("dateCreation", client.getDateCreation());
+        json.put("actif", client.isActif());
+        return json;
+    }
+
+    /** Article, avec la quantité réservée par les commandes en cours et le stock disponible */
+    private Map<String, Object> json(Article article) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", article.getId());
+        json.put("designation", article.getDesignation());
+        json.put("categorie", article.getCategorie());
+        json.put("prix", article.getPrix());
+        json.put("stock", article.getStock());
+        int reservee = commandeService.getQuantiteReservee(article.getId());
+        json.put("stockReserve", reservee);
+        json.put("stockDisponible", article.getStock() - reservee);
+        json.put("stockMinimum", article.getStockMinimum());
+        json.put("description", article.getDescription());
+        json.put("dateCreation", article.getDateCreation());
+        json.put("dateModification", article.getDateModification());
+        json.put("actif", article.isActif());
+        return json;
+    }
+
+    private static Map<String, Object> json(Commande commande) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", commande.getId());
+        json.put("clientId", commande.getClientId());
+        json.put("articleId", commande.getArticleId());
+        json.put("quantite", commande.getQuantite());
+        json.put("prixUnitaire", commande.getPrixUnitaire());
+        json.put("montantTotal", commande.getMontantTotal());
+        json.put("dateCommande", commande.getDateCommande());
+        json.put("typeCommande", commande.getTypeCommande());
+        json.put("statut", commande.getStatut());
+        json.put("observations", commande.getObservations());
+        json.put("dateValidation", commande.getDateValidation());
+        if (commande instanceof CommandeDetaillee) {
+            CommandeDetaillee detaillee = (CommandeDetaillee) commande;
+            json.put("clientNom", detaillee.getClientNom());
+            json.put("clientPrenom", detaillee.getClientPrenom());
+            json.put("articleDesignation", detaillee.getArticleDesignation());
+        }
+        return json;
+    }
+
+    private static Map<String, Object> erreur(String message) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("erreur", message);
+        return json;
+    }
+
+    // ========== LECTURE DES PARAMÈTRES ==========
+
+    private static int entier(Map<String, Object> corps, String champ) {
+        Object valeur = corps.get(champ);
+        if (!(valeur instanceof BigDecimal)) {
+            throw new ErreurHttp(400, "Champ numérique « " + champ + " » attendu");
+        }
+        try {
+            return ((BigDecimal) valeur).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new ErreurHttp(400, "Champ « " + champ + " » : entier attendu");
+        }
+    }
+
+    private static int entier(String texte, String nom) {
+        try {
+            return Integer.parseInt(texte);
+        } catch (NumberFormatException e) {
+            throw new ErreurHttp(400, "« " + nom + " » : entier attendu au lieu de « " + texte + " »");
+        }
+    }
+
+    // ========== CLASSES INTERNES ==========
+
+    /**
+     * Requête reçue : méthode, segments du chemin après le contexte (/api/commandes/12/validation
+     * donne [12, validation]) et paramètres de l'URL.
+     */
+    private static final class Requete {
+        private final HttpExchange echange;
+        private final String methode;
+        private final List<String> segments = new ArrayList<>();
+        private final Map<String, String> parametres = new HashMap<>();
+
+        private Requete(HttpExchange echange) {
+            this.echange = echange;
+            this.methode = echange.getRequestMethod();
+            String chemin = echange.getRequestURI().getPath().substring(echange.getHttpContext().getPath().length());
+            for (String segment : chemin.split("/")) {
+                if (!segment.isEmpty()) {
+                    segments.add(segment);
+                }
+            }
+            String requete = echange.getRequestURI().getRawQuery();
+            if (requete != null) {
+                for (String parametre : requete.split("&")) {
+                    int egal = parametre.indexOf('=');
+                    if (egal > 0) {
+                        parametres.put(URLDecoder.decode(parametre.substring(0, egal), StandardCharsets.UTF_8),
+                                URLDecoder.decode(parametre.substring(egal + 1), StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        }
+
+        private void verifierMethode(String attendue) {
+            if (!methode.equals(attendue)) {
+                echange.getResponseHeaders().set("Allow", attendue);
+                throw new ErreurHttp(405, "Méthode " + methode + " non autorisée (" + attendue + " attendue)");
+            }
+        }
+
+        private void verifierSegments(int minimum, int maximum) {
+            if (segments.size() < minimum || segments.size() > maximum) {
+                throw new ErreurHttp(404, "Ressource inconnue");
+            }
+        }
+
+        private int entierSegment(int indice) {
+            try {
+                return Integer.parseInt(segments.get(indice));
+            } catch (NumberFormatException e) {
+                throw new ErreurHttp(404, "Identifiant invalide : " + segments.get(indice));
+            }
+        }
+
+        private String parametre(String nom) {
+            String valeur = parametres.get(nom);
+            return valeur == null || valeur.isEmpty() ? null : valeur;
+        }
+
+        /** Nombre de résultats demandé par le paramètre, borné à LIMITE_MAX */
+        private int limite(String nom) {
+            String valeur = parametre(nom);
+            int limite = valeur != null ? entier(valeur, nom) : LIMITE_PAR_DEFAUT;
+            if (limite <= 0) {
+                throw new ErreurHttp(400, "« " + nom + " » doit être positif");
+            }
+            return Math.min(limite, LIMITE_MAX);
+        }
+
+        /** Corps JSON de la requête (objet plat) */
+        private Map<String, Object> corps() throws IOException {
+            try (InputStream entree = echange.getRequestBody()) {
+                String texte = new String(entree.readAllBytes(), StandardCharsets.UTF_8);
+                return Json.lireObjet(texte.isBlank() ? "{}" : texte);
+            }
+        }
+    }
+
+    /**
+     * Code HTTP et corps (converti en JSON) d'une réponse.
+     */
+    private static final class Reponse {
+        private final int code;
+        private final Object corps;
+
+        private Reponse(int code, Object corps) {
+            this.code = code;
+            this.corps = corps;
+        }
+    }
+
+    /**
+     * Erreur renvoyée au client avec un code HTTP et un message.
+     */
+    private static final class ErreurHttp extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int code;
+
+        private ErreurHttp(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+}
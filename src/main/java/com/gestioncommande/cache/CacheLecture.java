@@ -0,0 +1,195 @@
+package com.gestioncommande.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache en mémoire à lecture traversante (read-through), borné en taille et en durée de vie.
+ * Lorsque la taille maximale est atteinte, l'entrée la moins récemment utilisée est évincée.
+ * Les valeurs sont copiées à l'entrée et à la sortie : un appelant qui modifie l'objet
+ * obtenu ne modifie pas le contenu du cache.
+ *
+ * @param <K> Type de la clé
+ * @param <V> Type de la valeur
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class CacheLecture<K, V> {
+
+    // ========== ATTRIBUTS ==========
+
+    /** Nom du cache (affiché dans les statistiques) */
+    private final String nom;
+
+    /** Nombre maximum d'entrées */
+    private final int tailleMax;
+
+    /** Durée de vie d'une entrée en millisecondes */
+    private final long dureeVie;
+
+    /** Fonction de copie des valeurs */
+    private final UnaryOperator<V> copie;
+
+    /** Entrées, de la moins récemment utilisée à la plus récente (ordre d'accès) */
+    private final LinkedHashMap<K, Entree<V>> entrees;
+
+    /**
+     * Génération incrémentée à chaque invalidation : une valeur chargée pendant une
+     * invalidation n'est pas mise en cache, car elle peut être antérieure à la modification.
+     */
+    private long generation = 0;
+
+    private final AtomicLong succes = new AtomicLong();
+    private final AtomicLong echecs = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // ========== CONSTRUCTEUR ==========
+
+    /**
+     * @param nom Nom du cache
+     * @param tailleMax Nombre maximum d'entrées (0 désactive le cache)
+     * @param dureeVie Durée de vie d'une entrée en millisecondes
+     * @param copie Fonction de copie des valeurs
+     */
+    public CacheLecture(String nom, int tailleMax, long dureeVie, UnaryOperator<V> copie) {
+        this.nom = nom;
+        this.tailleMax = Math.max(0, tailleMax);
+        this.dureeVie = dureeVie;
+        this.copie = copie;
+        this.entrees = new LinkedHashMap<K, Entree<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entree<V>> plusAncienne) {
+                if (size() > CacheLecture.this.tailleMax) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // ========== LECTURE ==========
+
+    /**
+     * Retourne la valeur associée à la clé, en la chargeant si elle est absente ou expirée.
+     * Le chargement a lieu hors verrou ; une valeur null n'est pas mise en cache.
+     *
+     * @param cle La clé recherchée
+     * @param chargeur Fonction de chargement (requête en base)
+     * @return Une copie de la valeur, ou null si le chargeur n'a rien trouvé
+     */
+    public V obtenir(K cle, Function<K, V> chargeur) {
+        long generationChargement;
+        synchronized (this) {
+            Entree<V> entree = entrees.get(cle);
+            if (entree != null) {
+                if (entree.expiration > System.currentTimeMillis()) {
+                    succes.incrementAndGet();
+                    return copie.apply(entree.valeur);
+                }
+                entrees.remove(cle);
+                evictions.incrementAndGet();
+            }
+            generationChargement = generation;
+        }
+
+        echecs.incrementAndGet();
+        V valeur = chargeur.apply(cle);
+        if (valeur != null && tailleMax > 0) {
+            synchronized (this) {
+                if (generation == generationChargement) {
+                    entrees.put(cle, new Entree<>(copie.apply(valeur), System.currentTimeMillis() + dureeVie));
+                }
+            }
+        }
+        return valeur;
+    }
+
+    // ========== INVALIDATION ==========
+
+    /**
+     * Retire une clé du cache (après une modification en base).
+     * @param cle La clé à invalider
+     */
+    public synchronized void invalider(K cle) {
+        generation++;
+        entrees.remove(cle);
+    }
+
+    /**
+     * Vide entièrement le cache.
+     */
+    public synchronized void vider() {
+        generation++;
+        entrees.clear();
+    }
+
+    /**
+     * Retire les entrées expirées.
+     * @return Le nombre d'entrées retirées
+     */
+    public synchronized int purgerExpirees() {
+        long maintenant = System.currentTimeMillis();
+        int retirees = 0;
+        Iterator<Entree<V>> iterateur = entrees.values().iterator();
+        while (iterateur.hasNext()) {
+            if (iterateur.next().expiration <= maintenant) {
+                iterateur.remove();
+                retirees++;
+            }
+        }
+        evictions.addAndGet(retirees);
+        return retirees;
+    }
+
+    // ========== STATISTIQUES ==========
+
+    public long getSucces() {
+        return succes.get();
+    }
+
+    public long getEchecs() {
+        return echecs.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int getTaille() {
+        return entrees.size();
+    }
+
+    /**
+     * @return Le taux de succès en pourcentage (0 si le cache n'a jamais été interrogé)
+     */
+    public double getTauxSucces() {
+        long total = succes.get() + echecs.get();
+        return total == 0 ? 0.0 : 100.0 * succes.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache %s : %d/%d entrées, %d succès, %d échecs (%.1f %%), %d évictions",
+                nom, getTaille(), tailleMax, getSucces(), getEchecs(), getTauxSucces(), getEvictions());
+    }
+
+    /**
+     * Valeur en cache avec sa date d'expiration.
+     */
+    private static final class Entree<V> {
+        private final V valeur;
+        private final long expiration;
+
+        private Entree(V valeur, long expiration) {
+            this.valeur = valeur;
+            this.expiration = expiration;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.gestioncommande.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Catalogue trié, en mémoire, des éléments actifs d'une table (clients ou articles actifs).
+ * Il est chargé une seule fois, au premier listage, puis tenu à jour par les DAO :
+ * - les écritures qui connaissent la ligne complète (ajout, modification) la remplacent directement ;
+ * - les autres (activation, mouvements de stock) marquent l'identifiant comme périmé, et seules
+ *   les lignes périmées sont relues, en une requête, au listage suivant.
+ * Sans modification depuis le dernier listage, lister ne fait aucun accès à la base.
+ *
+ * @param <T> Type des éléments
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class CatalogueTrie<T> {
+
+    // ========== ATTRIBUTS ==========
+
+    /** Nom du catalogue (affiché dans les statistiques) */
+    private final String nom;
+
+    /** Ordre d'affichage, complété par l'identifiant pour départager les égalités */
+    private final Comparator<T> ordre;
+
+    private final ToIntFunction<T> identifiant;
+
+    /** Indique si un élément doit figurer dans le catalogue (état actif) */
+    private final Predicate<T> estActif;
+
+    private final UnaryOperator<T> copie;
+
+    private final Map<Integer, T> parId = new HashMap<>();
+    private final TreeSet<T> tries;
+
+    /** Identifiants modifiés en base dont la ligne doit être relue */
+    private final Set<Integer> perimes = new HashSet<>();
+
+    /** Dernière liste renvoyée, réutilisée tant que le catalogue n'a pas changé */
+    private List<T> instantane = null;
+
+    private boolean charge = false;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    // ========== CONSTRUCTEUR ==========
+
+    /**
+     * @param nom Nom du catalogue
+     * @param ordre Ordre d'affichage des éléments
+     * @param identifiant Fonction donnant l'identifiant d'un élément
+     * @param estActif Prédicat indiquant si un élément appartient au catalogue
+     * @param copie Fonction de copie des éléments
+     */
+    public CatalogueTrie(String nom, Comparator<T> ordre, ToIntFunction<T> identifiant,
+                         Predicate<T> estActif, UnaryOperator<T> copie) {
+        this.nom = nom;
+        this.ordre = ordre.thenComparingInt(identifiant);
+        this.identifiant = identifiant;
+        this.estActif = estActif;
+        this.copie = copie;
+        this.tries = new TreeSet<>(this.ordre);
+    }
+
+    // ========== LECTURE ==========
+
+    /**
+     * Retourne les éléments actifs triés.
+     * La liste renvoyée est partagée et non modifiable : ses éléments ne doivent pas être modifiés.
+     *
+     * @param chargementComplet Chargement de tous les éléments actifs (premier appel)
+     * @param rechargement Relecture d'une liste d'identifiants (éléments périmés)
+     * @return La liste triée des éléments actifs
+     */
+    public List<T> lister(Supplier<List<T>> chargementComplet,
+                          Function<Collection<Integer>, List<T>> rechargement) {
+        verrou.readLock().lock();
+        try {
+            if (charge && perimes.isEmpty() && instantane != null) {
+                return instantane;
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+
+        verrou.writeLock().lock();
+        try {
+            if (!charge) {
+                for (T element : chargementComplet.get()) {
+                    placer(element);
+                }
+                charge = true;
+                perimes.clear();
+            } else if (!perimes.isEmpty()) {
+                List<Integer> aRelire = new ArrayList<>(perimes);
+                perimes.clear();
+                for (Integer id : aRelire) {
+                    retirerSansVerrou(id);
+                }
+                for (T element : rechargement.apply(aRelire)) {
+                    placer(element);
+                }
+            }
+            if (instantane == null) {
+                instantane = Collections.unmodifiableList(new ArrayList<>(tries));
+            }
+            return instantane;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // ========== MISES À JOUR ==========
+
+    /**
+     * Remplace un élément par sa nouvelle version (ajout ou modification en base).
+     * L'élément est retiré du catalogue s'il n'est plus actif.
+     * Sans effet tant que le catalogue n'est pas chargé.
+     *
+     * @param element La nouvelle version de l'élément
+     */
+    public void mettreAJour(T element) {
+        verrou.writeLock().lock();
+        try {
+            if (charge) {
+                int id = identifiant.applyAsInt(element);
+                retirerSansVerrou(id);
+                placer(element);
+                perimes.remove(id);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Signale qu'un élément a été modifié en base sans que sa nouvelle version soit connue.
+     * Il sera relu au prochain listage.
+     *
+     * @param id L'identifiant de l'élément modifié
+     */
+    public void marquerPerime(int id) {
+        verrou.writeLock().lock();
+        try {
+            if (charge) {
+                perimes.add(id);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vide le catalogue : il sera entièrement rechargé au prochain listage.
+     */
+    public void vider() {
+        verrou.writeLock().lock();
+        try {
+            parId.clear();
+            tries.clear();
+            perimes.clear();
+            instantane = null;
+            charge = false;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // ========== STATISTIQUES ==========
+
+    @Override
+    public String toString() {
+        verrou.readLock().lock();
+        try {
+            return "Catalogue " + nom + " : " + (charge ? parId.size() + " éléments actifs, "
+                    + perimes.size() + " à relire" : "non chargé");
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ========== MÉTHODES INTERNES (verrou d'écriture détenu) ==========
+
+    private void placer(T element) {
+        if (estActif.test(element)) {
+            T copieElement = copie.apply(element);
+            parId.put(identifiant.applyAsInt(copieElement), copieElement);
+            tries.add(copieElement);
+        }
+        instantane = null;
+    }
+
+    private void retirerSansVerrou(int id) {
+        T ancien = parId.remove(id);
+        if (ancien != null) {
+            tries.remove(ancien);
+            instantane = null;
+        }
+    }
+}
@@ -1,20 +1,77 @@
 package com.gestioncommande.dao;
 
+import com.gestioncommande.cache.CacheLecture;
+import com.gestioncommande.cache.CatalogueTrie;
 import com.gestioncommande.entities.Article;
+import com.gestioncommande.recherche.IndexTrigrammes;
 
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
  * Classe DAO pour la gestion des articles
  */
 public class ArticleDAO {
-    private Connection connection;
 
+    /**
+     * Conversion des lignes de la table articles, par position de colonne (voir MappeurLignes)
+     */
+    public static final MappeurLignes<Article> MAPPEUR = new MappeurLignes<>(Article::new)
+            .colonne("id", (article, resultSet, i) -> article.setId(resultSet.getInt(i)))
+            .colonne("designation", (article, resultSet, i) -> article.setDesignation(resultSet.getString(i)))
+            .colonne("categorie", (article, resultSet, i) -> article.setCategorie(resultSet.getString(i)))
+            .colonne("prix", (article, resultSet, i) -> article.setPrix(resultSet.getBigDecimal(i)))
+            .colonne("stock", (article, resultSet, i) -> article.setStock(resultSet.getInt(i)))
+            .colonne("stock_minimum", (article, resultSet, i) -> article.setStockMinimum(resultSet.getInt(i)))
+            .colonne("description", (article, resultSet, i) -> article.setDescription(resultSet.getString(i)))
+            .colonne("date_creation", (article, resultSet, i) -> article.setDateCreation(resultSet.getTimestamp(i)))
+            .colonne("date_modification", (article, resultSet, i) -> article.setDateModification(resultSet.getTimestamp(i)))
+            .colonne("etat", (article, resultSet, i) -> article.setEtat(resultSet.getInt(i)))
+            .colonne("version", (article, resultSet, i) -> article.setVersion(resultSet.getInt(i)));
+
+    /** Liste explicite des colonnes d'un article, utilisée à la place de SELECT * */
+    private static final String COLONNES = MAPPEUR.colonnes();
+
+    /** Lectures de la table articles pour l'index de recherche et le rafraîchissement du catalogue */
+    private static final LecturesCatalogue<Article> LECTURES = new LecturesCatalogue<>("articles", MAPPEUR);
+
+    /**
+     * Cache des articles lus par identifiant, partagé par toutes les instances du DAO.
+     * Taille et durée de vie : cache.articles.taille et cache.articles.ttl (ms).
+     */
+    private static final CacheLecture<Integer, Article> CACHE = new CacheLecture<>("articles",
+            ConfigurationBD.getInt("cache.articles.taille", 1000),
+            ConfigurationBD.getLong("cache.articles.ttl", 30000L),
+            Article::new);
+
+    /**
+     * Catalogue trié des articles actifs, chargé au premier listage puis tenu à jour par les écritures
+     * de ce DAO. L'ordre reproduit celui de la base (désignation, sans tenir compte de la casse ni des accents).
+     */
+    private static final CatalogueTrie<Article> CATALOGUE = new CatalogueTrie<>("articles actifs",
+            Comparator.comparing(Article::getDesignation, LecturesCatalogue.ordreAlphabetique()),
+            Article::getId, Article::isActif, Article::new);
+
+    /**
+     * Index de recherche (trigrammes) sur la désignation et la catégorie de tous les articles.
+     * Remplace les LIKE '%x%', qui ne peuvent pas utiliser idx_designation et parcourent toute la table.
+     */
+    private static final IndexTrigrammes<Article> INDEX = new IndexTrigrammes<>("articles",
+            article -> new String[] {article.getDesignation(), article.getCategorie()},
+            Article::getId, Article::new,
+            Comparator.comparing(Article::getDesignation, LecturesCatalogue.ordreAlphabetique()));
+
+    /**
+     * Initialise le pool de connexions si nécessaire.
+     * Chaque opération emprunte ensuite sa propre connexion au pool.
+     * @throws SQLException
+     */
     public ArticleDAO() throws SQLException {
-        this.connection = DatabaseConnection.getConnection();
+        DatabaseConnection.initialiser();
+        CompteursStock.demarrer();
     }
 
     /**
@@ -26,7 +83,8 @@ public class ArticleDAO {
         String sql = "INSERT INTO articles (designation, categorie, prix, stock, stock_minimum, " +
                      "description, date_creation, date_modification, etat) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             statement.setString(1, article.getDesignation());
             statement.setString(2, article.getCategorie());
             statement.setBigDecimal(3, article.getPrix());
@@ -43,6 +101,8 @@ public class ArticleDAO {
                 if (generatedKeys.next()) {
                     article.setId(generatedKeys.getInt(1));
                 }
+                CATALOGUE.mettreAJour(article);
+                INDEX.indexer(article);
                 return true;
             }
         } catch (SQLException e) {
@@ -52,15 +112,24 @@ public class ArticleDAO {
     }
 
     /**
-     * Met à jour un article existant
+     * Met à jour un article existant, si sa ligne n'a pas changé depuis sa lecture.
+     * La mise à jour n'a lieu que si la version de la ligne est encore celle de l'article
+     * (WHERE version=?) et que le stock couvre la quantité réservée par les commandes en cours ;
+     * l'article reçoit alors la nouvelle version.
      * @param article
-     * @return boolean
+     * @return ResultatMiseAJour CONFLIT si l'article a été modifié entre-temps
+     *         (par un autre utilisateur ou un mouvement de stock), STOCK_RESERVE si son stock
+     *         est inférieur à la quantité réservée
      */
-    public boolean modifier(Article article) {
+    public ResultatMiseAJour modifier(Article article) {
         String sql = "UPDATE articles SET designation=?, categorie=?, prix=?, stock=?, stock_minimum=?, " +
-                     "description=?, date_modification=?, etat=? WHERE id=?";
+                     "description=?, date_modification=?, etat=?, version=version+1 " +
+                     "WHERE id=? AND version=? AND ? >= stock_reserve";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        // Le stock est écrasé : les validations décomptées en mémoire doivent être écrites avant
+        CompteursStock.ecrireEnAttente();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setString(1, article.getDesignation());
             statement.setString(2, article.getCategorie());
             statement.setBigDecimal(3, article.getPrix());
@@ -70,12 +139,23 @@ public class ArticleDAO {
             statement.setTimestamp(7, new Timestamp(article.getDateModification().getTime()));
             statement.setInt(8, article.getEtat());
             statement.setInt(9, article.getId());
+            statement.setInt(10, article.getVersion());
+            statement.setInt(11, article.getStock());
 
-            return statement.executeUpdate() > 0;
+            boolean modifie = statement.executeUpdate() > 0;
+            CACHE.invalider(article.getId());
+            CompteursStock.marquerPerime(article.getId());
+            if (!modifie) {
+                return constaterEchecStock(connection, article.getId(), article.getStock());
+            }
+            article.setVersion(article.getVersion() + 1);
+            CATALOGUE.mettreAJour(article);
+            INDEX.indexer(article);
+            return ResultatMiseAJour.MODIFIEE;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la modification de l'article : " + e.getMessage());
         }
-        return false;
+        return ResultatMiseAJour.ERREUR;
     }
 
     /**
@@ -94,13 +174,16 @@ public class ArticleDAO {
      * @return boolean
      */
     public boolean activerDesactiver(int id, int etat) {
-        String sql = "UPDATE articles SET etat=?, date_modification=? WHERE id=?";
+        String sql = "UPDATE articles SET etat=?, date_modification=?, version=version+1 WHERE id=?";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, etat);
             statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
             statement.setInt(3, id);
-            return statement.executeUpdate() > 0;
+            boolean modifie = statement.executeUpdate() > 0;
+            signalerModification(id);
+            return modifie;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la modification de l'état de l'article : " + e.getMessage());
         }
@@ -108,19 +191,24 @@ public class ArticleDAO {
     }
 
     /**
-     * Met à jour le stock d'un article
+     * Met à jour le stock d'un article, s'il couvre la quantité réservée par les commandes en cours
      * @param id
      * @param nouveauStock
-     * @return boolean
+     * @return boolean false si l'article est introuvable ou le stock inférieur à la quantité réservée
      */
     public boolean modifierStock(int id, int nouveauStock) {
-        String sql = "UPDATE articles SET stock=?, date_modification=? WHERE id=?";
+        String sql = "UPDATE articles SET stock=?, date_modification=?, version=version+1 WHERE id=? AND ? >= stock_reserve";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        CompteursStock.ecrireEnAttente();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, nouveauStock);
             statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
             statement.setInt(3, id);
-            return statement.executeUpdate() > 0;
+            statement.setInt(4, nouveauStock);
+            boolean modifie = statement.executeUpdate() > 0;
+            signalerModification(id);
+            return modifie;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la modification du stock : " + e.getMessage());
         }
@@ -128,19 +216,170 @@ public class ArticleDAO {
     }
 
     /**
-     * Trouve un article par son ID
+     * Met à jour le stock d'un article lu au préalable, si sa ligne n'a pas changé depuis :
+     * une commande ou une autre saisie de stock intervenue entre-temps donne un CONFLIT au lieu
+     * d'être écrasée. L'article reçoit le nouveau stock et la nouvelle version.
+     * @param article L'article tel qu'il a été lu
+     * @param nouveauStock
+     * @return ResultatMiseAJour STOCK_RESERVE si le stock est inférieur à la quantité réservée
+     */
+    public ResultatMiseAJour modifierStock(Article article, int nouveauStock) {
+        String sql = "UPDATE articles SET stock=?, date_modification=?, version=version+1 WHERE id=? AND version=? " +
+                     "AND ? >= stock_reserve";
+        
+        CompteursStock.ecrireEnAttente();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, nouveauStock);
+            statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            statement.setInt(3, article.getId());
+            statement.setInt(4, article.getVersion());
+            statement.setInt(5, nouveauStock);
+            boolean modifie = statement.executeUpdate() > 0;
+            signalerModification(article.getId());
+            if (!modifie) {
+                return constaterEchecStock(connection, article.getId(), nouveauStock);
+            }
+            article.setStock(nouveauStock);
+            article.setVersion(article.getVersion() + 1);
+            return ResultatMiseAJour.MODIFIEE;
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la modification du stock : " + e.getMessage());
+        }
+        return ResultatMiseAJour.ERREUR;
+    }
+
+    /**
+     * Décrémente le stock d'un article en une seule requête conditionnelle.
+     * La mise à jour n'a lieu que si l'article est actif et que son stock disponible (hors stock
+     * réservé par les commandes en cours) est suffisant, ce qui évite la lecture préalable et les
+     * mises à jour perdues en cas d'accès concurrents.
+     * @param id
+     * @param quantite
+     * @return boolean true si le stock a été décrémenté, false si stock insuffisant ou article inactif
+     */
+    public boolean decrementerStock(int id, int quantite) {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            return decrementerStock(connection, id, quantite);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la décrémentation du stock : " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Décrémente le stock d'un article sur une connexion fournie par l'appelant,
+     * pour participer à une transaction (voir GestionnaireTransactions).
+     * @param connection
+     * @param id
+     * @param quantite
+     * @return boolean true si le stock a été décrémenté, false si stock insuffisant ou article inactif
+     * @throws SQLException
+     */
+    public boolean decrementerStock(Connection connection, int id, int quantite) throws SQLException {
+        return decrementerStock(connection, id, quantite, 0);
+    }
+
+    /**
+     * Décrémente le stock d'un article en consommant une réservation (voir ReservationsStock) :
+     * la quantité réservée par la commande est retirée de stock_reserve dans la même requête.
+     * Le stock réservé par les autres commandes en cours n'est jamais entamé : la condition porte
+     * sur le stock disponible (stock - stock_reserve), augmenté de la réservation consommée.
+     * @param connection
+     * @param id
+     * @param quantite La quantité à retirer du stock
+     * @param reservee La quantité réservée par la commande (0 si elle n'a pas de réservation)
+     * @return boolean true si le stock a été décrémenté, false si stock insuffisant ou article inactif
+     * @throws SQLException
+     */
+    public boolean decrementerStock(Connection connection, int id, int quantite, int reservee) throws SQLException {
+        String sql = "UPDATE articles SET stock = stock - ?, stock_reserve = stock_reserve - ?, date_modification=?, " +
+                     "version=version+1 WHERE id=? AND stock - stock_reserve + ? >= ? AND etat=1";
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, quantite);
+            statement.setInt(2, reservee);
+            statement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+            statement.setInt(4, id);
+            statement.setInt(5, reservee);
+            statement.setInt(6, quantite);
+            boolean modifie = statement.executeUpdate() > 0;
+            signalerModification(id);
+            return modifie;
+        }
+    }
+
+    /**
+     * Incrémente le stock d'un article (réapprovisionnement ou restitution).
+     * Avec stock.regroupement.actif=true, l'ajout est mis en attente et cumulé avec les autres
+     * mouvements de l'article, écrits en une seule requête (voir CompteursStock) : seule
+     * l'existence de l'article est alors vérifiée, par le cache. L'ajout n'est pas journalisé :
+     * jusqu'à la prochaine écriture groupée (au plus stock.memoire.intervalle ms, et à la fermeture
+     * du pool), la table articles ne le montre pas et un arrêt brutal le perd.
+     * @param id
+     * @param quantite
+     * @return boolean true si le stock a été augmenté en base ou, avec stock.regroupement.actif,
+     *         si l'ajout a été mis en attente (voir isReapprovisionnementDiffere) ; false si
+     *         l'article est introuvable
+     */
+    public boolean incrementerStock(int id, int quantite) {
+        if (CompteursStock.isRegroupementActif()) {
+            if (trouverParId(id) == null) {
+                return false;
+            }
+            CompteursStock.reapprovisionner(id, quantite);
+            return true;
+        }
+        String sql = "UPDATE articles SET stock = stock + ?, date_modification=?, version=version+1 WHERE id=?";
+        
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, quantite);
+            statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            statement.setInt(3, id);
+            boolean modifie = statement.executeUpdate() > 0;
+            signalerModification(id);
+            return modifie;
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de l'incrémentation du stock : " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * @return true si incrementerStock met les ajouts en attente au lieu de les écrire
+     *         immédiatement (stock.regroupement.actif)
+     */
+    public static boolean isReapprovisionnementDiffere() {
+        return CompteursStock.isRegroupementActif();
+    }
+
+    /**
+     * Trouve un article par son ID, en passant par le cache.
+     * Le stock renvoyé peut dater de quelques secondes : les contrôles de stock
+     * qui doivent être exacts utilisent trouverParIdSansCache ou une requête conditionnelle.
      * @param id
      * @return Article
      */
     public Article trouverParId(int id) {
-        String sql = "SELECT * FROM articles WHERE id=?";
+        return CACHE.obtenir(id, this::trouverParIdSansCache);
+    }
+
+    /**
+     * Trouve un article par son ID directement en base, sans passer par le cache
+     * @param id
+     * @return Article
+     */
+    public Article trouverParIdSansCache(int id) {
+        String sql = "SELECT " + COLONNES + " FROM articles WHERE id=?";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, id);
             ResultSet resultSet = statement.executeQuery();
             
             if (resultSet.next()) {
-                return creerArticleDepuisResultSet(resultSet);
+                return MAPPEUR.lireLigne(sql, resultSet);
             }
         } catch (SQLException e) {
             System.err.println("Erreur lors de la recherche de l'article : " + e.getMessage());
@@ -154,13 +393,15 @@ public class ArticleDAO {
      */
     public List<Article> listerTous() {
         List<Article> articles = new ArrayList<>();
-        String sql = "SELECT * FROM articles ORDER BY designation";
+        String sql = "SELECT " + COLONNES + " FROM articles ORDER BY designation";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
              ResultSet resultSet = statement.executeQuery()) {
             
+            MappeurLignes.Lignes<Article> lignes = MAPPEUR.preparer(sql, resultSet);
             while (resultSet.next()) {
-                articles.add(creerArticleDepuisResultSet(resultSet));
+                articles.add(lignes.lire(resultSet));
             }
         } catch (SQLException e) {
             System.err.println("Erreur lors de la récupération des articles : " + e.getMessage());
@@ -169,18 +410,30 @@ public class ArticleDAO {
     }
 
     /**
-     * Liste les articles actifs
+     * Liste les articles actifs, triés, depuis le catalogue en mémoire.
+     * Aucune requête n'est exécutée si rien n'a changé depuis le dernier listage.
+     * La liste renvoyée est partagée : elle et ses éléments ne doivent pas être modifiés.
      * @return List<Article>
      */
     public List<Article> listerActifs() {
+        return CATALOGUE.lister(this::listerActifsEnBase, LECTURES::trouverParIds);
+    }
+
+    /**
+     * Liste les articles actifs directement en base
+     * @return List<Article>
+     */
+    public List<Article> listerActifsEnBase() {
         List<Article> articles = new ArrayList<>();
-        String sql = "SELECT * FROM articles WHERE etat=1 ORDER BY designation";
+        String sql = "SELECT " + COLONNES + " FROM articles WHERE etat=1 ORDER BY designation";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
              ResultSet resultSet = statement.executeQuery()) {
             
+            MappeurLignes.Lignes<Article> lignes = MAPPEUR.preparer(sql, resultSet);
             while (resultSet.next()) {
-                articles.add(creerArticleDepuisResultSet(resultSet));
+                articles.add(lignes.lire(resultSet));
             }
         } catch (SQLException e) {
             System.err.println("Erreur lors de la récupération des articles actifs : " + e.getMessage());
@@ -194,13 +447,15 @@ public class ArticleDAO {
      */
     public List<Article> listerStockFaible() {
         List<Article> articles = new ArrayList<>();
-        String sql = "SELECT * FROM articles WHERE stock <= stock_minimum AND etat=1 ORDER BY stock";
+        String sql = "SELECT " + COLONNES + " FROM articles WHERE stock <= stock_minimum AND etat=1 ORDER BY stock";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
              ResultSet resultSet = statement.executeQuery()) {
             
+            MappeurLignes.Lignes<Article> lignes = MAPPEUR.preparer(sql, resultSet);
             while (resultSet.next()) {
-                articles.add(creerArticleDepuisResultSet(resultSet));
+                articles.add(lignes.lire(resultSet));
             }
         } catch (SQLException e) {
             System.err.println("Erreur lors de la récupération des articles en stock faible : " + e.getMessage());
@@ -209,22 +464,55 @@ public class ArticleDAO {
     }
 
     /**
-     * Recherche des articles par désignation ou catégorie
+     * Recherche des articles par désignation ou catégorie dans l'index en mémoire.
+     * Les résultats sont classés par pertinence (correspondance exacte, début de champ, début de mot)
+     * puis par désignation. La base est interrogée directement si l'index n'a pas pu être chargé.
      * @param critere
      * @return List<Article>
      */
     public List<Article> rechercher(String critere) {
+        if (!INDEX.chargerSiNecessaire(LECTURES::listerPourIndex)) {
+            return rechercherEnBase(critere);
+        }
+        return INDEX.rechercher(critere, LECTURES::trouverParIds);
+    }
+
+    /**
+     * Recherche les articles les plus pertinents pour le critère (au plus limite résultats)
+     * @param critere
+     * @param limite Nombre maximum de résultats (liste vide si elle n'est pas positive)
+     * @return List<Article>
+     */
+    public List<Article> rechercher(String critere, int limite) {
+        if (limite <= 0) {
+            return new ArrayList<>();
+        }
+        if (!INDEX.chargerSiNecessaire(LECTURES::listerPourIndex)) {
+            List<Article> trouves = rechercherEnBase(critere);
+            return trouves.size() > limite ? new ArrayList<>(trouves.subList(0, limite)) : trouves;
+        }
+        return INDEX.rechercher(critere, limite, LECTURES::trouverParIds);
+    }
+
+    /**
+     * Recherche des articles par désignation ou catégorie directement en base (LIKE)
+     * @param critere
+     * @return List<Article>
+     */
+    public List<Article> rechercherEnBase(String critere) {
         List<Article> articles = new ArrayList<>();
-        String sql = "SELECT * FROM articles WHERE designation LIKE ? OR categorie LIKE ? ORDER BY designation";
+        String sql = "SELECT " + COLONNES + " FROM articles WHERE designation LIKE ? OR categorie LIKE ? ORDER BY designation";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             String recherche = "%" + critere + "%";
             statement.setString(1, recherche);
             statement.setString(2, recherche);
             ResultSet resultSet = statement.executeQuery();
             
+            MappeurLignes.Lignes<Article> lignes = MAPPEUR.preparer(sql, resultSet);
             while (resultSet.next()) {
-                articles.add(creerArticleDepuisResultSet(resultSet));
+                articles.add(lignes.lire(resultSet));
             }
         } catch (SQLException e) {
             System.err.println("Erreur lors de la recherche des articles : " + e.getMessage());
@@ -233,23 +521,68 @@ public class ArticleDAO {
     }
 
     /**
-     * Crée un objet Article à partir d'un ResultSet
-     * @param resultSet
-     * @return Article
+     * Construit l'index de recherche s'il ne l'est pas encore (appelé au démarrage de l'application)
+     * @return boolean true si l'index est disponible
+     */
+    public boolean chargerIndexRecherche() {
+        return INDEX.chargerSiNecessaire(LECTURES::listerPourIndex);
+    }
+
+    /**
+     * Retire un article du cache et du catalogue des actifs (après une modification faite hors
+     * de ce DAO, par exemple une transaction validée par un service)
+     * @param id
+     */
+    public void invaliderCache(int id) {
+        signalerModification(id);
+    }
+
+    /**
+     * Retourne les statistiques du cache et du catalogue des articles
+     * @return String
+     */
+    public static String getStatistiquesCache() {
+        return CACHE + "\n" + CATALOGUE + "\n" + INDEX;
+    }
+
+    /**
+     * Qualifie une mise à jour du stock protégée qui n'a modifié aucune ligne : article introuvable,
+     * stock demandé inférieur à la quantité réservée, ou ligne modifiée depuis sa lecture
+     * @param connection La connexion de la mise à jour
+     * @param id
+     * @param stock Le stock demandé
      * @throws SQLException
      */
-    private Article creerArticleDepuisResultSet(ResultSet resultSet) throws SQLException {
-        Article article = new Article();
-        article.setId(resultSet.getInt("id"));
-        article.setDesignation(resultSet.getString("designation"));
-        article.setCategorie(resultSet.getString("categorie"));
-        article.setPrix(resultSet.getBigDecimal("prix"));
-        article.setStock(resultSet.getInt("stock"));
-        article.setStockMinimum(resultSet.getInt("stock_minimum"));
-        article.setDescription(resultSet.getString("description"));
-        article.setDateCreation(resultSet.getTimestamp("date_creation"));
-        article.setDateModification(resultSet.getTimestamp("date_modification"));
-        article.setEtat(resultSet.getInt("etat"));
-        return article;
+    private static ResultatMiseAJour constaterEchecStock(Connection connection, int id, int stock) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT stock_reserve FROM articles WHERE id=?")) {
+            statement.setInt(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return ResultatMiseAJour.INTROUVABLE;
+                }
+                return stock < resultSet.getInt(1) ? ResultatMiseAJour.STOCK_RESERVE : ResultatMiseAJour.CONFLIT;
+            }
+        }
+    }
+
+    /**
+     * Retire un article du cache et le signale au catalogue des actifs, à l'index et aux compteurs
+     * de stock en mémoire après une modification en base
+     * @param id
+     */
+    private static void signalerModification(int id) {
+        signalerEcritureStock(id);
+        CompteursStock.marquerPerime(id);
+    }
+
+    /**
+     * Retire un article du cache et le signale au catalogue des actifs et à l'index après
+     * l'écriture de mouvements décomptés en mémoire (voir CompteursStock), déjà connus des compteurs
+     * @param id
+     */
+    static void signalerEcritureStock(int id) {
+        CACHE.invalider(id);
+        CATALOGUE.marquerPerime(id);
+        INDEX.marquerPerime(id);
     }
 }
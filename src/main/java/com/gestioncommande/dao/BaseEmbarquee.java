@@ -0,0 +1,141 @@
+package com.gestioncommande.dao;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Base embarquée (H2 en mode de compatibilité MySQL) exécutée dans la JVM de l'application.
+ * Sélectionnée par db.mode=embarque, elle permet de lancer l'application, le générateur de données
+ * et les benchmarks sans serveur MySQL. Le driver H2 (h2-*.jar) doit être présent dans lib/.
+ *
+ * Au premier démarrage, les tables sont créées par le script de création MySQL
+ * (database/create_database.sql), adapté à la volée :
+ * <ul>
+ *   <li>CREATE DATABASE, USE et les SELECT d'affichage sont ignorés ;</li>
+ *   <li>les noms d'index sont préfixés par le nom de leur table (uniques par schéma dans H2) ;</li>
+ *   <li>DATE_SUB(x, INTERVAL n UNITE) devient DATEADD(UNITE, -n, x).</li>
+ * </ul>
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+final class BaseEmbarquee {
+
+    // ========== CONSTANTES ==========
+
+    /** Driver JDBC de la base embarquée */
+    static final String DRIVER = "org.h2.Driver";
+
+    /**
+     * URL par défaut : base en mémoire conservée jusqu'à l'arrêt de la JVM.
+     * IGNORECASE reproduit la collation utf8mb4_unicode_ci (comparaisons et LIKE sans tenir compte de la casse).
+     */
+    static final String URL_PAR_DEFAUT = "jdbc:h2:mem:gestion_commande;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                         + "IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+    /** Script de création utilisé par défaut */
+    static final String SCRIPT_PAR_DEFAUT = "database/create_database.sql";
+
+    private static final Pattern CREATION_TABLE = Pattern.compile("CREATE TABLE (?:IF NOT EXISTS )?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern INDEX = Pattern.compile("\\bINDEX (\\w+) \\(", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DATE_SUB = Pattern.compile("DATE_SUB\\(([^,]+), INTERVAL (\\d+) (\\w+)\\)", Pattern.CASE_INSENSITIVE);
+
+    private BaseEmbarquee() {}
+
+    // ========== INITIALISATION ==========
+
+    /**
+     * Crée les tables et les données d'exemple si la table clients n'existe pas encore
+     * (base en mémoire neuve ou fichier de base vide).
+     *
+     * @param connection Une connexion à la base embarquée
+     * @param script Chemin du script de création MySQL
+     * @throws SQLException Si le script est illisible ou si une instruction échoue
+     */
+    static void initialiser(Connection connection, String script) throws SQLException {
+        try (ResultSet tables = connection.getMetaData().getTables(null, null, "clients", null)) {
+            if (tables.next()) {
+                return;
+            }
+        }
+
+        List<String> instructions;
+        try {
+            instructions = lireInstructions(Paths.get(script));
+        } catch (IOException e) {
+            throw new SQLException("Script de création illisible (" + script + ") : " + e.getMessage(), e);
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String instruction : instructions) {
+                statement.execute(instruction);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        System.out.println("Base embarquée initialisée depuis " + script);
+    }
+
+    /**
+     * Découpe le script en instructions (terminées par un point-virgule en fin de ligne)
+     * et les adapte à H2.
+     */
+    private static List<String> lireInstructions(Path script) throws IOException {
+        List<String> instructions = new ArrayList<>();
+        StringBuilder courante = new StringBuilder();
+        for (String ligne : Files.readAllLines(script, StandardCharsets.UTF_8)) {
+            String texte = ligne.trim();
+            if (texte.isEmpty() || texte.startsWith("--")) {
+                continue;
+            }
+            courante.append(ligne).append('\n');
+            if (texte.endsWith(";")) {
+                String instruction = adapter(courante.toString().trim());
+                if (instruction != null) {
+                    instructions.add(instruction);
+                }
+                courante.setLength(0);
+            }
+        }
+        return instructions;
+    }
+
+    /**
+     * Adapte une instruction MySQL à H2.
+     * @return L'instruction adaptée, sans point-virgule final, ou null si elle doit être ignorée
+     */
+    private static String adapter(String instruction) {
+        String sql = instruction.substring(0, instruction.length() - 1).trim();
+        String debut = sql.toUpperCase(Locale.ROOT);
+        if (debut.startsWith("CREATE DATABASE") || debut.startsWith("USE ") || debut.startsWith("SELECT")) {
+            return null;
+        }
+
+        Matcher table = CREATION_TABLE.matcher(sql);
+        if (table.lookingAt()) {
+            sql = INDEX.matcher(sql).replaceAll("INDEX " + table.group(1) + "_$1 (");
+        }
+        return DATE_SUB.matcher(sql).replaceAll("DATEADD($3, -$2, $1)");
+    }
+}
@@ -0,0 +1,197 @@
+package com.gestioncommande.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache LRU des requêtes préparées d'une connexion physique du pool, indexées par leur texte SQL
+ * (et leurs options de préparation). Une requête prise dans le cache est réservée jusqu'à sa
+ * fermeture logique : une seconde préparation du même SQL pendant ce temps crée une requête
+ * hors cache.
+ *
+ * Le cache n'est utilisé que par le thread qui a emprunté la connexion (ou par le pool quand
+ * la connexion est inactive) : il n'est pas synchronisé.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+final class CacheRequetes {
+
+    /**
+     * Requête préparée conservée dans le cache.
+     */
+    static final class Entree {
+        private final String cle;
+        private final PreparedStatement requete;
+
+        /** true entre la préparation et la fermeture logique */
+        private boolean reservee = true;
+
+        /** true si l'entrée a quitté le cache pendant sa réservation : elle sera fermée à la restitution */
+        private boolean evincee = false;
+
+        /** Opération de DAO qui a exécuté la requête en premier (MesuresRequetes) */
+        private String operation;
+
+        private Entree(String cle, PreparedStatement requete) {
+            this.cle = cle;
+            this.requete = requete;
+        }
+
+        PreparedStatement getRequete() {
+            return requete;
+        }
+
+        String getOperation() {
+            return operation;
+        }
+
+        void setOperation(String operation) {
+            this.operation = operation;
+        }
+    }
+
+    /** Préparation d'une requête par le driver, appelée en cas d'absence dans le cache */
+    @FunctionalInterface
+    interface Preparation {
+        PreparedStatement preparer() throws SQLException;
+    }
+
+    // ========== ATTRIBUTS ==========
+
+    private final int tailleMax;
+
+    /** Entrées, de la moins récemment utilisée à la plus récente (ordre d'accès) */
+    private final LinkedHashMap<String, Entree> entrees;
+
+    // ========== CONSTRUCTEUR ==========
+
+    /**
+     * @param tailleMax Nombre maximum de requêtes conservées (0 désactive le cache)
+     * @param evictions Compteur incrémenté à chaque requête fermée pour libérer de la place
+     */
+    CacheRequetes(int tailleMax, Runnable evictions) {
+        this.tailleMax = tailleMax;
+        this.entrees = new LinkedHashMap<String, Entree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entree> eldest) {
+                if (size() <= CacheRequetes.this.tailleMax) {
+                    return false;
+                }
+                Entree ancienne = eldest.getValue();
+                if (ancienne.reservee) {
+                    ancienne.evincee = true;
+                } else {
+                    fermerSilencieusement(ancienne.requete);
+                }
+                evictions.run();
+                return true;
+            }
+        };
+    }
+
+    // ========== UTILISATION ==========
+
+    /**
+     * Réserve la requête en cache pour la clé si elle est libre.
+     * @param cle Le texte SQL et les options de préparation
+     * @return L'entrée réservée, ou null si la requête est absente ou déjà réservée
+     */
+    Entree reserver(String cle) {
+        Entree entree = entrees.get(cle);
+        if (entree == null || entree.reservee) {
+            return null;
+        }
+        entree.reservee = true;
+        return entree;
+    }
+
+    /**
+     * Prépare une nouvelle requête et la place dans le cache si la clé n'y est pas déjà.
+     * @return L'entrée réservée, mise en cache ou non
+     * @throws SQLException Si le driver ne peut pas préparer la requête
+     */
+    Entree preparer(String cle, Preparation preparation) throws SQLException {
+        Entree entree = new Entree(cle, preparation.preparer());
+        if (tailleMax > 0 && !entrees.containsKey(cle)) {
+            entrees.put(cle, entree);
+        } else {
+            entree.evincee = true;
+        }
+        return entree;
+    }
+
+    /**
+     * Fin d'utilisation d'une requête (fermeture logique).
+     * La requête reste ouverte pour la prochaine préparation du même SQL, sauf si elle n'est plus
+     * dans le cache ou si elle ne peut pas être réutilisée telle quelle (réglages modifiés).
+     *
+     * @param entree L'entrée réservée
+     * @param reutilisable false pour fermer la requête et la retirer du cache
+     */
+    void restituer(Entree entree, boolean reutilisable) {
+        entree.reservee = false;
+        if (reutilisable && !entree.evincee) {
+            try {
+                entree.requete.clearParameters();
+                entree.requete.clearBatch();
+                entree.requete.clearWarnings();
+                return;
+            } catch (SQLException e) {
+                // Requête inutilisable : fermée ci-dessous
+            }
+        }
+        if (!entree.evincee) {
+            entrees.remove(entree.cle);
+        }
+        fermerSilencieusement(entree.requete);
+    }
+
+    /**
+     * Ferme les requêtes encore réservées (non fermées par leur utilisateur) au moment où la
+     * connexion est rendue au pool.
+     * @return Le nombre de requêtes fermées
+     */
+    int fermerReservees() {
+        List<Entree> reservees = new ArrayList<>();
+        for (Entree entree : entrees.values()) {
+            if (entree.reservee) {
+                reservees.add(entree);
+            }
+        }
+        for (Entree entree : reservees) {
+            restituer(entree, false);
+        }
+        return reservees.size();
+    }
+
+    /**
+     * Ferme toutes les requêtes (fermeture de la connexion physique).
+     */
+    void vider() {
+        Iterator<Entree> iterateur = entrees.values().iterator();
+        while (iterateur.hasNext()) {
+            fermerSilencieusement(iterateur.next().requete);
+            iterateur.remove();
+        }
+    }
+
+    /** @return Le nombre de requêtes en cache */
+    int getTaille() {
+        return entrees.size();
+    }
+
+    private static void fermerSilencieusement(PreparedStatement requete) {
+        try {
+            requete.close();
+        } catch (SQLException e) {
+            // Requête déjà inutilisable
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.gestioncommande.dao;
 
+import com.gestioncommande.cache.CacheLecture;
+import com.gestioncommande.cache.CatalogueTrie;
 import com.gestioncommande.entities.Client;
+import com.gestioncommande.recherche.IndexTrigrammes;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -15,20 +19,65 @@ import java.util.List;
  * @since 2024
  */
 public class ClientDAO {
-    
+
     // ========== ATTRIBUTS ==========
     
-    /** Connexion à la base de données */
-    private Connection connection;
+    /**
+     * Conversion des lignes de la table clients, par position de colonne (voir MappeurLignes)
+     */
+    public static final MappeurLignes<Client> MAPPEUR = new MappeurLignes<>(Client::new)
+            .colonne("id", (client, resultSet, i) -> client.setId(resultSet.getInt(i)))
+            .colonne("nom", (client, resultSet, i) -> client.setNom(resultSet.getString(i)))
+            .colonne("prenom", (client, resultSet, i) -> client.setPrenom(resultSet.getString(i)))
+            .colonne("sexe", (client, resultSet, i) -> client.setSexe(resultSet.getString(i)))
+            .colonne("type", (client, resultSet, i) -> client.setType(resultSet.getString(i)))
+            .colonne("contact", (client, resultSet, i) -> client.setContact(resultSet.getString(i)))
+            .colonne("email", (client, resultSet, i) -> client.setEmail(resultSet.getString(i)))
+            .colonne("adresse", (client, resultSet, i) -> client.setAdresse(resultSet.getString(i)))
+            .colonne("date_creation", (client, resultSet, i) -> client.setDateCreation(resultSet.getTimestamp(i)))
+            .colonne("etat", (client, resultSet, i) -> client.setEtat(resultSet.getInt(i)));
+
+    /** Liste explicite des colonnes d'un client, utilisée à la place de SELECT * */
+    private static final String COLONNES = MAPPEUR.colonnes();
+
+    /** Lectures de la table clients pour l'index de recherche et le rafraîchissement du catalogue */
+    private static final LecturesCatalogue<Client> LECTURES = new LecturesCatalogue<>("clients", MAPPEUR);
+
+    /**
+     * Cache des clients lus par identifiant, partagé par toutes les instances du DAO.
+     * Taille et durée de vie : cache.clients.taille et cache.clients.ttl (ms).
+     */
+    private static final CacheLecture<Integer, Client> CACHE = new CacheLecture<>("clients",
+            ConfigurationBD.getInt("cache.clients.taille", 1000),
+            ConfigurationBD.getLong("cache.clients.ttl", 300000L),
+            Client::new);
+
+    /**
+     * Catalogue trié des clients actifs, chargé au premier listage puis tenu à jour par les écritures
+     * de ce DAO. L'ordre reproduit celui de la base (nom puis prénom, sans tenir compte de la casse ni des accents).
+     */
+    private static final CatalogueTrie<Client> CATALOGUE = new CatalogueTrie<>("clients actifs",
+            Comparator.comparing(Client::getNom, LecturesCatalogue.ordreAlphabetique()).thenComparing(Client::getPrenom, LecturesCatalogue.ordreAlphabetique()),
+            Client::getId, Client::isActif, Client::new);
+
+    /**
+     * Index de recherche (trigrammes) sur le nom et le prénom de tous les clients.
+     * Remplace les LIKE '%x%', qui ne peuvent pas utiliser idx_nom_prenom et parcourent toute la table.
+     */
+    private static final IndexTrigrammes<Client> INDEX = new IndexTrigrammes<>("clients",
+            client -> new String[] {client.getNom(), client.getPrenom()},
+            Client::getId, Client::new,
+            Comparator.comparing(Client::getNom, LecturesCatalogue.ordreAlphabetique()).thenComparing(Client::getPrenom, LecturesCatalogue.ordreAlphabetique()));
 
     // ========== CONSTRUCTEUR ==========
     
     /**
-     * Constructeur qui initialise la connexion à la base de données.
+     * Constructeur qui initialise le pool de connexions à la base de données.
+     * Chaque opération emprunte ensuite sa propre connexion au pool et la rend à la fin.
      * @throws SQLException En cas d'erreur de connexion
      */
     public ClientDAO() throws SQLException {
-        this.connection = DatabaseConnection.getConnection();
+        DatabaseConnection.initialiser();
     }
 
     // ========== MÉTHODES CRUD ==========
@@ -44,7 +93,8 @@ public class ClientDAO {
         String sql = "INSERT INTO clients (nom, prenom, sexe, type, contact, email, adresse, date_creation, etat) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             // Paramètres de la requête
             statement.setString(1, client.getNom());
             statement.setString(2, client.getPrenom());
@@ -64,6 +114,8 @@ public class ClientDAO {
                 if (generatedKeys.next()) {
                     client.setId(generatedKeys.getInt(1));
                 }
+                CATALOGUE.mettreAJour(client);
+                INDEX.indexer(client);
                 return true;
             }
         } catch (SQLException e) {
@@ -80,7 +132,8 @@ public class ClientDAO {
     public boolean modifier(Client client) {
         String sql = "UPDATE clients SET nom=?, prenom=?, sexe=?, type=?, contact=?, email=?, adresse=?, etat=? WHERE id=?";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setString(1, client.getNom());
             statement.setString(2, client.getPrenom());
             statement.setString(3, client.getSexe());
@@ -91,7 +144,13 @@ public class ClientDAO {
             statement.setInt(8, client.getEtat());
             statement.setInt(9, client.getId());
 
-            return statement.executeUpdate() > 0;
+            boolean modifie = statement.executeUpdate() > 0;
+            CACHE.invalider(client.getId());
+            if (modifie) {
+                CATALOGUE.mettreAJour(client);
+                INDEX.indexer(client);
+            }
+            return modifie;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la modification du client : " + e.getMessage());
         }
@@ -116,10 +175,13 @@ public class ClientDAO {
     public boolean activerDesactiver(int id, int etat) {
         String sql = "UPDATE clients SET etat=? WHERE id=?";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, etat);
             statement.setInt(2, id);
-            return statement.executeUpdate() > 0;
+            boolean modifie = statement.executeUpdate() > 0;
+            signalerModification(id);
+            return modifie;
         } catch (SQLException e) {
             System.err.println("Erreur lors de la modification de l'état du client : " + e.getMessage());
         }
@@ -127,19 +189,29 @@ public class ClientDAO {
     }
 
     /**
-     * Trouve un client par son ID
+     * Trouve un client par son ID, en passant par le cache
      * @param id
      * @return Client
      */
     public Client trouverParId(int id) {
-        String sql = "SELECT * FROM clients WHERE id=?";
+        return CACHE.obtenir(id, this::trouverParIdSansCache);
+    }
+
+    /**
+     * Trouve un client par son ID directement en base, sans passer par le cache
+     * @param id
+     * @return Client
+     */
+    public Client trouverParIdSansCache(int id) {
+        String sql = "SELECT " + COLONNES + " FROM clients WHERE id=?";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, id);
             ResultSet resultSet = statement.executeQuery();
             
             if (resultSet.next()) {
-                return creerClientDepuisResultSet(resultSet);
+                return MAPPEUR.lireLigne(sql, resultSet);
             }
         } catch (SQLException e) {
             System.err.println("Erreur lors de la recherche du client : " + e.getMessage());
@@ -153,13 +225,15 @@ public class ClientDAO {
      */
     public List<Client> listerTous() {
         List<Client> clients = new ArrayList<>();
-        String sql = "SELECT * FROM clients ORDER BY nom, prenom";
+        String sql = "SELECT " + COLONNES + " FROM clients ORDER BY nom, prenom";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
              ResultSet resultSet = statement.executeQuery()) {
             
+            MappeurLignes.Lignes<Client> lignes = MAPPEUR.preparer(sql, resultSet);
             while (resultSet.next()) {
-                clients.add(creerClientDepuisResultSet(resultSet));
+                clients.add(lignes.lire(resultSet));
             }
         } catch (SQLException e) {
             System.err.println("Erreur lors de la récupération des clients : " + e.getMessage());
@@ -168,18 +242,30 @@ public class ClientDAO {
     }
 
     /**
-     * Liste les clients actifs
+     * Liste les clients actifs, triés, depuis le catalogue en mémoire.
+     * Aucune requête n'est exécutée si rien n'a changé depuis le dernier listage.
+     * La liste renvoyée est partagée : elle et ses éléments ne doivent pas être modifiés.
      * @return List<Client>
      */
     public List<Client> listerActifs() {
+        return CATALOGUE.lister(this::listerActifsEnBase, LECTURES::trouverParIds);
+    }
+
+    /**
+     * Liste les clients actifs directement en base
+     * @return List<Client>
+     */
+    public List<Client> listerActifsEnBase() {
         List<Client> clients = new ArrayList<>();
-        String sql = "SELECT * FROM clients WHERE etat=1 ORDER BY nom, prenom";
+        String sql = "SELECT " + COLONNES + " FROM clients WHERE etat=1 ORDER BY nom, prenom";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
              ResultSet resultSet = statement.executeQuery()) {
             
+            MappeurLignes.Lignes<Client> lignes = MAPPEUR.preparer(sql, resultSet);
             while (resultSet.next()) {
-                clients.add(creerClientDepuisResultSet(resultSet));
+                clients.add(lignes.lire(resultSet));
             }
         } catch (SQLException e) {
             System.err.println("Erreur lors de la récupération des clients actifs : " + e.getMessage());
@@ -188,22 +274,55 @@ public class ClientDAO {
     }
 
     /**
-     * Recherche des clients par nom ou prénom
+     * Recherche des clients par nom ou prénom dans l'index en mémoire.
+     * Les résultats sont classés par pertinence (correspondance exacte, début de champ, début de mot)
+     * puis par nom et prénom. La base est interrogée directement si l'index n'a pas pu être chargé.
      * @param critere
      * @return List<Client>
      */
     public List<Client> rechercher(String critere) {
+        if (!INDEX.chargerSiNecessaire(LECTURES::listerPourIndex)) {
+            return rechercherEnBase(critere);
+        }
+        return INDEX.rechercher(critere, LECTURES::trouverParIds);
+    }
+
+    /**
+     * Recherche les clients les plus pertinents pour le critère (au plus limite résultats)
+     * @param critere
+     * @param limite Nombre maximum de résultats (liste vide si elle n'est pas positive)
+     * @return List<Client>
+     */
+    public List<Client> rechercher(String critere, int limite) {
+        if (limite <= 0) {
+            return new ArrayList<>();
+        }
+        if (!INDEX.chargerSiNecessaire(LECTURES::listerPourIndex)) {
+            List<Client> trouves = rechercherEnBase(critere);
+            return trouves.size() > limite ? new ArrayList<>(trouves.subList(0, limite)) : trouves;
+        }
+        return INDEX.rechercher(critere, limite, LECTURES::trouverParIds);
+    }
+
+    /**
+     * Recherche des clients par nom ou prénom directement en base (LIKE)
+     * @param critere
+     * @return List<Client>
+     */
+    public List<Client> rechercherEnBase(String critere) {
         List<Client> clients = new ArrayList<>();
-        String sql = "SELECT * FROM clients WHERE nom LIKE ? OR prenom LIKE ? ORDER BY nom, prenom";
+        String sql = "SELECT " + COLONNES + " FROM clients WHERE nom LIKE ? OR prenom LIKE ? ORDER BY nom, prenom";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             String recherche = "%" + critere + "%";
             statement.setString(1, recherche);
             statement.setString(2, recherche);
             ResultSet resultSet = statement.executeQuery();
             
+            MappeurLignes.Lignes<Client> lignes = MAPPEUR.preparer(sql, resultSet);
             while (resultSet.next()) {
-                clients.add(creerClientDepuisResultSet(resultSet));
+                clients.add(lignes.lire(resultSet));
             }
         } catch (SQLException e) {
             System.err.println("Erreur lors de la recherche des clients : " + e.getMessage());
@@ -212,23 +331,28 @@ public class ClientDAO {
     }
 
     /**
-     * Crée un objet Client à partir d'un ResultSet
-     * @param resultSet
-     * @return Client
-     * @throws SQLException
-     */
-    private Client creerClientDepuisResultSet(ResultSet resultSet) throws SQLException {
-        Client client = new Client();
-        client.setId(resultSet.getInt("id"));
-        client.setNom(resultSet.getString("nom"));
-        client.setPrenom(resultSet.getString("prenom"));
-        client.setSexe(resultSet.getString("sexe"));
-        client.setType(resultSet.getString("type"));
-        client.setContact(resultSet.getString("contact"));
-        client.setEmail(resultSet.getString("email"));
-        client.setAdresse(resultSet.getString("adresse"));
-        client.setDateCreation(resultSet.getTimestamp("date_creation"));
-        client.setEtat(resultSet.getInt("etat"));
-        return client;
+     * Construit l'index de recherche s'il ne l'est pas encore (appelé au démarrage de l'application)
+     * @return boolean true si l'index est disponible
+     */
+    public boolean chargerIndexRecherche() {
+        return INDEX.chargerSiNecessaire(LECTURES::listerPourIndex);
+    }
+
+    /**
+     * Retourne les statistiques du cache et du catalogue des clients
+     * @return String
+     */
+    public static String getStatistiquesCache() {
+        return CACHE + "\n" + CATALOGUE + "\n" + INDEX;
+    }
+
+    /**
+     * Retire un client du cache et le signale au catalogue des actifs et à l'index après une modification en base
+     * @param id
+     */
+    private static void signalerModification(int id) {
+        CACHE.invalider(id);
+        CATALOGUE.marquerPerime(id);
+        INDEX.marquerPerime(id);
     }
 }
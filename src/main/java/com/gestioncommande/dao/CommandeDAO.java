@@ -1,46 +1,96 @@
 package com.gestioncommande.dao;
 
 import com.gestioncommande.entities.Commande;
+import com.gestioncommande.entities.CommandeDetaillee;
+import com.gestioncommande.entities.StatistiquePeriode;
+import com.gestioncommande.entities.StatistiquesCommandes;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Classe DAO pour la gestion des commandes
  */
 public class CommandeDAO {
-    private Connection connection;
 
+    /**
+     * Conversion des lignes de la table commandes, par position de colonne (voir MappeurLignes)
+     */
+    public static final MappeurLignes<Commande> MAPPEUR = new MappeurLignes<>(Commande::new)
+            .colonne("id", (commande, resultSet, i) -> commande.setId(resultSet.getInt(i)))
+            .colonne("client_id", (commande, resultSet, i) -> commande.setClientId(resultSet.getInt(i)))
+            .colonne("article_id", (commande, resultSet, i) -> commande.setArticleId(resultSet.getInt(i)))
+            .colonne("quantite", (commande, resultSet, i) -> commande.setQuantite(resultSet.getInt(i)))
+            .colonne("prix_unitaire", (commande, resultSet, i) -> commande.setPrixUnitaire(resultSet.getBigDecimal(i)))
+            .colonne("montant_total", (commande, resultSet, i) -> commande.setMontantTotal(resultSet.getBigDecimal(i)))
+            .colonne("date_commande", (commande, resultSet, i) -> commande.setDateCommande(resultSet.getTimestamp(i)))
+            .colonne("type_commande", (commande, resultSet, i) -> commande.setTypeCommande(resultSet.getString(i)))
+            .colonne("statut", (commande, resultSet, i) -> commande.setStatut(resultSet.getString(i)))
+            .colonne("observations", (commande, resultSet, i) -> commande.setObservations(resultSet.getString(i)))
+            .colonne("date_validation", (commande, resultSet, i) -> commande.setDateValidation(resultSet.getTimestamp(i)))
+            .colonne("version", (commande, resultSet, i) -> commande.setVersion(resultSet.getInt(i)))
+            .colonne("quantite_reservee", (commande, resultSet, i) -> commande.setQuantiteReservee(resultSet.getInt(i)));
+
+    /** Liste explicite des colonnes d'une commande, utilisée à la place de SELECT * */
+    private static final String COLONNES = MAPPEUR.colonnes();
+
+    /**
+     * Initialise le pool de connexions si nécessaire.
+     * Chaque opération emprunte ensuite sa propre connexion au pool.
+     * @throws SQLException
+     */
     public CommandeDAO() throws SQLException {
-        this.connection = DatabaseConnection.getConnection();
+        DatabaseConnection.initialiser();
     }
 
+    /**
+     * Conversion des lignes des listes de commandes : colonnes de la commande, nom du client
+     * et désignation de l'article lus par la jointure (voir SQL_SELECTION_JOINTE)
+     */
+    public static final MappeurLignes<CommandeDetaillee> MAPPEUR_DETAILLE = MAPPEUR.etendre(CommandeDetaillee::new)
+            .colonne("client_nom", (commande, resultSet, i) -> commande.setClientNom(resultSet.getString(i)))
+            .colonne("client_prenom", (commande, resultSet, i) -> commande.setClientPrenom(resultSet.getString(i)))
+            .colonne("article_designation", (commande, resultSet, i) -> commande.setArticleDesignation(resultSet.getString(i)));
+
+    /** Colonnes d'une commande préfixées par l'alias c, pour les requêtes avec jointures */
+    private static final String COLONNES_PREFIXEES = MAPPEUR.colonnes("c");
+
+    /** Requête d'insertion d'une commande, partagée par ajouter et ajouterLot */
+    private static final String SQL_INSERTION = "INSERT INTO commandes (client_id, article_id, quantite, prix_unitaire, montant_total, " +
+                                                "date_commande, type_commande, statut, observations, date_validation, quantite_reservee) " +
+                                                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
     /**
      * Ajoute une nouvelle commande
      * @param commande
      * @return boolean
      */
     public boolean ajouter(Commande commande) {
-        String sql = "INSERT INTO commandes (client_id, article_id, quantite, prix_unitaire, montant_total, " +
-                     "date_commande, type_commande, statut, observations, date_validation) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setInt(1, commande.getClientId());
-            statement.setInt(2, commande.getArticleId());
-            statement.setInt(3, commande.getQuantite());
-            statement.setBigDecimal(4, commande.getPrixUnitaire());
-            statement.setBigDecimal(5, commande.getMontantTotal());
-            statement.setTimestamp(6, new Timestamp(commande.getDateCommande().getTime()));
-            statement.setString(7, commande.getTypeCommande());
-            statement.setString(8, commande.getStatut());
-            statement.setString(9, commande.getObservations());
-            if (commande.getDateValidation() != null) {
-                statement.setTimestamp(10, new Timestamp(commande.getDateValidation().getTime()));
-            } else {
-                statement.setNull(10, Types.TIMESTAMP);
-            }
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            return ajouter(connection, commande);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de l'ajout de la commande : " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Ajoute une nouvelle commande sur une connexion fournie par l'appelant,
+     * pour participer à une transaction (voir GestionnaireTransactions).
+     * @param connection
+     * @param commande
+     * @return boolean
+     * @throws SQLException
+     */
+    public boolean ajouter(Connection connection, Commande commande) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SQL_INSERTION, Statement.RETURN_GENERATED_KEYS)) {
+            remplirParametresInsertion(statement, commande);
 
             int rowsAffected = statement.executeUpdate();
             if (rowsAffected > 0) {
@@ -50,20 +100,107 @@ public class CommandeDAO {
                 }
                 return true;
             }
-        } catch (SQLException e) {
-            System.err.println("Erreur lors de l'ajout de la commande : " + e.getMessage());
         }
         return false;
     }
 
     /**
-     * Met à jour une commande existante
+     * Ajoute un lot de commandes avec la taille de lot configurée (db.batch.taille, 500 par défaut)
+     * @param commandes
+     * @return int le nombre de commandes insérées
+     */
+    public int ajouterLot(List<Commande> commandes) {
+        return ajouterLot(commandes, ConfigurationBD.getInt("db.batch.taille", 500));
+    }
+
+    /**
+     * Ajoute un lot de commandes par paquets de tailleLot requêtes (addBatch/executeBatch).
+     * Chaque paquet est validé dans sa propre transaction et les identifiants générés sont
+     * affectés aux commandes dans l'ordre de la liste. Avec rewriteBatchedStatements=true
+     * dans l'URL MySQL, chaque paquet est envoyé comme un seul INSERT multi-lignes.
+     * En cas d'erreur, le paquet en cours est annulé et l'insertion s'arrête.
+     * @param commandes
+     * @param tailleLot
+     * @return int le nombre de commandes insérées
+     */
+    public int ajouterLot(List<Commande> commandes, int tailleLot) {
+        int inserees = 0;
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SQL_INSERTION, Statement.RETURN_GENERATED_KEYS)) {
+            connection.setAutoCommit(false);
+            for (int debut = 0; debut < commandes.size(); debut += tailleLot) {
+                List<Commande> paquet = commandes.subList(debut, Math.min(debut + tailleLot, commandes.size()));
+                try {
+                    for (Commande commande : paquet) {
+                        remplirParametresInsertion(statement, commande);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                        for (Commande commande : paquet) {
+                            if (!generatedKeys.next()) {
+                                break;
+                            }
+                            commande.setId(generatedKeys.getInt(1));
+                        }
+                    }
+                    connection.commit();
+                    inserees += paquet.size();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    statement.clearBatch();
+                    for (Commande commande : paquet) {
+                        commande.setId(0);
+                    }
+                    throw e;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de l'ajout du lot de commandes (" + inserees + " insérées) : " + e.getMessage());
+        }
+        return inserees;
+    }
+
+    /**
+     * Renseigne les paramètres de la requête d'insertion à partir d'une commande
+     * @param statement
      * @param commande
-     * @return boolean
+     * @throws SQLException
      */
-    public boolean modifier(Commande commande) {
+    private void remplirParametresInsertion(PreparedStatement statement, Commande commande) throws SQLException {
+        statement.setInt(1, commande.getClientId());
+        statement.setInt(2, commande.getArticleId());
+        statement.setInt(3, commande.getQuantite());
+        statement.setBigDecimal(4, commande.getPrixUnitaire());
+        statement.setBigDecimal(5, commande.getMontantTotal());
+        statement.setTimestamp(6, new Timestamp(commande.getDateCommande().getTime()));
+        statement.setString(7, commande.getTypeCommande());
+        statement.setString(8, commande.getStatut());
+        statement.setString(9, commande.getObservations());
+        if (commande.getDateValidation() != null) {
+            statement.setTimestamp(10, new Timestamp(commande.getDateValidation().getTime()));
+        } else {
+            statement.setNull(10, Types.TIMESTAMP);
+        }
+        statement.setInt(11, commande.getQuantiteReservee());
+    }
+
+    /**
+     * Met à jour une commande existante sur une connexion fournie par l'appelant, pour participer
+     * à une transaction (voir GestionnaireTransactions), si sa ligne n'a pas changé depuis sa lecture
+     * (WHERE version=?). La quantité réservée est écrite telle quelle : c'est à l'appelant d'ajuster
+     * d'abord la réservation de l'article (voir ReservationsStock) puis de renseigner
+     * quantite_reservee. La version de la commande n'est pas modifiée : l'appelant l'incrémente
+     * après validation de la transaction.
+     * @param connection
+     * @param commande
+     * @return boolean false si la commande n'existe pas ou a changé de version
+     * @throws SQLException
+     */
+    public boolean modifier(Connection connection, Commande commande) throws SQLException {
         String sql = "UPDATE commandes SET client_id=?, article_id=?, quantite=?, prix_unitaire=?, " +
-                     "montant_total=?, type_commande=?, statut=?, observations=?, date_validation=? WHERE id=?";
+                     "montant_total=?, type_commande=?, statut=?, observations=?, date_validation=?, " +
+                     "quantite_reservee=?, version=version+1 WHERE id=? AND version=?";
         
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, commande.getClientId());
@@ -79,31 +216,44 @@ public class CommandeDAO {
             } else {
                 statement.setNull(9, Types.TIMESTAMP);
             }
-            statement.setInt(10, commande.getId());
-
+            statement.setInt(10, commande.getQuantiteReservee());
+            statement.setInt(11, commande.getId());
+            statement.setInt(12, commande.getVersion());
             return statement.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Erreur lors de la modification de la commande : " + e.getMessage());
         }
-        return false;
     }
 
     /**
-     * Valide une commande
+     * Valide une commande en cours
      * @param id
      * @return boolean
      */
     public boolean valider(int id) {
-        String sql = "UPDATE commandes SET type_commande='validee', statut='traitee', date_validation=? WHERE id=?";
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            return valider(connection, id);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la validation de la commande : " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Valide une commande en cours sur une connexion fournie par l'appelant,
+     * pour participer à une transaction (voir GestionnaireTransactions).
+     * @param connection
+     * @param id
+     * @return boolean false si la commande n'existe pas ou n'est plus en cours
+     * @throws SQLException
+     */
+    public boolean valider(Connection connection, int id) throws SQLException {
+        String sql = "UPDATE commandes SET type_commande='validee', statut='traitee', date_validation=?, " +
+                     "quantite_reservee=0, version=version+1 WHERE id=? AND type_commande='en_cours'";
         
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
             statement.setInt(2, id);
             return statement.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Erreur lors de la validation de la commande : " + e.getMessage());
         }
-        return false;
     }
 
     /**
@@ -112,15 +262,31 @@ public class CommandeDAO {
      * @return boolean
      */
     public boolean annuler(int id) {
-        String sql = "UPDATE commandes SET type_commande='annulee', statut='annulee' WHERE id=?";
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            return annuler(connection, id);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de l'annulation de la commande : " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Annule une commande sur une connexion fournie par l'appelant, pour participer à une
+     * transaction (voir GestionnaireTransactions). Sa réservation de stock est remise à zéro :
+     * c'est à l'appelant de la rendre à l'article (voir ReservationsStock.liberer).
+     * @param connection
+     * @param id
+     * @return boolean
+     * @throws SQLException
+     */
+    public boolean annuler(Connection connection, int id) throws SQLException {
+        String sql = "UPDATE commandes SET type_commande='annulee', statut='annulee', quantite_reservee=0, " +
+                     "version=version+1 WHERE id=?";
         
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, id);
             return statement.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Erreur lors de l'annulation de la commande : " + e.getMessage());
         }
-        return false;
     }
 
     /**
@@ -129,14 +295,15 @@ public class CommandeDAO {
      * @return Commande
      */
     public Commande trouverParId(int id) {
-        String sql = "SELECT * FROM commandes WHERE id=?";
+        String sql = "SELECT " + COLONNES + " FROM commandes WHERE id=?";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, id);
             ResultSet resultSet = statement.executeQuery();
             
             if (resultSet.next()) {
-                return creerCommandeDepuisResultSet(resultSet);
+                return MAPPEUR.lireLigne(sql, resultSet);
             }
         } catch (SQLException e) {
             System.err.println("Erreur lors de la recherche de la commande : " + e.getMessage());
@@ -145,119 +312,315 @@ public class CommandeDAO {
     }
 
     /**
-     * Liste toutes les commandes
-     * @return List<Commande>
+     * Lit une commande en posant un verrou d'écriture sur sa ligne (SELECT ... FOR UPDATE).
+     * À utiliser dans une transaction : le verrou est conservé jusqu'à sa validation.
+     * Seules les colonnes utiles aux contrôles de mise à jour et au suivi de la transition sont
+     * lues : identifiant, client, article, quantité, montant, type, statut, version et quantité réservée.
+     * @param connection
+     * @param id
+     * @return Commande ou null si elle n'existe pas
+     * @throws SQLException
      */
-    public List<Commande> listerToutes() {
-        List<Commande> commandes = new ArrayList<>();
-        String sql = "SELECT c.*, cl.nom as client_nom, cl.prenom as client_prenom, " +
-                     "a.designation as article_designation FROM commandes c " +
-                     "LEFT JOIN clients cl ON c.client_id = cl.id " +
-                     "LEFT JOIN articles a ON c.article_id = a.id " +
-                     "ORDER BY c.date_commande DESC";
+    public Commande trouverParIdPourMiseAJour(Connection connection, int id) throws SQLException {
+        String sql = "SELECT id, client_id, article_id, quantite, montant_total, type_commande, statut, version, quantite_reservee " +
+                     "FROM commandes WHERE id=? FOR UPDATE";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            
-            while (resultSet.next()) {
-                commandes.add(creerCommandeDepuisResultSet(resultSet));
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return MAPPEUR.lireLigne(sql, resultSet);
+                }
             }
-        } catch (SQLException e) {
-            System.err.println("Erreur lors de la récupération des commandes : " + e.getMessage());
         }
-        return commandes;
+        return null;
+    }
+
+    /** Sélection des commandes avec le nom du client et la désignation de l'article */
+    private static final String SQL_SELECTION_JOINTE = "SELECT " + COLONNES_PREFIXEES + ", cl.nom as client_nom, cl.prenom as client_prenom, " +
+                                                       "a.designation as article_designation FROM commandes c " +
+                                                       "LEFT JOIN clients cl ON c.client_id = cl.id " +
+                                                       "LEFT JOIN articles a ON c.article_id = a.id ";
+
+    /**
+     * Condition de pagination par clé (keyset) : commandes strictement après le curseur
+     * dans l'ordre (date_commande DESC, id DESC). Sans filtre, l'index idx_date_commande suffit,
+     * InnoDB y ajoutant implicitement la clé primaire ; les pages filtrées utilisent
+     * idx_statut_date (statut, date_commande, id) et idx_client_date (client_id, date_commande, id).
+     */
+    private static final String SQL_APRES_CURSEUR = "(c.date_commande < ? OR (c.date_commande = ? AND c.id < ?))";
+
+    /** Ordre de tri stable utilisé par la pagination et le parcours en flux */
+    private static final String SQL_ORDRE_RECENTES = " ORDER BY c.date_commande DESC, c.id DESC";
+
+    /**
+     * Liste une page de commandes, des plus récentes aux plus anciennes.
+     * La page suivante s'obtient en passant la dernière commande de la page comme curseur :
+     * le coût d'une page ne dépend pas de sa position, contrairement à un OFFSET.
+     * @param apres dernière commande de la page précédente (null pour la première page)
+     * @param taillePage
+     * @return List<CommandeDetaillee> au plus taillePage commandes
+     */
+    public List<CommandeDetaillee> listerPage(Commande apres, int taillePage) {
+        return listerPage(null, null, apres, taillePage);
     }
 
     /**
-     * Liste les commandes par statut
+     * Liste une page de commandes ayant un statut donné (voir listerPage)
      * @param statut
-     * @return List<Commande>
+     * @param apres dernière commande de la page précédente (null pour la première page)
+     * @param taillePage
+     * @return List<CommandeDetaillee>
+     */
+    public List<CommandeDetaillee> listerPageParStatut(String statut, Commande apres, int taillePage) {
+        return listerPage("c.statut = ?", statut, apres, taillePage);
+    }
+
+    /**
+     * Liste une page de commandes d'un client (voir listerPage)
+     * @param clientId
+     * @param apres dernière commande de la page précédente (null pour la première page)
+     * @param taillePage
+     * @return List<CommandeDetaillee>
+     */
+    public List<CommandeDetaillee> listerPageParClient(int clientId, Commande apres, int taillePage) {
+        return listerPage("c.client_id = ?", clientId, apres, taillePage);
+    }
+
+    /**
+     * Construit et exécute la requête de pagination par clé
+     * @param filtre condition SQL supplémentaire avec un paramètre (null si aucune)
+     * @param valeurFiltre valeur du paramètre du filtre
+     * @param apres curseur (null pour la première page)
+     * @param taillePage
+     * @return List<CommandeDetaillee>
      */
-    public List<Commande> listerParStatut(String statut) {
-        List<Commande> commandes = new ArrayList<>();
-        String sql = "SELECT c.*, cl.nom as client_nom, cl.prenom as client_prenom, " +
-                     "a.designation as article_designation FROM commandes c " +
-                     "LEFT JOIN clients cl ON c.client_id = cl.id " +
-                     "LEFT JOIN articles a ON c.article_id = a.id " +
-                     "WHERE c.statut = ? ORDER BY c.date_commande DESC";
+    private List<CommandeDetaillee> listerPage(String filtre, Object valeurFiltre, Commande apres, int taillePage) {
+        List<CommandeDetaillee> commandes = new ArrayList<>(taillePage);
+        StringBuilder sql = new StringBuilder(SQL_SELECTION_JOINTE);
+        List<String> conditions = new ArrayList<>();
+        if (filtre != null) {
+            conditions.add(filtre);
+        }
+        if (apres != null) {
+            conditions.add(SQL_APRES_CURSEUR);
+        }
+        if (!conditions.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(SQL_ORDRE_RECENTES).append(" LIMIT ?");
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, statut);
-            ResultSet resultSet = statement.executeQuery();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (filtre != null) {
+                statement.setObject(index++, valeurFiltre);
+            }
+            if (apres != null) {
+                Timestamp dateCurseur = new Timestamp(apres.getDateCommande().getTime());
+                statement.setTimestamp(index++, dateCurseur);
+                statement.setTimestamp(index++, dateCurseur);
+                statement.setInt(index++, apres.getId());
+            }
+            statement.setInt(index, taillePage);
             
-            while (resultSet.next()) {
-                commandes.add(creerCommandeDepuisResultSet(resultSet));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                MappeurLignes.Lignes<CommandeDetaillee> lignes = MAPPEUR_DETAILLE.preparer(SQL_SELECTION_JOINTE, resultSet);
+                while (resultSet.next()) {
+                    commandes.add(lignes.lire(resultSet));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Erreur lors de la récupération des commandes par statut : " + e.getMessage());
+            System.err.println("Erreur lors de la récupération d'une page de commandes : " + e.getMessage());
         }
         return commandes;
     }
 
     /**
-     * Liste les commandes d'un client
-     * @param clientId
-     * @return List<Commande>
+     * Parcourt toutes les commandes, des plus récentes aux plus anciennes, en les transmettant
+     * une à une au consommateur. Les lignes sont lues en flux (curseur en avant seulement) :
+     * la mémoire utilisée ne dépend pas du nombre de commandes.
+     * @param consommateur
+     * @return int le nombre de commandes parcourues
      */
-    public List<Commande> listerParClient(int clientId) {
-        List<Commande> commandes = new ArrayList<>();
-        String sql = "SELECT c.*, cl.nom as client_nom, cl.prenom as client_prenom, " +
-                     "a.designation as article_designation FROM commandes c " +
-                     "LEFT JOIN clients cl ON c.client_id = cl.id " +
-                     "LEFT JOIN articles a ON c.article_id = a.id " +
-                     "WHERE c.client_id = ? ORDER BY c.date_commande DESC";
+    public int parcourirToutes(Consumer<? super CommandeDetaillee> consommateur) {
+        int nombre = 0;
+        try (Stream<CommandeDetaillee> commandes = streamToutes()) {
+            for (CommandeDetaillee commande : (Iterable<CommandeDetaillee>) commandes::iterator) {
+                consommateur.accept(commande);
+                nombre++;
+            }
+        } catch (IllegalStateException e) {
+            System.err.println("Erreur lors du parcours des commandes : " + e.getMessage());
+        }
+        return nombre;
+    }
+
+    /**
+     * Retourne toutes les commandes sous forme de flux lu au fil de l'eau, des plus récentes
+     * aux plus anciennes. Le flux garde une connexion empruntée au pool jusqu'à sa fermeture :
+     * il doit être utilisé dans un try-with-resources.
+     * La taille de lecture est donnée par db.streaming.fetchSize ; la valeur par défaut
+     * Integer.MIN_VALUE demande au driver MySQL de transmettre les lignes une par une
+     * (1000 lignes par lecture avec la base embarquée, qui refuse une taille négative).
+     * Une erreur SQL pendant la lecture est signalée par une IllegalStateException.
+     * @return Stream<CommandeDetaillee>
+     */
+    public Stream<CommandeDetaillee> streamToutes() {
+        String sql = SQL_SELECTION_JOINTE + SQL_ORDRE_RECENTES;
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        MappeurLignes.Lignes<CommandeDetaillee> conversion;
+        try {
+            connection = DatabaseConnection.getConnection();
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(ConfigurationBD.getInt("db.streaming.fetchSize",
+                    DatabaseConnection.isEmbarquee() ? 1000 : Integer.MIN_VALUE));
+            resultSet = statement.executeQuery();
+            conversion = MAPPEUR_DETAILLE.preparer(SQL_SELECTION_JOINTE, resultSet);
+        } catch (SQLException e) {
+            fermerSilencieusement(resultSet, statement, connection);
+            System.err.println("Erreur lors de la lecture en flux des commandes : " + e.getMessage());
+            return Stream.empty();
+        }
+
+        final Connection connexionFlux = connection;
+        final PreparedStatement statementFlux = statement;
+        final ResultSet resultSetFlux = resultSet;
+        final MappeurLignes.Lignes<CommandeDetaillee> conversionFlux = conversion;
+        Spliterator<CommandeDetaillee> lignes = new Spliterators.AbstractSpliterator<CommandeDetaillee>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super CommandeDetaillee> action) {
+                try {
+                    if (!resultSetFlux.next()) {
+                        return false;
+                    }
+                    action.accept(conversionFlux.lire(resultSetFlux));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(lignes, false)
+                .onClose(() -> fermerSilencieusement(resultSetFlux, statementFlux, connexionFlux));
+    }
+
+    /**
+     * Ferme des ressources JDBC en ignorant les erreurs de fermeture
+     * @param ressources
+     */
+    private void fermerSilencieusement(AutoCloseable... ressources) {
+        for (AutoCloseable ressource : ressources) {
+            if (ressource != null) {
+                try {
+                    ressource.close();
+                } catch (Exception e) {
+                    System.err.println("Erreur lors de la fermeture d'une ressource : " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcule le nombre et le montant des commandes par statut et par type en une seule requête
+     * @return StatistiquesCommandes (vide en cas d'erreur)
+     */
+    public StatistiquesCommandes calculerStatistiques() {
+        StatistiquesCommandes statistiques = new StatistiquesCommandes();
+        String sql = "SELECT statut, type_commande, COUNT(*) as nombre, SUM(montant_total) as montant " +
+                     "FROM commandes GROUP BY statut, type_commande";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, clientId);
-            ResultSet resultSet = statement.executeQuery();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
             
             while (resultSet.next()) {
-                commandes.add(creerCommandeDepuisResultSet(resultSet));
+                statistiques.ajouterGroupe(resultSet.getString("statut"),
+                                           resultSet.getString("type_commande"),
+                                           resultSet.getLong("nombre"),
+                                           resultSet.getBigDecimal("montant"));
             }
         } catch (SQLException e) {
-            System.err.println("Erreur lors de la récupération des commandes du client : " + e.getMessage());
+            System.err.println("Erreur lors du calcul des statistiques : " + e.getMessage());
         }
-        return commandes;
+        return statistiques;
     }
 
+    /** Agrégats calculés pour chaque période (jour ou mois) */
+    private static final String SQL_AGREGATS_PERIODE =
+            "COUNT(*) as nombre, SUM(montant_total) as montant, " +
+            "SUM(CASE WHEN type_commande='validee' THEN 1 ELSE 0 END) as nombre_validees, " +
+            "SUM(CASE WHEN type_commande='validee' THEN montant_total ELSE 0 END) as montant_valide " +
+            "FROM commandes WHERE date_commande >= ? AND date_commande < ? ";
+
     /**
-     * Calcule le montant total des commandes validées
-     * @return double
+     * Statistiques des commandes jour par jour sur l'intervalle [debut, fin[
+     * @param debut
+     * @param fin
+     * @return List<StatistiquePeriode> un élément par jour ayant au moins une commande
      */
-    public double calculerMontantTotalCommandes() {
-        String sql = "SELECT SUM(montant_total) as total FROM commandes WHERE type_commande='validee'";
+    public List<StatistiquePeriode> statistiquesParJour(java.util.Date debut, java.util.Date fin) {
+        List<StatistiquePeriode> periodes = new ArrayList<>();
+        String sql = "SELECT CAST(date_commande AS DATE) as jour, " + SQL_AGREGATS_PERIODE +
+                     "GROUP BY CAST(date_commande AS DATE) ORDER BY jour";
         
-        try (PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-            
-            if (resultSet.next()) {
-                return resultSet.getDouble("total");
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setTimestamp(1, new Timestamp(debut.getTime()));
+            statement.setTimestamp(2, new Timestamp(fin.getTime()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    periodes.add(creerStatistiquePeriode(resultSet.getDate("jour").toString(), resultSet));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Erreur lors du calcul du montant total : " + e.getMessage());
+            System.err.println("Erreur lors du calcul des statistiques journalières : " + e.getMessage());
         }
-        return 0.0;
+        return periodes;
     }
 
     /**
-     * Crée un objet Commande à partir d'un ResultSet
+     * Statistiques des commandes mois par mois sur l'intervalle [debut, fin[
+     * @param debut
+     * @param fin
+     * @return List<StatistiquePeriode> un élément par mois ayant au moins une commande
+     */
+    public List<StatistiquePeriode> statistiquesParMois(java.util.Date debut, java.util.Date fin) {
+        List<StatistiquePeriode> periodes = new ArrayList<>();
+        String sql = "SELECT YEAR(date_commande) as annee, MONTH(date_commande) as mois, " + SQL_AGREGATS_PERIODE +
+                     "GROUP BY YEAR(date_commande), MONTH(date_commande) ORDER BY annee, mois";
+        
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setTimestamp(1, new Timestamp(debut.getTime()));
+            statement.setTimestamp(2, new Timestamp(fin.getTime()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String periode = String.format("%04d-%02d", resultSet.getInt("annee"), resultSet.getInt("mois"));
+                    periodes.add(creerStatistiquePeriode(periode, resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du calcul des statistiques mensuelles : " + e.getMessage());
+        }
+        return periodes;
+    }
+
+    /**
+     * Crée une StatistiquePeriode à partir des agrégats de la ligne courante
+     * @param periode
      * @param resultSet
-     * @return Commande
+     * @return StatistiquePeriode
      * @throws SQLException
      */
-    private Commande creerCommandeDepuisResultSet(ResultSet resultSet) throws SQLException {
-        Commande commande = new Commande();
-        commande.setId(resultSet.getInt("id"));
-        commande.setClientId(resultSet.getInt("client_id"));
-        commande.setArticleId(resultSet.getInt("article_id"));
-        commande.setQuantite(resultSet.getInt("quantite"));
-        commande.setPrixUnitaire(resultSet.getBigDecimal("prix_unitaire"));
-        commande.setMontantTotal(resultSet.getBigDecimal("montant_total"));
-        commande.setDateCommande(resultSet.getTimestamp("date_commande"));
-        commande.setTypeCommande(resultSet.getString("type_commande"));
-        commande.setStatut(resultSet.getString("statut"));
-        commande.setObservations(resultSet.getString("observations"));
-        commande.setDateValidation(resultSet.getTimestamp("date_validation"));
-        return commande;
+    private StatistiquePeriode creerStatistiquePeriode(String periode, ResultSet resultSet) throws SQLException {
+        return new StatistiquePeriode(periode,
+                                      resultSet.getLong("nombre"),
+                                      resultSet.getBigDecimal("montant"),
+                                      resultSet.getLong("nombre_validees"),
+                                      resultSet.getBigDecimal("montant_valide"));
     }
 }
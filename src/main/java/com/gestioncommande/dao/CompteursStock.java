@@ -0,0 +1,650 @@
+package com.gestioncommande.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Décompte du stock des articles en mémoire pour la validation des commandes
+ * (stock.memoire.actif=true ; désactivé par défaut).
+ *
+ * Sans lui, chaque validation décrémente la ligne de son article dans la table articles : sur un
+ * article très demandé, les transactions attendent l'une après l'autre le verrou de cette ligne.
+ * Avec lui, la validation est acceptée ou refusée par un compteur tenu dans la JVM, sous l'un des
+ * NOMBRE_VERROUS verrous choisi selon l'identifiant de l'article (quelques dizaines de
+ * nanosecondes, sans accès à la base). Sa transaction ne modifie plus que la commande et
+ * enregistre le mouvement dans la table stock_en_attente (journaliser). Les mouvements sont
+ * ensuite écrits par lots (ecrire), toutes les stock.memoire.intervalle ms ou dès que
+ * stock.memoire.lot mouvements attendent : une seule requête par article cumule toutes ses
+ * validations, dans la transaction qui supprime les mouvements écrits de stock_en_attente.
+ * <ul>
+ *   <li>au démarrage, recuperer applique aux articles les mouvements restés dans
+ *       stock_en_attente (arrêt brutal), puis les compteurs sont reconstruits depuis la table articles ;</li>
+ *   <li>DatabaseConnection.closeConnection écrit les mouvements en attente avant de fermer le pool ;</li>
+ *   <li>les autres mises à jour de stock (ArticleDAO) restent immédiates : elles écrivent d'abord
+ *       les mouvements en attente, et le compteur de l'article est relu en base avant son prochain
+ *       décompte (preparer, hors de la transaction de validation) ;</li>
+ *   <li>les réservations (ReservationsStock) sont reportées sur les compteurs.</li>
+ * </ul>
+ *
+ * Les compteurs ne connaissent que les validations de ce processus : lorsque le décompte en
+ * mémoire est actif, un seul processus doit valider des commandes sur la base. Entre deux
+ * écritures, le stock lu en base est en avance des mouvements en attente.
+ *
+ * Avec stock.regroupement.actif=true (indépendant du décompte en mémoire), les réapprovisionnements
+ * (ArticleDAO.incrementerStock) sont eux aussi mis en attente (reapprovisionner) et cumulés par
+ * article avec les autres mouvements : cent réapprovisionnements d'un article entre deux écritures
+ * ne coûtent qu'une requête. Ils ne sont pas journalisés : un arrêt brutal perd ceux qui n'ont pas
+ * encore été écrits, et le stock lu en base est en retard des réapprovisionnements en attente.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class CompteursStock {
+
+    // ========== CONSTANTES ==========
+
+    /** Décompte en mémoire utilisé par la validation des commandes (stock.memoire.actif) */
+    private static final boolean ACTIF = ConfigurationBD.getBoolean("stock.memoire.actif", false);
+
+    /** Délai (ms) entre deux écritures des mouvements en attente (stock.memoire.intervalle) */
+    private static final long INTERVALLE = Math.max(1L, ConfigurationBD.getLong("stock.memoire.intervalle", 50L));
+
+    /** Réapprovisionnements mis en attente et écrits avec les autres mouvements (stock.regroupement.actif) */
+    private static final boolean REGROUPEMENT = ConfigurationBD.getBoolean("stock.regroupement.actif", false);
+
+    /** Nombre de mouvements en attente qui déclenche une écriture sans attendre le délai (stock.memoire.lot) */
+    private static final int LOT = Math.max(1, ConfigurationBD.getInt("stock.memoire.lot", 1000));
+
+    /** Nombre de verrous entre lesquels les articles sont répartis (puissance de 2) */
+    private static final int NOMBRE_VERROUS = 64;
+
+    /**
+     * Résultat d'un décompte en mémoire
+     */
+    public enum ResultatDecompte {
+        /** Quantité retirée du compteur */
+        DECOMPTE,
+        /** Article inactif ou stock disponible insuffisant */
+        STOCK_INSUFFISANT,
+        /** Compteur absent ou périmé : à relire (preparer) hors de toute transaction, puis réessayer */
+        A_RELIRE
+    }
+
+    // ========== ATTRIBUTS ==========
+
+    private static final Object[] VERROUS = new Object[NOMBRE_VERROUS];
+
+    static {
+        for (int i = 0; i < NOMBRE_VERROUS; i++) {
+            VERROUS[i] = new Object();
+        }
+    }
+
+    /** Compteur de chaque article chargé */
+    private static final Map<Integer, Compteur> COMPTEURS = new ConcurrentHashMap<>();
+
+    /** Articles ayant des mouvements en attente d'écriture */
+    private static final Set<Integer> A_ECRIRE = ConcurrentHashMap.newKeySet();
+
+    /** Nombre de mouvements en attente d'écriture */
+    private static final AtomicInteger EN_ATTENTE = new AtomicInteger();
+
+    /** Vrai si une écriture anticipée (lot atteint) est déjà demandée */
+    private static final AtomicBoolean ECRITURE_DEMANDEE = new AtomicBoolean();
+
+    /**
+     * Écritures en base et relectures de compteurs : une relecture ne doit jamais voir la base
+     * au milieu d'une écriture, dont les mouvements ne sont plus en mémoire mais pas encore en base.
+     */
+    private static final ReentrantLock ECRITURE = new ReentrantLock();
+
+    /** Thread des écritures périodiques (null tant qu'elles ne sont pas démarrées) */
+    private static volatile ScheduledExecutorService ecrivain = null;
+
+    /**
+     * État d'un article. Tous les champs sont protégés par le verrou de l'article.
+     */
+    private static final class Compteur {
+        /** Stock de l'article, mouvements en attente et validations en cours déduits */
+        int stock;
+        /** Quantité réservée par les commandes en cours */
+        int reserve;
+        boolean actif;
+        /** Faux tant que le compteur n'a jamais été lu en base (créé pour un réapprovisionnement) */
+        boolean charge;
+        /** Vrai si l'article a été modifié en base par ArticleDAO : le compteur doit être relu */
+        boolean perime;
+        /** Quantité décomptée par des validations dont la transaction n'est pas encore terminée */
+        int enCours;
+        /** Mouvements terminés (validations, réapprovisionnements), pas encore écrits dans la table articles */
+        Mouvements enAttente = new Mouvements();
+    }
+
+    /**
+     * Mouvements cumulés d'un article
+     */
+    private static final class Mouvements {
+        /** Quantité à retirer du stock (négative pour un réapprovisionnement) */
+        int stock;
+        /** Quantité à retirer du stock réservé */
+        int reserve;
+        /** Nombre de mouvements cumulés */
+        int nombre;
+        /** Commandes dont le mouvement est à supprimer de stock_en_attente */
+        final List<Integer> commandes = new ArrayList<>();
+
+        void ajouter(Mouvements autres) {
+            stock += autres.stock;
+            reserve += autres.reserve;
+            nombre += autres.nombre;
+            commandes.addAll(autres.commandes);
+        }
+    }
+
+    // ========== CONSTRUCTEUR ==========
+
+    /**
+     * Initialise le pool de connexions si nécessaire, puis démarre les écritures différées (demarrer).
+     * @throws SQLException si les mouvements en attente n'ont pas pu être appliqués
+     */
+    public CompteursStock() throws SQLException {
+        DatabaseConnection.initialiser();
+        demarrer();
+    }
+
+    /**
+     * Au premier appel, si le décompte en mémoire ou le regroupement des réapprovisionnements est
+     * actif, démarre les écritures périodiques. Avec le décompte en mémoire, applique d'abord les
+     * mouvements restés dans stock_en_attente et charge les compteurs depuis la table articles.
+     * Appelée aussi par le constructeur d'ArticleDAO.
+     * @throws SQLException si les mouvements en attente n'ont pas pu être appliqués
+     */
+    static void demarrer() throws SQLException {
+        if (!ACTIF && !REGROUPEMENT) {
+            return;
+        }
+        synchronized (CompteursStock.class) {
+            if (ecrivain == null) {
+                if (ACTIF) {
+                    recupererEnAttente();
+                    charger();
+                }
+                ScheduledExecutorService executeur = Executors.newSingleThreadScheduledExecutor(tache -> {
+                    Thread thread = new Thread(tache, "ecriture-stock");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executeur.scheduleWithFixedDelay(CompteursStock::ecrireEnAttente,
+                        INTERVALLE, INTERVALLE, TimeUnit.MILLISECONDS);
+                ecrivain = executeur;
+            }
+        }
+    }
+
+    /**
+     * @return true si les réapprovisionnements sont mis en attente (stock.regroupement.actif)
+     */
+    static boolean isRegroupementActif() {
+        return REGROUPEMENT;
+    }
+
+    /**
+     * @return true si la validation des commandes décompte le stock en mémoire (stock.memoire.actif)
+     */
+    public boolean isActif() {
+        return ACTIF;
+    }
+
+    // ========== DÉCOMPTE ==========
+
+    /**
+     * Charge le compteur d'un article, ou le relit s'il est périmé, avant un décompte.
+     * Emprunte sa propre connexion et attend la fin d'une écriture en cours : à appeler hors de
+     * toute transaction, jamais avec un verrou de ligne détenu.
+     * @param articleId
+     * @return boolean false si l'article n'existe pas
+     * @throws SQLException si le compteur n'a pas pu être lu en base
+     */
+    public boolean preparer(int articleId) throws SQLException {
+        synchronized (verrou(articleId)) {
+            Compteur compteur = COMPTEURS.get(articleId);
+            if (compteur != null && compteur.charge && !compteur.perime) {
+                return true;
+            }
+        }
+        return charger(articleId);
+    }
+
+    /**
+     * Retire une quantité du stock en mémoire d'un article pour une validation dont la transaction
+     * est en cours. La condition est celle d'ArticleDAO.decrementerStock : article actif et stock
+     * disponible, augmenté de la réservation de la commande, suffisant. L'appelant enregistre le
+     * mouvement (journaliser) dans sa transaction, puis appelle confirmer si elle est validée,
+     * restituer sinon.
+     *
+     * Aucun accès à la base : un compteur absent ou périmé n'est pas relu ici (la transaction de
+     * l'appelant détient déjà une connexion et des verrous) ; l'appelant termine sa transaction,
+     * appelle preparer puis recommence.
+     * @param articleId
+     * @param quantite La quantité à retirer du stock
+     * @param reservee La quantité réservée par la commande
+     * @return ResultatDecompte
+     */
+    public ResultatDecompte decrementer(int articleId, int quantite, int reservee) {
+        synchronized (verrou(articleId)) {
+            Compteur compteur = COMPTEURS.get(articleId);
+            if (compteur == null || !compteur.charge || compteur.perime) {
+                return ResultatDecompte.A_RELIRE;
+            }
+            if (!compteur.actif || compteur.stock - compteur.reserve + reservee < quantite) {
+                return ResultatDecompte.STOCK_INSUFFISANT;
+            }
+            compteur.stock -= quantite;
+            compteur.enCours += quantite;
+            return ResultatDecompte.DECOMPTE;
+        }
+    }
+
+    /**
+     * Enregistre le mouvement d'une validation dans stock_en_attente, sur la connexion de sa
+     * transaction : il sera appliqué à l'article même si le processus s'arrête avant son écriture.
+     * @param connection
+     * @param commandeId
+     * @param articleId
+     * @param quantite
+     * @param reservee
+     * @throws SQLException
+     */
+    public void journaliser(Connection connection, int commandeId, int articleId, int quantite, int reservee)
+            throws SQLException {
+        String sql = "INSERT INTO stock_en_attente (commande_id, article_id, quantite, quantite_reservee) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, commandeId);
+            statement.setInt(2, articleId);
+            statement.setInt(3, quantite);
+            statement.setInt(4, reservee);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Place en attente d'écriture le mouvement d'une validation dont la transaction vient d'être validée
+     * @param articleId
+     * @param commandeId
+     * @param quantite
+     * @param reservee
+     */
+    public void confirmer(int articleId, int commandeId, int quantite, int reservee) {
+        synchronized (verrou(articleId)) {
+            Compteur compteur = COMPTEURS.get(articleId);
+            if (compteur == null) {
+                // Compteurs rechargés entre-temps : le mouvement reste dans stock_en_attente
+                return;
+            }
+            compteur.enCours -= quantite;
+            compteur.enAttente.stock += quantite;
+            compteur.enAttente.reserve += reservee;
+            compteur.enAttente.nombre++;
+            compteur.enAttente.commandes.add(commandeId);
+            A_ECRIRE.add(articleId);
+        }
+        signalerMouvement();
+    }
+
+    /**
+     * Met en attente d'écriture le réapprovisionnement d'un article (stock.regroupement.actif).
+     * Son compteur, s'il est chargé, en tient compte immédiatement.
+     * @param articleId
+     * @param quantite La quantité ajoutée au stock
+     */
+    static void reapprovisionner(int articleId, int quantite) {
+        synchronized (verrou(articleId)) {
+            Compteur compteur = COMPTEURS.computeIfAbsent(articleId, id -> new Compteur());
+            compteur.stock += quantite;
+            compteur.enAttente.stock -= quantite;
+            compteur.enAttente.nombre++;
+            A_ECRIRE.add(articleId);
+        }
+        signalerMouvement();
+    }
+
+    /**
+     * Compte un mouvement mis en attente ; au-delà de stock.memoire.lot, demande une écriture
+     * sans attendre le délai
+     */
+    private static void signalerMouvement() {
+        if (EN_ATTENTE.incrementAndGet() >= LOT && ECRITURE_DEMANDEE.compareAndSet(false, true)) {
+            ScheduledExecutorService executeur = ecrivain;
+            if (executeur != null) {
+                executeur.execute(() -> {
+                    ECRITURE_DEMANDEE.set(false);
+                    ecrireEnAttente();
+                });
+            } else {
+                ECRITURE_DEMANDEE.set(false);
+            }
+        }
+    }
+
+    /**
+     * Rend au compteur la quantité décomptée pour une validation dont la transaction a échoué
+     * @param articleId
+     * @param quantite
+     */
+    public void restituer(int articleId, int quantite) {
+        synchronized (verrou(articleId)) {
+            Compteur compteur = COMPTEURS.get(articleId);
+            if (compteur != null) {
+                compteur.enCours -= quantite;
+                compteur.stock += quantite;
+            }
+        }
+    }
+
+    /**
+     * Stock disponible d'un article selon son compteur (stock moins quantité réservée)
+     * @param articleId
+     * @return int, ou -1 si le compteur de l'article n'est pas chargé
+     */
+    public int getDisponible(int articleId) {
+        synchronized (verrou(articleId)) {
+            Compteur compteur = COMPTEURS.get(articleId);
+            return compteur == null || !compteur.charge ? -1 : compteur.stock - compteur.reserve;
+        }
+    }
+
+    /**
+     * @return int le nombre de mouvements en attente d'écriture
+     */
+    public int getNombreEnAttente() {
+        return EN_ATTENTE.get();
+    }
+
+    // ========== SIGNALEMENTS (ArticleDAO, ReservationsStock) ==========
+
+    /**
+     * Reporte sur le compteur d'un article une réservation (quantité positive) ou une libération
+     * (quantité négative) dont la transaction vient d'être validée
+     * @param articleId
+     * @param quantite
+     */
+    static void ajusterReserve(int articleId, int quantite) {
+        synchronized (verrou(articleId)) {
+            Compteur compteur = COMPTEURS.get(articleId);
+            if (compteur != null) {
+                compteur.reserve += quantite;
+            }
+        }
+    }
+
+    /**
+     * Signale une modification de l'article en base hors décompte : son stock et son état seront
+     * relus avant le prochain décompte
+     * @param articleId
+     */
+    static void marquerPerime(int articleId) {
+        synchronized (verrou(articleId)) {
+            Compteur compteur = COMPTEURS.get(articleId);
+            if (compteur != null) {
+                compteur.perime = true;
+            }
+        }
+    }
+
+    // ========== ÉCRITURE ==========
+
+    /**
+     * Écrit immédiatement les mouvements en attente
+     * @return int le nombre de mouvements écrits
+     */
+    public int ecrire() {
+        return ecrireEnAttente();
+    }
+
+    /**
+     * Écrit les mouvements en attente dans une seule transaction : une requête par article, puis
+     * suppression des mouvements écrits de stock_en_attente. En cas d'échec, les mouvements sont
+     * remis en attente pour l'écriture suivante. Une écriture déjà en cours (écritures périodiques)
+     * est attendue : au retour, tous les mouvements confirmés avant l'appel sont en base.
+     * @return int le nombre de mouvements écrits par cet appel
+     */
+    static int ecrireEnAttente() {
+        if (A_ECRIRE.isEmpty() && !ECRITURE.isLocked()) {
+            return 0;
+        }
+        ECRITURE.lock();
+        try {
+            if (A_ECRIRE.isEmpty()) {
+                return 0;
+            }
+            Map<Integer, Mouvements> lot = new HashMap<>();
+            for (Integer articleId : A_ECRIRE) {
+                synchronized (verrou(articleId)) {
+                    A_ECRIRE.remove(articleId);
+                    Compteur compteur = COMPTEURS.get(articleId);
+                    if (compteur != null && compteur.enAttente.nombre > 0) {
+                        lot.put(articleId, compteur.enAttente);
+                        compteur.enAttente = new Mouvements();
+                    }
+                }
+            }
+            try {
+                int ecrits = GestionnaireTransactions.executer(connection -> appliquer(connection, lot));
+                EN_ATTENTE.addAndGet(-ecrits);
+                for (Integer articleId : lot.keySet()) {
+                    ArticleDAO.signalerEcritureStock(articleId);
+                }
+                return ecrits;
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de l'écriture des mouvements de stock : " + e.getMessage());
+                for (Map.Entry<Integer, Mouvements> entree : lot.entrySet()) {
+                    synchronized (verrou(entree.getKey())) {
+                        Compteur compteur = COMPTEURS.get(entree.getKey());
+                        if (compteur != null) {
+                            compteur.enAttente.ajouter(entree.getValue());
+                            A_ECRIRE.add(entree.getKey());
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // Ne pas interrompre les écritures périodiques
+            System.err.println("Erreur lors de l'écriture des mouvements de stock : " + e);
+        } finally {
+            ECRITURE.unlock();
+        }
+        return 0;
+    }
+
+    /**
+     * Arrête les écritures périodiques et écrit les mouvements en attente (fermeture du pool).
+     * Un appel concurrent attend la fin de l'écriture. Les écritures périodiques reprendront
+     * avec le prochain DAO créé.
+     */
+    static synchronized void arreter() {
+        ScheduledExecutorService executeur = ecrivain;
+        ecrivain = null;
+        if (executeur != null) {
+            executeur.shutdown();
+            try {
+                executeur.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ecrireEnAttente();
+    }
+
+    /**
+     * Retire les mouvements cumulés de chaque article de la table articles et les supprime de
+     * stock_en_attente, sur la connexion d'une transaction
+     * @param connection
+     * @param mouvements Les mouvements par article
+     * @return int le nombre de mouvements appliqués
+     * @throws SQLException
+     */
+    private static int appliquer(Connection connection, Map<Integer, Mouvements> mouvements) throws SQLException {
+        String sqlArticle = "UPDATE articles SET stock = stock - ?, stock_reserve = stock_reserve - ?, " +
+                            "date_modification=?, version=version+1 WHERE id=?";
+        String sqlMouvement = "DELETE FROM stock_en_attente WHERE commande_id=?";
+
+        int appliques = 0;
+        Timestamp maintenant = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement articles = connection.prepareStatement(sqlArticle);
+             PreparedStatement journal = connection.prepareStatement(sqlMouvement)) {
+            for (Map.Entry<Integer, Mouvements> entree : mouvements.entrySet()) {
+                Mouvements cumul = entree.getValue();
+                articles.setInt(1, cumul.stock);
+                articles.setInt(2, cumul.reserve);
+                articles.setTimestamp(3, maintenant);
+                articles.setInt(4, entree.getKey());
+                articles.addBatch();
+                for (Integer commandeId : cumul.commandes) {
+                    journal.setInt(1, commandeId);
+                    journal.addBatch();
+                }
+                appliques += cumul.nombre;
+            }
+            articles.executeBatch();
+            if (appliques > 0) {
+                journal.executeBatch();
+            }
+        }
+        return appliques;
+    }
+
+    // ========== CHARGEMENT ==========
+
+    /**
+     * Applique aux articles les mouvements restés dans stock_en_attente (processus arrêté avant
+     * leur écriture). Appelée au démarrage, avant le chargement des compteurs.
+     * @return int le nombre de mouvements appliqués
+     * @throws SQLException
+     */
+    public int recuperer() throws SQLException {
+        return recupererEnAttente();
+    }
+
+    private static int recupererEnAttente() throws SQLException {
+        String sql = "SELECT commande_id, article_id, quantite, quantite_reservee FROM stock_en_attente";
+
+        ECRITURE.lock();
+        try {
+            int appliques = GestionnaireTransactions.executer(connection -> {
+                Map<Integer, Mouvements> mouvements = new HashMap<>();
+                try (PreparedStatement statement = connection.prepareStatement(sql);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        Mouvements cumul = mouvements.computeIfAbsent(resultSet.getInt(2), id -> new Mouvements());
+                        cumul.commandes.add(resultSet.getInt(1));
+                        cumul.nombre++;
+                        cumul.stock += resultSet.getInt(3);
+                        cumul.reserve += resultSet.getInt(4);
+                    }
+                }
+                return mouvements.isEmpty() ? 0 : appliquer(connection, mouvements);
+            });
+            if (appliques > 0) {
+                System.out.println("Stock : " + appliques + " mouvement(s) en attente appliqué(s) aux articles");
+            }
+            return appliques;
+        } finally {
+            ECRITURE.unlock();
+        }
+    }
+
+    /**
+     * Reconstruit tous les compteurs depuis la table articles. Les mouvements encore en mémoire
+     * sont abandonnés : à n'appeler qu'après recuperer, qui les a appliqués depuis stock_en_attente.
+     * @throws SQLException
+     */
+    private static void charger() throws SQLException {
+        String sql = "SELECT id, stock, stock_reserve, etat FROM articles";
+
+        ECRITURE.lock();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            COMPTEURS.clear();
+            A_ECRIRE.clear();
+            EN_ATTENTE.set(0);
+            while (resultSet.next()) {
+                Compteur compteur = new Compteur();
+                compteur.stock = resultSet.getInt(2);
+                compteur.reserve = resultSet.getInt(3);
+                compteur.actif = resultSet.getInt(4) == 1;
+                compteur.charge = true;
+                COMPTEURS.put(resultSet.getInt(1), compteur);
+            }
+        } finally {
+            ECRITURE.unlock();
+        }
+    }
+
+    /**
+     * Charge ou relit le compteur d'un article : stock et état lus en base, diminués des mouvements
+     * en attente et des validations en cours. La quantité réservée n'est lue qu'au premier
+     * chargement ; elle suit ensuite les signalements de ReservationsStock.
+     * Prend le verrou ECRITURE et emprunte une connexion : jamais pendant une transaction (preparer).
+     * @param articleId
+     * @return boolean false si l'article n'existe pas
+     * @throws SQLException
+     */
+    private static boolean charger(int articleId) throws SQLException {
+        String sql = "SELECT stock, stock_reserve, etat FROM articles WHERE id=?";
+
+        ECRITURE.lock();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, articleId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                synchronized (verrou(articleId)) {
+                    Compteur compteur = COMPTEURS.get(articleId);
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    if (compteur == null) {
+                        compteur = new Compteur();
+                        COMPTEURS.put(articleId, compteur);
+                    }
+                    if (!compteur.charge) {
+                        compteur.reserve = resultSet.getInt(2);
+                        compteur.charge = true;
+                    }
+                    compteur.stock = resultSet.getInt(1) - compteur.enAttente.stock - compteur.enCours;
+                    compteur.actif = resultSet.getInt(3) == 1;
+                    compteur.perime = false;
+                    return true;
+                }
+            }
+        } finally {
+            ECRITURE.unlock();
+        }
+    }
+
+    /**
+     * Verrou protégeant le compteur d'un article
+     * @param articleId
+     * @return Object
+     */
+    private static Object verrou(int articleId) {
+        return VERROUS[articleId & (NOMBRE_VERROUS - 1)];
+    }
+}
@@ -0,0 +1,204 @@
+package com.gestioncommande.dao;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Classe utilitaire donnant accès aux paramètres du fichier config/database.properties.
+ * Le fichier est lu une seule fois, au premier accès. S'il est absent, les valeurs
+ * par défaut fournies par l'appelant sont utilisées.
+ *
+ * Chaque paramètre peut être remplacé sans modifier le fichier, par ordre de priorité :
+ * <ol>
+ *   <li>une propriété système de même nom (java -Ddb.pool.maxActive=40 ...) ;</li>
+ *   <li>une variable d'environnement : le nom en majuscules, les points remplacés par des
+ *       soulignés (DB_POOL_MAXACTIVE) ;</li>
+ *   <li>le fichier de configuration (config/database.properties, ou le fichier désigné par
+ *       la propriété système ou la variable d'environnement config.fichier / CONFIG_FICHIER).</li>
+ * </ol>
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public final class ConfigurationBD {
+
+    // ========== CONSTANTES ==========
+
+    /** Chemin par défaut du fichier de configuration (relatif au dossier du projet) */
+    private static final String FICHIER_CONFIGURATION = "config/database.properties";
+
+    /** Propriétés chargées depuis le fichier de configuration */
+    private static Properties proprietes = null;
+
+    private ConfigurationBD() {}
+
+    // ========== CHARGEMENT ==========
+
+    /**
+     * Charge le fichier de configuration s'il ne l'a pas encore été.
+     * @return Les propriétés chargées (éventuellement vides)
+     */
+    private static synchronized Properties getProprietes() {
+        if (proprietes == null) {
+            Properties chargees = new Properties();
+            String fichier = surcharge("config.fichier");
+            Path chemin = Paths.get(fichier != null ? fichier : FICHIER_CONFIGURATION);
+            if (Files.isRegularFile(chemin)) {
+                try (InputStream entree = new FileInputStream(chemin.toFile())) {
+                    chargees.load(new InputStreamReader(entree, StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de la lecture de " + chemin + " : " + e.getMessage());
+                }
+            } else if (fichier != null) {
+                System.err.println("Fichier de configuration introuvable : " + chemin);
+            }
+            proprietes = chargees;
+        }
+        return proprietes;
+    }
+
+    // ========== ACCESSEURS ==========
+
+    /**
+     * Retourne la valeur d'un paramètre texte.
+     * @param cle La clé du paramètre (ex : db.pool.maxActive)
+     * @param defaut La valeur utilisée si le paramètre est absent
+     * @return La valeur du paramètre ou la valeur par défaut
+     */
+    public static String getString(String cle, String defaut) {
+        String valeur = surcharge(cle);
+        if (valeur == null) {
+            valeur = getProprietes().getProperty(cle);
+        }
+        return valeur == null || valeur.trim().isEmpty() ? defaut : valeur.trim();
+    }
+
+    /**
+     * Retourne les paramètres dont la clé commence par un préfixe, sans ce préfixe
+     * (ex : db.proprietes.cachePrepStmts=true donne cachePrepStmts=true pour le préfixe db.proprietes.).
+     * Chaque paramètre suit le même ordre de priorité que getString : propriété système, puis variable
+     * d'environnement (DB_PROPRIETES_CACHEPREPSTMTS), puis fichier. Une variable d'environnement dont
+     * la clé ne figure ni dans le fichier ni dans les propriétés système est ajoutée avec le nom écrit
+     * après le préfixe (DB_PROPRIETES_useCursorFetch donne useCursorFetch).
+     *
+     * @param prefixe Le préfixe des clés, point final compris
+     * @return Les paramètres trouvés (éventuellement vides)
+     */
+    public static Properties getGroupe(String prefixe) {
+        Set<String> cles = new LinkedHashSet<>();
+        for (Properties source : new Properties[] {getProprietes(), System.getProperties()}) {
+            for (String cle : source.stringPropertyNames()) {
+                if (cle.startsWith(prefixe) && cle.length() > prefixe.length()) {
+                    cles.add(cle.substring(prefixe.length()));
+                }
+            }
+        }
+
+        Properties groupe = new Properties();
+        for (String cle : cles) {
+            String valeur = getString(prefixe + cle, null);
+            if (valeur != null) {
+                groupe.setProperty(cle, valeur);
+            }
+        }
+        String prefixeEnvironnement = nomVariable(prefixe);
+        for (Map.Entry<String, String> variable : System.getenv().entrySet()) {
+            String nom = variable.getKey();
+            if (nom.startsWith(prefixeEnvironnement) && nom.length() > prefixeEnvironnement.length()
+                    && !variable.getValue().trim().isEmpty() && !contientVariable(cles, prefixe, nom)) {
+                groupe.setProperty(nom.substring(prefixeEnvironnement.length()), variable.getValue().trim());
+            }
+        }
+        return groupe;
+    }
+
+    /**
+     * @return true si l'une des clés (sans préfixe) correspond à la variable d'environnement
+     */
+    private static boolean contientVariable(Set<String> cles, String prefixe, String variable) {
+        for (String cle : cles) {
+            if (nomVariable(prefixe + cle).equals(variable)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Nom de la variable d'environnement d'un paramètre : en majuscules, points remplacés par des soulignés
+     */
+    private static String nomVariable(String cle) {
+        return cle.toUpperCase(Locale.ROOT).replace('.', '_');
+    }
+
+    /**
+     * Valeur d'un paramètre donnée par une propriété système ou une variable d'environnement.
+     * @return La valeur, ou null si aucune n'est définie
+     */
+    private static String surcharge(String cle) {
+        String valeur = System.getProperty(cle);
+        if (valeur == null || valeur.trim().isEmpty()) {
+            valeur = System.getenv(nomVariable(cle));
+        }
+        return valeur == null || valeur.trim().isEmpty() ? null : valeur;
+    }
+
+    /**
+     * Retourne la valeur d'un paramètre entier.
+     * Une valeur mal formée ou hors des limites d'un int est signalée puis remplacée par la valeur par défaut.
+     *
+     * @param cle La clé du paramètre
+     * @param defaut La valeur utilisée si le paramètre est absent ou invalide
+     * @return La valeur du paramètre ou la valeur par défaut
+     */
+    public static int getInt(String cle, int defaut) {
+        long valeur = getLong(cle, defaut);
+        if (valeur < Integer.MIN_VALUE || valeur > Integer.MAX_VALUE) {
+            System.err.println("Valeur hors limites pour " + cle + " : " + valeur);
+            return defaut;
+        }
+        return (int) valeur;
+    }
+
+    /**
+     * Retourne la valeur d'un paramètre entier long (durées en millisecondes par exemple).
+     * @param cle La clé du paramètre
+     * @param defaut La valeur utilisée si le paramètre est absent ou invalide
+     * @return La valeur du paramètre ou la valeur par défaut
+     */
+    public static long getLong(String cle, long defaut) {
+        String valeur = getString(cle, null);
+        if (valeur == null) {
+            return defaut;
+        }
+        try {
+            return Long.parseLong(valeur);
+        } catch (NumberFormatException e) {
+            System.err.println("Valeur invalide pour " + cle + " : " + valeur);
+            return defaut;
+        }
+    }
+
+    /**
+     * Retourne la valeur d'un paramètre booléen (true/false).
+     * @param cle La clé du paramètre
+     * @param defaut La valeur utilisée si le paramètre est absent
+     * @return La valeur du paramètre ou la valeur par défaut
+     */
+    public static boolean getBoolean(String cle, boolean defaut) {
+        String valeur = getString(cle, null);
+        return valeur == null ? defaut : Boolean.parseBoolean(valeur);
+    }
+}
@@ -0,0 +1,199 @@
+package com.gestioncommande.dao;
+
+import com.gestioncommande.entities.Article;
+import com.gestioncommande.entities.Client;
+import com.gestioncommande.entities.Commande;
+import com.gestioncommande.entities.CommandeDetaillee;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Façade asynchrone des DAO clients, articles et commandes : chaque appel est exécuté sur un
+ * exécuteur partagé et renvoie immédiatement un CompletableFuture. Des lectures indépendantes
+ * lancées ensemble s'exécutent en parallèle, chacune sur sa propre connexion du pool :
+ * <pre>
+ * CompletableFuture&lt;Client&gt; client = dao.trouverClient(clientId);
+ * CompletableFuture&lt;Article&gt; article = dao.trouverArticle(articleId);
+ * CompletableFuture&lt;List&lt;CommandeDetaillee&gt;&gt; historique = dao.listerCommandesClient(clientId, 20);
+ * CompletableFuture.allOf(client, article, historique).join();
+ * </pre>
+ *
+ * L'exécuteur utilise un thread virtuel par appel (Java 21+), sinon un pool de threads. Dans les
+ * deux cas, le nombre d'appels exécutés en même temps est limité à db.async.concurrence
+ * (db.pool.maxActive par défaut) : au-delà, les appels attendent sans occuper de connexion.
+ *
+ * Les DAO signalent leurs erreurs SQL sur la sortie d'erreur et renvoient null, false ou une
+ * liste vide : le futur est alors terminé normalement avec cette valeur. Il n'est terminé en
+ * erreur que si l'appel lève une exception non contrôlée.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class DAOAsynchrone {
+
+    // ========== EXÉCUTEUR PARTAGÉ ==========
+
+    /** Nombre maximum d'appels exécutés en même temps */
+    private static final int CONCURRENCE = Math.max(1, ConfigurationBD.getInt("db.async.concurrence",
+            ConfigurationBD.getInt("db.pool.maxActive", ConfigurationBD.getInt("db.maxConnections", 20))));
+
+    private static final Semaphore PERMIS = new Semaphore(CONCURRENCE);
+
+    private static final ExecutorService EXECUTEUR = creerExecuteur();
+
+    /**
+     * Un thread virtuel par tâche si la JVM le permet (méthode obtenue par réflexion pour rester
+     * compatible avec Java 17), sinon un pool de CONCURRENCE threads démons.
+     */
+    private static ExecutorService creerExecuteur() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger numero = new AtomicInteger();
+            return Executors.newFixedThreadPool(CONCURRENCE, tache -> {
+                Thread thread = new Thread(tache, "dao-async-" + numero.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    // ========== ATTRIBUTS ==========
+
+    private final ClientDAO clientDAO;
+    private final ArticleDAO articleDAO;
+    private final CommandeDAO commandeDAO;
+
+    // ========== CONSTRUCTEURS ==========
+
+    /**
+     * Initialise le pool de connexions si nécessaire.
+     * @throws SQLException
+     */
+    public DAOAsynchrone() throws SQLException {
+        this(new ClientDAO(), new ArticleDAO(), new CommandeDAO());
+    }
+
+    public DAOAsynchrone(ClientDAO clientDAO, ArticleDAO articleDAO, CommandeDAO commandeDAO) {
+        this.clientDAO = clientDAO;
+        this.articleDAO = articleDAO;
+        this.commandeDAO = commandeDAO;
+    }
+
+    // ========== APPELS GÉNÉRIQUES ==========
+
+    /**
+     * Exécute un appel quelconque au DAO clients.
+     * Exemple : dao.clients(d -&gt; d.activerDesactiver(id, 0))
+     */
+    public <T> CompletableFuture<T> clients(Function<? super ClientDAO, ? extends T> appel) {
+        return executer(() -> appel.apply(clientDAO));
+    }
+
+    /** Exécute un appel quelconque au DAO articles */
+    public <T> CompletableFuture<T> articles(Function<? super ArticleDAO, ? extends T> appel) {
+        return executer(() -> appel.apply(articleDAO));
+    }
+
+    /** Exécute un appel quelconque au DAO commandes */
+    public <T> CompletableFuture<T> commandes(Function<? super CommandeDAO, ? extends T> appel) {
+        return executer(() -> appel.apply(commandeDAO));
+    }
+
+    /**
+     * Soumet l'appel à l'exécuteur ; il attend un permis avant de s'exécuter.
+     */
+    private static <T> CompletableFuture<T> executer(Supplier<? extends T> appel) {
+        return CompletableFuture.supplyAsync(() -> {
+            PERMIS.acquireUninterruptibly();
+            try {
+                return appel.get();
+            } finally {
+                PERMIS.release();
+            }
+        }, EXECUTEUR);
+    }
+
+    // ========== CLIENTS ==========
+
+    public CompletableFuture<Client> trouverClient(int id) {
+        return clients(dao -> dao.trouverParId(id));
+    }
+
+    public CompletableFuture<List<Client>> listerClientsActifs() {
+        return clients(ClientDAO::listerActifs);
+    }
+
+    public CompletableFuture<List<Client>> rechercherClients(String critere, int limite) {
+        return clients(dao -> dao.rechercher(critere, limite));
+    }
+
+    public CompletableFuture<Boolean> ajouterClient(Client client) {
+        return clients(dao -> dao.ajouter(client));
+    }
+
+    public CompletableFuture<Boolean> modifierClient(Client client) {
+        return clients(dao -> dao.modifier(client));
+    }
+
+    // ========== ARTICLES ==========
+
+    public CompletableFuture<Article> trouverArticle(int id) {
+        return articles(dao -> dao.trouverParId(id));
+    }
+
+    public CompletableFuture<List<Article>> listerArticlesActifs() {
+        return articles(ArticleDAO::listerActifs);
+    }
+
+    public CompletableFuture<List<Article>> listerStockFaible() {
+        return articles(ArticleDAO::listerStockFaible);
+    }
+
+    public CompletableFuture<List<Article>> rechercherArticles(String critere, int limite) {
+        return articles(dao -> dao.rechercher(critere, limite));
+    }
+
+    public CompletableFuture<Boolean> ajouterArticle(Article article) {
+        return articles(dao -> dao.ajouter(article));
+    }
+
+    public CompletableFuture<ResultatMiseAJour> modifierArticle(Article article) {
+        return articles(dao -> dao.modifier(article));
+    }
+
+    // ========== COMMANDES ==========
+
+    public CompletableFuture<Commande> trouverCommande(int id) {
+        return commandes(dao -> dao.trouverParId(id));
+    }
+
+    /**
+     * Première page des commandes d'un client, des plus récentes aux plus anciennes.
+     */
+    public CompletableFuture<List<CommandeDetaillee>> listerCommandesClient(int clientId, int taillePage) {
+        return commandes(dao -> dao.listerPageParClient(clientId, null, taillePage));
+    }
+
+    /**
+     * Page de commandes (toutes, ou d'un statut si statut n'est pas null) après la commande apres.
+     */
+    public CompletableFuture<List<CommandeDetaillee>> listerCommandes(String statut, Commande apres, int taillePage) {
+        return commandes(dao -> statut != null
+                ? dao.listerPageParStatut(statut, apres, taillePage)
+                : dao.listerPage(apres, taillePage));
+    }
+
+    public CompletableFuture<Boolean> ajouterCommande(Commande commande) {
+        return commandes(dao -> dao.ajouter(commande));
+    }
+}
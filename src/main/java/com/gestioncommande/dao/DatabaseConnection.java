@@ -1,12 +1,14 @@
 package com.gestioncommande.dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Properties;
 
 /**
- * Classe utilitaire pour gérer la connexion à la base de données MySQL.
- * Implémente le pattern Singleton pour assurer une seule connexion à la base.
+ * Classe utilitaire pour gérer l'accès à la base de données MySQL.
+ * Les connexions sont fournies par un pool borné configuré par les paramètres
+ * db.pool.* du fichier config/database.properties.
+ * Avec db.mode=embarque, la base est une base H2 exécutée dans la JVM (voir BaseEmbarquee).
  * 
  * @author Système de Gestion de Commandes
  * @version 1.0
@@ -15,56 +17,156 @@ import java.sql.SQLException;
 public class DatabaseConnection {
     
     // ========== PARAMÈTRES DE CONNEXION ==========
-    
-    /** URL de connexion à la base de données MySQL */
-    private static final String URL = "jdbc:mysql://localhost:3306/gestion_commande";
-    
-    /** Nom d'utilisateur MySQL */
-    private static final String USERNAME = "root";
-    
-    /** Mot de passe MySQL */
-    private static final String PASSWORD = "MYSQLNEWDEV@882004";
-    
-    /** Instance unique de connexion (pattern Singleton) */
-    private static Connection connection = null;
+    // Valeurs par défaut ; les paramètres db.* de config/database.properties, les propriétés
+    // système et les variables d'environnement les remplacent (voir ConfigurationBD).
+
+    /** Serveur MySQL par défaut (db.host) */
+    private static final String HOTE_PAR_DEFAUT = "localhost";
+
+    /** Port MySQL par défaut (db.port) */
+    private static final int PORT_PAR_DEFAUT = 3306;
+
+    /** Base MySQL par défaut (db.name) */
+    private static final String BASE_PAR_DEFAUT = "gestion_commande";
+
+    /** Nom d'utilisateur MySQL par défaut (db.username) */
+    private static final String USERNAME_PAR_DEFAUT = "root";
+
+    /** Préfixe des propriétés transmises telles quelles au driver MySQL */
+    private static final String PREFIXE_PROPRIETES_DRIVER = "db.proprietes.";
+
+    /** Pool de connexions partagé par tous les DAO (créé au premier accès) */
+    private static PoolConnexions pool = null;
 
     // ========== MÉTHODES DE CONNEXION ==========
     
     /**
-     * Établit la connexion à la base de données MySQL.
-     * Utilise le pattern Singleton pour réutiliser la même connexion.
+     * Initialise le pool de connexions s'il n'existe pas encore.
+     * Les paramètres sont lus dans config/database.properties (sections db.* et db.pool.*).
      * 
-     * @return L'objet Connection à la base de données
+     * @return Le pool de connexions
      * @throws SQLException En cas d'erreur de connexion ou de driver non trouvé
      */
-    public static Connection getConnection() throws SQLException {
-        try {
-            // Vérifier si la connexion n'existe pas ou est fermée
-            if (connection == null || connection.isClosed()) {
-                // Charger le driver MySQL
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                // Établir la connexion
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-                System.out.println("Connexion à la base de données établie avec succès !");
+    private static synchronized PoolConnexions getPool() throws SQLException {
+        if (pool == null) {
+            boolean embarquee = isEmbarquee();
+            try {
+                // Charger le driver MySQL (ou celui de la base embarquée)
+                Class.forName(embarquee ? BaseEmbarquee.DRIVER
+                        : ConfigurationBD.getString("db.driver", "com.mysql.cj.jdbc.Driver"));
+            } catch (ClassNotFoundException e) {
+                throw new SQLException((embarquee ? "Driver H2 non trouvé (h2-*.jar dans lib/) : "
+                        : "Driver MySQL non trouvé : ") + e.getMessage());
+            }
+            long idleTimeout = ConfigurationBD.getLong("db.idleTimeout", 600000L);
+            PoolConnexions nouveau = new PoolConnexions(
+                    embarquee ? ConfigurationBD.getString("db.embarque.url", BaseEmbarquee.URL_PAR_DEFAUT) : getUrl(),
+                    proprietesConnexion(embarquee),
+                    ConfigurationBD.getInt("db.pool.initialSize", 5),
+                    ConfigurationBD.getInt("db.pool.maxActive", ConfigurationBD.getInt("db.maxConnections", 20)),
+                    ConfigurationBD.getInt("db.pool.maxIdle", 10),
+                    ConfigurationBD.getInt("db.pool.minIdle", 5),
+                    ConfigurationBD.getLong("db.pool.idleTimeout", idleTimeout),
+                    ConfigurationBD.getLong("db.connectionTimeout", 30000L),
+                    ConfigurationBD.getLong("db.pool.validationInterval", 5000L),
+                    ConfigurationBD.getInt("db.pool.cacheRequetes", 100));
+            if (embarquee) {
+                try (Connection connection = nouveau.emprunter()) {
+                    BaseEmbarquee.initialiser(connection,
+                            ConfigurationBD.getString("db.embarque.script", BaseEmbarquee.SCRIPT_PAR_DEFAUT));
+                } catch (SQLException e) {
+                    nouveau.fermer();
+                    throw e;
+                }
             }
-            return connection;
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("Driver MySQL non trouvé : " + e.getMessage());
+            pool = nouveau;
+            System.out.println("Connexion à la base de données établie avec succès !");
         }
+        return pool;
+    }
+
+    /**
+     * URL JDBC MySQL : db.url si elle est définie, sinon construite à partir de db.host, db.port et db.name.
+     * Les réglages du driver sont transmis à part (db.proprietes.*) et n'ont pas à figurer dans l'URL.
+     * @return L'URL de connexion
+     */
+    private static String getUrl() {
+        String url = ConfigurationBD.getString("db.url", null);
+        if (url != null) {
+            return url;
+        }
+        return "jdbc:mysql://" + ConfigurationBD.getString("db.host", HOTE_PAR_DEFAUT)
+                + ":" + ConfigurationBD.getInt("db.port", PORT_PAR_DEFAUT)
+                + "/" + ConfigurationBD.getString("db.name", BASE_PAR_DEFAUT);
+    }
+
+    /**
+     * Propriétés de connexion : identifiants et, pour MySQL, réglages du driver (db.proprietes.*).
+     * rewriteBatchedStatements est activé par défaut : il regroupe les lots d'INSERT (addBatch)
+     * en requêtes multi-lignes.
+     * @param embarquee true pour la base embarquée (H2 refuse les réglages propres à MySQL)
+     * @return Les propriétés transmises au driver
+     */
+    private static Properties proprietesConnexion(boolean embarquee) {
+        Properties proprietes = new Properties();
+        if (embarquee) {
+            proprietes.setProperty("user", "sa");
+            proprietes.setProperty("password", "");
+            return proprietes;
+        }
+        proprietes.setProperty("rewriteBatchedStatements", "true");
+        proprietes.putAll(ConfigurationBD.getGroupe(PREFIXE_PROPRIETES_DRIVER));
+        proprietes.setProperty("user", ConfigurationBD.getString("db.username", USERNAME_PAR_DEFAUT));
+        proprietes.setProperty("password", ConfigurationBD.getString("db.password", ""));
+        return proprietes;
+    }
+
+    /**
+     * Indique si la base configurée est la base embarquée (db.mode=embarque).
+     * @return true pour la base H2 embarquée, false pour MySQL
+     */
+    public static boolean isEmbarquee() {
+        return "embarque".equalsIgnoreCase(ConfigurationBD.getString("db.mode", "mysql"));
+    }
+
+    /**
+     * Initialise le pool de connexions sans emprunter de connexion.
+     * Appelé par les constructeurs des DAO.
+     * 
+     * @throws SQLException En cas d'erreur de connexion
+     */
+    public static void initialiser() throws SQLException {
+        getPool();
     }
 
     /**
-     * Ferme la connexion à la base de données.
-     * Vérifie que la connexion existe et n'est pas déjà fermée avant de la fermer.
+     * Emprunte une connexion au pool.
+     * L'appelant doit fermer la connexion (idéalement avec un try-with-resources) :
+     * la fermeture la rend au pool sans fermer la connexion physique.
+     * 
+     * @return Une connexion empruntée au pool
+     * @throws SQLException En cas d'erreur de connexion ou si le pool est saturé
+     */
+    public static Connection getConnection() throws SQLException {
+        return getPool().emprunter();
+    }
+
+    /**
+     * Ferme le pool de connexions et toutes les connexions inactives, après avoir écrit les
+     * mouvements de stock décomptés en mémoire (voir CompteursStock).
+     * Un nouvel appel à getConnection() recrée un pool.
      */
     public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Connexion à la base de données fermée !");
-            }
-        } catch (SQLException e) {
-            System.err.println("Erreur lors de la fermeture de la connexion : " + e.getMessage());
+        // Hors verrou : l'écriture des mouvements emprunte une connexion au pool
+        CompteursStock.arreter();
+        fermerPool();
+    }
+
+    private static synchronized void fermerPool() {
+        if (pool != null) {
+            pool.fermer();
+            pool = null;
+            System.out.println("Connexion à la base de données fermée !");
         }
     }
 
@@ -75,12 +177,23 @@ public class DatabaseConnection {
      * @return true si la connexion fonctionne, false sinon
      */
     public static boolean testConnection() {
-        try {
-            Connection conn = getConnection();
-            return conn != null && !conn.isClosed();
+        try (Connection conn = getConnection()) {
+            return conn.isValid(2);
         } catch (SQLException e) {
             System.err.println("Erreur de connexion : " + e.getMessage());
             return false;
         }
     }
+
+    /**
+     * Retourne un résumé de l'occupation du pool de connexions.
+     * @return Description du pool (connexions prêtées, inactives, maximum) et de son cache de requêtes préparées
+     */
+    public static synchronized String getEtatPool() {
+        if (pool == null) {
+            return "Pool non initialisé";
+        }
+        return "Connexions actives : " + pool.getNombreActives() + " / " + pool.getMaxActive()
+                + ", inactives : " + pool.getNombreInactives() + "\n" + pool.getStatistiquesRequetes();
+    }
 }
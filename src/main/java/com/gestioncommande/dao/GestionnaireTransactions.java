@@ -0,0 +1,126 @@
+package com.gestioncommande.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exécute une unité de travail sur une seule connexion empruntée au pool, dans une transaction.
+ * La transaction est rejouée lorsque MySQL signale un interblocage (deadlock) ou un dépassement
+ * du délai d'attente de verrou, erreurs transitoires qui disparaissent généralement au nouvel essai.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public final class GestionnaireTransactions {
+
+    // ========== CONSTANTES ==========
+
+    /** Code d'erreur MySQL : interblocage détecté (ER_LOCK_DEADLOCK) */
+    private static final int ERREUR_DEADLOCK = 1213;
+
+    /** Code d'erreur MySQL : délai d'attente de verrou dépassé (ER_LOCK_WAIT_TIMEOUT) */
+    private static final int ERREUR_LOCK_WAIT_TIMEOUT = 1205;
+
+    /** SQLState standard des échecs de sérialisation */
+    private static final String SQLSTATE_SERIALISATION = "40001";
+
+    private GestionnaireTransactions() {}
+
+    /**
+     * Unité de travail exécutée dans une transaction.
+     * @param <T> Type du résultat
+     */
+    @FunctionalInterface
+    public interface Travail<T> {
+        /**
+         * @param connection La connexion de la transaction (auto-commit désactivé)
+         * @return Le résultat du travail
+         * @throws SQLException En cas d'erreur SQL (la transaction est alors annulée)
+         */
+        T executer(Connection connection) throws SQLException;
+    }
+
+    // ========== EXÉCUTION ==========
+
+    /**
+     * Exécute le travail dans une transaction, avec le nombre de tentatives configuré
+     * par db.transaction.maxTentatives (3 par défaut).
+     *
+     * @param travail Le travail à exécuter
+     * @param <T> Type du résultat
+     * @return Le résultat du travail, après validation de la transaction
+     * @throws SQLException Si le travail échoue définitivement
+     */
+    public static <T> T executer(Travail<T> travail) throws SQLException {
+        return executer(travail, ConfigurationBD.getInt("db.transaction.maxTentatives", 3));
+    }
+
+    /**
+     * Exécute le travail dans une transaction en le rejouant jusqu'à maxTentatives fois
+     * sur interblocage ou dépassement du délai d'attente de verrou.
+     *
+     * @param travail Le travail à exécuter
+     * @param maxTentatives Nombre maximum de tentatives
+     * @param <T> Type du résultat
+     * @return Le résultat du travail, après validation de la transaction
+     * @throws SQLException Si le travail échoue définitivement
+     */
+    public static <T> T executer(Travail<T> travail, int maxTentatives) throws SQLException {
+        for (int tentative = 1; ; tentative++) {
+            // Le pool rétablit l'auto-commit lorsque la connexion lui est rendue
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    T resultat = travail.executer(connection);
+                    connection.commit();
+                    return resultat;
+                } catch (SQLException | RuntimeException e) {
+                    annuler(connection, e);
+                    throw e;
+                }
+            } catch (SQLException e) {
+                if (tentative >= maxTentatives || !estTransitoire(e)) {
+                    throw e;
+                }
+                attendreAvantNouvelEssai(tentative);
+            }
+        }
+    }
+
+    /**
+     * Annule la transaction en cours sans masquer l'erreur d'origine.
+     */
+    private static void annuler(Connection connection, Exception origine) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            origine.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Indique si l'erreur est un conflit de verrou qui peut réussir au nouvel essai.
+     * @param e L'erreur SQL
+     * @return true pour un interblocage ou un dépassement du délai d'attente de verrou
+     */
+    public static boolean estTransitoire(SQLException e) {
+        return e.getErrorCode() == ERREUR_DEADLOCK
+                || e.getErrorCode() == ERREUR_LOCK_WAIT_TIMEOUT
+                || SQLSTATE_SERIALISATION.equals(e.getSQLState());
+    }
+
+    /**
+     * Attente courte et aléatoire, croissante avec le numéro de tentative,
+     * pour éviter que les transactions en conflit ne se percutent à nouveau.
+     */
+    private static void attendreAvantNouvelEssai(int tentative) throws SQLException {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5, 20) * (long) tentative);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Nouvel essai de transaction interrompu");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.gestioncommande.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lectures communes aux tables tenues en mémoire par un catalogue trié et un index de recherche
+ * (articles, clients) : lecture complète de la table pour construire l'index, et relecture
+ * d'un ensemble de lignes par identifiant pour rafraîchir le catalogue.
+ *
+ * @param <T> Type des objets lus
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+final class LecturesCatalogue<T> {
+
+    // ========== CONSTANTES ==========
+
+    /** Nombre maximum d'identifiants dans la liste IN d'une requête de relecture */
+    private static final int IDS_PAR_REQUETE = 500;
+
+    // ========== ATTRIBUTS ==========
+
+    /** Nom de la table, repris dans les messages d'erreur */
+    private final String table;
+
+    private final MappeurLignes<T> mappeur;
+
+    /** Partie fixe des requêtes : SELECT des colonnes du mappeur FROM la table */
+    private final String selection;
+
+    // ========== CONSTRUCTION ==========
+
+    /**
+     * @param table Le nom de la table lue
+     * @param mappeur La conversion des lignes de la table
+     */
+    LecturesCatalogue(String table, MappeurLignes<T> mappeur) {
+        this.table = table;
+        this.mappeur = mappeur;
+        this.selection = "SELECT " + mappeur.colonnes() + " FROM " + table;
+    }
+
+    // ========== LECTURE ==========
+
+    /**
+     * Lit toutes les lignes de la table pour construire l'index de recherche
+     * @return List<T> les objets lus, ou null en cas d'erreur (l'index reste alors à charger)
+     */
+    List<T> listerPourIndex() {
+        List<T> objets = new ArrayList<>();
+        String sql = selection + " ORDER BY id";
+
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            MappeurLignes.Lignes<T> lignes = mappeur.preparer(sql, resultSet);
+            while (resultSet.next()) {
+                objets.add(lignes.lire(resultSet));
+            }
+            return objets;
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du chargement de l'index des " + table + " : " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Relit un ensemble de lignes par identifiant (rafraîchissement du catalogue), par paquets
+     * d'au plus IDS_PAR_REQUETE identifiants
+     * @param ids
+     * @return List<T> les objets trouvés
+     */
+    List<T> trouverParIds(Collection<Integer> ids) {
+        List<T> objets = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return objets;
+        }
+        List<Integer> liste = new ArrayList<>(ids);
+
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            for (int debut = 0; debut < liste.size(); debut += IDS_PAR_REQUETE) {
+                List<Integer> paquet = liste.subList(debut, Math.min(debut + IDS_PAR_REQUETE, liste.size()));
+                String sql = selection + " WHERE id IN (" + String.join(", ", Collections.nCopies(paquet.size(), "?")) + ")";
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    int index = 1;
+                    for (Integer id : paquet) {
+                        statement.setInt(index++, id);
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        MappeurLignes.Lignes<T> lignes = mappeur.preparer(selection, resultSet);
+                        while (resultSet.next()) {
+                            objets.add(lignes.lire(resultSet));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la relecture des " + table + " : " + e.getMessage());
+        }
+        return objets;
+    }
+
+    // ========== TRI ==========
+
+    /**
+     * Comparateur de chaînes proche de la collation de la base (ni casse, ni accents)
+     * @return Comparator<String>
+     */
+    static Comparator<String> ordreAlphabetique() {
+        Collator collator = Collator.getInstance(Locale.FRENCH);
+        collator.setStrength(Collator.PRIMARY);
+        return collator::compare;
+    }
+}
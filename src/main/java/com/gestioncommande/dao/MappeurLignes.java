@@ -0,0 +1,209 @@
+package com.gestioncommande.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Conversion des lignes d'un ResultSet en objets par position de colonne.
+ * Les colonnes sont déclarées une fois par nom ; leurs positions sont résolues à partir des
+ * métadonnées du premier ResultSet de chaque requête, puis conservées pour les exécutions
+ * suivantes de la même requête, au lieu d'une recherche par libellé pour chaque cellule de
+ * chaque ligne (resultSet.getXxx("nom_colonne")).
+ *
+ * Une colonne déclarée mais absente du résultat est ignorée : une requête peut ne sélectionner
+ * que les colonnes dont elle a besoin.
+ *
+ * @param <T> Type des objets construits
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public final class MappeurLignes<T> {
+
+    /**
+     * Lecture d'une colonne dans l'objet cible.
+     * @param <T> Type de l'objet cible
+     */
+    @FunctionalInterface
+    public interface Lecteur<T> {
+        /**
+         * @param cible L'objet en cours de construction
+         * @param resultSet Le ResultSet positionné sur la ligne
+         * @param colonne La position de la colonne (à partir de 1)
+         * @throws SQLException En cas d'erreur de lecture
+         */
+        void lire(T cible, ResultSet resultSet, int colonne) throws SQLException;
+    }
+
+    // ========== ATTRIBUTS ==========
+
+    private final Supplier<T> fabrique;
+
+    private final List<String> noms = new ArrayList<>();
+
+    private final List<Lecteur<? super T>> lecteurs = new ArrayList<>();
+
+    /** Lecteurs de lignes déjà résolus, par requête (colonnes sélectionnées) */
+    private final Map<String, Lignes<T>> parRequete = new ConcurrentHashMap<>();
+
+    // ========== CONSTRUCTION ==========
+
+    /**
+     * @param fabrique Création d'un objet vide pour chaque ligne
+     */
+    public MappeurLignes(Supplier<T> fabrique) {
+        this.fabrique = fabrique;
+    }
+
+    /**
+     * Déclare une colonne et la façon de la lire.
+     * @param nom Le nom (ou l'alias) de la colonne dans la requête
+     * @param lecteur La lecture de la colonne dans l'objet
+     * @return Ce mappeur, pour enchaîner les déclarations
+     */
+    public MappeurLignes<T> colonne(String nom, Lecteur<? super T> lecteur) {
+        noms.add(nom);
+        lecteurs.add(lecteur);
+        return this;
+    }
+
+    /**
+     * Crée un mappeur pour un sous-type, reprenant les colonnes déjà déclarées
+     * (par exemple une commande enrichie de colonnes jointes).
+     * @param fabriqueSousType Création d'un objet vide du sous-type
+     * @param <S> Le sous-type
+     * @return Un nouveau mappeur, à compléter par d'autres colonnes
+     */
+    public <S extends T> MappeurLignes<S> etendre(Supplier<S> fabriqueSousType) {
+        MappeurLignes<S> mappeur = new MappeurLignes<>(fabriqueSousType);
+        for (int i = 0; i < noms.size(); i++) {
+            mappeur.colonne(noms.get(i), lecteurs.get(i));
+        }
+        return mappeur;
+    }
+
+    /**
+     * Liste explicite des colonnes déclarées, à utiliser à la place de SELECT *
+     * @return "col1, col2, ..."
+     */
+    public String colonnes() {
+        return String.join(", ", noms);
+    }
+
+    /**
+     * Liste explicite des colonnes déclarées, préfixées par l'alias de la table
+     * @param alias L'alias de la table dans la requête
+     * @return "alias.col1, alias.col2, ..."
+     */
+    public String colonnes(String alias) {
+        List<String> prefixees = new ArrayList<>(noms.size());
+        for (String nom : noms) {
+            prefixees.add(alias + "." + nom);
+        }
+        return String.join(", ", prefixees);
+    }
+
+    // ========== LECTURE ==========
+
+    /**
+     * Retourne le lecteur de lignes d'une requête, avant de lire ses lignes.
+     * Les positions des colonnes sont résolues à la première exécution de la requête, puis réutilisées.
+     *
+     * @param requete Le texte de la requête, ou pour une requête construite à la demande
+     *                (liste IN, conditions facultatives) sa partie fixe SELECT ... FROM, qui seule
+     *                détermine les colonnes du résultat
+     * @param resultSet Le ResultSet à lire
+     * @return Le lecteur de lignes de cette requête
+     * @throws SQLException En cas d'erreur d'accès aux métadonnées
+     */
+    public Lignes<T> preparer(String requete, ResultSet resultSet) throws SQLException {
+        Lignes<T> lignes = parRequete.get(requete);
+        if (lignes == null) {
+            lignes = resoudre(resultSet);
+            parRequete.putIfAbsent(requete, lignes);
+        }
+        return lignes;
+    }
+
+    /**
+     * Résout la position des colonnes déclarées dans un ResultSet
+     */
+    private Lignes<T> resoudre(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaDonnees = resultSet.getMetaData();
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = metaDonnees.getColumnCount(); i >= 1; i--) {
+            // En cas de libellés en double, la première colonne l'emporte, comme pour findColumn
+            positions.put(metaDonnees.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+
+        int[] colonnesLues = new int[noms.size()];
+        List<Lecteur<? super T>> lecteursLus = new ArrayList<>(noms.size());
+        int nombre = 0;
+        for (int i = 0; i < noms.size(); i++) {
+            Integer position = positions.get(noms.get(i).toLowerCase(Locale.ROOT));
+            if (position != null) {
+                colonnesLues[nombre++] = position;
+                lecteursLus.add(lecteurs.get(i));
+            }
+        }
+        return new Lignes<>(fabrique, Arrays.copyOf(colonnesLues, nombre), lecteursLus);
+    }
+
+    /**
+     * Convertit la ligne courante d'une requête qui ne lit qu'une seule ligne
+     * @param requete Le texte de la requête (voir preparer)
+     * @param resultSet Le ResultSet positionné sur la ligne
+     * @return L'objet construit
+     * @throws SQLException En cas d'erreur de lecture
+     */
+    public T lireLigne(String requete, ResultSet resultSet) throws SQLException {
+        return preparer(requete, resultSet).lire(resultSet);
+    }
+
+    /**
+     * Lecteur des lignes d'une requête, positions des colonnes déjà résolues (sans état :
+     * partagé entre les exécutions et les threads).
+     * @param <T> Type des objets construits
+     */
+    public static final class Lignes<T> {
+
+        private final Supplier<T> fabrique;
+        private final int[] colonnes;
+        private final Lecteur<? super T>[] lecteurs;
+
+        private Lignes(Supplier<T> fabrique, int[] colonnes, List<Lecteur<? super T>> lecteurs) {
+            this.fabrique = fabrique;
+            this.colonnes = colonnes;
+            this.lecteurs = lecteurs.toArray(nouveauTableau(lecteurs.size()));
+        }
+
+        /**
+         * Convertit la ligne courante du ResultSet
+         * @param resultSet Le ResultSet positionné sur la ligne
+         * @return L'objet construit
+         * @throws SQLException En cas d'erreur de lecture
+         */
+        public T lire(ResultSet resultSet) throws SQLException {
+            T objet = fabrique.get();
+            for (int i = 0; i < colonnes.length; i++) {
+                lecteurs[i].lire(objet, resultSet, colonnes[i]);
+            }
+            return objet;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Lecteur<? super T>[] nouveauTableau(int taille) {
+            return (Lecteur<? super T>[]) new Lecteur<?>[taille];
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.gestioncommande.dao;
+
+import com.gestioncommande.mesures.HistogrammeLatence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures des requêtes SQL exécutées par les DAO, regroupées par opération (ArticleDAO.modifierStock,
+ * CommandeDAO.listerPage...) : nombre d'appels, d'erreurs et de lignes, histogramme des latences.
+ *
+ * Les mesures sont prises par le pool de connexions sur chaque requête préparée : la latence est
+ * la durée de l'appel execute* (aller-retour avec la base), les lignes sont les lignes lues
+ * (requêtes) ou modifiées (mises à jour). L'opération est la méthode appelante, trouvée dans la pile
+ * à la première exécution de la requête préparée ; tant que la requête reste dans le cache de la
+ * connexion, ses exécutions suivantes sont attribuées à la même opération (deux méthodes de DAO
+ * exécutant exactement le même SQL partagent donc leurs mesures).
+ *
+ * Une requête plus lente que db.mesures.seuilLent (ms) est journalisée avec son SQL et ses
+ * paramètres, sur la sortie d'erreur ou dans le fichier db.mesures.journalLent.
+ * db.mesures.actif=false désactive les mesures.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public final class MesuresRequetes {
+
+    // ========== CONSTANTES ==========
+
+    /** Nombre de requêtes lentes conservées pour l'affichage */
+    private static final int REQUETES_LENTES_CONSERVEES = 50;
+
+    /** Longueur maximale d'un paramètre texte dans le journal */
+    private static final int LONGUEUR_MAX_PARAMETRE = 100;
+
+    private static final DateTimeFormatter HORODATAGE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static final StackWalker PILE = StackWalker.getInstance();
+
+    // ========== CONFIGURATION ==========
+
+    private static final boolean ACTIF = ConfigurationBD.getBoolean("db.mesures.actif", true);
+
+    /** Seuil (ns) au-delà duquel une requête est journalisée */
+    private static final long SEUIL_LENT = ConfigurationBD.getLong("db.mesures.seuilLent", 200L) * 1_000_000L;
+
+    /** Fichier du journal des requêtes lentes (null : sortie d'erreur) */
+    private static final String JOURNAL_LENT = ConfigurationBD.getString("db.mesures.journalLent", null);
+
+    // ========== ÉTAT ==========
+
+    private static final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    /** Dernières requêtes lentes, la plus récente en fin */
+    private static final Deque<String> requetesLentes = new ArrayDeque<>();
+
+    private MesuresRequetes() {}
+
+    // ========== ENREGISTREMENT (pool de connexions) ==========
+
+    /**
+     * @return true si les requêtes sont mesurées (db.mesures.actif)
+     */
+    public static boolean isActif() {
+        return ACTIF;
+    }
+
+    /**
+     * Nom de l'opération en cours : la première méthode de la pile hors pool, proxy et JDK,
+     * sous la forme Classe.methode (le nom de la méthode englobante pour une lambda).
+     */
+    static String nommerAppelant() {
+        return PILE.walk(cadres -> cadres
+                .filter(cadre -> !estInterne(cadre.getClassName()))
+                .findFirst()
+                .map(cadre -> nomCourt(cadre.getClassName()) + "." + nomMethode(cadre.getMethodName()))
+                .orElse("inconnue"));
+    }
+
+    /**
+     * Enregistre une exécution réussie et la journalise si elle dépasse le seuil.
+     *
+     * @param nom Nom de l'opération
+     * @param sql Texte SQL de la requête
+     * @param nanos Durée de l'exécution
+     * @param lignes Lignes modifiées (0 pour une requête de lecture, comptée à part)
+     * @param parametres Paramètres liés, par position (null si inconnus)
+     * @param lot Nombre de requêtes du lot (0 hors executeBatch)
+     */
+    static void enregistrer(String nom, String sql, long nanos, long lignes, Map<Integer, Object> parametres, int lot) {
+        Operation operation = operation(nom, sql);
+        operation.appels.increment();
+        operation.lignes.add(lignes);
+        operation.latences.enregistrer(nanos);
+        if (nanos >= SEUIL_LENT) {
+            journaliserLente(nom, sql, nanos, parametres, lot);
+        }
+    }
+
+    /**
+     * Enregistre une exécution en échec (la durée est comptée dans l'histogramme).
+     */
+    static void enregistrerErreur(String nom, String sql, long nanos) {
+        Operation operation = operation(nom, sql);
+        operation.appels.increment();
+        operation.erreurs.increment();
+        operation.latences.enregistrer(nanos);
+    }
+
+    /**
+     * Ajoute les lignes lues dans un résultat, à sa fermeture.
+     */
+    static void ajouterLignes(String nom, String sql, long lignes) {
+        operation(nom, sql).lignes.add(lignes);
+    }
+
+    private static Operation operation(String nom, String sql) {
+        return operations.computeIfAbsent(nom, cle -> new Operation(cle, sql));
+    }
+
+    // ========== CONSULTATION ==========
+
+    /**
+     * Instantané des mesures, de l'opération au temps cumulé le plus élevé à la plus faible.
+     * @return Une mesure par opération exécutée depuis le démarrage ou la dernière remise à zéro
+     */
+    public static List<Instantane> getInstantanes() {
+        List<Instantane> instantanes = new ArrayList<>();
+        for (Operation operation : operations.values()) {
+            instantanes.add(new Instantane(operation));
+        }
+        instantanes.sort(Comparator.comparingLong(Instantane::getTotal).reversed()
+                .thenComparing(Instantane::getNom));
+        return instantanes;
+    }
+
+    /**
+     * @return Les dernières requêtes lentes journalisées, de la plus ancienne à la plus récente
+     */
+    public static List<String> getRequetesLentes() {
+        synchronized (requetesLentes) {
+            return new ArrayList<>(requetesLentes);
+        }
+    }
+
+    /**
+     * Rapport texte des mesures : un tableau par opération, suivi des dernières requêtes lentes.
+     * @return Le rapport
+     */
+    public static String getRapport() {
+        List<Instantane> instantanes = getInstantanes();
+        StringBuilder rapport = new StringBuilder();
+        if (!ACTIF) {
+            rapport.append("Mesures des requêtes désactivées (db.mesures.actif=false)\n");
+        }
+        rapport.append(String.format("%-44s %9s %7s %10s %9s %9s %9s %9s %11s%n",
+                "Opération", "Appels", "Erreurs", "Lignes", "p50 ms", "p95 ms", "p99 ms", "max ms", "total ms"));
+        for (Instantane instantane : instantanes) {
+            rapport.append(String.format("%-44s %9d %7d %10d %9.3f %9.3f %9.3f %9.3f %11.1f%n",
+                    instantane.getNom(), instantane.getAppels(), instantane.getErreurs(), instantane.getLignes(),
+                    instantane.getP50() / 1000.0, instantane.getP95() / 1000.0, instantane.getP99() / 1000.0,
+                    instantane.getMax() / 1000.0, instantane.getTotal() / 1000.0));
+        }
+        if (instantanes.isEmpty()) {
+            rapport.append("Aucune requête mesurée\n");
+        }
+
+        List<String> lentes = getRequetesLentes();
+        rapport.append(String.format("%nRequêtes lentes (seuil %d ms) : %d%n", SEUIL_LENT / 1_000_000L, lentes.size()));
+        for (String lente : lentes) {
+            rapport.append(lente).append('\n');
+        }
+        return rapport.toString();
+    }
+
+    /**
+     * Écrit le rapport des mesures, précédé de la date, et le SQL de chaque opération dans un fichier.
+     * @param fichier Chemin du fichier (remplacé s'il existe)
+     * @return true si le fichier a été écrit, false sinon
+     */
+    public static boolean exporter(String fichier) {
+        StringBuilder contenu = new StringBuilder();
+        contenu.append("Mesures des requêtes au ").append(LocalDateTime.now().format(HORODATAGE)).append("\n\n");
+        contenu.append(getRapport());
+        contenu.append("\nRequêtes SQL par opération :\n");
+        for (Instantane instantane : getInstantanes()) {
+            contenu.append(instantane.getNom()).append(" : ").append(instantane.getSql()).append('\n');
+        }
+        try {
+            Path chemin = Paths.get(fichier);
+            if (chemin.getParent() != null) {
+                Files.createDirectories(chemin.getParent());
+            }
+            Files.write(chemin, contenu.toString().getBytes(StandardCharsets.UTF_8));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'export des mesures : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Remet toutes les mesures à zéro et vide la liste des requêtes lentes.
+     */
+    public static void reinitialiser() {
+        operations.clear();
+        synchronized (requetesLentes) {
+            requetesLentes.clear();
+        }
+    }
+
+    // ========== JOURNAL DES REQUÊTES LENTES ==========
+
+    private static void journaliserLente(String nom, String sql, long nanos, Map<Integer, Object> parametres, int lot) {
+        StringBuilder ligne = new StringBuilder();
+        ligne.append(LocalDateTime.now().format(HORODATAGE))
+             .append(String.format(" Requête lente (%.1f ms) %s : ", nanos / 1_000_000.0, nom))
+             .append(sql.replaceAll("\\s+", " ").trim());
+        if (lot > 0) {
+            ligne.append(" ; lot de ").append(lot).append(" requêtes, dernière");
+        }
+        ligne.append(" ; paramètres ").append(formaterParametres(parametres));
+        String texte = ligne.toString();
+
+        synchronized (requetesLentes) {
+            requetesLentes.addLast(texte);
+            if (requetesLentes.size() > REQUETES_LENTES_CONSERVEES) {
+                requetesLentes.removeFirst();
+            }
+            if (JOURNAL_LENT == null) {
+                System.err.println(texte);
+                return;
+            }
+            try {
+                Files.write(Paths.get(JOURNAL_LENT), (texte + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Erreur lors de l'écriture du journal des requêtes lentes : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Paramètres liés sous la forme [1=42, 2='texte'] (textes tronqués, flux non lus).
+     */
+    static String formaterParametres(Map<Integer, Object> parametres) {
+        if (parametres == null) {
+            return "[]";
+        }
+        StringBuilder texte = new StringBuilder("[");
+        for (Map.Entry<Integer, Object> parametre : parametres.entrySet()) {
+            if (texte.length() > 1) {
+                texte.append(", ");
+            }
+            texte.append(parametre.getKey()).append('=').append(formaterValeur(parametre.getValue()));
+        }
+        return texte.append(']').toString();
+    }
+
+    private static String formaterValeur(Object valeur) {
+        if (valeur == null) {
+            return "NULL";
+        }
+        if (valeur instanceof InputStream || valeur instanceof Reader || valeur instanceof byte[]) {
+            return "<" + valeur.getClass().getSimpleName() + ">";
+        }
+        if (valeur instanceof CharSequence) {
+            String texte = valeur.toString();
+            if (texte.length() > LONGUEUR_MAX_PARAMETRE) {
+                texte = texte.substring(0, LONGUEUR_MAX_PARAMETRE) + "...";
+            }
+            return "'" + texte + "'";
+        }
+        return String.valueOf(valeur);
+    }
+
+    // ========== PILE D'APPELS ==========
+
+    private static boolean estInterne(String classe) {
+        return classe.startsWith(PoolConnexions.class.getName())
+                || classe.equals(MesuresRequetes.class.getName())
+                || classe.startsWith("java.") || classe.startsWith("javax.")
+                || classe.startsWith("jdk.") || classe.startsWith("sun.")
+                || classe.startsWith("com.sun.proxy.");
+    }
+
+    private static String nomCourt(String classe) {
+        return classe.substring(classe.lastIndexOf('.') + 1);
+    }
+
+    /** lambda$chargerIndexRecherche$2 devient chargerIndexRecherche */
+    private static String nomMethode(String methode) {
+        if (methode.startsWith("lambda$")) {
+            int fin = methode.indexOf('$', 7);
+            return fin > 7 ? methode.substring(7, fin) : methode;
+        }
+        return methode;
+    }
+
+    // ========== CLASSES INTERNES ==========
+
+    /**
+     * Compteurs d'une opération, partagés par tous les threads.
+     */
+    private static final class Operation {
+        private final String nom;
+        private final String sql;
+        private final LongAdder appels = new LongAdder();
+        private final LongAdder erreurs = new LongAdder();
+        private final LongAdder lignes = new LongAdder();
+        private final HistogrammeLatence latences = new HistogrammeLatence();
+
+        private Operation(String nom, String sql) {
+            this.nom = nom;
+            this.sql = sql;
+        }
+    }
+
+    /**
+     * Mesures d'une opération à un instant donné. Les durées sont en microsecondes.
+     */
+    public static final class Instantane {
+        private final String nom;
+        private final String sql;
+        private final long appels;
+        private final long erreurs;
+        private final long lignes;
+        private final long p50;
+        private final long p95;
+        private final long p99;
+        private final long max;
+        private final long total;
+
+        private Instantane(Operation operation) {
+            this.nom = operation.nom;
+            this.sql = operation.sql.replaceAll("\\s+", " ").trim();
+            this.appels = operation.appels.sum();
+            this.erreurs = operation.erreurs.sum();
+            this.lignes = operation.lignes.sum();
+            this.p50 = operation.latences.getPercentile(50);
+            this.p95 = operation.latences.getPercentile(95);
+            this.p99 = operation.latences.getPercentile(99);
+            this.max = operation.latences.getMax();
+            this.total = operation.latences.getTotal();
+        }
+
+        // Getters
+        public String getNom() {
+            return nom;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getAppels() {
+            return appels;
+        }
+
+        public long getErreurs() {
+            return erreurs;
+        }
+
+        public long getLignes() {
+            return lignes;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP95() {
+            return p95;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
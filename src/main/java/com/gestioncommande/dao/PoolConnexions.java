@@ -0,0 +1,780 @@
+package com.gestioncommande.dao;
+
+import com.gestioncommande.mesures.EvenementRequeteSql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de connexions JDBC borné.
+ * Les DAO empruntent une connexion par opération et la rendent en appelant close().
+ * Les connexions inactives sont validées à l'emprunt (si elles n'ont pas servi depuis un
+ * certain délai) et évincées en arrière-plan lorsqu'elles dépassent le délai d'inactivité.
+ * Chaque connexion physique garde ses requêtes préparées dans un cache LRU (CacheRequetes) :
+ * un DAO qui prépare un SQL déjà préparé sur la même connexion reçoit la requête existante,
+ * et sa fermeture la rend au cache.
+ * Les exécutions des requêtes préparées sont mesurées par opération de DAO (MesuresRequetes)
+ * et, pendant un enregistrement Java Flight Recorder, signalées par des événements EvenementRequeteSql.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class PoolConnexions {
+
+    // ========== PARAMÈTRES ==========
+
+    private final String url;
+
+    /** Propriétés de connexion transmises au driver (user, password et réglages du driver) */
+    private final Properties proprietes;
+
+    /** Nombre maximum de connexions ouvertes simultanément */
+    private final int maxActive;
+
+    /** Nombre maximum de connexions conservées inactives dans le pool */
+    private final int maxIdle;
+
+    /** Nombre minimum de connexions inactives maintenues par l'éviction */
+    private final int minIdle;
+
+    /** Délai (ms) au-delà duquel une connexion inactive est fermée */
+    private final long idleTimeout;
+
+    /** Délai maximum (ms) d'attente d'une connexion libre */
+    private final long connectionTimeout;
+
+    /** Délai (ms) d'inactivité à partir duquel une connexion est revalidée avant d'être prêtée */
+    private final long validationInterval;
+
+    /** Nombre maximum de requêtes préparées conservées par connexion (0 désactive le cache) */
+    private final int tailleCacheRequetes;
+
+    // ========== ÉTAT ==========
+
+    /** Connexions inactives, la plus récemment rendue en tête */
+    private final Deque<ConnexionInactive> inactives = new ArrayDeque<>();
+
+    /** Jetons limitant le nombre de connexions prêtées à maxActive */
+    private final Semaphore jetons;
+
+    /** Tâche d'éviction des connexions inactives */
+    private final ScheduledExecutorService evicteur;
+
+    /** Nombre de connexions physiques ouvertes (prêtées + inactives) */
+    private int nombreOuvertes = 0;
+
+    private volatile boolean ferme = false;
+
+    // Statistiques du cache de requêtes préparées (toutes connexions confondues)
+    private final LongAdder requetesReutilisees = new LongAdder();
+    private final LongAdder requetesPreparees = new LongAdder();
+    private final LongAdder requetesEvincees = new LongAdder();
+
+    // ========== CONSTRUCTEUR ==========
+
+    /**
+     * Crée le pool et ouvre les connexions initiales.
+     *
+     * @param url URL JDBC de la base
+     * @param proprietes Propriétés de connexion (user, password et réglages du driver)
+     * @param initialSize Nombre de connexions ouvertes au démarrage
+     * @param maxActive Nombre maximum de connexions simultanées
+     * @param maxIdle Nombre maximum de connexions inactives conservées
+     * @param minIdle Nombre minimum de connexions inactives maintenues
+     * @param idleTimeout Délai d'inactivité avant éviction (ms)
+     * @param connectionTimeout Délai maximum d'attente d'une connexion (ms)
+     * @param validationInterval Délai d'inactivité avant revalidation à l'emprunt (ms)
+     * @param tailleCacheRequetes Nombre maximum de requêtes préparées conservées par connexion (0 pour aucune)
+     * @throws SQLException Si les connexions initiales ne peuvent pas être ouvertes
+     */
+    public PoolConnexions(String url, Properties proprietes,
+                          int initialSize, int maxActive, int maxIdle, int minIdle,
+                          long idleTimeout, long connectionTimeout, long validationInterval,
+                          int tailleCacheRequetes) throws SQLException {
+        this.url = url;
+        this.proprietes = new Properties();
+        this.proprietes.putAll(proprietes);
+        this.maxActive = Math.max(1, maxActive);
+        this.maxIdle = Math.max(0, Math.min(maxIdle, this.maxActive));
+        this.minIdle = Math.max(0, Math.min(minIdle, this.maxIdle));
+        this.idleTimeout = idleTimeout;
+        this.connectionTimeout = connectionTimeout;
+        this.validationInterval = validationInterval;
+        this.tailleCacheRequetes = Math.max(0, tailleCacheRequetes);
+        this.jetons = new Semaphore(this.maxActive, true);
+
+        int initiales = Math.min(Math.max(initialSize, this.minIdle), this.maxIdle);
+        try {
+            for (int i = 0; i < initiales; i++) {
+                inactives.push(new ConnexionInactive(ouvrirConnexion()));
+            }
+        } catch (SQLException e) {
+            fermerInactives();
+            throw e;
+        }
+
+        this.evicteur = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread thread = new Thread(tache, "pool-connexions-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periode = Math.max(1000L, Math.min(idleTimeout / 2, 30000L));
+        evicteur.scheduleWithFixedDelay(this::evincerInactives, periode, periode, TimeUnit.MILLISECONDS);
+    }
+
+    // ========== EMPRUNT / RESTITUTION ==========
+
+    /**
+     * Emprunte une connexion au pool.
+     * La connexion retournée doit être fermée par l'appelant (try-with-resources) :
+     * close() la rend au pool au lieu de fermer la connexion physique.
+     *
+     * @return Une connexion prête à l'emploi
+     * @throws SQLException Si aucune connexion n'est disponible dans le délai imparti
+     */
+    public Connection emprunter() throws SQLException {
+        if (ferme) {
+            throw new SQLException("Le pool de connexions est fermé");
+        }
+        try {
+            if (!jetons.tryAcquire(connectionTimeout, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Aucune connexion disponible après " + connectionTimeout + " ms (maxActive=" + maxActive + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Attente d'une connexion interrompue");
+        }
+
+        try {
+            ConnexionPhysique physique = prendreInactiveValide();
+            if (physique == null) {
+                physique = ouvrirConnexion();
+            }
+            return envelopper(physique);
+        } catch (SQLException | RuntimeException e) {
+            jetons.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Retire une connexion inactive du pool, en la revalidant si elle n'a pas servi récemment.
+     * @return Une connexion valide ou null si aucune n'est disponible
+     */
+    private ConnexionPhysique prendreInactiveValide() {
+        while (true) {
+            ConnexionInactive candidate;
+            synchronized (this) {
+                candidate = inactives.poll();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            long inactivite = System.currentTimeMillis() - candidate.depuis;
+            if (inactivite < validationInterval || estValide(candidate.connexion.connexion)) {
+                return candidate.connexion;
+            }
+            fermerPhysique(candidate.connexion);
+        }
+    }
+
+    /**
+     * Rend une connexion au pool après usage.
+     * Une transaction laissée ouverte est annulée et le mode auto-commit rétabli.
+     * Les requêtes préparées que l'emprunteur n'a pas fermées sont fermées.
+     *
+     * @param physique La connexion physique à rendre
+     */
+    private void rendre(ConnexionPhysique physique) {
+        try {
+            physique.requetes.fermerReservees();
+            boolean reutilisable = !ferme && !physique.connexion.isClosed();
+            if (reutilisable && !physique.connexion.getAutoCommit()) {
+                physique.connexion.rollback();
+                physique.connexion.setAutoCommit(true);
+            }
+            synchronized (this) {
+                if (reutilisable && inactives.size() < maxIdle) {
+                    inactives.push(new ConnexionInactive(physique));
+                    physique = null;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Connexion invalide retirée du pool : " + e.getMessage());
+        } finally {
+            if (physique != null) {
+                fermerPhysique(physique);
+            }
+            jetons.release();
+        }
+    }
+
+    // ========== ÉVICTION ==========
+
+    /**
+     * Ferme les connexions inactives depuis plus de idleTimeout en conservant au moins
+     * minIdle connexions, puis complète le pool jusqu'à minIdle si nécessaire.
+     */
+    private void evincerInactives() {
+        long limite = System.currentTimeMillis() - idleTimeout;
+        Deque<ConnexionPhysique> aFermer = new ArrayDeque<>();
+        int manquantes;
+        synchronized (this) {
+            Iterator<ConnexionInactive> iterateur = inactives.descendingIterator();
+            while (iterateur.hasNext() && inactives.size() > minIdle) {
+                ConnexionInactive inactive = iterateur.next();
+                if (inactive.depuis < limite) {
+                    iterateur.remove();
+                    aFermer.add(inactive.connexion);
+                }
+            }
+            manquantes = Math.min(minIdle - inactives.size(), maxActive - (nombreOuvertes - aFermer.size()));
+        }
+        for (ConnexionPhysique connexion : aFermer) {
+            fermerPhysique(connexion);
+        }
+        for (int i = 0; i < manquantes && !ferme; i++) {
+            try {
+                ConnexionPhysique connexion = ouvrirConnexion();
+                synchronized (this) {
+                    inactives.addLast(new ConnexionInactive(connexion));
+                }
+            } catch (SQLException e) {
+                System.err.println("Impossible de compléter le pool de connexions : " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // ========== FERMETURE ==========
+
+    /**
+     * Ferme le pool : arrête l'éviction et ferme les connexions inactives.
+     * Les connexions encore prêtées seront fermées lors de leur restitution.
+     */
+    public void fermer() {
+        ferme = true;
+        evicteur.shutdownNow();
+        fermerInactives();
+    }
+
+    private void fermerInactives() {
+        Deque<ConnexionInactive> aFermer;
+        synchronized (this) {
+            aFermer = new ArrayDeque<>(inactives);
+            inactives.clear();
+        }
+        for (ConnexionInactive inactive : aFermer) {
+            fermerPhysique(inactive.connexion);
+        }
+    }
+
+    // ========== STATISTIQUES ==========
+
+    /** @return Le nombre de connexions actuellement prêtées */
+    public int getNombreActives() {
+        return maxActive - jetons.availablePermits();
+    }
+
+    /** @return Le nombre de connexions inactives disponibles dans le pool */
+    public synchronized int getNombreInactives() {
+        return inactives.size();
+    }
+
+    /** @return Le nombre maximum de connexions simultanées */
+    public int getMaxActive() {
+        return maxActive;
+    }
+
+    /** @return Le nombre de préparations servies par une requête déjà préparée */
+    public long getRequetesReutilisees() {
+        return requetesReutilisees.sum();
+    }
+
+    /** @return Le nombre de requêtes préparées par le driver */
+    public long getRequetesPreparees() {
+        return requetesPreparees.sum();
+    }
+
+    /** @return Le pourcentage de préparations servies par le cache */
+    public double getTauxReutilisation() {
+        long reutilisees = getRequetesReutilisees();
+        long total = reutilisees + getRequetesPreparees();
+        return total == 0 ? 0.0 : 100.0 * reutilisees / total;
+    }
+
+    /**
+     * Résumé du cache de requêtes préparées.
+     * @return Taux de réutilisation, préparations et évictions
+     */
+    public String getStatistiquesRequetes() {
+        return String.format("Requêtes préparées : %d réutilisées, %d préparées (%.1f %%), %d évictions, %d max par connexion",
+                getRequetesReutilisees(), getRequetesPreparees(), getTauxReutilisation(),
+                requetesEvincees.sum(), tailleCacheRequetes);
+    }
+
+    // ========== MÉTHODES INTERNES ==========
+
+    private ConnexionPhysique ouvrirConnexion() throws SQLException {
+        Connection connexion = DriverManager.getConnection(url, proprietes);
+        synchronized (this) {
+            nombreOuvertes++;
+        }
+        return new ConnexionPhysique(connexion, new CacheRequetes(tailleCacheRequetes, requetesEvincees::increment));
+    }
+
+    private void fermerPhysique(ConnexionPhysique physique) {
+        synchronized (this) {
+            nombreOuvertes--;
+        }
+        try {
+            physique.requetes.vider();
+            physique.connexion.close();
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la fermeture d'une connexion : " + e.getMessage());
+        }
+    }
+
+    private boolean estValide(Connection connexion) {
+        try {
+            return connexion.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Enveloppe une connexion physique dans un proxy dont close() rend la connexion au pool.
+     */
+    private Connection envelopper(ConnexionPhysique physique) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new ConnexionEmpruntee(physique));
+    }
+
+    /**
+     * Connexion physique et son cache de requêtes préparées, conservé d'un emprunt à l'autre.
+     */
+    private static final class ConnexionPhysique {
+        private final Connection connexion;
+        private final CacheRequetes requetes;
+
+        private ConnexionPhysique(Connection connexion, CacheRequetes requetes) {
+            this.connexion = connexion;
+            this.requetes = requetes;
+        }
+    }
+
+    /**
+     * Connexion conservée dans le pool avec l'heure de sa dernière restitution.
+     */
+    private static final class ConnexionInactive {
+        private final ConnexionPhysique connexion;
+        private final long depuis;
+
+        private ConnexionInactive(ConnexionPhysique connexion) {
+            this.connexion = connexion;
+            this.depuis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Gestionnaire du proxy de connexion prêtée.
+     * Toute utilisation après close() est refusée. Les préparations de requêtes passent par le
+     * cache de requêtes de la connexion physique.
+     */
+    private final class ConnexionEmpruntee implements InvocationHandler {
+        private final ConnexionPhysique physique;
+        private boolean rendue = false;
+
+        private ConnexionEmpruntee(ConnexionPhysique physique) {
+            this.physique = physique;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!rendue) {
+                        rendue = true;
+                        rendre(physique);
+                    }
+                    return null;
+                case "isClosed":
+                    return rendue || physique.connexion.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConnexionEmpruntee[" + physique.connexion + "]";
+                default:
+                    break;
+            }
+            if (rendue) {
+                throw new SQLException("Connexion déjà rendue au pool");
+            }
+            if (method.getName().equals("prepareStatement")) {
+                String cle = cleRequete(args);
+                if (cle != null) {
+                    return preparer((Connection) proxy, cle, method, args);
+                }
+            }
+            try {
+                return method.invoke(physique.connexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Requête préparée prise dans le cache, ou préparée par le driver et mise en cache.
+         */
+        private PreparedStatement preparer(Connection proxy, String cle, Method method, Object[] args) throws SQLException {
+            CacheRequetes.Entree entree = physique.requetes.reserver(cle);
+            if (entree != null) {
+                requetesReutilisees.increment();
+            } else {
+                entree = physique.requetes.preparer(cle, () -> {
+                    try {
+                        return (PreparedStatement) method.invoke(physique.connexion, args);
+                    } catch (InvocationTargetException e) {
+                        if (e.getCause() instanceof SQLException) {
+                            throw (SQLException) e.getCause();
+                        }
+                        throw new SQLException(e.getCause());
+                    } catch (IllegalAccessException e) {
+                        throw new SQLException(e);
+                    }
+                });
+                requetesPreparees.increment();
+            }
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    new RequeteEmpruntee(this, proxy, entree, (String) args[0]));
+        }
+    }
+
+    /**
+     * Clé de cache d'une préparation : le SQL, précédé des options de préparation.
+     * Seules les formes prepareStatement(sql), prepareStatement(sql, autoGeneratedKeys) et
+     * prepareStatement(sql, resultSetType, resultSetConcurrency) sont mises en cache.
+     * @return La clé, ou null si la préparation n'est pas mise en cache
+     */
+    private static String cleRequete(Object[] args) {
+        if (args.length == 1) {
+            return (String) args[0];
+        }
+        if (args.length == 2 && args[1] instanceof Integer) {
+            return "cles=" + args[1] + "|" + args[0];
+        }
+        if (args.length == 3 && args[1] instanceof Integer && args[2] instanceof Integer) {
+            return "type=" + args[1] + "," + args[2] + "|" + args[0];
+        }
+        return null;
+    }
+
+    /**
+     * Gestionnaire du proxy de requête préparée prêtée.
+     * close() rend la requête au cache de la connexion (après avoir fermé ses résultats) au lieu
+     * de la fermer. Une requête dont les réglages ont été modifiés (setFetchSize, setMaxRows...)
+     * est fermée : le prochain utilisateur du même SQL doit la trouver dans son état initial.
+     * Si les mesures sont actives, chaque exécution est chronométrée et enregistrée avec les
+     * paramètres liés, et les lignes des résultats sont comptées à leur fermeture.
+     * Pendant un enregistrement JFR, l'utilisation de la requête (de la préparation à la fermeture)
+     * est signalée par un événement EvenementRequeteSql.
+     */
+    private static final class RequeteEmpruntee implements InvocationHandler {
+        private final ConnexionEmpruntee connexion;
+        private final Connection proxyConnexion;
+        private final CacheRequetes.Entree entree;
+        private final String sql;
+        private final List<ResultSet> resultats = new ArrayList<>();
+        private boolean fermee = false;
+        private boolean reglee = false;
+
+        /** true si les exécutions sont enregistrées dans MesuresRequetes */
+        private final boolean mesuree;
+
+        /** Événement JFR de cette utilisation, null si aucun enregistrement n'est en cours */
+        private EvenementRequeteSql evenement;
+
+        /** Paramètres liés par position, pour le journal des requêtes lentes et l'événement JFR */
+        private final Map<Integer, Object> parametres;
+
+        /** Requêtes ajoutées au lot depuis le dernier executeBatch */
+        private int lot = 0;
+
+        // Totaux de cette utilisation, pour l'événement JFR
+        private int executions = 0;
+        private int erreurs = 0;
+        private long lignes = 0;
+
+        private RequeteEmpruntee(ConnexionEmpruntee connexion, Connection proxyConnexion, CacheRequetes.Entree entree, String sql) {
+            this.connexion = connexion;
+            this.proxyConnexion = proxyConnexion;
+            this.entree = entree;
+            this.sql = sql;
+            this.mesuree = MesuresRequetes.isActif();
+            EvenementRequeteSql nouvel = new EvenementRequeteSql();
+            if (nouvel.isEnabled()) {
+                nouvel.begin();
+                this.evenement = nouvel;
+            }
+            this.parametres = mesuree || evenement != null ? new TreeMap<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            PreparedStatement requete = entree.getRequete();
+            switch (method.getName()) {
+                case "close":
+                    if (!fermee) {
+                        fermee = true;
+                        fermerResultats();
+                        terminerEvenement();
+                        if (!connexion.rendue) {
+                            connexion.physique.requetes.restituer(entree, !reglee);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return fermee || connexion.rendue || requete.isClosed();
+                case "getConnection":
+                    return proxyConnexion;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "RequeteEmpruntee[" + requete + "]";
+                case "setFetchSize":
+                case "setFetchDirection":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setMaxFieldSize":
+                case "setQueryTimeout":
+                case "setEscapeProcessing":
+                case "setCursorName":
+                case "setPoolable":
+                case "closeOnCompletion":
+                    reglee = true;
+                    break;
+                default:
+                    break;
+            }
+            if (fermee || connexion.rendue) {
+                throw new SQLException("Requête préparée déjà fermée");
+            }
+            if (parametres != null) {
+                if (method.getName().startsWith("execute")) {
+                    return executerMesure(requete, method, args);
+                }
+                noterParametres(method, args);
+            }
+            Object resultat;
+            try {
+                resultat = method.invoke(requete, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (resultat instanceof ResultSet) {
+                resultats.add((ResultSet) resultat);
+            }
+            return resultat;
+        }
+
+        /**
+         * Exécute la requête en mesurant sa durée, et enveloppe le résultat éventuel pour compter ses lignes.
+         */
+        private Object executerMesure(PreparedStatement requete, Method method, Object[] args) throws Throwable {
+            String operation = operation();
+            Object resultat;
+            long debut = System.nanoTime();
+            executions++;
+            try {
+                resultat = method.invoke(requete, args);
+            } catch (InvocationTargetException e) {
+                if (mesuree) {
+                    MesuresRequetes.enregistrerErreur(operation, sql, System.nanoTime() - debut);
+                }
+                erreurs++;
+                lot = 0;
+                throw e.getCause();
+            }
+            long duree = System.nanoTime() - debut;
+            long modifiees = lignesModifiees(resultat);
+            if (mesuree) {
+                MesuresRequetes.enregistrer(operation, sql, duree, modifiees, parametres, lot);
+            }
+            lignes += modifiees;
+            lot = 0;
+            if (resultat instanceof ResultSet) {
+                ResultSet compte = (ResultSet) Proxy.newProxyInstance(
+                        ResultSet.class.getClassLoader(),
+                        new Class<?>[] { ResultSet.class },
+                        new ResultatCompte((ResultSet) resultat, this));
+                resultats.add(compte);
+                return compte;
+            }
+            return resultat;
+        }
+
+        /**
+         * Opération de DAO qui utilise la requête.
+         * La pile n'est parcourue qu'une fois par requête en cache : les utilisations suivantes
+         * du même SQL sur la connexion sont attribuées à la même opération.
+         */
+        private String operation() {
+            String operation = entree.getOperation();
+            if (operation == null) {
+                operation = MesuresRequetes.nommerAppelant();
+                entree.setOperation(operation);
+            }
+            return operation;
+        }
+
+        /** Lignes lues dans un résultat de la requête, comptées à sa fermeture */
+        private void ajouterLignesLues(long lues) {
+            lignes += lues;
+            if (mesuree) {
+                MesuresRequetes.ajouterLignes(operation(), sql, lues);
+            }
+        }
+
+        /**
+         * Termine l'événement JFR de cette utilisation et l'enregistre s'il dépasse le seuil de l'enregistrement.
+         */
+        private void terminerEvenement() {
+            if (evenement == null) {
+                return;
+            }
+            evenement.end();
+            if (evenement.shouldCommit()) {
+                evenement.operation = operation();
+                evenement.sql = sql;
+                evenement.parametres = MesuresRequetes.formaterParametres(parametres);
+                evenement.executions = executions;
+                evenement.lignes = lignes;
+                evenement.erreurs = erreurs;
+                evenement.commit();
+            }
+            evenement = null;
+        }
+
+        /**
+         * Conserve les paramètres liés (setInt, setString...) pour le journal des requêtes lentes.
+         */
+        private void noterParametres(Method method, Object[] args) {
+            String nom = method.getName();
+            if (nom.equals("clearParameters")) {
+                parametres.clear();
+            } else if (nom.equals("addBatch")) {
+                lot++;
+            } else if (nom.equals("clearBatch")) {
+                lot = 0;
+            } else if (nom.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parametres.put((Integer) args[0], nom.equals("setNull") ? null : args[1]);
+            }
+        }
+
+        /** Lignes modifiées d'après le résultat d'executeUpdate ou d'executeBatch (0 pour une lecture) */
+        private static long lignesModifiees(Object resultat) {
+            if (resultat instanceof Integer || resultat instanceof Long) {
+                return Math.max(0L, ((Number) resultat).longValue());
+            }
+            long lignes = 0;
+            if (resultat instanceof int[]) {
+                for (int compte : (int[]) resultat) {
+                    lignes += compte == PreparedStatement.SUCCESS_NO_INFO ? 1 : Math.max(0, compte);
+                }
+            } else if (resultat instanceof long[]) {
+                for (long compte : (long[]) resultat) {
+                    lignes += compte == PreparedStatement.SUCCESS_NO_INFO ? 1 : Math.max(0L, compte);
+                }
+            }
+            return lignes;
+        }
+
+        /**
+         * Ferme les résultats ouverts par cette utilisation, comme le ferait Statement.close().
+         */
+        private void fermerResultats() {
+            for (ResultSet resultat : resultats) {
+                try {
+                    resultat.close();
+                } catch (SQLException e) {
+                    // Résultat déjà fermé ou connexion perdue
+                }
+            }
+            resultats.clear();
+        }
+    }
+
+    /**
+     * Gestionnaire du proxy de résultat mesuré : compte les lignes lues et les ajoute à la requête
+     * qui l'a produit à la fermeture du résultat.
+     */
+    private static final class ResultatCompte implements InvocationHandler {
+        private final ResultSet resultat;
+        private final RequeteEmpruntee requete;
+        private long lignes = 0;
+        private boolean compte = false;
+
+        private ResultatCompte(ResultSet resultat, RequeteEmpruntee requete) {
+            this.resultat = resultat;
+            this.requete = requete;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!compte) {
+                        compte = true;
+                        requete.ajouterLignesLues(lignes);
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object valeur;
+            try {
+                valeur = method.invoke(resultat, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (Boolean.TRUE.equals(valeur) && method.getName().equals("next")) {
+                lignes++;
+            }
+            return valeur;
+        }
+    }
+}
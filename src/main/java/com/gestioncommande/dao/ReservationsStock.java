@@ -0,0 +1,263 @@
+package com.gestioncommande.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registre des réservations de stock des commandes en cours.
+ *
+ * Une commande réserve sa quantité dès sa création : articles.stock_reserve est augmenté par une
+ * requête conditionnelle (stock - stock_reserve &gt;= quantité), dans la même transaction que
+ * l'insertion de la commande, qui mémorise sa réservation dans commandes.quantite_reservee.
+ * Aucun verrou n'est conservé : deux commandes ne peuvent plus se disputer la dernière unité,
+ * la seconde est refusée dès sa création au lieu d'échouer à la validation.
+ * <ul>
+ *   <li>la validation consomme la réservation (ArticleDAO.decrementerStock avec la quantité réservée) ;</li>
+ *   <li>l'annulation la libère (liberer) ;</li>
+ *   <li>la modification de la quantité ou de l'article l'ajuste de la différence
+ *       (CommandeService.modifierCommande) ;</li>
+ *   <li>le stock d'un article ne peut pas être saisi en dessous de sa quantité réservée
+ *       (ArticleDAO.modifier et modifierStock) ;</li>
+ *   <li>au-delà de stock.reservation.ttl (24 h par défaut), la réservation d'une commande non
+ *       validée expire : elle est libérée par purgerExpirees, au démarrage et dès qu'une
+ *       réservation est refusée sur l'article. La commande reste en cours, sans réservation :
+ *       sa validation ne réussit alors que si le stock disponible le permet.</li>
+ * </ul>
+ *
+ * La base fait foi. Les quantités réservées par article sont aussi tenues en mémoire (un LongAdder,
+ * compteur réparti en cellules, par article) pour être lues sans requête : elles sont rechargées
+ * depuis la table articles au premier usage (recharger) et ajustées après chaque transaction
+ * validée par les méthodes signaler*. Les réservations faites par un autre processus sur la même
+ * base n'y apparaissent qu'au rechargement suivant. Les signalements sont reportés sur les
+ * compteurs du décompte en mémoire (CompteursStock).
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class ReservationsStock {
+
+    // ========== CONSTANTES ==========
+
+    /** Durée de vie d'une réservation (ms) : stock.reservation.ttl, 24 h par défaut */
+    private static final long DUREE_RESERVATION = ConfigurationBD.getLong("stock.reservation.ttl", 86_400_000L);
+
+    /** Nombre maximum de réservations libérées par appel de purgerExpirees */
+    private static final int TAILLE_PURGE = 500;
+
+    // ========== ATTRIBUTS ==========
+
+    /** Quantité réservée par article */
+    private static final Map<Integer, LongAdder> RESERVEES = new ConcurrentHashMap<>();
+
+    /** Vrai une fois les compteurs chargés depuis la base */
+    private static volatile boolean charge = false;
+
+    // ========== CONSTRUCTEUR ==========
+
+    /**
+     * Initialise le pool de connexions si nécessaire. Au premier appel, libère les réservations
+     * expirées puis charge les compteurs depuis la base.
+     * @throws SQLException
+     */
+    public ReservationsStock() throws SQLException {
+        DatabaseConnection.initialiser();
+        if (!charge) {
+            synchronized (ReservationsStock.class) {
+                if (!charge) {
+                    purgerExpirees();
+                    recharger();
+                    charge = true;
+                }
+            }
+        }
+    }
+
+    // ========== OPÉRATIONS TRANSACTIONNELLES ==========
+
+    /**
+     * Réserve une quantité d'un article si son stock disponible le permet, sur la connexion de la
+     * transaction qui enregistre la commande. L'appelant renseigne quantite_reservee sur la commande
+     * puis, après validation de la transaction, appelle signalerReservation.
+     * @param connection
+     * @param articleId
+     * @param quantite
+     * @return boolean false si l'article est inactif ou son stock disponible insuffisant
+     * @throws SQLException
+     */
+    public boolean reserver(Connection connection, int articleId, int quantite) throws SQLException {
+        String sql = "UPDATE articles SET stock_reserve = stock_reserve + ? " +
+                     "WHERE id=? AND etat=1 AND stock - stock_reserve >= ?";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, quantite);
+            statement.setInt(2, articleId);
+            statement.setInt(3, quantite);
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Rend à l'article une quantité réservée, sur la connexion de la transaction qui annule la
+     * commande. L'appelant appelle signalerLiberation après validation de la transaction.
+     * @param connection
+     * @param articleId
+     * @param quantite
+     * @throws SQLException
+     */
+    public void liberer(Connection connection, int articleId, int quantite) throws SQLException {
+        String sql = "UPDATE articles SET stock_reserve = stock_reserve - ? WHERE id=?";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, quantite);
+            statement.setInt(2, articleId);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Ajoute au compteur d'un article une réservation dont la transaction vient d'être validée
+     * @param articleId
+     * @param quantite
+     */
+    public void signalerReservation(int articleId, int quantite) {
+        if (quantite != 0) {
+            RESERVEES.computeIfAbsent(articleId, id -> new LongAdder()).add(quantite);
+            CompteursStock.ajusterReserve(articleId, quantite);
+        }
+    }
+
+    /**
+     * Retire du compteur d'un article une réservation consommée (validation) ou libérée
+     * (annulation, expiration) par une transaction qui vient d'être validée
+     * @param articleId
+     * @param quantite
+     */
+    public void signalerLiberation(int articleId, int quantite) {
+        signalerReservation(articleId, -quantite);
+    }
+
+    // ========== EXPIRATION ==========
+
+    /**
+     * Libère les réservations expirées de toutes les commandes en cours
+     * @return int le nombre de réservations libérées
+     */
+    public int purgerExpirees() {
+        return purgerExpirees(0);
+    }
+
+    /**
+     * Libère les réservations expirées des commandes en cours d'un article (de tous si articleId vaut 0).
+     * Chaque réservation est libérée dans sa propre transaction, à condition d'être encore
+     * celle qui a été lue : une commande validée ou annulée entre-temps n'est pas touchée.
+     * @param articleId
+     * @return int le nombre de réservations libérées
+     */
+    public int purgerExpirees(int articleId) {
+        String sql = "SELECT id, article_id, quantite_reservee FROM commandes " +
+                     "WHERE quantite_reservee > 0 AND date_commande < ? AND type_commande='en_cours'" +
+                     (articleId > 0 ? " AND article_id=?" : "") + " LIMIT " + TAILLE_PURGE;
+
+        List<int[]> expirees = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setTimestamp(1, new Timestamp(System.currentTimeMillis() - DUREE_RESERVATION));
+            if (articleId > 0) {
+                statement.setInt(2, articleId);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    expirees.add(new int[] {resultSet.getInt(1), resultSet.getInt(2), resultSet.getInt(3)});
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la recherche des réservations expirées : " + e.getMessage());
+            return 0;
+        }
+
+        int liberees = 0;
+        for (int[] reservation : expirees) {
+            try {
+                boolean liberee = GestionnaireTransactions.executer(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(
+                            "UPDATE commandes SET quantite_reservee=0, version=version+1 " +
+                            "WHERE id=? AND quantite_reservee=? AND type_commande='en_cours'")) {
+                        statement.setInt(1, reservation[0]);
+                        statement.setInt(2, reservation[2]);
+                        if (statement.executeUpdate() == 0) {
+                            return false;
+                        }
+                    }
+                    liberer(connection, reservation[1], reservation[2]);
+                    return true;
+                });
+                if (liberee) {
+                    signalerLiberation(reservation[1], reservation[2]);
+                    liberees++;
+                }
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de la libération de la réservation de la commande "
+                        + reservation[0] + " : " + e.getMessage());
+            }
+        }
+        return liberees;
+    }
+
+    // ========== COMPTEURS ==========
+
+    /**
+     * Recharge les compteurs depuis articles.stock_reserve (au démarrage, ou après une
+     * intervention directe sur la base). Les compteurs du décompte en mémoire ne sont pas
+     * ajustés : ils lisent stock_reserve eux-mêmes lors de leur chargement (CompteursStock).
+     * @return boolean
+     */
+    public boolean recharger() {
+        String sql = "SELECT id, stock_reserve FROM articles WHERE stock_reserve <> 0";
+
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            Map<Integer, Integer> lues = new HashMap<>();
+            while (resultSet.next()) {
+                lues.put(resultSet.getInt(1), resultSet.getInt(2));
+            }
+            RESERVEES.clear();
+            lues.forEach((articleId, quantite) ->
+                    RESERVEES.computeIfAbsent(articleId, id -> new LongAdder()).add(quantite));
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du chargement des réservations de stock : " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Quantité réservée par les commandes en cours, lue en mémoire
+     * @param articleId
+     * @return int
+     */
+    public int getQuantiteReservee(int articleId) {
+        LongAdder reservee = RESERVEES.get(articleId);
+        return reservee == null ? 0 : (int) reservee.sum();
+    }
+
+    /**
+     * Stock disponible d'un article : son stock moins la quantité réservée
+     * @param articleId
+     * @param stock Le stock de l'article
+     * @return int
+     */
+    public int getDisponible(int articleId, int stock) {
+        return stock - getQuantiteReservee(articleId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.gestioncommande.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Résultat d'une mise à jour protégée par le numéro de version de la ligne
+ * (UPDATE ... SET version = version + 1 WHERE id = ? AND version = ?).
+ *
+ * En cas de CONFLIT, la ligne a été modifiée depuis sa lecture (par un autre utilisateur, une
+ * validation, un mouvement de stock...) : rien n'a été écrit, et il suffit de relire la ligne
+ * puis de réappliquer la modification.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public enum ResultatMiseAJour {
+
+    /** La ligne a été mise à jour ; l'objet porte sa nouvelle version */
+    MODIFIEE,
+
+    /** La ligne a changé de version depuis sa lecture : rien n'a été écrit */
+    CONFLIT,
+
+    /** La ligne n'existe pas */
+    INTROUVABLE,
+
+    /** Stock demandé inférieur à la quantité réservée par les commandes en cours : rien n'a été écrit */
+    STOCK_RESERVE,
+
+    /** Erreur SQL (signalée sur la sortie d'erreur) */
+    ERREUR;
+
+    /** @return true si la mise à jour a eu lieu */
+    public boolean isModifiee() {
+        return this == MODIFIEE;
+    }
+
+    /**
+     * Qualifie une mise à jour protégée qui n'a modifié aucune ligne : la ligne existe (CONFLIT)
+     * ou non (INTROUVABLE). La vérification n'est faite que dans ce cas, jamais sur le chemin normal.
+     * @param connection La connexion de la mise à jour
+     * @param table La table mise à jour
+     * @param id L'identifiant de la ligne
+     * @throws SQLException
+     */
+    static ResultatMiseAJour constaterEchec(Connection connection, String table, int id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM " + table + " WHERE id=?")) {
+            statement.setInt(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? CONFLIT : INTROUVABLE;
+            }
+        }
+    }
+}
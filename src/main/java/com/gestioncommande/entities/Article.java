@@ -44,6 +44,9 @@ public class Article {
     
     /** État de l'article : 1 = actif (peut être commandé), 0 = inactif */
     private int etat;
+    
+    /** Version de la ligne, incrémentée à chaque mise à jour (contrôle des modifications concurrentes) */
+    private int version;
 
     // ========== CONSTRUCTEURS ==========
     
@@ -77,6 +80,26 @@ public class Article {
         this.etat = 1; // Article actif par défaut
     }
 
+    /**
+     * Constructeur de copie.
+     * Utilisé par les caches pour ne jamais exposer leurs propres instances.
+     * 
+     * @param autre L'article à copier
+     */
+    public Article(Article autre) {
+        this.id = autre.id;
+        this.designation = autre.designation;
+        this.categorie = autre.categorie;
+        this.prix = autre.prix;
+        this.stock = autre.stock;
+        this.stockMinimum = autre.stockMinimum;
+        this.description = autre.description;
+        this.dateCreation = autre.dateCreation;
+        this.dateModification = autre.dateModification;
+        this.etat = autre.etat;
+        this.version = autre.version;
+    }
+
     // Getters et Setters
     public int getId() {
         return id;
@@ -163,6 +186,14 @@ public class Article {
         return etat == 1;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public void activer() {
         this.etat = 1;
         this.dateModification = new Date();
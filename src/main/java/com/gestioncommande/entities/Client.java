@@ -77,6 +77,25 @@ public class Client {
         this.etat = 1; // Client actif par défaut
     }
 
+    /**
+     * Constructeur de copie.
+     * Utilisé par les caches pour ne jamais exposer leurs propres instances.
+     * 
+     * @param autre Le client à copier
+     */
+    public Client(Client autre) {
+        this.id = autre.id;
+        this.nom = autre.nom;
+        this.prenom = autre.prenom;
+        this.sexe = autre.sexe;
+        this.type = autre.type;
+        this.contact = autre.contact;
+        this.email = autre.email;
+        this.adresse = autre.adresse;
+        this.dateCreation = autre.dateCreation;
+        this.etat = autre.etat;
+    }
+
     // ========== MÉTHODES D'ACCÈS (GETTERS ET SETTERS) ==========
     
     /**
@@ -48,6 +48,12 @@ public class Commande {
     
     /** Date de validation de la commande (null si non validée) */
     private Date dateValidation;
+    
+    /** Version de la ligne, incrémentée à chaque mise à jour (contrôle des modifications concurrentes) */
+    private int version;
+    
+    /** Quantité de stock réservée par la commande en cours (0 après validation, annulation ou expiration) */
+    private int quantiteReservee;
 
     // Constructeurs
     public Commande() {}
@@ -94,7 +100,10 @@ public class Commande {
 
     public void setQuantite(int quantite) {
         this.quantite = quantite;
-        this.montantTotal = this.prixUnitaire.multiply(BigDecimal.valueOf(quantite));
+        // Le prix unitaire n'est pas encore connu lors de la lecture d'une ligne en base
+        if (this.prixUnitaire != null) {
+            this.montantTotal = this.prixUnitaire.multiply(BigDecimal.valueOf(quantite));
+        }
     }
 
     public BigDecimal getPrixUnitaire() {
@@ -103,7 +112,9 @@ public class Commande {
 
     public void setPrixUnitaire(BigDecimal prixUnitaire) {
         this.prixUnitaire = prixUnitaire;
-        this.montantTotal = prixUnitaire.multiply(BigDecimal.valueOf(this.quantite));
+        if (prixUnitaire != null) {
+            this.montantTotal = prixUnitaire.multiply(BigDecimal.valueOf(this.quantite));
+        }
     }
 
     public BigDecimal getMontantTotal() {
@@ -154,6 +165,22 @@ public class Commande {
         this.dateValidation = dateValidation;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public int getQuantiteReservee() {
+        return quantiteReservee;
+    }
+
+    public void setQuantiteReservee(int quantiteReservee) {
+        this.quantiteReservee = quantiteReservee;
+    }
+
     // ========== MÉTHODES MÉTIER ==========
     
     /**
@@ -0,0 +1,83 @@
+package com.gestioncommande.entities;
+
+/**
+ * Commande accompagnée du nom de son client et de la désignation de son article,
+ * tels que lus par la jointure des listes de commandes.
+ * Modèle de lecture pour l'affichage : il évite une recherche du client et de l'article
+ * pour chaque commande listée.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class CommandeDetaillee extends Commande {
+
+    // ========== ATTRIBUTS ==========
+
+    /** Nom du client (null si le client n'existe plus) */
+    private String clientNom;
+
+    /** Prénom du client (null si le client n'existe plus) */
+    private String clientPrenom;
+
+    /** Désignation de l'article (null si l'article n'existe plus) */
+    private String articleDesignation;
+
+    // Constructeurs
+    public CommandeDetaillee() {}
+
+    // Getters et Setters
+    public String getClientNom() {
+        return clientNom;
+    }
+
+    public void setClientNom(String clientNom) {
+        this.clientNom = clientNom;
+    }
+
+    public String getClientPrenom() {
+        return clientPrenom;
+    }
+
+    public void setClientPrenom(String clientPrenom) {
+        this.clientPrenom = clientPrenom;
+    }
+
+    public String getArticleDesignation() {
+        return articleDesignation;
+    }
+
+    public void setArticleDesignation(String articleDesignation) {
+        this.articleDesignation = articleDesignation;
+    }
+
+    // ========== MÉTHODES D'AFFICHAGE ==========
+
+    /**
+     * Nom complet du client, ou son identifiant s'il n'a pas été trouvé.
+     * @return "Prénom Nom"
+     */
+    public String getNomCompletClient() {
+        if (clientNom == null) {
+            return "#" + getClientId();
+        }
+        return clientPrenom + " " + clientNom;
+    }
+
+    /**
+     * Désignation de l'article, ou son identifiant s'il n'a pas été trouvé.
+     * @return La désignation de l'article
+     */
+    public String getLibelleArticle() {
+        return articleDesignation != null ? articleDesignation : "#" + getArticleId();
+    }
+
+    @Override
+    public String toString() {
+        return "CommandeDetaillee{" +
+                "commande=" + super.toString() +
+                ", client='" + getNomCompletClient() + '\'' +
+                ", article='" + getLibelleArticle() + '\'' +
+                '}';
+    }
+}
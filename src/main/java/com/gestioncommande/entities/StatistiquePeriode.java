@@ -0,0 +1,73 @@
+package com.gestioncommande.entities;
+
+import java.math.BigDecimal;
+
+/**
+ * Statistiques des commandes sur une période (un jour ou un mois).
+ * 
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class StatistiquePeriode {
+    
+    // ========== ATTRIBUTS ==========
+    
+    /** Libellé de la période : "AAAA-MM-JJ" pour un jour, "AAAA-MM" pour un mois */
+    private final String periode;
+    
+    /** Nombre de commandes passées sur la période */
+    private final long nombre;
+    
+    /** Montant total des commandes passées sur la période */
+    private final BigDecimal montantTotal;
+    
+    /** Nombre de commandes validées parmi celles de la période */
+    private final long nombreValidees;
+    
+    /** Montant des commandes validées parmi celles de la période */
+    private final BigDecimal montantValide;
+
+    // ========== CONSTRUCTEUR ==========
+    
+    public StatistiquePeriode(String periode, long nombre, BigDecimal montantTotal,
+                              long nombreValidees, BigDecimal montantValide) {
+        this.periode = periode;
+        this.nombre = nombre;
+        this.montantTotal = montantTotal != null ? montantTotal : BigDecimal.ZERO;
+        this.nombreValidees = nombreValidees;
+        this.montantValide = montantValide != null ? montantValide : BigDecimal.ZERO;
+    }
+
+    // Getters
+    public String getPeriode() {
+        return periode;
+    }
+
+    public long getNombre() {
+        return nombre;
+    }
+
+    public BigDecimal getMontantTotal() {
+        return montantTotal;
+    }
+
+    public long getNombreValidees() {
+        return nombreValidees;
+    }
+
+    public BigDecimal getMontantValide() {
+        return montantValide;
+    }
+
+    @Override
+    public String toString() {
+        return "StatistiquePeriode{" +
+                "periode='" + periode + '\'' +
+                ", nombre=" + nombre +
+                ", montantTotal=" + montantTotal +
+                ", nombreValidees=" + nombreValidees +
+                ", montantValide=" + montantValide +
+                '}';
+    }
+}
@@ -0,0 +1,99 @@
+package com.gestioncommande.entities;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statistiques agrégées des commandes : nombre et montant total par statut et par type.
+ * Elles sont calculées par la base (une seule requête GROUP BY) et non en chargeant les commandes.
+ * 
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class StatistiquesCommandes {
+    
+    // ========== ATTRIBUTS ==========
+    
+    /** Nombre de commandes par statut (en_attente, traitee, livree, annulee) */
+    private final Map<String, Long> nombreParStatut = new LinkedHashMap<>();
+    
+    /** Montant total des commandes par statut */
+    private final Map<String, BigDecimal> montantParStatut = new LinkedHashMap<>();
+    
+    /** Nombre de commandes par type (en_cours, validee, annulee) */
+    private final Map<String, Long> nombreParType = new LinkedHashMap<>();
+    
+    /** Montant total des commandes par type */
+    private final Map<String, BigDecimal> montantParType = new LinkedHashMap<>();
+
+    // ========== CONSTRUCTION ==========
+    
+    /**
+     * Ajoute un groupe (statut, type) aux statistiques.
+     * 
+     * @param statut Le statut des commandes du groupe
+     * @param typeCommande Le type des commandes du groupe
+     * @param nombre Le nombre de commandes du groupe
+     * @param montant Le montant total des commandes du groupe
+     */
+    public void ajouterGroupe(String statut, String typeCommande, long nombre, BigDecimal montant) {
+        BigDecimal montantGroupe = montant != null ? montant : BigDecimal.ZERO;
+        nombreParStatut.merge(statut, nombre, Long::sum);
+        montantParStatut.merge(statut, montantGroupe, BigDecimal::add);
+        nombreParType.merge(typeCommande, nombre, Long::sum);
+        montantParType.merge(typeCommande, montantGroupe, BigDecimal::add);
+    }
+
+    // ========== ACCESSEURS ==========
+    
+    public long getNombreParStatut(String statut) {
+        return nombreParStatut.getOrDefault(statut, 0L);
+    }
+
+    public BigDecimal getMontantParStatut(String statut) {
+        return montantParStatut.getOrDefault(statut, BigDecimal.ZERO);
+    }
+
+    public long getNombreParType(String typeCommande) {
+        return nombreParType.getOrDefault(typeCommande, 0L);
+    }
+
+    public BigDecimal getMontantParType(String typeCommande) {
+        return montantParType.getOrDefault(typeCommande, BigDecimal.ZERO);
+    }
+
+    public Map<String, Long> getNombresParStatut() {
+        return Collections.unmodifiableMap(nombreParStatut);
+    }
+
+    public Map<String, Long> getNombresParType() {
+        return Collections.unmodifiableMap(nombreParType);
+    }
+
+    /**
+     * @return Le nombre total de commandes, tous statuts confondus
+     */
+    public long getNombreTotal() {
+        return nombreParStatut.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * @return Le montant total des commandes validées
+     */
+    public BigDecimal getMontantValide() {
+        return getMontantParType("validee");
+    }
+
+    @Override
+    public String toString() {
+        return "StatistiquesCommandes{" +
+                "nombreParStatut=" + nombreParStatut +
+                ", montantParStatut=" + montantParStatut +
+                ", nombreParType=" + nombreParType +
+                ", montantParType=" + montantParType +
+                '}';
+    }
+}
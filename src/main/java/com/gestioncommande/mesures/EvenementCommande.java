@@ -0,0 +1,57 @@
+package com.gestioncommande.mesures;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement Java Flight Recorder d'une transition du cycle de vie d'une commande
+ * (effectuer, valider, annuler), émis par CommandeService autour de l'opération complète.
+ * Les requêtes SQL exécutées pendant la transition apparaissent dans le même thread
+ * (événements com.gestioncommande.RequeteSql).
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+@Name("com.gestioncommande.Commande")
+@Label("Transition de commande")
+@Category("Gestion de commandes")
+@Description("Effectuer, valider ou annuler une commande")
+@StackTrace(false)
+public class EvenementCommande extends Event {
+
+    /** Transition : effectuer */
+    public static final String EFFECTUER = "effectuer";
+
+    /** Transition : valider */
+    public static final String VALIDER = "valider";
+
+    /** Transition : annuler */
+    public static final String ANNULER = "annuler";
+
+    @Label("Transition")
+    public String transition;
+
+    @Label("Commande")
+    public int commandeId;
+
+    @Label("Client")
+    public int clientId;
+
+    @Label("Article")
+    public int articleId;
+
+    @Label("Quantité")
+    public int quantite;
+
+    @Label("Montant")
+    public double montant;
+
+    @Label("Résultat")
+    @Description("Résultat de la transition (CREEE, VALIDEE, STOCK_INSUFFISANT, ANNULEE...)")
+    public String resultat;
+}
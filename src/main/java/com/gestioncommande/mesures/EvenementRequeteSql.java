@@ -0,0 +1,47 @@
+package com.gestioncommande.mesures;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement Java Flight Recorder d'une requête préparée par un DAO, de sa préparation à sa
+ * fermeture (exécutions et lecture des lignes comprises).
+ * Émis par le pool de connexions ; sans enregistrement JFR en cours, l'événement n'est pas
+ * démarré et ne coûte qu'une allocation par requête.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+@Name("com.gestioncommande.RequeteSql")
+@Label("Requête SQL")
+@Category({"Gestion de commandes", "Base de données"})
+@Description("Requête préparée par un DAO, de sa préparation à sa fermeture")
+@StackTrace(false)
+public class EvenementRequeteSql extends Event {
+
+    @Label("Opération")
+    @Description("Méthode de DAO qui a exécuté la requête")
+    public String operation;
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Paramètres")
+    @Description("Paramètres liés lors de la dernière exécution, par position")
+    public String parametres;
+
+    @Label("Exécutions")
+    public int executions;
+
+    @Label("Lignes")
+    @Description("Lignes lues ou modifiées")
+    public long lignes;
+
+    @Label("Erreurs")
+    public int erreurs;
+}
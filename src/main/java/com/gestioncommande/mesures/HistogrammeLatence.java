@@ -0,0 +1,140 @@
+package com.gestioncommande.mesures;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences en microsecondes, à intervalles logarithmiques.
+ * Les valeurs inférieures à 16 µs sont comptées exactement ; au-delà, chaque puissance de deux
+ * est découpée en 8 intervalles, soit une erreur relative d'au plus 12,5 % sur les percentiles.
+ * La mémoire est fixe (312 compteurs) quel que soit le nombre de mesures, et l'enregistrement
+ * ne prend pas de verrou : l'histogramme peut être partagé par tous les threads.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public final class HistogrammeLatence {
+
+    // ========== CONSTANTES ==========
+
+    /** Valeurs comptées exactement (0 à 15 µs) */
+    private static final int VALEURS_EXACTES = 16;
+
+    /** Intervalles par puissance de deux (2^3) */
+    private static final int BITS_INTERVALLES = 3;
+    private static final int INTERVALLES = 1 << BITS_INTERVALLES;
+
+    /** Plus grand exposant suivi (2^40 µs, environ 12 jours) : les valeurs supérieures sont plafonnées */
+    private static final int EXPOSANT_MAX = 40;
+
+    private static final int NOMBRE_COMPTEURS = VALEURS_EXACTES + (EXPOSANT_MAX - 3) * INTERVALLES;
+
+    // ========== ATTRIBUTS ==========
+
+    private final AtomicLongArray compteurs = new AtomicLongArray(NOMBRE_COMPTEURS);
+    private final LongAdder nombre = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    // ========== ENREGISTREMENT ==========
+
+    /**
+     * Enregistre une durée.
+     * @param nanos La durée en nanosecondes
+     */
+    public void enregistrer(long nanos) {
+        long micros = Math.max(0L, nanos / 1000L);
+        compteurs.incrementAndGet(indice(micros));
+        nombre.increment();
+        total.add(micros);
+        max.accumulate(micros);
+    }
+
+    /**
+     * Remet l'histogramme à zéro. Les mesures enregistrées pendant la remise à zéro peuvent être
+     * conservées en partie.
+     */
+    public void reinitialiser() {
+        for (int i = 0; i < NOMBRE_COMPTEURS; i++) {
+            compteurs.set(i, 0L);
+        }
+        nombre.reset();
+        total.reset();
+        max.reset();
+    }
+
+    // ========== LECTURE ==========
+
+    /** @return Le nombre de mesures enregistrées */
+    public long getNombre() {
+        return nombre.sum();
+    }
+
+    /** @return La somme des durées enregistrées (µs) */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /** @return La plus grande durée enregistrée (µs) */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Percentile des durées enregistrées.
+     * @param percentile Le percentile voulu (50 pour la médiane, 99 pour le 99e percentile)
+     * @return La borne supérieure de l'intervalle contenant le percentile (µs), au plus le maximum ;
+     *         0 si aucune mesure n'a été enregistrée
+     */
+    public long getPercentile(double percentile) {
+        long[] copie = new long[NOMBRE_COMPTEURS];
+        long effectif = 0;
+        for (int i = 0; i < NOMBRE_COMPTEURS; i++) {
+            copie[i] = compteurs.get(i);
+            effectif += copie[i];
+        }
+        if (effectif == 0) {
+            return 0L;
+        }
+        long rang = Math.max(1L, (long) Math.ceil(percentile / 100.0 * effectif));
+        long cumul = 0;
+        for (int i = 0; i < NOMBRE_COMPTEURS; i++) {
+            cumul += copie[i];
+            if (cumul >= rang) {
+                return Math.min(borneSuperieure(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    // ========== INTERVALLES ==========
+
+    /**
+     * Indice du compteur d'une valeur : la valeur elle-même en dessous de 16, sinon
+     * l'exposant de sa puissance de deux et ses 3 bits suivants.
+     */
+    private static int indice(long micros) {
+        if (micros < VALEURS_EXACTES) {
+            return (int) micros;
+        }
+        int exposant = 63 - Long.numberOfLeadingZeros(micros);
+        if (exposant > EXPOSANT_MAX) {
+            return NOMBRE_COMPTEURS - 1;
+        }
+        int intervalle = (int) (micros >>> (exposant - BITS_INTERVALLES)) & (INTERVALLES - 1);
+        return VALEURS_EXACTES + (exposant - 4) * INTERVALLES + intervalle;
+    }
+
+    /** Plus grande valeur (µs) comptée par le compteur d'indice donné */
+    private static long borneSuperieure(int indice) {
+        if (indice < VALEURS_EXACTES) {
+            return indice;
+        }
+        int exposant = 4 + (indice - VALEURS_EXACTES) / INTERVALLES;
+        int intervalle = (indice - VALEURS_EXACTES) % INTERVALLES;
+        int decalage = exposant - BITS_INTERVALLES;
+        return ((long) (INTERVALLES + intervalle + 1) << decalage) - 1;
+    }
+}
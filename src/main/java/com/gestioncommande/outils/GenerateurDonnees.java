@@ -0,0 +1,534 @@
+package com.gestioncommande.outils;
+
+import com.gestioncommande.dao.DatabaseConnection;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Générateur de jeux de données volumineux pour la base gestion_commande.
+ * Ajoute des clients, des articles et des commandes aux tables existantes, avec des
+ * distributions proches d'une exploitation réelle :
+ * <ul>
+ *   <li>articles et clients « chauds » : le choix de l'article et du client d'une commande suit
+ *       une loi de puissance (avec les exposants par défaut, 10 % des articles reçoivent environ
+ *       46 % des commandes et 10 % des clients en passent environ 32 %) ;</li>
+ *   <li>dates de commande sur une période glissante, plus denses vers aujourd'hui, concentrées
+ *       sur les heures ouvrées et moins nombreuses le week-end ;</li>
+ *   <li>type, statut et date de validation cohérents avec l'âge de la commande.</li>
+ * </ul>
+ *
+ * Les lignes sont envoyées par INSERT multi-lignes (LIGNES_PAR_REQUETE lignes par requête,
+ * une transaction par requête) depuis plusieurs threads, chacun avec sa connexion du pool.
+ * Les commandes portent sur les clients et articles présents en base, générés ou non :
+ * les contrôles de clés étrangères sont suspendus pendant leur insertion.
+ * La graine fixe les valeurs tirées par chaque tranche de lignes ; les identifiants attribués
+ * dépendent de l'ordre dans lequel les threads insèrent leurs tranches.
+ *
+ * Usage : GenerateurDonnees [clients] [articles] [commandes] [jours] [threads] [graine]
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class GenerateurDonnees {
+
+    // ========== CONSTANTES ==========
+
+    /** Nombre de lignes envoyées par requête INSERT */
+    private static final int LIGNES_PAR_REQUETE = 1000;
+
+    /** Nombre de lignes traitées par une tâche (une connexion empruntée par tâche) */
+    private static final int LIGNES_PAR_TACHE = 50000;
+
+    /** Exposant de la loi de puissance du choix des articles (1 = uniforme) */
+    private static final double EXPOSANT_ARTICLES = 3.0;
+
+    /** Exposant de la loi de puissance du choix des clients (1 = uniforme) */
+    private static final double EXPOSANT_CLIENTS = 2.0;
+
+    private static final String[] NOMS = {
+        "Martin", "Bernard", "Thomas", "Petit", "Robert", "Richard", "Durand", "Dubois", "Moreau", "Laurent",
+        "Simon", "Michel", "Lefebvre", "Leroy", "Roux", "David", "Bertrand", "Morel", "Fournier", "Girard",
+        "Bonnet", "Dupont", "Lambert", "Fontaine", "Rousseau", "Vincent", "Muller", "Lefèvre", "Faure", "André",
+        "Mercier", "Blanc", "Guérin", "Boyer", "Garnier", "Chevalier", "François", "Legrand", "Gauthier", "Garcia"
+    };
+
+    private static final String[] PRENOMS_MASCULINS = {
+        "Jean", "Pierre", "Michel", "Philippe", "Alain", "Nicolas", "Christophe", "Patrick", "Laurent", "Julien",
+        "Thomas", "Lucas", "Hugo", "Louis", "Antoine", "Jérôme", "Sébastien", "Olivier", "François", "Mathieu"
+    };
+
+    private static final String[] PRENOMS_FEMININS = {
+        "Marie", "Nathalie", "Isabelle", "Sylvie", "Catherine", "Sophie", "Julie", "Camille", "Léa", "Manon",
+        "Chloé", "Emma", "Sandrine", "Céline", "Hélène", "Élodie", "Aurélie", "Claire", "Laura", "Anne"
+    };
+
+    private static final String[] DOMAINES = {"email.com", "mail.fr", "courriel.fr", "company.com", "business.com"};
+
+    private static final String[] VOIES = {
+        "Rue de la Paix", "Avenue des Champs", "Boulevard Saint-Germain", "Rue de Rivoli", "Place de la République",
+        "Rue Victor Hugo", "Avenue Jean Jaurès", "Rue Pasteur", "Boulevard Gambetta", "Rue de la Gare"
+    };
+
+    private static final String[] VILLES = {
+        "Paris", "Lyon", "Marseille", "Toulouse", "Nice", "Nantes", "Strasbourg", "Montpellier", "Bordeaux", "Lille"
+    };
+
+    private static final String[] CATEGORIES = {
+        "Informatique", "Téléphonie", "Mobilier", "Électroménager", "Livre", "Fournitures"
+    };
+
+    /** Produits de chaque catégorie (même ordre que CATEGORIES) */
+    private static final String[][] PRODUITS = {
+        {"Ordinateur Portable", "Souris Sans Fil", "Clavier", "Écran", "Disque SSD", "Imprimante"},
+        {"Smartphone", "Coque", "Chargeur", "Écouteurs", "Tablette"},
+        {"Chaise de Bureau", "Bureau", "Étagère", "Lampe", "Caisson"},
+        {"Cafetière", "Bouilloire", "Aspirateur", "Micro-ondes", "Grille-pain"},
+        {"Livre", "Manuel", "Guide", "Dictionnaire"},
+        {"Stylo", "Cahier", "Classeur", "Agrafeuse", "Ramette de Papier"}
+    };
+
+    /** Prix médian (euros) des articles de chaque catégorie */
+    private static final double[] PRIX_MEDIANS = {150, 120, 90, 60, 25, 6};
+
+    private static final String[] MARQUES = {"Atlas", "Nova", "Orion", "Zénith", "Hélios", "Vega", "Lumen", "Krypton"};
+
+    private static final String[] OBSERVATIONS = {
+        "Livraison urgente", "Commande pour usage personnel", "Commande pour formation entreprise",
+        "Mobilier pour nouveau bureau", "Pour la salle de pause", "Cadeau", "Réassort mensuel"
+    };
+
+    /** Poids relatif des commandes passées à chaque heure de la journée */
+    private static final int[] POIDS_HEURES = {
+        1, 1, 1, 1, 1, 1, 2, 4, 8, 12, 14, 14, 10, 10, 13, 14, 13, 11, 9, 7, 6, 5, 3, 2
+    };
+
+    private static final int TOTAL_POIDS_HEURES = Arrays.stream(POIDS_HEURES).sum();
+
+    // ========== PARAMÈTRES ==========
+
+    private final int clients;
+    private final int articles;
+    private final int commandes;
+    private final int jours;
+    private final int threads;
+    private final long graine;
+
+    /** Date du jour (en jours depuis 1970) à laquelle se termine la période générée */
+    private final long aujourdhui = LocalDate.now().toEpochDay();
+
+    /** Instant de lancement : aucune date générée ne le dépasse */
+    private final long maintenant = System.currentTimeMillis();
+
+    // Identifiants et prix (centimes) des articles et clients présents en base, mélangés :
+    // les plus demandés ne sont pas les premiers créés
+    private int[] idsClients;
+    private int[] idsArticles;
+    private long[] prixArticles;
+
+    /**
+     * Remplissage des paramètres d'une ligne d'un INSERT multi-lignes
+     */
+    @FunctionalInterface
+    private interface Ligne {
+        /**
+         * @param statement La requête préparée
+         * @param parametre Position du premier paramètre de la ligne
+         * @param numero Numéro de la ligne dans la génération (à partir de 0)
+         * @param random Générateur propre à la tâche
+         */
+        void remplir(PreparedStatement statement, int parametre, long numero, SplittableRandom random) throws SQLException;
+    }
+
+    public GenerateurDonnees(int clients, int articles, int commandes, int jours, int threads, long graine) {
+        this.clients = clients;
+        this.articles = articles;
+        this.commandes = commandes;
+        this.jours = jours;
+        this.threads = threads;
+        this.graine = graine;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int articles = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int commandes = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+        int jours = args.length > 3 ? Integer.parseInt(args[3]) : 730;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        long graine = args.length > 5 ? Long.parseLong(args[5]) : 42L;
+
+        boolean reussi = new GenerateurDonnees(clients, articles, commandes, jours, threads, graine).generer();
+        DatabaseConnection.closeConnection();
+        if (!reussi) {
+            System.exit(1);
+        }
+    }
+
+    // ========== GÉNÉRATION ==========
+
+    /**
+     * Insère les clients, puis les articles, puis les commandes.
+     * @return true si toutes les lignes ont été insérées
+     */
+    public boolean generer() {
+        ExecutorService executeur = Executors.newFixedThreadPool(threads);
+        try {
+            System.out.println("Génération : " + clients + " clients, " + articles + " articles, "
+                    + commandes + " commandes sur " + jours + " jours (" + threads + " threads)");
+
+            if (!inserer(executeur, "clients",
+                    "nom, prenom, sexe, type, contact, email, adresse, date_creation, etat", 9,
+                    clients, 1, false, this::remplirClient)) {
+                return false;
+            }
+            if (!inserer(executeur, "articles",
+                    "designation, categorie, prix, stock, stock_minimum, description, date_creation, etat", 8,
+                    articles, 2, false, this::remplirArticle)) {
+                return false;
+            }
+            if (!chargerReferences()) {
+                return false;
+            }
+            return inserer(executeur, "commandes",
+                    "client_id, article_id, quantite, prix_unitaire, montant_total, date_commande, "
+                            + "type_commande, statut, observations, date_validation", 10,
+                    commandes, 3, true, this::remplirCommande);
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    /**
+     * Insère des lignes générées par tâches de LIGNES_PAR_TACHE lignes réparties sur les threads.
+     * Le générateur aléatoire de chaque tâche dépend de la graine, de la table et du numéro de tâche :
+     * les valeurs tirées ne dépendent pas de l'ordre d'exécution des tâches.
+     *
+     * @param table La table remplie
+     * @param colonnes Les colonnes insérées
+     * @param nombreColonnes Le nombre de colonnes
+     * @param total Le nombre de lignes à insérer
+     * @param flux Identifiant de la table dans les graines des tâches
+     * @param sansClesEtrangeres true pour suspendre les contrôles de clés étrangères
+     * @param ligne Remplissage d'une ligne
+     * @return true si toutes les lignes ont été insérées
+     */
+    private boolean inserer(ExecutorService executeur, String table, String colonnes, int nombreColonnes,
+                            long total, int flux, boolean sansClesEtrangeres, Ligne ligne) {
+        if (total <= 0) {
+            return true;
+        }
+        long debut = System.nanoTime();
+        List<Future<Long>> taches = new ArrayList<>();
+        for (long premiere = 0; premiere < total; premiere += LIGNES_PAR_TACHE) {
+            long depart = premiere;
+            long fin = Math.min(premiere + LIGNES_PAR_TACHE, total);
+            SplittableRandom random = new SplittableRandom(graine * 31 + flux * 1_000_003L + premiere);
+            taches.add(executeur.submit(() -> insererTranche(table, colonnes, nombreColonnes,
+                    depart, fin, random, sansClesEtrangeres, ligne)));
+        }
+
+        long inserees = 0;
+        try {
+            for (Future<Long> tache : taches) {
+                inserees += tache.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            System.err.println("Erreur lors de l'insertion des " + table + " : " + cause.getMessage());
+            taches.forEach(tache -> tache.cancel(true));
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        System.out.printf("%-10s %10d lignes en %7.2f s : %10.0f lignes/s%n", table, inserees, secondes, inserees / secondes);
+        return true;
+    }
+
+    /**
+     * Insère les lignes [premiere, fin) par requêtes de LIGNES_PAR_REQUETE lignes,
+     * chacune validée dans sa propre transaction.
+     * @return Le nombre de lignes insérées
+     */
+    private long insererTranche(String table, String colonnes, int nombreColonnes, long premiere, long fin,
+                                SplittableRandom random, boolean sansClesEtrangeres, Ligne ligne) throws SQLException {
+        long inserees = 0;
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            if (sansClesEtrangeres) {
+                executer(connection, "SET FOREIGN_KEY_CHECKS = 0");
+            }
+            try {
+                connection.setAutoCommit(false);
+                PreparedStatement complete = null;
+                try {
+                    for (long numero = premiere; numero < fin; numero += LIGNES_PAR_REQUETE) {
+                        int lignes = (int) Math.min(LIGNES_PAR_REQUETE, fin - numero);
+                        PreparedStatement statement;
+                        if (lignes == LIGNES_PAR_REQUETE) {
+                            if (complete == null) {
+                                complete = connection.prepareStatement(requete(table, colonnes, nombreColonnes, lignes));
+                            }
+                            statement = complete;
+                        } else {
+                            statement = connection.prepareStatement(requete(table, colonnes, nombreColonnes, lignes));
+                        }
+                        try {
+                            for (int i = 0; i < lignes; i++) {
+                                ligne.remplir(statement, 1 + i * nombreColonnes, numero + i, random);
+                            }
+                            inserees += statement.executeUpdate();
+                            connection.commit();
+                        } finally {
+                            if (statement != complete) {
+                                statement.close();
+                            }
+                        }
+                    }
+                } finally {
+                    if (complete != null) {
+                        complete.close();
+                    }
+                }
+            } finally {
+                if (sansClesEtrangeres) {
+                    executer(connection, "SET FOREIGN_KEY_CHECKS = 1");
+                }
+            }
+        }
+        return inserees;
+    }
+
+    private static String requete(String table, String colonnes, int nombreColonnes, int lignes) {
+        StringBuilder ligne = new StringBuilder("(?");
+        for (int i = 1; i < nombreColonnes; i++) {
+            ligne.append(", ?");
+        }
+        ligne.append(')');
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(colonnes).append(") VALUES ");
+        for (int i = 0; i < lignes; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ligne);
+        }
+        return sql.toString();
+    }
+
+    private static void executer(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    // ========== LIGNES ==========
+
+    private void remplirClient(PreparedStatement statement, int p, long numero, SplittableRandom random) throws SQLException {
+        boolean femme = random.nextBoolean();
+        String prenom = choisir(femme ? PRENOMS_FEMININS : PRENOMS_MASCULINS, random);
+        String nom = choisir(NOMS, random);
+        boolean entreprise = random.nextInt(100) < 20;
+
+        statement.setString(p, nom);
+        statement.setString(p + 1, prenom);
+        statement.setString(p + 2, femme ? "F" : "M");
+        statement.setString(p + 3, entreprise ? "Entreprise" : "Particulier");
+        statement.setString(p + 4, "0" + (6 + random.nextInt(2)) + String.format("%08d", random.nextInt(100_000_000)));
+        statement.setString(p + 5, ascii(prenom + "." + nom) + numero + "@"
+                + DOMAINES[entreprise ? 3 + random.nextInt(2) : random.nextInt(3)]);
+        statement.setString(p + 6, (1 + random.nextInt(200)) + " " + choisir(VOIES, random) + ", " + choisir(VILLES, random));
+        // Clients créés dans l'année précédant la période des commandes
+        statement.setTimestamp(p + 7, instant(aujourdhui - jours - random.nextInt(365), random));
+        statement.setInt(p + 8, random.nextInt(100) < 97 ? 1 : 0);
+    }
+
+    private void remplirArticle(PreparedStatement statement, int p, long numero, SplittableRandom random) throws SQLException {
+        int categorie = random.nextInt(CATEGORIES.length);
+        String produit = choisir(PRODUITS[categorie], random);
+        String marque = choisir(MARQUES, random);
+        // Prix log-normal autour du prix médian de la catégorie
+        double prix = Math.max(0.5, PRIX_MEDIANS[categorie] * Math.exp(0.6 * gaussienne(random)));
+        int stockMinimum = 2 + random.nextInt(19);
+
+        statement.setString(p, produit + " " + marque + " " + Long.toString(numero, 36).toUpperCase(Locale.ROOT));
+        statement.setString(p + 1, CATEGORIES[categorie]);
+        statement.setBigDecimal(p + 2, BigDecimal.valueOf(Math.round(prix * 100), 2));
+        // Un article sur dix est sous son stock minimum
+        statement.setInt(p + 3, random.nextInt(10) == 0 ? random.nextInt(stockMinimum) : stockMinimum + random.nextInt(200));
+        statement.setInt(p + 4, stockMinimum);
+        statement.setString(p + 5, produit + " " + marque + ", catégorie " + CATEGORIES[categorie]);
+        statement.setTimestamp(p + 6, instant(aujourdhui - jours - random.nextInt(365), random));
+        statement.setInt(p + 7, random.nextInt(100) < 95 ? 1 : 0);
+    }
+
+    private void remplirCommande(PreparedStatement statement, int p, long numero, SplittableRandom random) throws SQLException {
+        int article = asymetrique(random, idsArticles.length, EXPOSANT_ARTICLES);
+        int quantite = 1;
+        while (quantite < 50 && random.nextInt(100) < 35) {
+            quantite++;
+        }
+        long prix = prixArticles[article];
+
+        // Âge de la commande : densité décroissante avec l'ancienneté (activité en croissance)
+        int age = (int) (jours * (1 - Math.sqrt(random.nextDouble())));
+        long jour = aujourdhui - age;
+        if (estWeekEnd(jour) && random.nextBoolean()) {
+            age = (int) (jours * (1 - Math.sqrt(random.nextDouble())));
+            jour = aujourdhui - age;
+        }
+        Timestamp dateCommande = instant(jour, random);
+        if (dateCommande.getTime() > maintenant) {
+            dateCommande = instant(jour - 1, random);
+        }
+
+        String type;
+        String statut;
+        Timestamp dateValidation = null;
+        int tirage = random.nextInt(100);
+        if (tirage < 4) {
+            type = "annulee";
+            statut = "annulee";
+        } else if ((age < 2 && tirage < 60) || tirage < 7) {
+            type = "en_cours";
+            statut = "en_attente";
+        } else {
+            type = "validee";
+            statut = age > 7 ? "livree" : "traitee";
+            dateValidation = new Timestamp(Math.min(maintenant,
+                    dateCommande.getTime() + (1 + random.nextInt(48)) * 3_600_000L));
+        }
+
+        statement.setInt(p, idsClients[asymetrique(random, idsClients.length, EXPOSANT_CLIENTS)]);
+        statement.setInt(p + 1, idsArticles[article]);
+        statement.setInt(p + 2, quantite);
+        statement.setBigDecimal(p + 3, BigDecimal.valueOf(prix, 2));
+        statement.setBigDecimal(p + 4, BigDecimal.valueOf(prix * quantite, 2));
+        statement.setTimestamp(p + 5, dateCommande);
+        statement.setString(p + 6, type);
+        statement.setString(p + 7, statut);
+        statement.setString(p + 8, random.nextInt(10) == 0 ? choisir(OBSERVATIONS, random) : null);
+        statement.setTimestamp(p + 9, dateValidation);
+    }
+
+    /**
+     * Lit les identifiants des clients et des articles (et le prix des articles) présents en base.
+     * @return false si une des tables est vide ou en cas d'erreur
+     */
+    private boolean chargerReferences() {
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            List<Integer> ids = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery("SELECT id FROM clients")) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getInt(1));
+                }
+            }
+            idsClients = ids.stream().mapToInt(Integer::intValue).toArray();
+
+            ids.clear();
+            List<Long> prix = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery("SELECT id, prix FROM articles")) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getInt(1));
+                    prix.add(resultSet.getBigDecimal(2).movePointRight(2).longValue());
+                }
+            }
+            idsArticles = ids.stream().mapToInt(Integer::intValue).toArray();
+            prixArticles = prix.stream().mapToLong(Long::longValue).toArray();
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la lecture des clients et des articles : " + e.getMessage());
+            return false;
+        }
+        if (commandes > 0 && (idsClients.length == 0 || idsArticles.length == 0)) {
+            System.err.println("Impossible de générer des commandes : aucun client ou aucun article en base");
+            return false;
+        }
+
+        // Mélange reproductible : la popularité ne dépend pas de l'ordre de création
+        Random random = new Random(graine);
+        for (int i = idsClients.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int id = idsClients[i];
+            idsClients[i] = idsClients[j];
+            idsClients[j] = id;
+        }
+        for (int i = idsArticles.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int id = idsArticles[i];
+            idsArticles[i] = idsArticles[j];
+            idsArticles[j] = id;
+            long prix = prixArticles[i];
+            prixArticles[i] = prixArticles[j];
+            prixArticles[j] = prix;
+        }
+        return true;
+    }
+
+    // ========== DISTRIBUTIONS ==========
+
+    /**
+     * Position dans [0, taille) suivant une loi de puissance : la probabilité de tomber dans les
+     * premiers x % est (x %)^(1/exposant). Avec l'exposant 3, 10 % des positions reçoivent 46 % des tirages.
+     */
+    private static int asymetrique(SplittableRandom random, int taille, double exposant) {
+        return Math.min(taille - 1, (int) (taille * Math.pow(random.nextDouble(), exposant)));
+    }
+
+    /**
+     * Instant du jour donné, à une heure tirée selon POIDS_HEURES.
+     */
+    private static Timestamp instant(long jour, SplittableRandom random) {
+        int tirage = random.nextInt(TOTAL_POIDS_HEURES);
+        int heure = 0;
+        while (tirage >= POIDS_HEURES[heure]) {
+            tirage -= POIDS_HEURES[heure];
+            heure++;
+        }
+        return Timestamp.valueOf(LocalDate.ofEpochDay(jour).atTime(heure, random.nextInt(60), random.nextInt(60)));
+    }
+
+    private static boolean estWeekEnd(long jour) {
+        // Le 1er janvier 1970 était un jeudi : 0 = lundi, 5 = samedi, 6 = dimanche
+        return Math.floorMod(jour + 3, 7) >= 5;
+    }
+
+    private static double gaussienne(SplittableRandom random) {
+        // Box-Muller
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static String choisir(String[] valeurs, SplittableRandom random) {
+        return valeurs[random.nextInt(valeurs.length)];
+    }
+
+    /**
+     * Texte sans accents, espaces ni majuscules (adresses e-mail).
+     */
+    private static String ascii(String texte) {
+        return Normalizer.normalize(texte, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replace(" ", "")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,493 @@
+package com.gestioncommande.recherche;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé de trigrammes pour la recherche par sous-chaîne (équivalent de LIKE '%x%').
+ * Chaque texte indexé est normalisé (minuscules, sans accents, comme la collation de la base)
+ * puis découpé en trigrammes ; la recherche intersecte les listes d'identifiants des trigrammes
+ * du critère et vérifie ensuite la présence exacte de la sous-chaîne.
+ *
+ * Les résultats sont classés : champ égal au critère, puis champ commençant par le critère,
+ * puis mot commençant par le critère, puis simple inclusion ; à rang égal, l'ordre fourni
+ * à la construction s'applique.
+ *
+ * Comme le catalogue des actifs, l'index est chargé une fois puis tenu à jour par les DAO :
+ * les écritures connues sont indexées directement, les autres marquent l'élément comme périmé
+ * et il est relu lorsqu'il apparaît dans un résultat. La relecture se fait hors verrou : les
+ * recherches concurrentes n'attendent pas la base.
+ *
+ * @param <T> Type des éléments indexés
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public class IndexTrigrammes<T> {
+
+    // ========== CONSTANTES ==========
+
+    /** Séparateur entre les champs d'un document (ne peut pas apparaître dans un critère) */
+    private static final char SEPARATEUR = '\u0000';
+
+    /** Nombre de relectures des éléments périmés tentées avant de répondre sans elles */
+    private static final int MAX_RELECTURES = 3;
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+
+    // ========== ATTRIBUTS ==========
+
+    private final String nom;
+
+    /** Champs indexés d'un élément (ex : désignation et catégorie) */
+    private final Function<T, String[]> champs;
+
+    private final ToIntFunction<T> identifiant;
+
+    private final UnaryOperator<T> copie;
+
+    /** Ordre des résultats de même rang */
+    private final Comparator<T> ordre;
+
+    /** Documents rangés par identifiant (identifiants auto-incrémentés, donc denses) */
+    private Document<T>[] documents = nouveauTableau(1024);
+
+    private int nombreDocuments = 0;
+
+    /** Liste des identifiants par trigramme (voir cle) */
+    private final Map<Long, ListeIds> postings = new HashMap<>();
+
+    private final Set<Integer> perimes = new HashSet<>();
+
+    private boolean charge = false;
+
+    /**
+     * Génération incrémentée à chaque mise à jour : des éléments relus pendant une
+     * mise à jour concurrente ne remplacent pas la version indexée ou marquée périmée
+     */
+    private long generation = 0;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    // ========== CONSTRUCTEUR ==========
+
+    /**
+     * @param nom Nom de l'index (affiché dans les statistiques)
+     * @param champs Fonction donnant les textes indexés d'un élément
+     * @param identifiant Fonction donnant l'identifiant d'un élément
+     * @param copie Fonction de copie des éléments
+     * @param ordre Ordre des résultats de même rang
+     */
+    public IndexTrigrammes(String nom, Function<T, String[]> champs, ToIntFunction<T> identifiant,
+                           UnaryOperator<T> copie, Comparator<T> ordre) {
+        this.nom = nom;
+        this.champs = champs;
+        this.identifiant = identifiant;
+        this.copie = copie;
+        this.ordre = ordre;
+    }
+
+    // ========== CHARGEMENT ==========
+
+    /**
+     * Construit l'index s'il ne l'est pas encore.
+     * @param chargementComplet Chargement de tous les éléments à indexer (null en cas d'échec)
+     * @return true si l'index est chargé et peut répondre aux recherches
+     */
+    public boolean chargerSiNecessaire(Supplier<? extends Collection<T>> chargementComplet) {
+        verrou.readLock().lock();
+        try {
+            if (charge) {
+                return true;
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+        verrou.writeLock().lock();
+        try {
+            if (!charge) {
+                Collection<T> charges = chargementComplet.get();
+                if (charges == null) {
+                    return false;
+                }
+                List<T> elements = new ArrayList<>(charges);
+                // Identifiants croissants : les listes de postings sont remplies par ajout en fin
+                elements.sort(Comparator.comparingInt(identifiant));
+                for (T element : elements) {
+                    indexerSansVerrou(element);
+                }
+                perimes.clear();
+                charge = true;
+            }
+            return true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // ========== MISES À JOUR ==========
+
+    /**
+     * Indexe un élément ou remplace sa version précédente.
+     * Sans effet tant que l'index n'est pas chargé.
+     * @param element L'élément à indexer
+     */
+    public void indexer(T element) {
+        verrou.writeLock().lock();
+        try {
+            if (charge) {
+                int id = identifiant.applyAsInt(element);
+                retirerSansVerrou(id);
+                indexerSansVerrou(element);
+                perimes.remove(id);
+                generation++;
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Signale qu'un élément a été modifié en base : il sera relu s'il apparaît dans un résultat.
+     * @param id L'identifiant de l'élément modifié
+     */
+    public void marquerPerime(int id) {
+        verrou.writeLock().lock();
+        try {
+            if (charge) {
+                perimes.add(id);
+                generation++;
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // ========== RECHERCHE ==========
+
+    /**
+     * Recherche les éléments dont un champ contient le critère (sans tenir compte de la casse
+     * ni des accents), classés par pertinence.
+     *
+     * @param critere Le texte recherché
+     * @param rechargement Relecture des éléments périmés présents dans le résultat
+     * @return Copies des éléments trouvés, classées
+     */
+    public List<T> rechercher(String critere, Function<Collection<Integer>, List<T>> rechargement) {
+        return rechercher(critere, Integer.MAX_VALUE, rechargement);
+    }
+
+    /**
+     * Recherche les éléments dont un champ contient le critère et renvoie les plus pertinents.
+     * Seuls les résultats renvoyés sont triés et copiés : pour un critère peu sélectif,
+     * c'est l'essentiel du coût d'une recherche.
+     *
+     * @param critere Le texte recherché
+     * @param limite Nombre maximum de résultats (aucun résultat si elle n'est pas positive)
+     * @param rechargement Relecture des éléments périmés présents dans le résultat, appelée sans
+     *                     verrou (l'index reste disponible aux autres recherches pendant la lecture)
+     * @return Copies des éléments trouvés, classées
+     */
+    public List<T> rechercher(String critere, int limite, Function<Collection<Integer>, List<T>> rechargement) {
+        if (limite <= 0) {
+            return new ArrayList<>();
+        }
+        String recherche = normaliser(critere);
+        for (int tentative = 1; ; tentative++) {
+            List<Integer> aRelire = new ArrayList<>();
+            long generationLecture;
+            verrou.readLock().lock();
+            try {
+                ListeIds ids = rechercherIds(recherche);
+                for (int i = 0; i < ids.taille() && !perimes.isEmpty(); i++) {
+                    if (perimes.contains(ids.get(i))) {
+                        aRelire.add(ids.get(i));
+                    }
+                }
+                if (aRelire.isEmpty() || tentative > MAX_RELECTURES) {
+                    // Mises à jour incessantes : réponse avec les versions indexées, relues à la prochaine recherche
+                    return classer(ids, recherche, limite);
+                }
+                generationLecture = generation;
+            } finally {
+                verrou.readLock().unlock();
+            }
+
+            List<T> relus = rechargement.apply(aRelire);
+
+            verrou.writeLock().lock();
+            try {
+                // Mise à jour pendant la relecture : les éléments relus sont peut-être déjà dépassés
+                if (generation == generationLecture) {
+                    for (Integer id : aRelire) {
+                        perimes.remove(id);
+                        retirerSansVerrou(id);
+                    }
+                    for (T element : relus) {
+                        retirerSansVerrou(identifiant.applyAsInt(element));
+                        indexerSansVerrou(element);
+                    }
+                    return classer(rechercherIds(recherche), recherche, limite);
+                }
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Identifiants des documents contenant la chaîne normalisée (verrou détenu).
+     */
+    private ListeIds rechercherIds(String recherche) {
+        ListeIds resultat = new ListeIds();
+        if (recherche.length() < 3) {
+            // Critère trop court pour un trigramme : parcours des documents en mémoire
+            for (int id = 0; id < documents.length; id++) {
+                if (documents[id] != null && documents[id].texte.contains(recherche)) {
+                    resultat.ajouter(id);
+                }
+            }
+            return resultat;
+        }
+
+        Set<Long> trigrammes = trigrammes(recherche);
+        List<ListeIds> listes = new ArrayList<>(trigrammes.size());
+        for (Long trigramme : trigrammes) {
+            ListeIds liste = postings.get(trigramme);
+            if (liste == null) {
+                return resultat;
+            }
+            listes.add(liste);
+        }
+        // Parcours de la liste la plus courte ; les autres avancent avec elle (identifiants croissants)
+        listes.sort(Comparator.comparingInt(ListeIds::taille));
+        ListeIds plusCourte = listes.get(0);
+        int[] curseurs = new int[listes.size()];
+        parcours:
+        for (int i = 0; i < plusCourte.taille(); i++) {
+            int id = plusCourte.get(i);
+            for (int j = 1; j < listes.size(); j++) {
+                ListeIds liste = listes.get(j);
+                curseurs[j] = liste.chercherDepuis(curseurs[j], id);
+                if (curseurs[j] == liste.taille()) {
+                    break parcours;
+                }
+                if (liste.get(curseurs[j]) != id) {
+                    continue parcours;
+                }
+            }
+            // Les trigrammes peuvent être présents sans être consécutifs : vérification de la sous-chaîne
+            if (documents[id].texte.contains(recherche)) {
+                resultat.ajouter(id);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Classe les documents trouvés et renvoie une copie des plus pertinents (verrou détenu).
+     */
+    private List<T> classer(ListeIds ids, String recherche, int limite) {
+        String debutMot = " " + recherche;
+        List<Resultat<T>> trouves = new ArrayList<>(ids.taille());
+        for (int i = 0; i < ids.taille(); i++) {
+            Document<T> document = documents[ids.get(i)];
+            trouves.add(new Resultat<>(document.rang(recherche, debutMot), document.element));
+        }
+        Comparator<Resultat<T>> pertinence = Comparator.<Resultat<T>>comparingInt(trouve -> trouve.rang)
+                .thenComparing(trouve -> trouve.element, ordre);
+
+        List<Resultat<T>> retenus;
+        if (trouves.size() <= limite) {
+            trouves.sort(pertinence);
+            retenus = trouves;
+        } else {
+            // Tas borné : seuls les « limite » meilleurs résultats sont conservés puis triés
+            PriorityQueue<Resultat<T>> meilleurs = new PriorityQueue<>(limite, pertinence.reversed());
+            for (Resultat<T> trouve : trouves) {
+                if (meilleurs.size() < limite) {
+                    meilleurs.add(trouve);
+                } else if (pertinence.compare(trouve, meilleurs.peek()) < 0) {
+                    meilleurs.poll();
+                    meilleurs.add(trouve);
+                }
+            }
+            retenus = new ArrayList<>(meilleurs);
+            retenus.sort(pertinence);
+        }
+
+        List<T> resultat = new ArrayList<>(retenus.size());
+        for (Resultat<T> trouve : retenus) {
+            resultat.add(copie.apply(trouve.element));
+        }
+        return resultat;
+    }
+
+    // ========== STATISTIQUES ==========
+
+    @Override
+    public String toString() {
+        verrou.readLock().lock();
+        try {
+            return "Index " + nom + " : " + (charge ? nombreDocuments + " documents, "
+                    + postings.size() + " trigrammes" : "non chargé");
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ========== MÉTHODES INTERNES ==========
+
+    private void indexerSansVerrou(T element) {
+        T copieElement = copie.apply(element);
+        int id = identifiant.applyAsInt(copieElement);
+        Document<T> document = new Document<>(copieElement, champs.apply(copieElement));
+        if (id >= documents.length) {
+            documents = Arrays.copyOf(documents, Math.max(id + 1, documents.length + (documents.length >> 1)));
+        }
+        if (documents[id] == null) {
+            nombreDocuments++;
+        }
+        documents[id] = document;
+        for (Long trigramme : trigrammes(document.texte)) {
+            postings.computeIfAbsent(trigramme, cle -> new ListeIds()).ajouter(id);
+        }
+    }
+
+    private void retirerSansVerrou(int id) {
+        Document<T> ancien = id >= 0 && id < documents.length ? documents[id] : null;
+        if (ancien == null) {
+            return;
+        }
+        documents[id] = null;
+        nombreDocuments--;
+        for (Long trigramme : trigrammes(ancien.texte)) {
+            ListeIds liste = postings.get(trigramme);
+            if (liste != null) {
+                liste.retirer(id);
+                if (liste.estVide()) {
+                    postings.remove(trigramme);
+                }
+            }
+        }
+    }
+
+    /**
+     * Trigrammes distincts d'un texte normalisé, hors ceux qui chevauchent deux champs.
+     */
+    private static Set<Long> trigrammes(String texte) {
+        Set<Long> trigrammes = new HashSet<>();
+        for (int i = 0; i + 3 <= texte.length(); i++) {
+            char a = texte.charAt(i), b = texte.charAt(i + 1), c = texte.charAt(i + 2);
+            if (a != SEPARATEUR && b != SEPARATEUR && c != SEPARATEUR) {
+                trigrammes.add(cle(a, b, c));
+            }
+        }
+        return trigrammes;
+    }
+
+    /**
+     * Clé d'un trigramme : les trois caractères regroupés dans un long puis mélangés par une
+     * multiplication (bijective), pour que Long.hashCode répartisse bien les clés dans la table.
+     */
+    private static long cle(char a, char b, char c) {
+        return (((long) a << 32) | ((long) b << 16) | c) * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Met un texte en minuscules et retire les accents.
+     * @param texte Le texte à normaliser (null accepté)
+     * @return Le texte normalisé
+     */
+    static String normaliser(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        if (estAscii(texte)) {
+            return texte.toLowerCase(Locale.ROOT).replace(SEPARATEUR, ' ');
+        }
+        String decompose = Normalizer.normalize(texte, Normalizer.Form.NFD);
+        return DIACRITIQUES.matcher(decompose).replaceAll("").toLowerCase(Locale.ROOT)
+                .replace(SEPARATEUR, ' ');
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Document<T>[] nouveauTableau(int taille) {
+        return (Document<T>[]) new Document<?>[taille];
+    }
+
+    private static boolean estAscii(String texte) {
+        for (int i = 0; i < texte.length(); i++) {
+            if (texte.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Élément trouvé, avec son rang de pertinence.
+     */
+    private static final class Resultat<T> {
+        private final int rang;
+        private final T element;
+
+        private Resultat(int rang, T element) {
+            this.rang = rang;
+            this.element = element;
+        }
+    }
+
+    /**
+     * Élément indexé avec le texte normalisé de ses champs.
+     */
+    private static final class Document<T> {
+        private final T element;
+        private final String[] champs;
+        private final String texte;
+
+        private Document(T element, String[] champsBruts) {
+            this.element = element;
+            this.champs = new String[champsBruts.length];
+            for (int i = 0; i < champsBruts.length; i++) {
+                this.champs[i] = normaliser(champsBruts[i]);
+            }
+            this.texte = String.join(String.valueOf(SEPARATEUR), this.champs);
+        }
+
+        /**
+         * Rang de pertinence du document pour le critère (0 = le plus pertinent).
+         */
+        private int rang(String recherche, String debutMot) {
+            int rang = 3;
+            for (String champ : champs) {
+                if (champ.equals(recherche)) {
+                    return 0;
+                }
+                if (champ.startsWith(recherche)) {
+                    rang = Math.min(rang, 1);
+                } else if (champ.contains(debutMot)) {
+                    rang = Math.min(rang, 2);
+                }
+            }
+            return rang;
+        }
+    }
+}
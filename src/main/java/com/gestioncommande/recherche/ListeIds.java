@@ -0,0 +1,90 @@
+package com.gestioncommande.recherche;
+
+import java.util.Arrays;
+
+/**
+ * Liste triée d'identifiants entiers, stockée dans un tableau de int.
+ * Sert de liste de postings pour l'index de trigrammes : bien plus compacte qu'un Set<Integer>,
+ * avec ajout en fin de tableau lorsque les identifiants arrivent dans l'ordre croissant.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+final class ListeIds {
+
+    private int[] ids = new int[4];
+    private int taille = 0;
+
+    /**
+     * Ajoute un identifiant (sans effet s'il est déjà présent).
+     * @param id L'identifiant à ajouter
+     */
+    void ajouter(int id) {
+        if (taille > 0 && ids[taille - 1] < id) {
+            agrandirSiNecessaire();
+            ids[taille++] = id;
+            return;
+        }
+        int position = Arrays.binarySearch(ids, 0, taille, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertion = -position - 1;
+        agrandirSiNecessaire();
+        System.arraycopy(ids, insertion, ids, insertion + 1, taille - insertion);
+        ids[insertion] = id;
+        taille++;
+    }
+
+    /**
+     * Retire un identifiant s'il est présent.
+     * @param id L'identifiant à retirer
+     */
+    void retirer(int id) {
+        int position = Arrays.binarySearch(ids, 0, taille, id);
+        if (position >= 0) {
+            System.arraycopy(ids, position + 1, ids, position, taille - position - 1);
+            taille--;
+        }
+    }
+
+    /**
+     * Position du premier identifiant supérieur ou égal à id, en partant de debut.
+     * Recherche exponentielle puis dichotomique : parcourir une liste par appels successifs
+     * avec des identifiants croissants reste proportionnel à la plus petite des deux listes.
+     *
+     * @param debut Position de départ de la recherche
+     * @param id L'identifiant cherché
+     * @return La position trouvée, ou taille() si tous les identifiants sont inférieurs
+     */
+    int chercherDepuis(int debut, int id) {
+        int pas = 1;
+        int borne = debut;
+        while (borne < taille && ids[borne] < id) {
+            debut = borne + 1;
+            borne += pas;
+            pas <<= 1;
+        }
+        int position = Arrays.binarySearch(ids, debut, Math.min(borne + 1, taille), id);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    int taille() {
+        return taille;
+    }
+
+    boolean estVide() {
+        return taille == 0;
+    }
+
+    private void agrandirSiNecessaire() {
+        if (taille == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.gestioncommande.service;
 
 import com.gestioncommande.dao.ArticleDAO;
+import com.gestioncommande.dao.ResultatMiseAJour;
 import com.gestioncommande.entities.Article;
 
 import java.math.BigDecimal;
@@ -126,7 +127,7 @@ public class ArticleService {
         int id = scanner.nextInt();
         scanner.nextLine();
         
-        Article article = articleDAO.trouverParId(id);
+        Article article = articleDAO.trouverParIdSansCache(id);
         if (article == null) {
             System.out.println("Article non trouvé !");
             return;
@@ -165,10 +166,25 @@ public class ArticleService {
         String description = scanner.nextLine();
         if (!description.isEmpty()) article.setDescription(description);
         
-        if (articleDAO.modifier(article)) {
-            System.out.println("Article modifié avec succès !");
-        } else {
-            System.out.println("Erreur lors de la modification de l'article !");
+        ResultatMiseAJour resultat = articleDAO.modifier(article);
+        switch (resultat) {
+            case MODIFIEE:
+                System.out.println("Article modifié avec succès !");
+                break;
+            case CONFLIT:
+                // Modifié par un autre utilisateur ou par une commande pendant la saisie
+                System.out.println("L'article a été modifié entre-temps : rien n'a été enregistré, "
+                        + "relisez-le et recommencez !");
+                break;
+            case INTROUVABLE:
+                System.out.println("Article non trouvé !");
+                break;
+            case STOCK_RESERVE:
+                System.out.println("Le stock ne peut pas être inférieur à la quantité réservée par les commandes "
+                        + "en cours : rien n'a été enregistré !");
+                break;
+            default:
+                System.out.println("Erreur lors de la modification de l'article !");
         }
     }
 
@@ -182,7 +198,7 @@ public class ArticleService {
         int id = scanner.nextInt();
         scanner.nextLine();
         
-        Article article = articleDAO.trouverParId(id);
+        Article article = articleDAO.trouverParIdSansCache(id);
         if (article == null) {
             System.out.println("Article non trouvé !");
             return;
@@ -212,7 +228,7 @@ public class ArticleService {
         int id = scanner.nextInt();
         scanner.nextLine();
         
-        Article article = articleDAO.trouverParId(id);
+        Article article = articleDAO.trouverParIdSansCache(id);
         if (article == null) {
             System.out.println("Article non trouvé !");
             return;
@@ -231,13 +247,29 @@ public class ArticleService {
             return;
         }
         
-        if (articleDAO.modifierStock(id, nouveauStock)) {
-            System.out.println("Stock modifié avec succès !");
-            if (nouveauStock <= article.getStockMinimum()) {
-                System.out.println("ATTENTION : Stock faible détecté !");
-            }
-        } else {
-            System.out.println("Erreur lors de la modification du stock !");
+        ResultatMiseAJour resultat = articleDAO.modifierStock(article, nouveauStock);
+        switch (resultat) {
+            case MODIFIEE:
+                System.out.println("Stock modifié avec succès !");
+                if (nouveauStock <= article.getStockMinimum()) {
+                    System.out.println("ATTENTION : Stock faible détecté !");
+                }
+                break;
+            case CONFLIT:
+                // Une commande ou une autre saisie a changé le stock affiché : il n'est pas écrasé
+                Article actuel = articleDAO.trouverParIdSansCache(id);
+                System.out.println("Le stock a changé entre-temps" + (actuel != null ? " (" + actuel.getStock() + ")" : "")
+                        + " : rien n'a été enregistré, recommencez !");
+                break;
+            case INTROUVABLE:
+                System.out.println("Article non trouvé !");
+                break;
+            case STOCK_RESERVE:
+                System.out.println("Le stock ne peut pas être inférieur à la quantité réservée par les commandes "
+                        + "en cours : rien n'a été enregistré !");
+                break;
+            default:
+                System.out.println("Erreur lors de la modification du stock !");
         }
     }
 
@@ -386,18 +418,32 @@ public class ArticleService {
     }
 
     /**
-     * Vérifie et met à jour le stock après une commande
+     * Recherche des articles par désignation ou catégorie (pour utilisation par d'autres services)
+     * @param critere Le texte recherché
+     * @param limite Nombre maximum d'articles renvoyés
      */
-    public boolean verifierEtMettreAJourStock(int articleId, int quantite) {
-        Article article = articleDAO.trouverParId(articleId);
-        if (article == null || !article.isActif()) {
-            return false;
-        }
-        
-        if (article.getStock() >= quantite) {
-            return articleDAO.modifierStock(articleId, article.getStock() - quantite);
-        }
-        
-        return false;
+    public List<Article> rechercherArticles(String critere, int limite) {
+        return articleDAO.rechercher(critere, limite);
+    }
+
+    /**
+     * Réapprovisionne un article : ajoute la quantité à son stock (pour utilisation par d'autres services).
+     * Avec stock.regroupement.actif, l'ajout est seulement mis en attente (isReapprovisionnementDiffere) :
+     * il est écrit en base par la prochaine écriture groupée, et perdu en cas d'arrêt brutal avant.
+     * @param articleId L'identifiant de l'article
+     * @param quantite La quantité reçue (strictement positive)
+     * @return true si le stock a été augmenté ou l'ajout mis en attente, false si la quantité est
+     *         invalide ou l'article introuvable
+     */
+    public boolean reapprovisionner(int articleId, int quantite) {
+        return quantite > 0 && articleDAO.incrementerStock(articleId, quantite);
+    }
+
+    /**
+     * @return true si les réapprovisionnements sont mis en attente au lieu d'être écrits
+     *         immédiatement (stock.regroupement.actif)
+     */
+    public boolean isReapprovisionnementDiffere() {
+        return ArticleDAO.isReapprovisionnementDiffere();
     }
 }
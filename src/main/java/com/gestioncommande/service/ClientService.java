@@ -117,7 +117,7 @@ public class ClientService {
         int id = scanner.nextInt();
         scanner.nextLine();
         
-        Client client = clientDAO.trouverParId(id);
+        Client client = clientDAO.trouverParIdSansCache(id);
         if (client == null) {
             System.out.println("Client non trouvé !");
             return;
@@ -171,7 +171,7 @@ public class ClientService {
         int id = scanner.nextInt();
         scanner.nextLine();
         
-        Client client = clientDAO.trouverParId(id);
+        Client client = clientDAO.trouverParIdSansCache(id);
         if (client == null) {
             System.out.println("Client non trouvé !");
             return;
@@ -307,4 +307,13 @@ public class ClientService {
     public List<Client> obtenirClientsActifs() {
         return clientDAO.listerActifs();
     }
+
+    /**
+     * Recherche des clients par nom ou prénom (pour utilisation par d'autres services)
+     * @param critere Le texte recherché
+     * @param limite Nombre maximum de clients renvoyés
+     */
+    public List<Client> rechercherClients(String critere, int limite) {
+        return clientDAO.rechercher(critere, limite);
+    }
 }
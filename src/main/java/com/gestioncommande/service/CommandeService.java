@@ -1,12 +1,29 @@
 package com.gestioncommande.service;
 
+import com.gestioncommande.dao.ArticleDAO;
 import com.gestioncommande.dao.CommandeDAO;
+import com.gestioncommande.dao.CompteursStock;
+import com.gestioncommande.dao.CompteursStock.ResultatDecompte;
+import com.gestioncommande.dao.GestionnaireTransactions;
+import com.gestioncommande.dao.ReservationsStock;
 import com.gestioncommande.entities.Commande;
+import com.gestioncommande.entities.CommandeDetaillee;
 import com.gestioncommande.entities.Client;
 import com.gestioncommande.entities.Article;
+import com.gestioncommande.entities.StatistiquePeriode;
+import com.gestioncommande.entities.StatistiquesCommandes;
+import com.gestioncommande.mesures.EvenementCommande;
 
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.List;
 import java.util.Scanner;
 
@@ -14,13 +31,75 @@ import java.util.Scanner;
  * Service pour la gestion des commandes
  */
 public class CommandeService {
+
+    /**
+     * Résultat de la création d'une commande
+     */
+    public enum ResultatCreation {
+        CREEE,
+        CLIENT_INVALIDE,
+        ARTICLE_INVALIDE,
+        QUANTITE_INVALIDE,
+        STOCK_INSUFFISANT,
+        ERREUR
+    }
+
+    /**
+     * Résultat d'une validation de commande
+     */
+    public enum ResultatValidation {
+        VALIDEE,
+        INTROUVABLE,
+        DEJA_VALIDEE,
+        ANNULEE,
+        STOCK_INSUFFISANT,
+        ERREUR
+    }
+
+    /**
+     * Résultat d'une annulation de commande
+     */
+    public enum ResultatAnnulation {
+        ANNULEE,
+        INTROUVABLE,
+        DEJA_ANNULEE,
+        ERREUR
+    }
+
+    /**
+     * Résultat d'une modification de commande
+     */
+    public enum ResultatModification {
+        MODIFIEE,
+        INTROUVABLE,
+        /** Commande validée ou annulée : elle ne peut plus être modifiée */
+        NON_MODIFIABLE,
+        /** Commande modifiée entre sa lecture et l'enregistrement : rien n'a été écrit */
+        CONFLIT,
+        QUANTITE_INVALIDE,
+        STOCK_INSUFFISANT,
+        ERREUR
+    }
+
+    /** Nombre de commandes affichées par page dans les listes */
+    private static final int TAILLE_PAGE = 20;
+
+    /** Relectures du compteur de stock d'un article au cours d'une même validation (décompte en mémoire) */
+    private static final int MAX_RELECTURES_COMPTEUR = 3;
+
     private CommandeDAO commandeDAO;
+    private ArticleDAO articleDAO;
+    private ReservationsStock reservations;
+    private CompteursStock compteurs;
     private ClientService clientService;
     private ArticleService articleService;
     private Scanner scanner;
 
     public CommandeService() throws SQLException {
         this.commandeDAO = new CommandeDAO();
+        this.articleDAO = new ArticleDAO();
+        this.reservations = new ReservationsStock();
+        this.compteurs = new CompteursStock();
         this.clientService = new ClientService();
         this.articleService = new ArticleService();
         this.scanner = new Scanner(System.in);
@@ -44,7 +123,8 @@ public class CommandeService {
             System.out.println("8. Lister les commandes d'un client");
             System.out.println("9. Consulter une commande");
             System.out.println("10. Statistiques des commandes");
-            System.out.println("11. Retour au menu principal");
+            System.out.println("11. Exporter les commandes (CSV)");
+            System.out.println("12. Retour au menu principal");
             System.out.print("Choisissez une option : ");
             
             int choix = scanner.nextInt();
@@ -82,6 +162,9 @@ public class CommandeService {
                     afficherStatistiques();
                     break;
                 case 11:
+                    exporterCommandes();
+                    break;
+                case 12:
                     continuer = false;
                     break;
                 default:
@@ -166,16 +249,104 @@ public class CommandeService {
         String observations = scanner.nextLine();
         
         // Création de la commande
-        Commande commande = new Commande(clientId, articleId, quantite, article.getPrix());
+        Commande commande = new Commande();
+        commande.setClientId(clientId);
+        commande.setArticleId(articleId);
+        commande.setQuantite(quantite);
         commande.setObservations(observations);
-        commande.effectuer();
         
-        if (commandeDAO.ajouter(commande)) {
-            System.out.println("Commande effectuée avec succès ! ID : " + commande.getId());
-            System.out.println("Montant total : " + commande.getMontantTotal());
+        switch (effectuerCommande(commande)) {
+            case CREEE:
+                System.out.println("Commande effectuée avec succès ! ID : " + commande.getId());
+                System.out.println("Montant total : " + commande.getMontantTotal());
+                break;
+            case STOCK_INSUFFISANT:
+                System.out.println("Stock insuffisant !");
+                break;
+            case CLIENT_INVALIDE:
+                System.out.println("Client invalide ou inactif !");
+                break;
+            case ARTICLE_INVALIDE:
+                System.out.println("Article invalide ou inactif !");
+                break;
+            default:
+                System.out.println("Erreur lors de l'effectuation de la commande !");
+        }
+    }
+
+    /**
+     * Enregistre une nouvelle commande sans interaction avec l'utilisateur.
+     * Le client et l'article doivent être actifs et la quantité est réservée sur le stock
+     * disponible de l'article, dans la même transaction que l'insertion (voir ReservationsStock) ;
+     * le stock n'est décrémenté qu'à la validation. Le prix unitaire est celui de l'article.
+     * La création est signalée par un événement JFR EvenementCommande.
+     *
+     * @param commande La commande à créer : client, article, quantité et observations renseignés ;
+     *                 en cas de succès, son identifiant, son prix et son montant sont complétés
+     * @return Le résultat de la création
+     */
+    public ResultatCreation effectuerCommande(Commande commande) {
+        EvenementCommande evenement = new EvenementCommande();
+        evenement.begin();
+        ResultatCreation resultat = creerCommande(commande);
+        terminerEvenement(evenement, EvenementCommande.EFFECTUER, commande, resultat.name());
+        return resultat;
+    }
+
+    private ResultatCreation creerCommande(Commande commande) {
+        Client client = clientService.trouverClientParId(commande.getClientId());
+        if (client == null || !client.isActif()) {
+            return ResultatCreation.CLIENT_INVALIDE;
+        }
+        Article article = articleService.trouverArticleParId(commande.getArticleId());
+        if (article == null || !article.isActif()) {
+            return ResultatCreation.ARTICLE_INVALIDE;
+        }
+        if (commande.getQuantite() <= 0) {
+            return ResultatCreation.QUANTITE_INVALIDE;
+        }
+        // Refus immédiat, sans transaction, si même le stock total (en cache) ne suffit pas
+        if (commande.getQuantite() > article.getStock()) {
+            return ResultatCreation.STOCK_INSUFFISANT;
+        }
+
+        commande.setPrixUnitaire(article.getPrix());
+        commande.setDateCommande(new Date());
+        commande.effectuer();
+        try {
+            boolean reservee = enregistrerAvecReservation(commande);
+            if (!reservee && reservations.purgerExpirees(commande.getArticleId()) > 0) {
+                // Des réservations expirées bloquaient le stock : nouvel essai après leur libération
+                reservee = enregistrerAvecReservation(commande);
+            }
+            return reservee ? ResultatCreation.CREEE : ResultatCreation.STOCK_INSUFFISANT;
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de l'enregistrement de la commande : " + e.getMessage());
+            return ResultatCreation.ERREUR;
+        }
+    }
+
+    /**
+     * Réserve la quantité de la commande et l'enregistre dans une même transaction.
+     * @return false si le stock disponible est insuffisant (rien n'est enregistré)
+     */
+    private boolean enregistrerAvecReservation(Commande commande) throws SQLException {
+        boolean reservee = GestionnaireTransactions.executer(connection -> {
+            if (!reservations.reserver(connection, commande.getArticleId(), commande.getQuantite())) {
+                return false;
+            }
+            commande.setQuantiteReservee(commande.getQuantite());
+            if (!commandeDAO.ajouter(connection, commande)) {
+                throw new SQLException("La commande n'a pas été insérée");
+            }
+            return true;
+        });
+        if (reservee) {
+            reservations.signalerReservation(commande.getArticleId(), commande.getQuantite());
         } else {
-            System.out.println("Erreur lors de l'effectuation de la commande !");
+            commande.setQuantiteReservee(0);
         }
+        return reservee;
     }
 
     /**
@@ -204,13 +375,6 @@ public class CommandeService {
             return;
         }
         
-        // Vérifier le stock avant validation
-        Article article = articleService.trouverArticleParId(commande.getArticleId());
-        if (article == null || article.getStock() < commande.getQuantite()) {
-            System.out.println("Stock insuffisant pour valider cette commande !");
-            return;
-        }
-        
         System.out.println("Commande à valider :");
         System.out.println("Client : " + commande.getClientId());
         System.out.println("Article : " + commande.getArticleId());
@@ -221,18 +385,147 @@ public class CommandeService {
         String confirmation = scanner.nextLine();
         
         if ("oui".equalsIgnoreCase(confirmation)) {
-            if (commandeDAO.valider(id)) {
-                // Mettre à jour le stock
-                articleService.verifierEtMettreAJourStock(commande.getArticleId(), commande.getQuantite());
-                System.out.println("Commande validée avec succès !");
-            } else {
-                System.out.println("Erreur lors de la validation de la commande !");
+            switch (validerCommande(id)) {
+                case VALIDEE:
+                    System.out.println("Commande validée avec succès !");
+                    break;
+                case STOCK_INSUFFISANT:
+                    System.out.println("Stock insuffisant pour valider cette commande !");
+                    break;
+                case DEJA_VALIDEE:
+                    System.out.println("Cette commande est déjà validée !");
+                    break;
+                case ANNULEE:
+                    System.out.println("Cette commande est annulée et ne peut pas être validée !");
+                    break;
+                case INTROUVABLE:
+                    System.out.println("Commande non trouvée !");
+                    break;
+                default:
+                    System.out.println("Erreur lors de la validation de la commande !");
             }
         } else {
             System.out.println("Validation annulée.");
         }
     }
 
+    /**
+     * Valide une commande et décrémente le stock de l'article dans une même transaction.
+     * La ligne de la commande est verrouillée pendant la transaction, puis le stock est décrémenté
+     * par une requête conditionnelle qui consomme la réservation de la commande : si le stock
+     * disponible est insuffisant (réservation expirée, stock modifié...), rien n'est modifié.
+     * Avec le décompte en mémoire (voir CompteursStock), le stock est décompté par le compteur de
+     * l'article et la transaction n'enregistre que le mouvement, écrit plus tard dans articles.
+     * La transaction est rejouée en cas d'interblocage ou de dépassement du délai de verrou.
+     * La validation est signalée par un événement JFR EvenementCommande.
+     *
+     * @param id L'identifiant de la commande à valider
+     * @return Le résultat de la validation
+     */
+    public ResultatValidation validerCommande(int id) {
+        EvenementCommande evenement = new EvenementCommande();
+        evenement.begin();
+        Commande[] commandeVerrouillee = new Commande[1];
+        ResultatValidation resultat = validerCommande(id, commandeVerrouillee);
+        evenement.commandeId = id;
+        terminerEvenement(evenement, EvenementCommande.VALIDER, commandeVerrouillee[0], resultat.name());
+        return resultat;
+    }
+
+    /**
+     * Transaction de validation. Avec le décompte en mémoire, un compteur absent ou périmé est
+     * relu entre deux transactions (CompteursStock.preparer), jamais pendant : la transaction
+     * détient une connexion et le verrou de la commande.
+     * @param commandeVerrouillee Reçoit la commande lue sous verrou (null si elle n'existe pas)
+     */
+    private ResultatValidation validerCommande(int id, Commande[] commandeVerrouillee) {
+        // Vrai tant que la quantité de la tentative en cours est décomptée en mémoire
+        boolean[] decomptee = new boolean[1];
+        try {
+            ResultatValidation resultat = null;
+            for (int relectures = 0; resultat == null; relectures++) {
+                if (relectures > 0) {
+                    // Compteur de l'article absent ou périmé : relu hors transaction avant un nouvel essai
+                    if (relectures > MAX_RELECTURES_COMPTEUR) {
+                        System.err.println("Erreur lors de la validation de la commande : compteur de stock de l'article "
+                                + commandeVerrouillee[0].getArticleId() + " modifié à chaque relecture");
+                        return ResultatValidation.ERREUR;
+                    }
+                    if (!compteurs.preparer(commandeVerrouillee[0].getArticleId())) {
+                        return ResultatValidation.STOCK_INSUFFISANT;
+                    }
+                }
+                resultat = GestionnaireTransactions.executer(connection -> {
+                    // Tentative précédente annulée (interblocage) : son décompte est rendu
+                    restituerDecompte(commandeVerrouillee[0], decomptee);
+                    Commande commande = commandeDAO.trouverParIdPourMiseAJour(connection, id);
+                    commandeVerrouillee[0] = commande;
+                    if (commande == null) {
+                        return ResultatValidation.INTROUVABLE;
+                    }
+                    if (commande.isValidee()) {
+                        return ResultatValidation.DEJA_VALIDEE;
+                    }
+                    if (commande.isAnnulee()) {
+                        return ResultatValidation.ANNULEE;
+                    }
+                    if (compteurs.isActif()) {
+                        ResultatDecompte decompte = compteurs.decrementer(commande.getArticleId(),
+                                commande.getQuantite(), commande.getQuantiteReservee());
+                        if (decompte == ResultatDecompte.A_RELIRE) {
+                            // Rien n'a été écrit : la transaction est abandonnée le temps de la relecture
+                            connection.rollback();
+                            return null;
+                        }
+                        if (decompte == ResultatDecompte.STOCK_INSUFFISANT) {
+                            return ResultatValidation.STOCK_INSUFFISANT;
+                        }
+                        decomptee[0] = true;
+                        compteurs.journaliser(connection, id, commande.getArticleId(), commande.getQuantite(),
+                                commande.getQuantiteReservee());
+                    } else if (!articleDAO.decrementerStock(connection, commande.getArticleId(), commande.getQuantite(),
+                            commande.getQuantiteReservee())) {
+                        return ResultatValidation.STOCK_INSUFFISANT;
+                    }
+                    if (!commandeDAO.valider(connection, id)) {
+                        // Ne peut arriver que si la commande a changé malgré le verrou : tout annuler
+                        connection.rollback();
+                        return ResultatValidation.ERREUR;
+                    }
+                    return ResultatValidation.VALIDEE;
+                });
+            }
+            Commande commande = commandeVerrouillee[0];
+            if (resultat == ResultatValidation.VALIDEE) {
+                if (decomptee[0]) {
+                    compteurs.confirmer(commande.getArticleId(), id, commande.getQuantite(),
+                            commande.getQuantiteReservee());
+                } else {
+                    // Le stock a changé : l'article en cache est périmé depuis la validation de la transaction
+                    articleDAO.invaliderCache(commande.getArticleId());
+                }
+                reservations.signalerLiberation(commande.getArticleId(), commande.getQuantiteReservee());
+            } else {
+                restituerDecompte(commande, decomptee);
+            }
+            return resultat;
+        } catch (SQLException e) {
+            restituerDecompte(commandeVerrouillee[0], decomptee);
+            System.err.println("Erreur lors de la validation de la commande : " + e.getMessage());
+            return ResultatValidation.ERREUR;
+        }
+    }
+
+    /**
+     * Rend au compteur de l'article la quantité décomptée pour une transaction de validation qui n'a pas abouti
+     */
+    private void restituerDecompte(Commande commande, boolean[] decomptee) {
+        if (decomptee[0]) {
+            compteurs.restituer(commande.getArticleId(), commande.getQuantite());
+            decomptee[0] = false;
+        }
+    }
+
     /**
      * Annule une commande
      */
@@ -257,11 +550,122 @@ public class CommandeService {
         System.out.print("Raison de l'annulation : ");
         String raison = scanner.nextLine();
         
-        if (commandeDAO.annuler(id)) {
-            System.out.println("Commande annulée avec succès !");
-        } else {
-            System.out.println("Erreur lors de l'annulation de la commande !");
+        switch (annulerCommande(id)) {
+            case ANNULEE:
+                System.out.println("Commande annulée avec succès !");
+                break;
+            case DEJA_ANNULEE:
+                System.out.println("Cette commande est déjà annulée !");
+                break;
+            case INTROUVABLE:
+                System.out.println("Commande non trouvée !");
+                break;
+            default:
+                System.out.println("Erreur lors de l'annulation de la commande !");
+        }
+    }
+
+    /**
+     * Annule une commande sans interaction avec l'utilisateur, et rend à l'article le stock
+     * qu'elle réservait, dans une même transaction où la ligne de la commande est verrouillée.
+     * L'annulation est signalée par un événement JFR EvenementCommande.
+     *
+     * @param id L'identifiant de la commande à annuler
+     * @return Le résultat de l'annulation
+     */
+    public ResultatAnnulation annulerCommande(int id) {
+        EvenementCommande evenement = new EvenementCommande();
+        evenement.begin();
+        Commande[] commandeVerrouillee = new Commande[1];
+        ResultatAnnulation resultat;
+        try {
+            resultat = GestionnaireTransactions.executer(connection -> {
+                Commande commande = commandeDAO.trouverParIdPourMiseAJour(connection, id);
+                commandeVerrouillee[0] = commande;
+                if (commande == null) {
+                    return ResultatAnnulation.INTROUVABLE;
+                }
+                if (commande.isAnnulee()) {
+                    return ResultatAnnulation.DEJA_ANNULEE;
+                }
+                if (!commandeDAO.annuler(connection, id)) {
+                    return ResultatAnnulation.ERREUR;
+                }
+                if (commande.getQuantiteReservee() > 0) {
+                    reservations.liberer(connection, commande.getArticleId(), commande.getQuantiteReservee());
+                }
+                return ResultatAnnulation.ANNULEE;
+            });
+            if (resultat == ResultatAnnulation.ANNULEE) {
+                reservations.signalerLiberation(commandeVerrouillee[0].getArticleId(),
+                        commandeVerrouillee[0].getQuantiteReservee());
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de l'annulation de la commande : " + e.getMessage());
+            resultat = ResultatAnnulation.ERREUR;
+        }
+        evenement.commandeId = id;
+        terminerEvenement(evenement, EvenementCommande.ANNULER, commandeVerrouillee[0], resultat.name());
+        return resultat;
+    }
+
+    /**
+     * Quantité d'un article réservée par les commandes en cours (pour utilisation par d'autres services)
+     */
+    public int getQuantiteReservee(int articleId) {
+        return reservations.getQuantiteReservee(articleId);
+    }
+
+    /**
+     * Trouve une commande par ID (pour utilisation par d'autres services)
+     */
+    public Commande trouverCommandeParId(int id) {
+        return commandeDAO.trouverParId(id);
+    }
+
+    /**
+     * Liste une page de commandes, des plus récentes aux plus anciennes (pour utilisation par
+     * d'autres services). Un seul filtre est appliqué : le client s'il est indiqué, sinon le statut.
+     *
+     * @param clientId Le client dont on veut les commandes (0 pour tous)
+     * @param statut Le statut des commandes voulues (null pour tous)
+     * @param apres Dernière commande de la page précédente (null pour la première page)
+     * @param taillePage Nombre maximum de commandes renvoyées
+     */
+    public List<CommandeDetaillee> listerCommandes(int clientId, String statut, Commande apres, int taillePage) {
+        if (clientId > 0) {
+            return commandeDAO.listerPageParClient(clientId, apres, taillePage);
+        }
+        if (statut != null) {
+            return commandeDAO.listerPageParStatut(statut, apres, taillePage);
+        }
+        return commandeDAO.listerPage(apres, taillePage);
+    }
+
+    /**
+     * Termine l'événement JFR d'une transition de commande et l'enregistre si un enregistrement
+     * JFR est en cours (sans enregistrement, rien n'est renseigné).
+     *
+     * @param evenement L'événement démarré avant la transition
+     * @param transition EvenementCommande.EFFECTUER, VALIDER ou ANNULER
+     * @param commande La commande concernée (null si elle n'a pas été trouvée)
+     * @param resultat Le résultat de la transition
+     */
+    private static void terminerEvenement(EvenementCommande evenement, String transition, Commande commande, String resultat) {
+        evenement.end();
+        if (!evenement.shouldCommit()) {
+            return;
+        }
+        evenement.transition = transition;
+        evenement.resultat = resultat;
+        if (commande != null) {
+            evenement.commandeId = commande.getId();
+            evenement.clientId = commande.getClientId();
+            evenement.articleId = commande.getArticleId();
+            evenement.quantite = commande.getQuantite();
+            evenement.montant = commande.getMontantTotal() != null ? commande.getMontantTotal().doubleValue() : 0.0;
         }
+        evenement.commit();
     }
 
     /**
@@ -303,38 +707,141 @@ public class CommandeService {
             commande.setObservations(observations);
         }
         
-        if (commandeDAO.modifier(commande)) {
-            System.out.println("Commande modifiée avec succès !");
-        } else {
-            System.out.println("Erreur lors de la modification de la commande !");
+        switch (modifierCommande(commande)) {
+            case MODIFIEE:
+                System.out.println("Commande modifiée avec succès !");
+                break;
+            case CONFLIT:
+            case NON_MODIFIABLE:
+                // Validée, annulée ou modifiée par un autre utilisateur pendant la saisie
+                System.out.println("La commande a été modifiée entre-temps : rien n'a été enregistré, "
+                        + "relisez-la et recommencez !");
+                break;
+            case STOCK_INSUFFISANT:
+                System.out.println("Stock disponible insuffisant pour la nouvelle quantité : rien n'a été enregistré !");
+                break;
+            case INTROUVABLE:
+                System.out.println("Commande non trouvée !");
+                break;
+            default:
+                System.out.println("Erreur lors de la modification de la commande !");
         }
     }
 
+    /**
+     * Modifie une commande en cours sans interaction avec l'utilisateur, si elle n'a pas changé
+     * depuis sa lecture (même version). Sa réservation suit la nouvelle quantité, dans la même
+     * transaction que la mise à jour, où la ligne de la commande est verrouillée : une hausse est
+     * réservée sur le stock disponible de l'article (refusée s'il ne suffit pas), une baisse est
+     * rendue à l'article ; un changement d'article réserve la quantité sur le nouveau et libère
+     * l'ancien. Une commande dont la réservation a expiré reste sans réservation.
+     *
+     * @param commande La commande telle qu'elle a été lue, avec les nouvelles valeurs ;
+     *                 en cas de succès, sa quantité réservée et sa version sont mises à jour
+     * @return Le résultat de la modification
+     */
+    public ResultatModification modifierCommande(Commande commande) {
+        if (commande.getQuantite() <= 0) {
+            return ResultatModification.QUANTITE_INVALIDE;
+        }
+        // Quantités réservée sur le nouvel article et libérée sur l'ancien par la transaction
+        int[] mouvements = new int[2];
+        Commande[] commandeVerrouillee = new Commande[1];
+        try {
+            ResultatModification resultat = enregistrerModification(commande, mouvements, commandeVerrouillee);
+            if (resultat == ResultatModification.STOCK_INSUFFISANT
+                    && reservations.purgerExpirees(commande.getArticleId()) > 0) {
+                // Des réservations expirées bloquaient le stock : nouvel essai après leur libération
+                resultat = enregistrerModification(commande, mouvements, commandeVerrouillee);
+            }
+            if (resultat == ResultatModification.MODIFIEE) {
+                commande.setVersion(commande.getVersion() + 1);
+                reservations.signalerReservation(commande.getArticleId(), mouvements[0]);
+                reservations.signalerLiberation(commandeVerrouillee[0].getArticleId(), mouvements[1]);
+            }
+            return resultat;
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la modification de la commande : " + e.getMessage());
+            return ResultatModification.ERREUR;
+        }
+    }
+
+    /**
+     * Ajuste la réservation de la commande et l'enregistre dans une même transaction.
+     * @param mouvements Reçoit la quantité réservée sur le nouvel article et celle libérée sur l'ancien
+     * @param commandeVerrouillee Reçoit la commande lue sous verrou
+     */
+    private ResultatModification enregistrerModification(Commande commande, int[] mouvements,
+                                                         Commande[] commandeVerrouillee) throws SQLException {
+        return GestionnaireTransactions.executer(connection -> {
+            mouvements[0] = 0;
+            mouvements[1] = 0;
+            Commande actuelle = commandeDAO.trouverParIdPourMiseAJour(connection, commande.getId());
+            commandeVerrouillee[0] = actuelle;
+            if (actuelle == null) {
+                return ResultatModification.INTROUVABLE;
+            }
+            if (actuelle.getVersion() != commande.getVersion()) {
+                return ResultatModification.CONFLIT;
+            }
+            if (!actuelle.isEnCours()) {
+                return ResultatModification.NON_MODIFIABLE;
+            }
+
+            int ancienneReserve = actuelle.getQuantiteReservee();
+            int nouvelleReserve = ancienneReserve > 0 ? commande.getQuantite() : 0;
+            boolean memeArticle = actuelle.getArticleId() == commande.getArticleId();
+            int aReserver = memeArticle ? nouvelleReserve - ancienneReserve : nouvelleReserve;
+            int aLiberer = memeArticle ? ancienneReserve - nouvelleReserve : ancienneReserve;
+            // Réservation d'abord : refusée, elle n'a rien écrit et rien n'est à annuler
+            if (aReserver > 0 && !reservations.reserver(connection, commande.getArticleId(), aReserver)) {
+                return ResultatModification.STOCK_INSUFFISANT;
+            }
+            if (aLiberer > 0) {
+                reservations.liberer(connection, actuelle.getArticleId(), aLiberer);
+            }
+            commande.setQuantiteReservee(nouvelleReserve);
+            if (!commandeDAO.modifier(connection, commande)) {
+                // Ne peut arriver que si la commande a changé malgré le verrou : tout annuler
+                throw new SQLException("La commande n'a pas été modifiée");
+            }
+            mouvements[0] = Math.max(aReserver, 0);
+            mouvements[1] = Math.max(aLiberer, 0);
+            return ResultatModification.MODIFIEE;
+        });
+    }
+
     /**
      * Liste toutes les commandes
      */
     private void listerToutesCommandes() {
         System.out.println("\n--- LISTE DE TOUTES LES COMMANDES ---");
         
-        List<Commande> commandes = commandeDAO.listerToutes();
+        List<CommandeDetaillee> commandes = commandeDAO.listerPage(null, TAILLE_PAGE);
         if (commandes.isEmpty()) {
             System.out.println("Aucune commande trouvée !");
-        } else {
-            System.out.printf("%-5s %-10s %-10s %-8s %-12s %-15s %-15s %-20s%n", 
-                            "ID", "CLIENT", "ARTICLE", "QTE", "MONTANT", "DATE", "TYPE", "STATUT");
-            System.out.println("-".repeat(100));
-            
-            for (Commande commande : commandes) {
-                System.out.printf("%-5d %-10d %-10d %-8d %-12s %-15s %-15s %-20s%n",
+            return;
+        }
+        System.out.printf("%-5s %-25s %-25s %-8s %-12s %-15s %-15s %-20s%n", 
+                        "ID", "CLIENT", "ARTICLE", "QTE", "MONTANT", "DATE", "TYPE", "STATUT");
+        System.out.println("-".repeat(130));
+        
+        while (!commandes.isEmpty()) {
+            for (CommandeDetaillee commande : commandes) {
+                System.out.printf("%-5d %-25s %-25s %-8d %-12s %-15s %-15s %-20s%n",
                                 commande.getId(),
-                                commande.getClientId(),
-                                commande.getArticleId(),
+                                tronquer(commande.getNomCompletClient(), 25),
+                                tronquer(commande.getLibelleArticle(), 25),
                                 commande.getQuantite(),
                                 commande.getMontantTotal(),
                                 commande.getDateCommande().toString().substring(0, 10),
                                 commande.getTypeCommande(),
                                 commande.getStatut());
             }
+            if (!demanderPageSuivante(commandes)) {
+                break;
+            }
+            commandes = commandeDAO.listerPage(commandes.get(commandes.size() - 1), TAILLE_PAGE);
         }
     }
 
@@ -344,23 +851,29 @@ public class CommandeService {
     private void listerCommandesEnAttente() {
         System.out.println("\n--- COMMANDES EN ATTENTE ---");
         
-        List<Commande> commandes = commandeDAO.listerParStatut("en_attente");
+        List<CommandeDetaillee> commandes = commandeDAO.listerPageParStatut("en_attente", null, TAILLE_PAGE);
         if (commandes.isEmpty()) {
             System.out.println("Aucune commande en attente !");
-        } else {
-            System.out.printf("%-5s %-10s %-10s %-8s %-12s %-15s%n", 
-                            "ID", "CLIENT", "ARTICLE", "QTE", "MONTANT", "DATE");
-            System.out.println("-".repeat(65));
-            
-            for (Commande commande : commandes) {
-                System.out.printf("%-5d %-10d %-10d %-8d %-12s %-15s%n",
+            return;
+        }
+        System.out.printf("%-5s %-25s %-25s %-8s %-12s %-15s%n", 
+                        "ID", "CLIENT", "ARTICLE", "QTE", "MONTANT", "DATE");
+        System.out.println("-".repeat(95));
+        
+        while (!commandes.isEmpty()) {
+            for (CommandeDetaillee commande : commandes) {
+                System.out.printf("%-5d %-25s %-25s %-8d %-12s %-15s%n",
                                 commande.getId(),
-                                commande.getClientId(),
-                                commande.getArticleId(),
+                                tronquer(commande.getNomCompletClient(), 25),
+                                tronquer(commande.getLibelleArticle(), 25),
                                 commande.getQuantite(),
                                 commande.getMontantTotal(),
                                 commande.getDateCommande().toString().substring(0, 10));
             }
+            if (!demanderPageSuivante(commandes)) {
+                break;
+            }
+            commandes = commandeDAO.listerPageParStatut("en_attente", commandes.get(commandes.size() - 1), TAILLE_PAGE);
         }
     }
 
@@ -370,26 +883,32 @@ public class CommandeService {
     private void listerCommandesValidees() {
         System.out.println("\n--- COMMANDES VALIDÉES ---");
         
-        List<Commande> commandes = commandeDAO.listerParStatut("traitee");
+        List<CommandeDetaillee> commandes = commandeDAO.listerPageParStatut("traitee", null, TAILLE_PAGE);
         if (commandes.isEmpty()) {
             System.out.println("Aucune commande validée !");
-        } else {
-            System.out.printf("%-5s %-10s %-10s %-8s %-12s %-15s %-20s%n", 
-                            "ID", "CLIENT", "ARTICLE", "QTE", "MONTANT", "DATE", "DATE VALIDATION");
-            System.out.println("-".repeat(85));
-            
-            for (Commande commande : commandes) {
+            return;
+        }
+        System.out.printf("%-5s %-25s %-25s %-8s %-12s %-15s %-20s%n", 
+                        "ID", "CLIENT", "ARTICLE", "QTE", "MONTANT", "DATE", "DATE VALIDATION");
+        System.out.println("-".repeat(115));
+        
+        while (!commandes.isEmpty()) {
+            for (CommandeDetaillee commande : commandes) {
                 String dateValidation = commande.getDateValidation() != null ? 
                                       commande.getDateValidation().toString().substring(0, 10) : "N/A";
-                System.out.printf("%-5d %-10d %-10d %-8d %-12s %-15s %-20s%n",
+                System.out.printf("%-5d %-25s %-25s %-8d %-12s %-15s %-20s%n",
                                 commande.getId(),
-                                commande.getClientId(),
-                                commande.getArticleId(),
+                                tronquer(commande.getNomCompletClient(), 25),
+                                tronquer(commande.getLibelleArticle(), 25),
                                 commande.getQuantite(),
                                 commande.getMontantTotal(),
                                 commande.getDateCommande().toString().substring(0, 10),
                                 dateValidation);
             }
+            if (!demanderPageSuivante(commandes)) {
+                break;
+            }
+            commandes = commandeDAO.listerPageParStatut("traitee", commandes.get(commandes.size() - 1), TAILLE_PAGE);
         }
     }
 
@@ -403,27 +922,58 @@ public class CommandeService {
         int clientId = scanner.nextInt();
         scanner.nextLine();
         
-        List<Commande> commandes = commandeDAO.listerParClient(clientId);
+        List<CommandeDetaillee> commandes = commandeDAO.listerPageParClient(clientId, null, TAILLE_PAGE);
         if (commandes.isEmpty()) {
             System.out.println("Aucune commande trouvée pour ce client !");
-        } else {
-            System.out.printf("%-5s %-10s %-8s %-12s %-15s %-15s %-20s%n", 
-                            "ID", "ARTICLE", "QTE", "MONTANT", "DATE", "TYPE", "STATUT");
-            System.out.println("-".repeat(85));
-            
-            for (Commande commande : commandes) {
-                System.out.printf("%-5d %-10d %-8d %-12s %-15s %-15s %-20s%n",
+            return;
+        }
+        System.out.println("Client : " + commandes.get(0).getNomCompletClient());
+        System.out.printf("%-5s %-25s %-8s %-12s %-15s %-15s %-20s%n", 
+                        "ID", "ARTICLE", "QTE", "MONTANT", "DATE", "TYPE", "STATUT");
+        System.out.println("-".repeat(100));
+        
+        while (!commandes.isEmpty()) {
+            for (CommandeDetaillee commande : commandes) {
+                System.out.printf("%-5d %-25s %-8d %-12s %-15s %-15s %-20s%n",
                                 commande.getId(),
-                                commande.getArticleId(),
+                                tronquer(commande.getLibelleArticle(), 25),
                                 commande.getQuantite(),
                                 commande.getMontantTotal(),
                                 commande.getDateCommande().toString().substring(0, 10),
                                 commande.getTypeCommande(),
                                 commande.getStatut());
             }
+            if (!demanderPageSuivante(commandes)) {
+                break;
+            }
+            commandes = commandeDAO.listerPageParClient(clientId, commandes.get(commandes.size() - 1), TAILLE_PAGE);
         }
     }
 
+    /**
+     * Demande à l'utilisateur s'il souhaite afficher la page suivante.
+     * Une page incomplète étant la dernière, la question n'est alors pas posée.
+     * @param page La page qui vient d'être affichée
+     * @return true pour afficher la page suivante
+     */
+    private boolean demanderPageSuivante(List<? extends Commande> page) {
+        if (page.size() < TAILLE_PAGE) {
+            return false;
+        }
+        System.out.print("Afficher la page suivante (oui/non) ? ");
+        return "oui".equalsIgnoreCase(scanner.nextLine().trim());
+    }
+
+    /**
+     * Raccourcit un texte pour qu'il tienne dans une colonne d'affichage.
+     * @param texte Le texte à afficher
+     * @param largeur La largeur de la colonne
+     * @return Le texte, tronqué si nécessaire
+     */
+    private String tronquer(String texte, int largeur) {
+        return texte.length() <= largeur ? texte : texte.substring(0, largeur - 1) + "…";
+    }
+
     /**
      * Consulte une commande spécifique
      */
@@ -444,20 +994,110 @@ public class CommandeService {
     }
 
     /**
-     * Affiche les statistiques des commandes
+     * Exporte toutes les commandes dans un fichier CSV choisi par l'utilisateur
+     */
+    private void exporterCommandes() {
+        System.out.println("\n--- EXPORT DES COMMANDES ---");
+        
+        System.out.print("Fichier CSV (commandes.csv par défaut) : ");
+        String fichier = scanner.nextLine().trim();
+        if (fichier.isEmpty()) {
+            fichier = "commandes.csv";
+        }
+        
+        try (PrintWriter sortie = new PrintWriter(Files.newBufferedWriter(Paths.get(fichier), StandardCharsets.UTF_8))) {
+            int nombre = exporterCommandes(sortie);
+            System.out.println(nombre + " commande(s) exportée(s) dans " + fichier);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'export des commandes : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Écrit toutes les commandes au format CSV (séparateur ;), des plus récentes aux plus anciennes.
+     * Les commandes sont lues en flux (CommandeDAO.parcourirToutes) et écrites au fil de la
+     * lecture : la mémoire utilisée ne dépend pas du nombre de commandes.
+     *
+     * @param sortie La destination ; elle n'est pas fermée
+     * @return Le nombre de commandes exportées
+     */
+    public int exporterCommandes(PrintWriter sortie) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        sortie.println("id;client;article;quantite;prix_unitaire;montant_total;date_commande;type_commande;statut");
+        return commandeDAO.parcourirToutes(commande -> sortie.println(String.join(";",
+                String.valueOf(commande.getId()),
+                champCsv(commande.getNomCompletClient()),
+                champCsv(commande.getLibelleArticle()),
+                String.valueOf(commande.getQuantite()),
+                String.valueOf(commande.getPrixUnitaire()),
+                String.valueOf(commande.getMontantTotal()),
+                commande.getDateCommande() == null ? "" : format.format(commande.getDateCommande()),
+                champCsv(commande.getTypeCommande()),
+                champCsv(commande.getStatut()))));
+    }
+
+    /**
+     * Champ CSV : entre guillemets (doublés à l'intérieur) s'il contient un séparateur, un guillemet ou un saut de ligne
+     */
+    private String champCsv(String valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        if (valeur.indexOf(';') < 0 && valeur.indexOf('"') < 0 && valeur.indexOf('\n') < 0 && valeur.indexOf('\r') < 0) {
+            return valeur;
+        }
+        return '"' + valeur.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Affiche les statistiques des commandes.
+     * Les comptages et montants sont agrégés par la base : aucune commande n'est chargée.
      */
     private void afficherStatistiques() {
         System.out.println("\n--- STATISTIQUES DES COMMANDES ---");
         
-        double montantTotal = commandeDAO.calculerMontantTotalCommandes();
-        System.out.println("Montant total des commandes validées : " + montantTotal + " €");
+        StatistiquesCommandes statistiques = commandeDAO.calculerStatistiques();
+        System.out.println("Montant total des commandes validées : " + statistiques.getMontantValide() + " €");
         
-        List<Commande> commandesEnAttente = commandeDAO.listerParStatut("en_attente");
-        List<Commande> commandesValidees = commandeDAO.listerParStatut("traitee");
-        List<Commande> commandesAnnulees = commandeDAO.listerParStatut("annulee");
+        System.out.println("Nombre de commandes en attente : " + statistiques.getNombreParStatut("en_attente"));
+        System.out.println("Nombre de commandes validées : " + statistiques.getNombreParStatut("traitee"));
+        System.out.println("Nombre de commandes annulées : " + statistiques.getNombreParStatut("annulee"));
         
-        System.out.println("Nombre de commandes en attente : " + commandesEnAttente.size());
-        System.out.println("Nombre de commandes validées : " + commandesValidees.size());
-        System.out.println("Nombre de commandes annulées : " + commandesAnnulees.size());
+        // Évolution sur les douze derniers mois (mois en cours inclus)
+        Calendar debut = Calendar.getInstance();
+        debut.set(Calendar.HOUR_OF_DAY, 0);
+        debut.set(Calendar.MINUTE, 0);
+        debut.set(Calendar.SECOND, 0);
+        debut.set(Calendar.MILLISECOND, 0);
+        Calendar debutJours = (Calendar) debut.clone();
+        debut.set(Calendar.DAY_OF_MONTH, 1);
+        debut.add(Calendar.MONTH, -11);
+        afficherPeriodes("Évolution mensuelle (12 derniers mois) :", "MOIS",
+                commandeDAO.statistiquesParMois(debut.getTime(), new Date()));
+        
+        // Détail des sept derniers jours (jour en cours inclus)
+        debutJours.add(Calendar.DAY_OF_MONTH, -6);
+        afficherPeriodes("Évolution quotidienne (7 derniers jours) :", "JOUR",
+                commandeDAO.statistiquesParJour(debutJours.getTime(), new Date()));
+    }
+
+    /**
+     * Affiche un tableau de statistiques par période (rien si la liste est vide)
+     */
+    private void afficherPeriodes(String titre, String colonnePeriode, List<StatistiquePeriode> periodes) {
+        if (periodes.isEmpty()) {
+            return;
+        }
+        System.out.println("\n" + titre);
+        System.out.printf("%-10s %-10s %-15s %-10s %-15s%n", colonnePeriode, "NOMBRE", "MONTANT", "VALIDÉES", "MONTANT VALIDÉ");
+        System.out.println("-".repeat(65));
+        for (StatistiquePeriode periode : periodes) {
+            System.out.printf("%-10s %-10d %-15s %-10d %-15s%n",
+                            periode.getPeriode(),
+                            periode.getNombre(),
+                            periode.getMontantTotal(),
+                            periode.getNombreValidees(),
+                            periode.getMontantValide());
+        }
     }
 }
@@ -0,0 +1,55 @@
+package com.gestioncommande;
+
+import java.util.Objects;
+
+/**
+ * Vérifications des classes de test (exécutées par scripts/tests.sh, sans framework de test).
+ * Chaque classe de test appelle ces méthodes depuis son main, puis termine par
+ * System.exit(Verifications.bilan(...)) : le code de sortie est 1 si une vérification a échoué.
+ *
+ * @author Système de Gestion de Commandes
+ * @version 1.0
+ * @since 2024
+ */
+public final class Verifications {
+
+    private static int reussies = 0;
+
+    private static int echouees = 0;
+
+    private Verifications() {}
+
+    /**
+     * Vérifie qu'une condition est vraie
+     * @param condition La condition attendue
+     * @param description Ce qui est vérifié, affiché en cas d'échec
+     */
+    public static void verifier(boolean condition, String description) {
+        if (condition) {
+            reussies++;
+        } else {
+            echouees++;
+            System.err.println("  ÉCHEC : " + description);
+        }
+    }
+
+    /**
+     * Vérifie que deux valeurs sont égales (au sens de equals)
+     * @param attendu La valeur attendue
+     * @param obtenu La valeur obtenue
+     * @param description Ce qui est vérifié, affiché en cas d'échec
+     */
+    public static void verifierEgal(Object attendu, Object obtenu, String description) {
+        verifier(Objects.equals(attendu, obtenu), description + " (attendu " + attendu + ", obtenu " + obtenu + ")");
+    }
+
+    /**
+     * Affiche le bilan des vérifications
+     * @param nom Le nom de la classe de test
+     * @return Le code de sortie : 0 si tout a réussi, 1 sinon
+     */
+    public static int bilan(String nom) {
+        System.out.printf("%s : %d vérification(s), %d échec(s)%n", nom, reussies + echouees, echouees);
+        return echouees == 0 ? 0 : 1;
+    }
+}
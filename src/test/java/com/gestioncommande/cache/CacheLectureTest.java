@@ -0,0 +1,150 @@
+package com.gestioncommande.cache;
+
+import static com.gestioncommande.Verifications.bilan;
+import static com.gestioncommande.Verifications.verifier;
+import static com.gestioncommande.Verifications.verifierEgal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Tests de CacheLecture : lecture traversante, copies, éviction, expiration et invalidation.
+ */
+public class CacheLectureTest {
+
+    public static void main(String[] args) {
+        lectureTraversante();
+        copieALaSortie();
+        valeurNullNonConservee();
+        evictionMoinsRecente();
+        expiration();
+        invalidation();
+        invalidationPendantChargement();
+        cacheDesactive();
+        System.exit(bilan("CacheLectureTest"));
+    }
+
+    /** Chargeur qui compte ses appels par clé */
+    private static final class Chargeur implements Function<Integer, StringBuilder> {
+        private final Map<Integer, Integer> appels = new HashMap<>();
+
+        @Override
+        public StringBuilder apply(Integer cle) {
+            appels.merge(cle, 1, Integer::sum);
+            return new StringBuilder("valeur " + cle);
+        }
+
+        int appels(int cle) {
+            return appels.getOrDefault(cle, 0);
+        }
+    }
+
+    private static CacheLecture<Integer, StringBuilder> cache(int tailleMax, long dureeVie) {
+        return new CacheLecture<>("test", tailleMax, dureeVie, StringBuilder::new);
+    }
+
+    // ========== TESTS ==========
+
+    private static void lectureTraversante() {
+        CacheLecture<Integer, StringBuilder> cache = cache(10, 60000L);
+        Chargeur chargeur = new Chargeur();
+
+        verifierEgal("valeur 1", cache.obtenir(1, chargeur).toString(), "première lecture chargée");
+        verifierEgal("valeur 1", cache.obtenir(1, chargeur).toString(), "deuxième lecture servie");
+        verifierEgal(1, chargeur.appels(1), "un seul chargement");
+        verifierEgal(1L, cache.getSucces(), "succès");
+        verifierEgal(1L, cache.getEchecs(), "échecs");
+        verifierEgal(1, cache.getTaille(), "taille");
+    }
+
+    private static void copieALaSortie() {
+        CacheLecture<Integer, StringBuilder> cache = cache(10, 60000L);
+        Chargeur chargeur = new Chargeur();
+
+        cache.obtenir(1, chargeur).append(" modifiée");
+        cache.obtenir(1, chargeur).append(" modifiée");
+        verifierEgal("valeur 1", cache.obtenir(1, chargeur).toString(), "le contenu du cache n'est pas modifié par l'appelant");
+    }
+
+    private static void valeurNullNonConservee() {
+        CacheLecture<Integer, StringBuilder> cache = cache(10, 60000L);
+        int[] appels = {0};
+
+        cache.obtenir(1, cle -> { appels[0]++; return null; });
+        verifier(cache.obtenir(1, cle -> { appels[0]++; return null; }) == null, "valeur absente");
+        verifierEgal(2, appels[0], "une valeur null est rechargée à chaque lecture");
+        verifierEgal(0, cache.getTaille(), "rien n'est conservé");
+    }
+
+    private static void evictionMoinsRecente() {
+        CacheLecture<Integer, StringBuilder> cache = cache(2, 60000L);
+        Chargeur chargeur = new Chargeur();
+
+        cache.obtenir(1, chargeur);
+        cache.obtenir(2, chargeur);
+        cache.obtenir(1, chargeur);
+        cache.obtenir(3, chargeur);
+
+        verifierEgal(2, cache.getTaille(), "taille bornée");
+        verifierEgal(1L, cache.getEvictions(), "une éviction");
+        cache.obtenir(1, chargeur);
+        verifierEgal(1, chargeur.appels(1), "l'entrée récemment lue est conservée");
+        cache.obtenir(2, chargeur);
+        verifierEgal(2, chargeur.appels(2), "l'entrée la moins récemment utilisée est évincée");
+    }
+
+    private static void expiration() {
+        CacheLecture<Integer, StringBuilder> cache = cache(10, 0L);
+        Chargeur chargeur = new Chargeur();
+
+        cache.obtenir(1, chargeur);
+        cache.obtenir(1, chargeur);
+        verifierEgal(2, chargeur.appels(1), "une entrée expirée est rechargée");
+
+        cache.obtenir(2, chargeur);
+        verifierEgal(2, cache.purgerExpirees(), "purge des entrées expirées");
+        verifierEgal(0, cache.getTaille(), "cache vide après la purge");
+    }
+
+    private static void invalidation() {
+        CacheLecture<Integer, StringBuilder> cache = cache(10, 60000L);
+        Chargeur chargeur = new Chargeur();
+
+        cache.obtenir(1, chargeur);
+        cache.obtenir(2, chargeur);
+        cache.invalider(1);
+        cache.obtenir(1, chargeur);
+        cache.obtenir(2, chargeur);
+        verifierEgal(2, chargeur.appels(1), "la clé invalidée est rechargée");
+        verifierEgal(1, chargeur.appels(2), "les autres clés restent en cache");
+
+        cache.vider();
+        verifierEgal(0, cache.getTaille(), "cache vidé");
+    }
+
+    private static void invalidationPendantChargement() {
+        CacheLecture<Integer, StringBuilder> cache = cache(10, 60000L);
+        Chargeur chargeur = new Chargeur();
+
+        // La valeur lue avant une modification concurrente ne doit pas être conservée
+        cache.obtenir(1, cle -> {
+            StringBuilder ancienne = chargeur.apply(cle);
+            cache.invalider(cle);
+            return ancienne;
+        });
+        verifierEgal(0, cache.getTaille(), "valeur chargée pendant une invalidation non conservée");
+        cache.obtenir(1, chargeur);
+        verifierEgal(2, chargeur.appels(1), "la lecture suivante recharge la valeur");
+    }
+
+    private static void cacheDesactive() {
+        CacheLecture<Integer, StringBuilder> cache = cache(0, 60000L);
+        Chargeur chargeur = new Chargeur();
+
+        cache.obtenir(1, chargeur);
+        cache.obtenir(1, chargeur);
+        verifierEgal(2, chargeur.appels(1), "taille 0 : chaque lecture est chargée");
+        verifierEgal(0, cache.getTaille(), "taille 0 : rien n'est conservé");
+    }
+}
@@ -0,0 +1,95 @@
+package com.gestioncommande.dao;
+
+import static com.gestioncommande.Verifications.bilan;
+import static com.gestioncommande.Verifications.verifierEgal;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+
+/**
+ * Tests de MappeurLignes : lecture par position, colonnes absentes et résolution des positions
+ * une seule fois par requête.
+ */
+public class MappeurLignesTest {
+
+    public static void main(String[] args) throws Exception {
+        lectureParPosition();
+        colonneAbsenteIgnoree();
+        resolutionUneFoisParRequete();
+        System.exit(bilan("MappeurLignesTest"));
+    }
+
+    /** Objet lu : deux colonnes */
+    private static final class Ligne {
+        private int id;
+        private String nom;
+    }
+
+    private static MappeurLignes<Ligne> mappeur() {
+        return new MappeurLignes<>(Ligne::new)
+                .colonne("id", (ligne, resultSet, i) -> ligne.id = resultSet.getInt(i))
+                .colonne("nom", (ligne, resultSet, i) -> ligne.nom = resultSet.getString(i));
+    }
+
+    /** Nombre d'appels à getMetaData des ResultSet de test */
+    private static int lecturesMetaDonnees = 0;
+
+    /**
+     * ResultSet d'une ligne : la valeur de chaque colonne est lue par position
+     */
+    private static ResultSet resultSet(String[] libelles, Object[] valeurs) {
+        ResultSetMetaData metaDonnees = (ResultSetMetaData) Proxy.newProxyInstance(
+                MappeurLignesTest.class.getClassLoader(), new Class<?>[] {ResultSetMetaData.class},
+                (proxy, methode, arguments) -> {
+                    switch (methode.getName()) {
+                        case "getColumnCount": return libelles.length;
+                        case "getColumnLabel": return libelles[(Integer) arguments[0] - 1];
+                        default: throw new UnsupportedOperationException(methode.getName());
+                    }
+                });
+        return (ResultSet) Proxy.newProxyInstance(
+                MappeurLignesTest.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, methode, arguments) -> {
+                    switch (methode.getName()) {
+                        case "getMetaData":
+                            lecturesMetaDonnees++;
+                            return metaDonnees;
+                        case "getInt":
+                        case "getString":
+                            return valeurs[(Integer) arguments[0] - 1];
+                        default: throw new UnsupportedOperationException(methode.getName());
+                    }
+                });
+    }
+
+    // ========== TESTS ==========
+
+    private static void lectureParPosition() throws Exception {
+        Ligne ligne = mappeur().lireLigne("lecture",
+                resultSet(new String[] {"NOM", "autre", "ID"}, new Object[] {"Souris", "x", 7}));
+        verifierEgal(7, ligne.id, "colonne lue à sa position, sans casse");
+        verifierEgal("Souris", ligne.nom, "seconde colonne");
+    }
+
+    private static void colonneAbsenteIgnoree() throws Exception {
+        Ligne ligne = mappeur().lireLigne("sans nom", resultSet(new String[] {"id"}, new Object[] {3}));
+        verifierEgal(3, ligne.id, "colonne présente lue");
+        verifierEgal(null, ligne.nom, "colonne absente ignorée");
+    }
+
+    private static void resolutionUneFoisParRequete() throws Exception {
+        MappeurLignes<Ligne> mappeur = mappeur();
+        lecturesMetaDonnees = 0;
+
+        for (int i = 1; i <= 3; i++) {
+            verifierEgal(i, mappeur.lireLigne("requete A",
+                    resultSet(new String[] {"id", "nom"}, new Object[] {i, "a"})).id, "lecture " + i + " de la requête A");
+        }
+        verifierEgal(1, lecturesMetaDonnees, "positions résolues à la première exécution seulement");
+
+        Ligne ligne = mappeur.lireLigne("requete B", resultSet(new String[] {"nom", "id"}, new Object[] {"b", 9}));
+        verifierEgal(9, ligne.id, "autre requête : positions propres");
+        verifierEgal(2, lecturesMetaDonnees, "une résolution par requête");
+    }
+}
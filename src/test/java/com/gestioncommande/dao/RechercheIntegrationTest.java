@@ -0,0 +1,82 @@
+package com.gestioncommande.dao;
+
+import static com.gestioncommande.Verifications.bilan;
+import static com.gestioncommande.Verifications.verifier;
+import static com.gestioncommande.Verifications.verifierEgal;
+
+import com.gestioncommande.entities.Article;
+import com.gestioncommande.entities.Client;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Tests d'intégration de la recherche des articles et des clients sur la base embarquée neuve :
+ * limite des résultats et relecture d'un grand nombre d'éléments périmés (plusieurs requêtes IN).
+ */
+public class RechercheIntegrationTest {
+
+    /** Articles ajoutés puis modifiés : plus d'un paquet de relecture (LecturesCatalogue) */
+    private static final int NOMBRE_ARTICLES = 1200;
+
+    private static ArticleDAO articleDAO;
+    private static ClientDAO clientDAO;
+
+    public static void main(String[] args) throws SQLException {
+        DatabaseConnection.initialiser();
+        articleDAO = new ArticleDAO();
+        clientDAO = new ClientDAO();
+
+        limite();
+        relectureDeNombreuxPerimes();
+
+        DatabaseConnection.closeConnection();
+        System.exit(bilan("RechercheIntegrationTest"));
+    }
+
+    // ========== TESTS ==========
+
+    private static void limite() {
+        verifier(!articleDAO.rechercher("a").isEmpty(), "articles trouvés sans limite");
+        verifierEgal(1, articleDAO.rechercher("a", 1).size(), "articles : limite 1");
+        verifier(articleDAO.rechercher("a", 0).isEmpty(), "articles : limite nulle");
+        verifier(articleDAO.rechercher("a", -1).isEmpty(), "articles : limite négative");
+
+        List<Client> clients = clientDAO.rechercher("a");
+        verifier(!clients.isEmpty(), "clients trouvés sans limite");
+        verifier(clientDAO.rechercher("a", 0).isEmpty(), "clients : limite nulle");
+        verifier(clientDAO.rechercher("a", -1).isEmpty(), "clients : limite négative");
+    }
+
+    private static void relectureDeNombreuxPerimes() {
+        for (int i = 1; i <= NOMBRE_ARTICLES; i++) {
+            verifierAjout(new Article("Gomme n°" + i, "Papeterie", new BigDecimal("0.50"), 10, 1, null));
+        }
+        verifierEgal(NOMBRE_ARTICLES, articleDAO.rechercher("gomme").size(), "articles ajoutés indexés");
+
+        // Saisie directe du stock : chaque article est périmé dans l'index et relu à la recherche
+        List<Article> gommes = articleDAO.rechercher("gomme");
+        boolean modifies = true;
+        for (Article gomme : gommes) {
+            modifies &= articleDAO.modifierStock(gomme.getId(), 25);
+        }
+        verifier(modifies, "stock modifié");
+
+        List<Article> relues = articleDAO.rechercher("gomme");
+        verifierEgal(NOMBRE_ARTICLES, relues.size(), "tous les articles périmés relus");
+        boolean aJour = true;
+        for (Article gomme : relues) {
+            aJour &= gomme.getStock() == 25;
+        }
+        verifier(aJour, "version relue renvoyée pour chaque article");
+    }
+
+    // ========== OUTILS ==========
+
+    private static void verifierAjout(Article article) {
+        if (!articleDAO.ajouter(article)) {
+            verifier(false, "ajout de " + article.getDesignation());
+        }
+    }
+}
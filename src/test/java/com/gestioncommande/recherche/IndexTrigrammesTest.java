@@ -0,0 +1,244 @@
+package com.gestioncommande.recherche;
+
+import static com.gestioncommande.Verifications.bilan;
+import static com.gestioncommande.Verifications.verifier;
+import static com.gestioncommande.Verifications.verifierEgal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Tests de IndexTrigrammes : chargement, recherche sans casse ni accents, classement,
+ * limite, mises à jour et relecture des éléments périmés (hors verrou).
+ */
+public class IndexTrigrammesTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        chargement();
+        rechercheSansCasseNiAccents();
+        critereCourt();
+        sousChaineExacte();
+        classement();
+        limite();
+        limiteNulleOuNegative();
+        indexation();
+        relecturePerimes();
+        relectureHorsVerrou();
+        miseAJourPendantRelecture();
+        copies();
+        System.exit(bilan("IndexTrigrammesTest"));
+    }
+
+    /** Élément indexé : un nom et une catégorie */
+    private static final class Element {
+        private final int id;
+        private String nom;
+        private final String categorie;
+
+        private Element(int id, String nom, String categorie) {
+            this.id = id;
+            this.nom = nom;
+            this.categorie = categorie;
+        }
+
+        private Element(Element autre) {
+            this(autre.id, autre.nom, autre.categorie);
+        }
+    }
+
+    /** Relecture qui ne trouve rien (aucun élément périmé attendu) */
+    private static final Function<Collection<Integer>, List<Element>> SANS_RELECTURE = ids -> Collections.emptyList();
+
+    private static IndexTrigrammes<Element> index(Element... elements) {
+        IndexTrigrammes<Element> index = new IndexTrigrammes<>("test",
+                element -> new String[] {element.nom, element.categorie},
+                element -> element.id, Element::new,
+                Comparator.comparing(element -> element.nom));
+        index.chargerSiNecessaire(() -> Arrays.asList(elements));
+        return index;
+    }
+
+    private static List<Integer> ids(List<Element> elements) {
+        List<Integer> ids = new ArrayList<>();
+        for (Element element : elements) {
+            ids.add(element.id);
+        }
+        return ids;
+    }
+
+    // ========== TESTS ==========
+
+    private static void chargement() {
+        IndexTrigrammes<Element> index = new IndexTrigrammes<>("test",
+                element -> new String[] {element.nom}, element -> element.id, Element::new,
+                Comparator.comparing(element -> element.nom));
+        int[] chargements = {0};
+
+        verifier(!index.chargerSiNecessaire(() -> null), "échec du chargement signalé");
+        verifier(index.chargerSiNecessaire(() -> {
+            chargements[0]++;
+            return Collections.singletonList(new Element(1, "Souris", "Informatique"));
+        }), "chargement réussi après un échec");
+        verifier(index.chargerSiNecessaire(() -> {
+            chargements[0]++;
+            return Collections.emptyList();
+        }), "index déjà chargé");
+        verifierEgal(1, chargements[0], "un seul chargement complet");
+        verifierEgal(Collections.singletonList(1), ids(index.rechercher("souris", SANS_RELECTURE)), "élément chargé trouvé");
+    }
+
+    private static void rechercheSansCasseNiAccents() {
+        IndexTrigrammes<Element> index = index(
+                new Element(1, "Écran 27 pouces", "Informatique"),
+                new Element(2, "Chaise de bureau", "Mobilier"));
+
+        verifierEgal(Collections.singletonList(1), ids(index.rechercher("ECRAN", SANS_RELECTURE)), "majuscules sans accent");
+        verifierEgal(Collections.singletonList(1), ids(index.rechercher("écran", SANS_RELECTURE)), "minuscules accentuées");
+        verifierEgal(Collections.singletonList(2), ids(index.rechercher("mobil", SANS_RELECTURE)), "second champ");
+        verifier(index.rechercher("tablette", SANS_RELECTURE).isEmpty(), "aucun résultat");
+    }
+
+    private static void critereCourt() {
+        IndexTrigrammes<Element> index = index(
+                new Element(1, "Écran 27 pouces", "Informatique"),
+                new Element(2, "Chaise de bureau", "Mobilier"));
+
+        verifierEgal(Collections.singletonList(1), ids(index.rechercher("27", SANS_RELECTURE)), "critère de deux caractères");
+        verifierEgal(Arrays.asList(1, 2), ids(index.rechercher("e", SANS_RELECTURE)), "critère d'un caractère (début de champ en premier)");
+    }
+
+    private static void sousChaineExacte() {
+        IndexTrigrammes<Element> index = index(
+                new Element(1, "abc bcd", "divers"),
+                new Element(2, "ab", "cd"));
+
+        verifier(index.rechercher("abcd", SANS_RELECTURE).isEmpty(), "trigrammes présents mais non consécutifs");
+        verifier(index.rechercher("b c", SANS_RELECTURE).isEmpty(), "pas de correspondance à cheval sur deux champs");
+    }
+
+    private static void classement() {
+        IndexTrigrammes<Element> index = index(
+                new Element(1, "superclavier", "Informatique"),
+                new Element(2, "mini clavier", "Informatique"),
+                new Element(3, "clavier mécanique", "Informatique"),
+                new Element(4, "clavier", "Informatique"),
+                new Element(5, "clavier azerty", "Informatique"));
+
+        verifierEgal(Arrays.asList(4, 5, 3, 2, 1), ids(index.rechercher("Clavier", SANS_RELECTURE)),
+                "égalité, début de champ (par nom), début de mot, inclusion");
+    }
+
+    private static void limite() {
+        List<Element> elements = new ArrayList<>();
+        for (int id = 1; id <= 50; id++) {
+            elements.add(new Element(id, String.format("article %02d", 51 - id), "divers"));
+        }
+        IndexTrigrammes<Element> index = index(elements.toArray(new Element[0]));
+
+        verifierEgal(50, index.rechercher("article", SANS_RELECTURE).size(), "sans limite");
+        verifierEgal(Arrays.asList(50, 49, 48), ids(index.rechercher("article", 3, SANS_RELECTURE)),
+                "les trois premiers dans l'ordre");
+    }
+
+    private static void limiteNulleOuNegative() {
+        IndexTrigrammes<Element> index = index(new Element(1, "Stylo", "Papeterie"));
+
+        verifier(index.rechercher("stylo", 0, SANS_RELECTURE).isEmpty(), "limite nulle : aucun résultat");
+        verifier(index.rechercher("stylo", -5, SANS_RELECTURE).isEmpty(), "limite négative : aucun résultat");
+    }
+
+    private static void indexation() {
+        IndexTrigrammes<Element> index = index(new Element(1, "Lampe de bureau", "Mobilier"));
+
+        index.indexer(new Element(1, "Lampe halogène", "Mobilier"));
+        index.indexer(new Element(2, "Lampe de chevet", "Mobilier"));
+        verifier(index.rechercher("bureau", SANS_RELECTURE).isEmpty(), "ancienne version retirée");
+        verifierEgal(Collections.singletonList(1), ids(index.rechercher("halogene", SANS_RELECTURE)), "nouvelle version indexée");
+        verifierEgal(Arrays.asList(2, 1), ids(index.rechercher("lampe", SANS_RELECTURE)), "nouvel élément indexé");
+    }
+
+    private static void relecturePerimes() {
+        IndexTrigrammes<Element> index = index(
+                new Element(1, "Stylo bleu", "Papeterie"),
+                new Element(2, "Stylo rouge", "Papeterie"),
+                new Element(3, "Cahier", "Papeterie"));
+        List<Collection<Integer>> relectures = new ArrayList<>();
+
+        index.marquerPerime(1);
+        index.marquerPerime(3);
+        List<Element> trouves = index.rechercher("stylo", ids -> {
+            relectures.add(new ArrayList<>(ids));
+            return Collections.singletonList(new Element(1, "Stylo vert", "Papeterie"));
+        });
+        verifierEgal(Collections.singletonList(Collections.singletonList(1)), relectures,
+                "seuls les éléments périmés du résultat sont relus");
+        verifierEgal(Arrays.asList(2, 1), ids(trouves), "résultat après relecture, classé par nom");
+        verifierEgal("Stylo vert", trouves.get(1).nom, "version relue renvoyée");
+        verifier(index.rechercher("bleu", SANS_RELECTURE).isEmpty(), "ancienne version retirée");
+
+        index.marquerPerime(2);
+        verifierEgal(Collections.singletonList(1), ids(index.rechercher("stylo", SANS_RELECTURE)),
+                "élément périmé introuvable en base retiré");
+        relectures.clear();
+        index.rechercher("cahier", ids -> {
+            relectures.add(new ArrayList<>(ids));
+            return Collections.emptyList();
+        });
+        verifierEgal(Collections.singletonList(Collections.singletonList(3)), relectures,
+                "élément encore périmé relu à sa première apparition");
+    }
+
+    private static void relectureHorsVerrou() throws InterruptedException {
+        IndexTrigrammes<Element> index = index(
+                new Element(1, "Règle 30 cm", "Papeterie"),
+                new Element(2, "Gomme", "Papeterie"));
+        AtomicReference<List<Element>> pendantRelecture = new AtomicReference<>();
+
+        index.marquerPerime(1);
+        List<Element> trouves = index.rechercher("regle", ids -> {
+            // Une recherche concurrente aboutit pendant la relecture (aucun verrou détenu)
+            Thread autre = new Thread(() -> pendantRelecture.set(index.rechercher("gomme", SANS_RELECTURE)));
+            autre.start();
+            try {
+                autre.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.singletonList(new Element(1, "Règle 20 cm", "Papeterie"));
+        });
+        verifier(pendantRelecture.get() != null, "recherche concurrente non bloquée par la relecture");
+        verifierEgal(Collections.singletonList(2), pendantRelecture.get() == null ? null : ids(pendantRelecture.get()),
+                "résultat de la recherche concurrente");
+        verifierEgal("Règle 20 cm", trouves.get(0).nom, "version relue renvoyée");
+    }
+
+    private static void miseAJourPendantRelecture() {
+        IndexTrigrammes<Element> index = index(new Element(1, "Classeur bleu", "Papeterie"));
+        int[] relectures = {0};
+
+        index.marquerPerime(1);
+        List<Element> trouves = index.rechercher("classeur", ids -> {
+            relectures[0]++;
+            // Écriture concurrente indexée pendant la relecture : la version relue est déjà dépassée
+            index.indexer(new Element(1, "Classeur vert", "Papeterie"));
+            return Collections.singletonList(new Element(1, "Classeur bleu", "Papeterie"));
+        });
+        verifierEgal(1, relectures[0], "une relecture, non reprise après l'indexation");
+        verifierEgal("Classeur vert", trouves.get(0).nom, "la version relue ne remplace pas la plus récente");
+        verifier(index.rechercher("bleu", SANS_RELECTURE).isEmpty(), "version relue non indexée");
+    }
+
+    private static void copies() {
+        IndexTrigrammes<Element> index = index(new Element(1, "Agrafeuse", "Papeterie"));
+
+        index.rechercher("agrafeuse", SANS_RELECTURE).get(0).nom = "Modifiée";
+        verifierEgal("Agrafeuse", index.rechercher("agrafeuse", SANS_RELECTURE).get(0).nom,
+                "le contenu de l'index n'est pas modifié par l'appelant");
+    }
+}
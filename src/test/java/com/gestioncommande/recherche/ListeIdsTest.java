@@ -0,0 +1,93 @@
+package com.gestioncommande.recherche;
+
+import static com.gestioncommande.Verifications.bilan;
+import static com.gestioncommande.Verifications.verifier;
+import static com.gestioncommande.Verifications.verifierEgal;
+
+/**
+ * Tests de ListeIds : ajout trié sans doublon, retrait et recherche depuis une position.
+ */
+public class ListeIdsTest {
+
+    public static void main(String[] args) {
+        ajoutTrieSansDoublon();
+        agrandissement();
+        retrait();
+        chercherDepuis();
+        System.exit(bilan("ListeIdsTest"));
+    }
+
+    private static ListeIds liste(int... ids) {
+        ListeIds liste = new ListeIds();
+        for (int id : ids) {
+            liste.ajouter(id);
+        }
+        return liste;
+    }
+
+    private static String contenu(ListeIds liste) {
+        StringBuilder texte = new StringBuilder("[");
+        for (int i = 0; i < liste.taille(); i++) {
+            texte.append(i == 0 ? "" : ", ").append(liste.get(i));
+        }
+        return texte.append(']').toString();
+    }
+
+    // ========== TESTS ==========
+
+    private static void ajoutTrieSansDoublon() {
+        verifier(new ListeIds().estVide(), "liste neuve vide");
+        verifierEgal("[1, 3, 5, 7]", contenu(liste(1, 3, 5, 7)), "ajout en fin");
+        verifierEgal("[1, 2, 4, 8, 9]", contenu(liste(8, 2, 9, 1, 4)), "ajout dans le désordre");
+        verifierEgal("[1, 2, 3]", contenu(liste(2, 1, 2, 3, 1, 3)), "doublons ignorés");
+    }
+
+    private static void agrandissement() {
+        ListeIds liste = new ListeIds();
+        for (int id = 1000; id > 0; id--) {
+            liste.ajouter(id);
+        }
+        verifierEgal(1000, liste.taille(), "taille après 1000 ajouts");
+        boolean trie = true;
+        for (int i = 0; i < liste.taille(); i++) {
+            trie &= liste.get(i) == i + 1;
+        }
+        verifier(trie, "identifiants triés après agrandissements");
+    }
+
+    private static void retrait() {
+        ListeIds liste = liste(1, 2, 3, 4, 5);
+        liste.retirer(1);
+        liste.retirer(3);
+        liste.retirer(5);
+        liste.retirer(42);
+        verifierEgal("[2, 4]", contenu(liste), "retrait en tête, au milieu, en fin et absent");
+        liste.retirer(2);
+        liste.retirer(4);
+        verifier(liste.estVide(), "liste vide après retrait de tous les identifiants");
+    }
+
+    private static void chercherDepuis() {
+        ListeIds liste = liste(2, 4, 6, 8, 10, 12, 14, 16, 18, 20);
+
+        verifierEgal(0, liste.chercherDepuis(0, 1), "inférieur au premier");
+        verifierEgal(0, liste.chercherDepuis(0, 2), "premier");
+        verifierEgal(3, liste.chercherDepuis(0, 8), "identifiant présent");
+        verifierEgal(3, liste.chercherDepuis(0, 7), "identifiant absent : suivant");
+        verifierEgal(9, liste.chercherDepuis(0, 20), "dernier");
+        verifierEgal(10, liste.chercherDepuis(0, 21), "supérieur au dernier : taille");
+        verifierEgal(6, liste.chercherDepuis(5, 13), "depuis une position");
+        verifierEgal(5, liste.chercherDepuis(5, 3), "ne revient pas avant la position de départ");
+
+        // Parcours par identifiants croissants, comme l'intersection de l'index
+        int[] cherches = {3, 6, 7, 15, 20};
+        int[] attendues = {1, 2, 3, 7, 9};
+        int position = 0;
+        boolean conforme = true;
+        for (int i = 0; i < cherches.length; i++) {
+            position = liste.chercherDepuis(position, cherches[i]);
+            conforme &= position == attendues[i];
+        }
+        verifier(conforme, "recherches successives croissantes");
+    }
+}
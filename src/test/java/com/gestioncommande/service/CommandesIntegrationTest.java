@@ -0,0 +1,299 @@
+package com.gestioncommande.service;
+
+import static com.gestioncommande.Verifications.bilan;
+import static com.gestioncommande.Verifications.verifier;
+import static com.gestioncommande.Verifications.verifierEgal;
+
+import com.gestioncommande.dao.ArticleDAO;
+import com.gestioncommande.dao.CompteursStock;
+import com.gestioncommande.dao.DatabaseConnection;
+import com.gestioncommande.dao.ReservationsStock;
+import com.gestioncommande.dao.ResultatMiseAJour;
+import com.gestioncommande.entities.Commande;
+import com.gestioncommande.service.CommandeService.ResultatAnnulation;
+import com.gestioncommande.service.CommandeService.ResultatCreation;
+import com.gestioncommande.service.CommandeService.ResultatModification;
+import com.gestioncommande.service.CommandeService.ResultatValidation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Tests d'intégration du stock des commandes sur la base embarquée neuve (données d'exemple de
+ * create_database.sql) : réservation à la création, modification, validation, annulation et
+ * réapprovisionnement.
+ * Exécutés par scripts/tests.sh avec et sans décompte du stock en mémoire et regroupement des
+ * réapprovisionnements (CompteursStock).
+ */
+public class CommandesIntegrationTest {
+
+    // Articles d'exemple : stock initial
+    private static final int SOURIS = 2;           // 50
+    private static final int CHAISE = 3;           // 8, réservé par la commande d'exemple 3
+    private static final int CAFETIERE = 5;        // 12
+    private static final int SMARTPHONE = 6;       // 6
+
+    /** Commande d'exemple en cours sur la chaise (2 unités) */
+    private static final int COMMANDE_CHAISE = 3;
+
+    private static CommandeService service;
+    private static CompteursStock compteurs;
+    private static ReservationsStock reservations;
+    private static ArticleDAO articleDAO;
+
+    public static void main(String[] args) throws SQLException {
+        DatabaseConnection.initialiser();
+        // Réservation faite avant le démarrage (par une exécution précédente)
+        executer("UPDATE commandes SET quantite_reservee = 2 WHERE id = " + COMMANDE_CHAISE);
+        executer("UPDATE articles SET stock_reserve = 2 WHERE id = " + CHAISE);
+
+        service = new CommandeService();
+        compteurs = new CompteursStock();
+        reservations = new ReservationsStock();
+        articleDAO = new ArticleDAO();
+
+        reservesAuDemarrage();
+        creationEtValidation();
+        annulation();
+        validationDUneReservationExistante();
+        stockInsuffisant();
+        validationApresModificationDuStock();
+        modificationPuisValidation();
+        changementDArticle();
+        stockInferieurAuReserve();
+        reapprovisionnement();
+
+        DatabaseConnection.closeConnection();
+        coherenceFinale();
+        System.exit(bilan("CommandesIntegrationTest"));
+    }
+
+    // ========== TESTS ==========
+
+    private static void reservesAuDemarrage() throws SQLException {
+        verifierEgal(2, reservations.getQuantiteReservee(CHAISE), "réservation chargée au démarrage");
+        verifierDisponible(CHAISE, 8 - 2, "réservation comptée une seule fois au démarrage");
+    }
+
+    private static void creationEtValidation() throws SQLException {
+        Commande commande = nouvelleCommande(SOURIS, 5);
+        verifierEgal(ResultatCreation.CREEE, service.effectuerCommande(commande), "création");
+        verifierEgal(5, reservations.getQuantiteReservee(SOURIS), "quantité réservée à la création");
+        verifierDisponible(SOURIS, 45, "disponible après réservation");
+
+        verifierEgal(ResultatValidation.VALIDEE, service.validerCommande(commande.getId()), "validation");
+        verifierEgal(ResultatValidation.DEJA_VALIDEE, service.validerCommande(commande.getId()), "seconde validation");
+        verifierEgal(0, reservations.getQuantiteReservee(SOURIS), "réservation consommée");
+        verifierDisponible(SOURIS, 45, "disponible après validation");
+        verifierEnBase(SOURIS, 45, 0, "stock et réservation en base après validation");
+    }
+
+    private static void annulation() throws SQLException {
+        Commande commande = nouvelleCommande(SOURIS, 3);
+        verifierEgal(ResultatCreation.CREEE, service.effectuerCommande(commande), "création avant annulation");
+        verifierDisponible(SOURIS, 42, "disponible après réservation");
+
+        verifierEgal(ResultatAnnulation.ANNULEE, service.annulerCommande(commande.getId()), "annulation");
+        verifierEgal(ResultatAnnulation.DEJA_ANNULEE, service.annulerCommande(commande.getId()), "seconde annulation");
+        verifierEgal(ResultatValidation.ANNULEE, service.validerCommande(commande.getId()), "validation refusée après annulation");
+        verifierEgal(0, reservations.getQuantiteReservee(SOURIS), "réservation libérée");
+        verifierDisponible(SOURIS, 45, "disponible après annulation");
+        verifierEnBase(SOURIS, 45, 0, "stock et réservation en base après annulation");
+    }
+
+    private static void validationDUneReservationExistante() throws SQLException {
+        verifierEgal(ResultatValidation.VALIDEE, service.validerCommande(COMMANDE_CHAISE), "validation de la commande d'exemple");
+        verifierEgal(0, reservations.getQuantiteReservee(CHAISE), "réservation du démarrage consommée");
+        verifierDisponible(CHAISE, 6, "disponible après validation");
+        verifierEnBase(CHAISE, 6, 0, "stock et réservation en base");
+    }
+
+    private static void stockInsuffisant() throws SQLException {
+        Commande premiere = nouvelleCommande(SMARTPHONE, 6);
+        verifierEgal(ResultatCreation.CREEE, service.effectuerCommande(premiere), "réservation de tout le stock");
+        verifierEgal(ResultatCreation.STOCK_INSUFFISANT, service.effectuerCommande(nouvelleCommande(SMARTPHONE, 1)),
+                "création refusée : stock entièrement réservé");
+
+        // Commande sans réservation (expirée) : le stock réservé par les autres n'est pas entamé
+        executer("INSERT INTO commandes (client_id, article_id, quantite, prix_unitaire, montant_total, type_commande, statut) "
+                + "VALUES (1, " + SMARTPHONE + ", 1, 699.99, 699.99, 'en_cours', 'en_attente')");
+        int idSansReservation = dernierIdCommande();
+        verifierEgal(ResultatValidation.STOCK_INSUFFISANT, service.validerCommande(idSansReservation),
+                "validation refusée : stock réservé par une autre commande");
+
+        verifierEgal(ResultatValidation.VALIDEE, service.validerCommande(premiere.getId()), "validation de la réservation");
+        verifierDisponible(SMARTPHONE, 0, "stock épuisé");
+        verifierEnBase(SMARTPHONE, 0, 0, "stock épuisé en base");
+        verifierEgal(ResultatValidation.STOCK_INSUFFISANT, service.validerCommande(idSansReservation),
+                "validation refusée : stock épuisé");
+    }
+
+    private static void validationApresModificationDuStock() throws SQLException {
+        Commande commande = nouvelleCommande(CAFETIERE, 2);
+        verifierEgal(ResultatCreation.CREEE, service.effectuerCommande(commande), "création avant modification du stock");
+        // Saisie directe du stock : le compteur de l'article est périmé et relu avant le décompte
+        verifier(articleDAO.modifierStock(CAFETIERE, 20), "modification du stock");
+
+        verifierEgal(ResultatValidation.VALIDEE, service.validerCommande(commande.getId()), "validation après modification");
+        verifierDisponible(CAFETIERE, 18, "disponible après relecture du compteur");
+        verifierEnBase(CAFETIERE, 18, 0, "stock en base après modification et validation");
+    }
+
+    private static void modificationPuisValidation() throws SQLException {
+        Commande commande = nouvelleCommande(CAFETIERE, 2);
+        verifierEgal(ResultatCreation.CREEE, service.effectuerCommande(commande), "création avant modification");
+        Commande lue = service.trouverCommandeParId(commande.getId());
+
+        // Hausse : la différence est réservée
+        Commande hausse = service.trouverCommandeParId(commande.getId());
+        hausse.setQuantite(10);
+        verifierEgal(ResultatModification.MODIFIEE, service.modifierCommande(hausse), "hausse de la quantité");
+        verifierEgal(10, reservations.getQuantiteReservee(CAFETIERE), "hausse réservée");
+        verifierDisponible(CAFETIERE, 8, "disponible après la hausse");
+        verifierEnBase(CAFETIERE, 18, 10, "réservation en base après la hausse");
+        verifierEgal(ResultatCreation.STOCK_INSUFFISANT, service.effectuerCommande(nouvelleCommande(CAFETIERE, 9)),
+                "création refusée : la hausse a réservé le stock");
+
+        hausse.setQuantite(30);
+        verifierEgal(ResultatModification.STOCK_INSUFFISANT, service.modifierCommande(hausse),
+                "hausse refusée : stock disponible insuffisant");
+        lue.setQuantite(1);
+        verifierEgal(ResultatModification.CONFLIT, service.modifierCommande(lue), "modification d'une version dépassée");
+        verifierEgal(10, reservations.getQuantiteReservee(CAFETIERE), "réservation inchangée après les refus");
+
+        // Baisse : la différence est rendue à l'article
+        hausse.setQuantite(4);
+        verifierEgal(ResultatModification.MODIFIEE, service.modifierCommande(hausse), "baisse de la quantité");
+        verifierEgal(4, reservations.getQuantiteReservee(CAFETIERE), "baisse libérée");
+        verifierEnBase(CAFETIERE, 18, 4, "réservation en base après la baisse");
+
+        verifierEgal(ResultatValidation.VALIDEE, service.validerCommande(commande.getId()), "validation après modification");
+        verifierEgal(0, reservations.getQuantiteReservee(CAFETIERE), "réservation modifiée consommée");
+        verifierDisponible(CAFETIERE, 14, "disponible après validation de la commande modifiée");
+        verifierEnBase(CAFETIERE, 14, 0, "stock en base après validation de la commande modifiée");
+        verifierEgal(ResultatModification.NON_MODIFIABLE, service.modifierCommande(service.trouverCommandeParId(commande.getId())),
+                "commande validée non modifiable");
+    }
+
+    private static void changementDArticle() throws SQLException {
+        Commande commande = nouvelleCommande(CAFETIERE, 3);
+        verifierEgal(ResultatCreation.CREEE, service.effectuerCommande(commande), "création avant changement d'article");
+
+        Commande modifiee = service.trouverCommandeParId(commande.getId());
+        modifiee.setArticleId(CHAISE);
+        verifierEgal(ResultatModification.MODIFIEE, service.modifierCommande(modifiee), "changement d'article");
+        verifierEgal(0, reservations.getQuantiteReservee(CAFETIERE), "ancien article libéré");
+        verifierEgal(3, reservations.getQuantiteReservee(CHAISE), "nouvel article réservé");
+        verifierEnBase(CAFETIERE, 14, 0, "ancien article en base");
+        verifierEnBase(CHAISE, 6, 3, "nouvel article en base");
+
+        verifierEgal(ResultatAnnulation.ANNULEE, service.annulerCommande(commande.getId()), "annulation après changement d'article");
+        verifierEnBase(CHAISE, 6, 0, "réservation du nouvel article libérée");
+    }
+
+    private static void stockInferieurAuReserve() throws SQLException {
+        Commande commande = nouvelleCommande(CAFETIERE, 5);
+        verifierEgal(ResultatCreation.CREEE, service.effectuerCommande(commande), "réservation avant saisie du stock");
+
+        verifier(!articleDAO.modifierStock(CAFETIERE, 4), "saisie refusée : stock inférieur au réservé");
+        verifierEgal(ResultatMiseAJour.STOCK_RESERVE, articleDAO.modifierStock(articleDAO.trouverParIdSansCache(CAFETIERE), 4),
+                "saisie protégée refusée : stock inférieur au réservé");
+        verifierEnBase(CAFETIERE, 14, 5, "stock inchangé après les refus");
+        verifier(articleDAO.modifierStock(CAFETIERE, 5), "saisie acceptée : stock égal au réservé");
+
+        verifierEgal(ResultatAnnulation.ANNULEE, service.annulerCommande(commande.getId()), "annulation après saisie du stock");
+        verifierEnBase(CAFETIERE, 5, 0, "stock et réservation en base après annulation");
+    }
+
+    private static void reapprovisionnement() throws SQLException {
+        verifier(articleDAO.incrementerStock(SOURIS, 10), "réapprovisionnement accepté");
+        // Regroupement : l'ajout est seulement mis en attente, la table n'en tient pas encore compte
+        verifierEgal(ArticleDAO.isReapprovisionnementDiffere() ? 45 : 55, lireStock(SOURIS),
+                "stock en base avant l'écriture des mouvements en attente");
+        verifierEnBase(SOURIS, 55, 0, "stock en base après réapprovisionnement");
+
+        Commande commande = nouvelleCommande(SOURIS, 55);
+        verifierEgal(ResultatCreation.CREEE, service.effectuerCommande(commande), "réservation du stock réapprovisionné");
+        verifierEgal(ResultatValidation.VALIDEE, service.validerCommande(commande.getId()), "validation du stock réapprovisionné");
+        verifierDisponible(SOURIS, 0, "disponible après validation du stock réapprovisionné");
+        verifierEnBase(SOURIS, 0, 0, "stock en base après validation");
+    }
+
+    /**
+     * Après la fermeture du pool (qui écrit les mouvements en attente) : aucun mouvement ne reste
+     * dans stock_en_attente et la réservation de chaque article est celle de ses commandes en cours
+     */
+    private static void coherenceFinale() throws SQLException {
+        DatabaseConnection.initialiser();
+        verifierEgal(0, compter("SELECT COUNT(*) FROM stock_en_attente"), "aucun mouvement en attente après la fermeture");
+        verifierEgal(0, compter("SELECT COUNT(*) FROM articles a WHERE a.stock_reserve <> "
+                + "(SELECT COALESCE(SUM(c.quantite_reservee), 0) FROM commandes c "
+                + "WHERE c.article_id = a.id AND c.type_commande = 'en_cours')"),
+                "réservation de chaque article égale à celle de ses commandes en cours");
+        verifierEgal(0, compter("SELECT COUNT(*) FROM articles WHERE stock < 0"), "aucun stock négatif");
+        DatabaseConnection.closeConnection();
+    }
+
+    // ========== OUTILS ==========
+
+    private static Commande nouvelleCommande(int articleId, int quantite) {
+        Commande commande = new Commande();
+        commande.setClientId(1);
+        commande.setArticleId(articleId);
+        commande.setQuantite(quantite);
+        return commande;
+    }
+
+    /**
+     * Vérifie le stock disponible selon le compteur en mémoire (décompte en mémoire actif seulement)
+     */
+    private static void verifierDisponible(int articleId, int attendu, String description) {
+        if (compteurs.isActif()) {
+            verifierEgal(attendu, compteurs.getDisponible(articleId), description + " (compteur)");
+        }
+    }
+
+    /**
+     * Vérifie le stock et la réservation en base, après écriture des mouvements en attente
+     */
+    private static void verifierEnBase(int articleId, int stock, int reserve, String description) throws SQLException {
+        compteurs.ecrire();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT stock, stock_reserve FROM articles WHERE id=?")) {
+            statement.setInt(1, articleId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                verifier(resultSet.next(), description + " : article trouvé");
+                verifierEgal(stock + "/" + reserve, resultSet.getInt(1) + "/" + resultSet.getInt(2),
+                        description + " (stock/réservé)");
+            }
+        }
+    }
+
+    private static int lireStock(int articleId) throws SQLException {
+        return compter("SELECT stock FROM articles WHERE id = " + articleId);
+    }
+
+    private static void executer(String sql) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    private static int compter(String sql) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static int dernierIdCommande() throws SQLException {
+        return compter("SELECT MAX(id) FROM commandes");
+    }
+}